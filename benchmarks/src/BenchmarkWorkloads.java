@@ -0,0 +1,251 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Fixtures for the JMH benchmarks in {@code benchmarks/src/benchmarks}.
+ *
+ * JMH only accepts benchmark classes in a named package, and named packages cannot
+ * refer to the engine classes in the default package. The benchmarks therefore look
+ * this class up once during setup and measure the returned workloads, which call
+ * straight into the engine.
+ */
+public class BenchmarkWorkloads {
+
+    // Laps per simulated race, close to a real Grand Prix distance
+    public static final int RACE_LAPS = 50;
+
+    // Records in the decodeScenario file
+    private static final int SCENARIO_RECORDS = 4096;
+
+    // Tracks in the TrackIndex workloads
+    private static final int INDEXED_TRACKS = 100_000;
+
+    private BenchmarkWorkloads() {
+    }
+
+    /**
+     * Returns the named workload.
+     *
+     * @param name workload name, matching the benchmark method
+     * @param param benchmark parameter (stint count, "valid"/"invalid", kit name), may be null
+     */
+    public static Supplier<Object> create(String name, String param) {
+        Car car = createCar();
+        Track track = Track.createSilverstoneTrack();
+        Weather weather = Weather.createDryWeather();
+
+        switch (name) {
+            case "simulateRace": {
+                RaceSimulator simulator = new RaceSimulator(RACE_LAPS);
+                RaceStrategy strategy = strategyWithStints(Integer.parseInt(param));
+                return () -> simulator.simulateRace(car, track, strategy, weather);
+            }
+            case "expectedRaceTime": {
+                RaceSimulator simulator = new RaceSimulator(RACE_LAPS);
+                RaceStrategy strategy = strategyWithStints(Integer.parseInt(param));
+                return () -> simulator.expectedRaceTime(car, track, strategy, weather);
+            }
+            case "simulateLap": {
+                RaceSimulator simulator = new RaceSimulator(RACE_LAPS);
+                return () -> simulator.simulateLap(car, track, weather);
+            }
+            case "createCarPerformance":
+                return () -> PerformanceCalculator.createCarPerformance(car, track);
+            case "validateRaceSetup": {
+                Car setupCar = setupCar(car, param);
+                RaceStrategy strategy = RaceStrategy.createBalancedStrategy();
+                return () -> {
+                    try {
+                        return Validator.validateRaceSetup(setupCar, track, strategy);
+                    } catch (InvalidCarConfigurationException | InvalidTrackDataException
+                             | InvalidStrategyException e) {
+                        return e;
+                    }
+                };
+            }
+            case "cachedValidateRaceSetup": {
+                Car setupCar = setupCar(car, param);
+                RaceStrategy strategy = RaceStrategy.createBalancedStrategy();
+                ValidationCache cache = new ValidationCache();
+                return () -> {
+                    try {
+                        return cache.validateRaceSetup(setupCar, track, strategy);
+                    } catch (InvalidCarConfigurationException | InvalidTrackDataException
+                             | InvalidStrategyException e) {
+                        return e;
+                    }
+                };
+            }
+            case "screenRaceSetup": {
+                Car setupCar = setupCar(car, param);
+                RaceStrategy strategy = RaceStrategy.createBalancedStrategy();
+                return () -> Validator.screenRaceSetup(setupCar, track, strategy);
+            }
+            case "ruleSetFirstError": {
+                Car setupCar = setupCar(car, param);
+                RaceStrategy strategy = RaceStrategy.createBalancedStrategy();
+                RuleSet.Evaluator evaluator = RuleSet.standard().newEvaluator();
+                return () -> evaluator.firstError(setupCar, track, strategy);
+            }
+            case "getKitByName":
+                return () -> AeroKitFactory.getKitByName(param);
+            case "getTyreCompoundsForStints": {
+                RaceStrategy strategy = new RaceStrategy(2, "Soft-Medium-Hard", "Medium", 95.0);
+                int stints = Integer.parseInt(param);
+                return () -> strategy.getTyreCompoundsForStints(stints);
+            }
+            case "parseBatchJob": {
+                String line = "Benchmark Car,turbo,medium,Ground Effect Kit,950,Silverstone,balanced,dry,50,1,42";
+                return () -> BatchJob.parse(line, 1);
+            }
+            case "decodeScenario": {
+                ScenarioFile.Mapped file = scenarioFile(car, track, weather);
+                ScenarioFile.Scenario scenario = new ScenarioFile.Scenario();
+                long[] next = {0};
+                return () -> {
+                    file.read(next[0]++ % SCENARIO_RECORDS, scenario);
+                    return scenario;
+                };
+            }
+            case "recommendAeroKits": {
+                AeroKitRecommender recommender = new AeroKitRecommender(largeCatalog());
+                recommender.setThreads(Integer.parseInt(param));
+                return () -> {
+                    try {
+                        return recommender.recommend(track, weather);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return e;
+                    }
+                };
+            }
+            case "optimiseSetup": {
+                SetupOptimiser optimiser = new SetupOptimiser(ComponentCatalog.standard());
+                optimiser.setThreads(Integer.parseInt(param));
+                return () -> {
+                    try {
+                        return optimiser.optimise(track, weather);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return e;
+                    }
+                };
+            }
+            case "trackIndexNearest": {
+                TrackIndex index = new TrackIndex(syntheticTracks());
+                return () -> index.findNearest(track, 10);
+            }
+            case "trackScanNearest": {
+                // Brute-force baseline for trackIndexNearest: a full sort by distance
+                List<Track> tracks = syntheticTracks();
+                TrackIndex index = new TrackIndex(tracks);
+                return () -> {
+                    List<Track> sorted = new ArrayList<>(tracks);
+                    sorted.sort(Comparator.comparingDouble(t -> index.distance(track, t)));
+                    return sorted.subList(0, 10);
+                };
+            }
+            case "trackIndexRange": {
+                TrackIndex index = new TrackIndex(syntheticTracks());
+                return () -> index.findInRange(4.5, 6.0, 10, 18);
+            }
+            default:
+                throw new IllegalArgumentException("Unknown workload: " + name);
+        }
+    }
+
+    // A temporary scenario file of the benchmark setup, deleted when the JVM exits
+    private static ScenarioFile.Mapped scenarioFile(Car car, Track track, Weather weather) {
+        try {
+            Path path = Files.createTempFile("benchmark", ".scenarios");
+            path.toFile().deleteOnExit();
+            ScenarioFile.Catalog catalog = new ScenarioFile.Catalog();
+            int name = catalog.addCarName(car.getName());
+            int engine = catalog.addEngine(car.getEngine());
+            int tyre = catalog.addTyre(car.getFrontTyres());
+            int kit = catalog.addAeroKit(car.getAeroKit());
+            int trackId = catalog.addTrack(track);
+            int weatherId = catalog.addWeather(weather);
+            int strategy = catalog.addStrategy(RaceStrategy.createBalancedStrategy());
+            try (ScenarioFile.Writer writer = ScenarioFile.newWriter(path, catalog)) {
+                for (int i = 0; i < SCENARIO_RECORDS; i++) {
+                    writer.write(name, engine, tyre, kit, car.getWeight(), trackId, weatherId, strategy, RACE_LAPS, 1, i);
+                }
+            }
+            return ScenarioFile.map(path);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // The standard catalog plus 12 engines, 10 tyres and 40 kits: about 8,000 pairings
+    private static ComponentCatalog largeCatalog() {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            lines.append("engine, Engine ").append(i).append(", ").append(160 + i * 25).append(", 9.0, 170\n");
+        }
+        for (int i = 0; i < 10; i++) {
+            lines.append("tyre, Tyre ").append(i).append(", 0.8, ").append(10 + i * 3).append(", 90, 0.08, -1.0\n");
+        }
+        for (int i = 0; i < 40; i++) {
+            lines.append("aerokit, Kit ").append(i).append(", 0.3, ").append(150 + i * 5).append(", 220\n");
+        }
+        try {
+            Path path = Files.createTempFile("benchmark", ".catalog");
+            path.toFile().deleteOnExit();
+            Files.writeString(path, lines);
+            return ComponentCatalog.load(path, ComponentCatalog.standard());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Seeded, so every fork indexes the same tracks
+    private static List<Track> syntheticTracks() {
+        Random random = new Random(42);
+        String[] difficulties = {"Easy", "Medium", "Hard"};
+        List<Track> tracks = new ArrayList<>(INDEXED_TRACKS);
+        for (int i = 0; i < INDEXED_TRACKS; i++) {
+            tracks.add(new Track("Track " + i, 2.0 + random.nextDouble() * 6.0, 5 + random.nextInt(21),
+                    difficulties[random.nextInt(3)], "Smooth"));
+        }
+        return tracks;
+    }
+
+    private static Car createCar() {
+        return new Car(1, "Benchmark Car", 950.0,
+                Engine.createTurboEngine(),
+                Tyre.createMediumTyre(),
+                Tyre.createMediumTyre(),
+                AeroKit.createGroundEffectKit());
+    }
+
+    // The benchmark car, or an overweight one that fails car validation
+    private static Car setupCar(Car car, String param) {
+        if ("valid".equals(param)) {
+            return car;
+        }
+        return new Car(2, "Overweight", 2000.0, Engine.createTurboEngine(),
+                Tyre.createSoftTyre(), Tyre.createSoftTyre(), AeroKit.createLowDragKit());
+    }
+
+    private static RaceStrategy strategyWithStints(int stints) {
+        switch (stints) {
+            case 1:
+                return new RaceStrategy(0, "Hard", "Heavy", 100.0);
+            case 3:
+                return new RaceStrategy(2, "Medium-Hard-Medium", "Medium", 95.0);
+            case 5:
+                return new RaceStrategy(4, "Soft-Medium-Soft-Medium-Soft", "Light", 90.0);
+            default:
+                return new RaceStrategy(stints - 1, "Medium", "Medium", 95.0);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Batch input cost per scenario: parsing a text job line with {@code BatchJob.parse}
+ * against decoding a mapped {@code ScenarioFile} record.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class BatchInputBenchmark {
+
+    private Supplier<Object> parseBatchJob;
+    private Supplier<Object> decodeScenario;
+
+    @Setup
+    public void setUp() {
+        parseBatchJob = Workloads.load("parseBatchJob", null);
+        decodeScenario = Workloads.load("decodeScenario", null);
+    }
+
+    @Benchmark
+    public Object parseBatchJob() {
+        return parseBatchJob.get();
+    }
+
+    @Benchmark
+    public Object decodeScenario() {
+        return decodeScenario.get();
+    }
+}
@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Component lookups: {@code AeroKitFactory.getKitByName} (last kit in the list) and
+ * {@code RaceStrategy.getTyreCompoundsForStints}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class CatalogBenchmark {
+
+    private Supplier<Object> getKitByName;
+    private Supplier<Object> getTyreCompoundsForStints;
+
+    @Setup
+    public void setUp() {
+        getKitByName = Workloads.load("getKitByName", "Extreme Aero Kit");
+        getTyreCompoundsForStints = Workloads.load("getTyreCompoundsForStints", "5");
+    }
+
+    @Benchmark
+    public Object getKitByName() {
+        return getKitByName.get();
+    }
+
+    @Benchmark
+    public Object getTyreCompoundsForStints() {
+        return getTyreCompoundsForStints.get();
+    }
+}
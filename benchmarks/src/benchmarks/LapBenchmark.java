@@ -0,0 +1,47 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Lap-level kernels: {@code RaceSimulator.simulateLap} and
+ * {@code PerformanceCalculator.createCarPerformance}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class LapBenchmark {
+
+    private Supplier<Object> simulateLap;
+    private Supplier<Object> createCarPerformance;
+
+    @Setup
+    public void setUp() {
+        simulateLap = Workloads.load("simulateLap", null);
+        createCarPerformance = Workloads.load("createCarPerformance", null);
+    }
+
+    @Benchmark
+    public Object simulateLap() {
+        return simulateLap.get();
+    }
+
+    @Benchmark
+    public Object createCarPerformance() {
+        return createCarPerformance.get();
+    }
+}
@@ -0,0 +1,53 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Searches over the catalog for one track, on one thread and on four: ranking the aero
+ * kits of a catalog with about 8,000 kit, engine and tyre pairings
+ * ({@code AeroKitRecommender.recommend}), and the whole-car setup search over the
+ * standard catalog ({@code SetupOptimiser.optimise}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class RecommenderBenchmark {
+
+    @Param({"1", "4"})
+    public String threads;
+
+    private Supplier<Object> recommendAeroKits;
+    private Supplier<Object> optimiseSetup;
+
+    @Setup
+    public void setUp() {
+        recommendAeroKits = Workloads.load("recommendAeroKits", threads);
+        optimiseSetup = Workloads.load("optimiseSetup", threads);
+    }
+
+    @Benchmark
+    public Object recommendAeroKits() {
+        return recommendAeroKits.get();
+    }
+
+    @Benchmark
+    public Object optimiseSetup() {
+        return optimiseSetup.get();
+    }
+}
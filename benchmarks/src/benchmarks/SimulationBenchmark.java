@@ -0,0 +1,51 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Full race simulation ({@code RaceSimulator.simulateRace}) for 1, 3 and 5 stint strategies,
+ * and its closed-form mean ({@code RaceSimulator.expectedRaceTime}).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class SimulationBenchmark {
+
+    @Param({"1", "3", "5"})
+    public String stints;
+
+    private Supplier<Object> simulateRace;
+    private Supplier<Object> expectedRaceTime;
+
+    @Setup
+    public void setUp() {
+        simulateRace = Workloads.load("simulateRace", stints);
+        expectedRaceTime = Workloads.load("expectedRaceTime", stints);
+    }
+
+    @Benchmark
+    public Object simulateRace() {
+        return simulateRace.get();
+    }
+
+    @Benchmark
+    public Object expectedRaceTime() {
+        return expectedRaceTime.get();
+    }
+}
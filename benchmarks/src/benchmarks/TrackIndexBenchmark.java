@@ -0,0 +1,54 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Similarity and range queries over 100,000 tracks: {@code TrackIndex} against a
+ * sort of every track by distance.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class TrackIndexBenchmark {
+
+    private Supplier<Object> indexNearest;
+    private Supplier<Object> scanNearest;
+    private Supplier<Object> indexRange;
+
+    @Setup
+    public void setUp() {
+        indexNearest = Workloads.load("trackIndexNearest", null);
+        scanNearest = Workloads.load("trackScanNearest", null);
+        indexRange = Workloads.load("trackIndexRange", null);
+    }
+
+    @Benchmark
+    public Object indexNearest() {
+        return indexNearest.get();
+    }
+
+    @Benchmark
+    public Object scanNearest() {
+        return scanNearest.get();
+    }
+
+    @Benchmark
+    public Object indexRange() {
+        return indexRange.get();
+    }
+}
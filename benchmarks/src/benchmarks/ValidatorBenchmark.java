@@ -0,0 +1,66 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * {@code Validator.validateRaceSetup} with and without a {@code ValidationCache}, the
+ * non-throwing {@code Validator.screenRaceSetup} and the compiled standard {@code RuleSet},
+ * on a valid setup and on one that fails car validation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+public class ValidatorBenchmark {
+
+    @Param({"valid", "invalid"})
+    public String setup;
+
+    private Supplier<Object> validateRaceSetup;
+    private Supplier<Object> cachedValidateRaceSetup;
+    private Supplier<Object> screenRaceSetup;
+    private Supplier<Object> ruleSetFirstError;
+
+    @Setup
+    public void setUp() {
+        validateRaceSetup = Workloads.load("validateRaceSetup", setup);
+        cachedValidateRaceSetup = Workloads.load("cachedValidateRaceSetup", setup);
+        screenRaceSetup = Workloads.load("screenRaceSetup", setup);
+        ruleSetFirstError = Workloads.load("ruleSetFirstError", setup);
+    }
+
+    @Benchmark
+    public Object validateRaceSetup() {
+        return validateRaceSetup.get();
+    }
+
+    @Benchmark
+    public Object cachedValidateRaceSetup() {
+        return cachedValidateRaceSetup.get();
+    }
+
+    @Benchmark
+    public Object screenRaceSetup() {
+        return screenRaceSetup.get();
+    }
+
+    @Benchmark
+    public Object ruleSetFirstError() {
+        return ruleSetFirstError.get();
+    }
+}
@@ -0,0 +1,26 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.function.Supplier;
+
+/**
+ * Looks up workloads from the default-package {@code BenchmarkWorkloads} class.
+ */
+final class Workloads {
+
+    private Workloads() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Supplier<Object> load(String name, String param) {
+        try {
+            return (Supplier<Object>) Class.forName("BenchmarkWorkloads")
+                    .getMethod("create", String.class, String.class)
+                    .invoke(null, name, param);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Could not create workload " + name, e.getCause());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("BenchmarkWorkloads is not on the classpath", e);
+        }
+    }
+}
@@ -3,7 +3,25 @@ import java.util.List;
 
 public class AeroKitFactory {
 
+    /**
+     * Returns the kits of the default {@link ComponentCatalog}.
+     */
     public static List<AeroKit> getAllAvailableKits() {
+        return new ArrayList<>(ComponentCatalog.getDefault().getAeroKits());
+    }
+
+    /**
+     * Returns the kit with this name (ignoring case) from the default
+     * {@link ComponentCatalog}, or null.
+     */
+    public static AeroKit getKitByName(String name) {
+        return ComponentCatalog.getDefault().getAeroKit(name);
+    }
+
+    /**
+     * Creates new instances of the built-in kits, which make up {@link ComponentCatalog#standard()}.
+     */
+    static List<AeroKit> createStandardKits() {
         List<AeroKit> kits = new ArrayList<>();
         kits.add(AeroKit.createStandardKit());
         kits.add(AeroKit.createHighDownforceKit());
@@ -14,15 +32,6 @@ public class AeroKitFactory {
         return kits;
     }
 
-    public static AeroKit getKitByName(String name) {
-        for (AeroKit kit : getAllAvailableKits()) {
-            if (kit.getName().equalsIgnoreCase(name)) {
-                return kit;
-            }
-        }
-        return null;
-    }
-
     public static List<AeroKit> getKitsForTrackType(String trackType) {
         List<AeroKit> recommended = new ArrayList<>();
         switch (trackType.toLowerCase()) {
@@ -0,0 +1,228 @@
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Ranks every catalog {@link AeroKit} for a track and weather by simulated race time,
+ * as a check on the rule in {@link PerformanceCalculator#getBestKitForTrack}.
+ *
+ * Each kit is paired with every engine and tyre compound in the catalog, and the kit is
+ * ranked by its fastest valid pairing. Race times come from
+ * {@link RaceSimulator#expectedRaceTime}, the closed-form mean of the simulation, so a
+ * pairing costs well under a microsecond rather than a simulated race. Large catalogs
+ * are evaluated in parallel, one task per kit; the standard catalog ranks in
+ * microseconds on the calling thread.
+ *
+ * A kit changes lap time through {@link PerformanceCalculator#calculateLapTime}: drag
+ * and top speed on the straights, downforce with tyre grip in the corners, so the
+ * ranking weighs both against the track's mix of corners and straights. Kits with
+ * equal times are ordered by name.
+ */
+public class AeroKitRecommender {
+    // Fewer pairings than this are ranked on the calling thread: starting a pool costs
+    // more than evaluating them
+    static final int PARALLEL_THRESHOLD = 4096;
+
+    private final ComponentCatalog catalog;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int laps = 50;
+    private double carWeight = 950.0;
+    private RaceStrategy strategy = RaceStrategy.createBalancedStrategy();
+
+    /**
+     * Ranks the kits of the default catalog snapshot current at construction.
+     */
+    public AeroKitRecommender() {
+        this(ComponentCatalog.getDefault());
+    }
+
+    public AeroKitRecommender(ComponentCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.catalog = catalog;
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public void setLaps(int laps) {
+        if (laps <= 0) {
+            throw new IllegalArgumentException("Lap count must be positive: " + laps);
+        }
+        this.laps = laps;
+    }
+
+    /**
+     * Sets the chassis weight of the simulated car, without the engine.
+     */
+    public void setCarWeight(double carWeight) {
+        if (carWeight <= 0) {
+            throw new IllegalArgumentException("Car weight must be positive: " + carWeight);
+        }
+        this.carWeight = carWeight;
+    }
+
+    /**
+     * Sets the strategy every pairing races with; the balanced strategy unless set.
+     */
+    public void setStrategy(RaceStrategy strategy) {
+        if (strategy == null) {
+            throw new IllegalArgumentException("Strategy cannot be null");
+        }
+        this.strategy = strategy;
+    }
+
+    /**
+     * Ranks the kits for the track and weather, fastest first. Kits without a pairing
+     * that passes {@link Validator#screenRaceSetup} are left out.
+     */
+    public List<Recommendation> recommend(Track track, Weather weather) throws InterruptedException {
+        if (track == null || weather == null) {
+            throw new IllegalArgumentException("Track and weather cannot be null");
+        }
+        List<AeroKit> kits = catalog.getAeroKits();
+        List<Recommendation> ranking = new ArrayList<>(kits.size());
+        int workers = Math.min(threads, kits.size());
+        long pairings = (long) kits.size() * catalog.getEngines().size() * catalog.getTyres().size();
+        if (workers <= 1 || pairings < PARALLEL_THRESHOLD) {
+            for (AeroKit kit : kits) {
+                addIfValid(ranking, bestPairing(kit, track, weather));
+            }
+        } else {
+            ExecutorService executor = Executors.newFixedThreadPool(workers,
+                    BoundedExecutor.daemonThreads("aero-kit-recommender"));
+            try {
+                List<Future<Recommendation>> pending = new ArrayList<>(kits.size());
+                for (AeroKit kit : kits) {
+                    pending.add(executor.submit(() -> bestPairing(kit, track, weather)));
+                }
+                for (Future<Recommendation> future : pending) {
+                    addIfValid(ranking, future.get());
+                }
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof Error) {
+                    throw (Error) cause;
+                }
+                throw (RuntimeException) cause;
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        ranking.sort(ORDER);
+        if (!ranking.isEmpty()) {
+            double best = ranking.get(0).expectedRaceTime;
+            for (Recommendation recommendation : ranking) {
+                recommendation.delta = recommendation.expectedRaceTime - best;
+            }
+        }
+        return Collections.unmodifiableList(ranking);
+    }
+
+    private static void addIfValid(List<Recommendation> ranking, Recommendation recommendation) {
+        if (recommendation != null) {
+            ranking.add(recommendation);
+        }
+    }
+
+    // Fastest valid engine and tyre pairing for one kit, or null if none is valid
+    private Recommendation bestPairing(AeroKit kit, Track track, Weather weather) {
+        RaceSimulator simulator = new RaceSimulator(laps);
+        simulator.setCatalog(catalog);
+        Car car = new Car(1, "Recommendation", carWeight, null, null, null, kit);
+        Recommendation best = null;
+        for (Engine engine : catalog.getEngines()) {
+            car.setEngine(engine);
+            for (Tyre tyre : catalog.getTyres()) {
+                car.setFrontTyres(tyre);
+                car.setRearTyres(tyre);
+                if (ValidationRule.hasErrors(Validator.screenRaceSetup(car, track, strategy))) {
+                    continue;
+                }
+                double time = simulator.expectedRaceTime(car, track, strategy, weather);
+                if (best == null || time < best.expectedRaceTime) {
+                    best = new Recommendation(kit, engine, tyre, time,
+                            PerformanceCalculator.calculateCorneringAbility(car, track),
+                            PerformanceCalculator.calculateTopSpeed(car));
+                }
+            }
+        }
+        return best;
+    }
+
+    private static final Comparator<Recommendation> ORDER =
+            Comparator.comparingDouble(Recommendation::getExpectedRaceTime)
+                    .thenComparing(r -> r.getAeroKit().getName());
+
+    /**
+     * One kit's place in a ranking, with the pairing that made its time.
+     */
+    public static class Recommendation {
+        private final AeroKit aeroKit;
+        private final Engine engine;
+        private final Tyre tyre;
+        private final double expectedRaceTime;
+        private final int corneringAbility;
+        private final int topSpeed;
+        private double delta;
+
+        Recommendation(AeroKit aeroKit, Engine engine, Tyre tyre, double expectedRaceTime,
+                       int corneringAbility, int topSpeed) {
+            this.aeroKit = aeroKit;
+            this.engine = engine;
+            this.tyre = tyre;
+            this.expectedRaceTime = expectedRaceTime;
+            this.corneringAbility = corneringAbility;
+            this.topSpeed = topSpeed;
+        }
+
+        public AeroKit getAeroKit() {
+            return aeroKit;
+        }
+
+        public Engine getEngine() {
+            return engine;
+        }
+
+        /** Returns the compound fitted front and rear. */
+        public Tyre getTyre() {
+            return tyre;
+        }
+
+        /** Returns the expected race time in minutes, as in {@link RaceResult#getRaceTime()}. */
+        public double getExpectedRaceTime() {
+            return expectedRaceTime;
+        }
+
+        /** Returns how many minutes slower than the first kit of the ranking this one is. */
+        public double getDelta() {
+            return delta;
+        }
+
+        public int getCorneringAbility() {
+            return corneringAbility;
+        }
+
+        public int getTopSpeed() {
+            return topSpeed;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%s engine, %s tyres): %.2f min, +%.2f min, cornering %d, top speed %d",
+                    aeroKit.getName(), engine.getType(), tyre.getCompound(), expectedRaceTime, delta,
+                    corneringAbility, topSpeed);
+        }
+    }
+}
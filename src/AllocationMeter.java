@@ -0,0 +1,74 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * Measures heap bytes allocated by the current thread, using the HotSpot extension
+ * {@code com.sun.management.ThreadMXBean}. On JVMs without it, or with allocation
+ * accounting switched off, {@link #isSupported()} returns false.
+ */
+public final class AllocationMeter {
+    private static final com.sun.management.ThreadMXBean THREADS = lookup();
+
+    private AllocationMeter() {
+    }
+
+    private static com.sun.management.ThreadMXBean lookup() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        if (!(bean instanceof com.sun.management.ThreadMXBean)) {
+            return null;
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        try {
+            if (!threads.isThreadAllocatedMemorySupported()) {
+                return null;
+            }
+            if (!threads.isThreadAllocatedMemoryEnabled()) {
+                threads.setThreadAllocatedMemoryEnabled(true);
+            }
+            return threads;
+        } catch (UnsupportedOperationException | SecurityException e) {
+            return null;
+        }
+    }
+
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Returns the total bytes allocated so far by the calling thread.
+     *
+     * @throws IllegalStateException if allocation accounting is not available
+     */
+    public static long currentThreadAllocatedBytes() {
+        if (THREADS == null) {
+            throw new IllegalStateException("Thread allocation accounting is not supported by this JVM");
+        }
+        return THREADS.getCurrentThreadAllocatedBytes();
+    }
+
+    /**
+     * Returns the total bytes allocated so far by the given thread, or -1 if it is not alive.
+     */
+    public static long threadAllocatedBytes(long threadId) {
+        if (THREADS == null) {
+            throw new IllegalStateException("Thread allocation accounting is not supported by this JVM");
+        }
+        return THREADS.getThreadAllocatedBytes(threadId);
+    }
+
+    /**
+     * Runs the action {@code iterations} times on the calling thread and returns the
+     * average bytes allocated per iteration.
+     */
+    public static double bytesPerIteration(Runnable action, int iterations) {
+        if (iterations <= 0) {
+            throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        }
+        long before = currentThreadAllocatedBytes();
+        for (int i = 0; i < iterations; i++) {
+            action.run();
+        }
+        long after = currentThreadAllocatedBytes();
+        return (double) (after - before) / iterations;
+    }
+}
@@ -0,0 +1,171 @@
+/**
+ * One line of a batch job file: a car, track, strategy and weather to race a number of
+ * times with consecutive seeds.
+ *
+ * Lines are comma-separated:
+ * <pre>
+ * # car,  engine, tyres, aero kit,     weight, track, strategy,                weather, laps, replications, seed
+ * Alpha,  turbo,  soft,  Low Drag Kit, 950,    Monza, 2:Soft-Medium-Hard:Light, dry,     50,   100,          42
+ * </pre>
+ * Components are named as in the default {@link ComponentCatalog} (ignoring case), so
+ * a loaded catalog makes its engines, tracks and so on available here. Engines may
+ * also be {@code turbo}; tracks may also be {@code name:length:corners:difficulty} and
+ * strategies {@code pitStops:tyres:fuel}.
+ */
+public class BatchJob {
+    static final int COLUMNS = 11;
+
+    private final int line;
+    private final Car car;
+    private final Track track;
+    private final RaceStrategy strategy;
+    private final Weather weather;
+    private final int laps;
+    private final int replications;
+    private final long seed;
+
+    public BatchJob(int line, Car car, Track track, RaceStrategy strategy, Weather weather,
+                    int laps, int replications, long seed) {
+        if (laps <= 0 || replications <= 0) {
+            throw new IllegalArgumentException("Laps and replications must be positive");
+        }
+        this.line = line;
+        this.car = car;
+        this.track = track;
+        this.strategy = strategy;
+        this.weather = weather;
+        this.laps = laps;
+        this.replications = replications;
+        this.seed = seed;
+    }
+
+    /**
+     * Parses one job line.
+     *
+     * @param line the line number, kept as the job id in the output
+     * @throws IllegalArgumentException if the line is malformed
+     */
+    public static BatchJob parse(String text, int line) {
+        String[] fields = text.split(",");
+        if (fields.length != COLUMNS) {
+            throw new IllegalArgumentException("Expected " + COLUMNS + " columns, found " + fields.length);
+        }
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = fields[i].trim();
+        }
+        ComponentCatalog catalog = ComponentCatalog.getDefault();
+        Tyre tyres = catalog.getTyre(fields[2]);
+        if (tyres == null) {
+            throw new IllegalArgumentException("Unknown tyre compound: " + fields[2]);
+        }
+        AeroKit kit = catalog.getAeroKit(fields[3]);
+        if (kit == null) {
+            throw new IllegalArgumentException("Unknown aero kit: " + fields[3]);
+        }
+        Weather weather = catalog.getWeather(fields[7]);
+        if (weather == null) {
+            throw new IllegalArgumentException("Unknown weather: " + fields[7]);
+        }
+        Car car = new Car(line, fields[0], parseNumber(fields[4], "weight"), parseEngine(catalog, fields[1]),
+                tyres, tyres, kit);
+        return new BatchJob(line, car, parseTrack(catalog, fields[5]), parseStrategy(catalog, fields[6]), weather,
+                parseCount(fields[8], "laps"), parseCount(fields[9], "replications"),
+                parseWhole(fields[10], "seed"));
+    }
+
+    private static Engine parseEngine(ComponentCatalog catalog, String name) {
+        Engine engine = catalog.getEngine(name);
+        if (engine == null && "turbo".equalsIgnoreCase(name)) {
+            engine = catalog.getEngine("Turbocharged");
+        }
+        if (engine == null) {
+            throw new IllegalArgumentException("Unknown engine: " + name);
+        }
+        return engine;
+    }
+
+    private static Track parseTrack(ComponentCatalog catalog, String spec) {
+        Track track = catalog.getTrack(spec);
+        if (track != null) {
+            return track;
+        }
+        String[] parts = spec.split(":");
+        if (parts.length != 4) {
+            throw new IllegalArgumentException("Track must be a known name or name:length:corners:difficulty: "
+                    + spec);
+        }
+        return new Track(parts[0], parseNumber(parts[1], "track length"),
+                parseCount(parts[2], "corners"), parts[3], "Smooth");
+    }
+
+    private static RaceStrategy parseStrategy(ComponentCatalog catalog, String spec) {
+        RaceStrategy strategy = catalog.getStrategy(spec);
+        if (strategy != null) {
+            return strategy;
+        }
+        String[] parts = spec.split(":");
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Strategy must be a known name or pitStops:tyres:fuel: " + spec);
+        }
+        return new RaceStrategy(parseCount(parts[0], "pit stops"), parts[1], parts[2], 95.0);
+    }
+
+    private static double parseNumber(String value, String what) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    private static int parseCount(String value, String what) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    private static long parseWhole(String value, String what) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    public int getLine() {
+        return line;
+    }
+
+    public Car getCar() {
+        return car;
+    }
+
+    public Track getTrack() {
+        return track;
+    }
+
+    public RaceStrategy getStrategy() {
+        return strategy;
+    }
+
+    public Weather getWeather() {
+        return weather;
+    }
+
+    public int getLaps() {
+        return laps;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    /**
+     * Returns the seed of the first replication; replication {@code r} uses {@code seed + r}.
+     */
+    public long getSeed() {
+        return seed;
+    }
+}
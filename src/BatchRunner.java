@@ -0,0 +1,538 @@
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Runs a {@link BatchJob} file or a binary {@link ScenarioFile} without the interactive
+ * menu and streams every race result to an output file.
+ *
+ * A job file is read line by line on the calling thread. Each job is validated once
+ * (through a shared {@link ValidationCache}, since jobs tend to reuse components) and
+ * its replications are split into tasks for a fixed worker pool. A scenario file is
+ * memory-mapped instead and split into fixed ranges of records; workers decode and
+ * screen their own records, so nothing is parsed on the calling thread. Either way a
+ * semaphore caps the tasks in flight, so memory does not grow with the size of the
+ * input. Rows are written as they complete, so output order follows completion, and
+ * each row carries its job (line number, or record index for scenario files) and
+ * replication. Jobs that fail validation are skipped and reported.
+ *
+ * While a batch runs, the default {@link MetricsRegistry} has gauges for the tasks
+ * waiting for a worker and the entries in the validation cache.
+ */
+public class BatchRunner {
+    /** Largest number of replications one worker task runs. */
+    static final int REPLICATIONS_PER_TASK = 256;
+    /** Number of scenario file records one worker task runs. */
+    static final int RECORDS_PER_TASK = 1024;
+
+    static final String QUEUE_DEPTH_GAUGE = "raceoptimizer_batch_queue_depth";
+    static final String VALIDATION_CACHE_GAUGE = "raceoptimizer_validation_cache_entries";
+
+    public enum Format {
+        /** Comma-separated with a header row. */
+        CSV,
+        /** One JSON object per line. */
+        JSONL,
+        /**
+         * A {@link ResultFile}; the job (line or scenario record index) and replication
+         * are stored only as the scenario hash, so outputs of the same batch file pair
+         * up in {@link ResultDiff}.
+         */
+        BINARY
+    }
+
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private Format format = Format.CSV;
+    private Duration progressInterval = Duration.ofSeconds(5);
+    private PrintStream progressOutput = System.err;
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public void setFormat(Format format) {
+        if (format == null) {
+            throw new IllegalArgumentException("Format cannot be null");
+        }
+        this.format = format;
+    }
+
+    /**
+     * Sets where progress and skipped jobs are reported, or null for silence.
+     */
+    public void setProgressOutput(PrintStream progressOutput) {
+        this.progressOutput = progressOutput;
+    }
+
+    public void setProgressInterval(Duration progressInterval) {
+        if (progressInterval.isNegative() || progressInterval.isZero()) {
+            throw new IllegalArgumentException("Progress interval must be positive: " + progressInterval);
+        }
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Runs every job in {@code input} and writes the results to {@code output}. Files
+     * starting with {@link ScenarioFile#MAGIC} are read as scenario files, anything else
+     * as a text job file.
+     *
+     * @throws IOException if a file cannot be read or written, or a job line is malformed
+     */
+    public Summary run(Path input, Path output) throws IOException {
+        boolean scenarios = ScenarioFile.isScenarioFile(input);
+        long startNanos = System.nanoTime();
+        Summary summary = new Summary();
+        try (Execution execution = new Execution(summary, openSink(output), startNanos)) {
+            if (scenarios) {
+                runScenarioFile(input, execution);
+            } else {
+                runJobFile(input, execution);
+            }
+            summary.scenarios = execution.completed.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        } catch (UncheckedIOException e) {
+            // Workers wrap write failures so they can cross the pool
+            throw e.getCause();
+        }
+        summary.elapsedNanos = System.nanoTime() - startNanos;
+        return summary;
+    }
+
+    private void runJobFile(Path jobFile, Execution execution)
+            throws IOException, InterruptedException {
+        try (BufferedReader reader = Files.newBufferedReader(jobFile, StandardCharsets.UTF_8)) {
+            String text;
+            int line = 0;
+            while ((text = reader.readLine()) != null) {
+                line++;
+                String trimmed = text.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                    continue;
+                }
+                BatchJob job;
+                try {
+                    job = BatchJob.parse(trimmed, line);
+                } catch (IllegalArgumentException e) {
+                    throw new IOException(jobFile + ":" + line + ": " + e.getMessage(), e);
+                }
+                execution.addJobs(1);
+                if (!isValid(job, execution.validation)) {
+                    execution.skipJob();
+                    continue;
+                }
+                for (int first = 0; first < job.getReplications(); first += REPLICATIONS_PER_TASK) {
+                    int from = first;
+                    int to = Math.min(job.getReplications(), first + REPLICATIONS_PER_TASK);
+                    execution.submit(() -> runReplications(job, from, to, execution));
+                }
+            }
+        }
+        execution.await();
+    }
+
+    private void runScenarioFile(Path scenarioFile, Execution execution)
+            throws IOException, InterruptedException {
+        try (ScenarioFile.Mapped file = ScenarioFile.map(scenarioFile)) {
+            long count = file.getRecordCount();
+            execution.addJobs(count);
+            for (long first = 0; first < count; first += RECORDS_PER_TASK) {
+                long from = first;
+                long to = Math.min(count, first + RECORDS_PER_TASK);
+                execution.submit(() -> runScenarios(file, from, to, execution));
+            }
+            // The mapping must outlive the tasks reading it
+            execution.await();
+        }
+    }
+
+    private boolean isValid(BatchJob job, ValidationCache validation) {
+        try {
+            validation.validateRaceSetup(job.getCar(), job.getTrack(), job.getStrategy());
+            return true;
+        } catch (InvalidCarConfigurationException | InvalidTrackDataException | InvalidStrategyException e) {
+            if (progressOutput != null) {
+                progressOutput.println("Skipping job on line " + job.getLine() + ": " + e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private void runReplications(BatchJob job, int from, int to, Execution execution) {
+        RaceSimulator simulator = new RaceSimulator(job.getLaps());
+        RaceTimeStatistics statistics = new RaceTimeStatistics();
+        try {
+            for (int replication = from; replication < to; replication++) {
+                long seed = job.getSeed() + replication;
+                simulator.setSeed(seed);
+                RaceResult result = simulator.simulateRace(job.getCar(), job.getTrack(), job.getStrategy(),
+                        job.getWeather());
+                execution.sink.write(job.getLine(), job.getLaps(), replication, seed, result);
+                statistics.add(result.getRaceTime());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write results of line " + job.getLine(), e);
+        }
+        execution.finished(to - from, statistics);
+    }
+
+    // Decodes records in place and screens them with the allocation-free validator path
+    private void runScenarios(ScenarioFile.Mapped file, long from, long to, Execution execution) {
+        ScenarioFile.Scenario scenario = new ScenarioFile.Scenario();
+        RaceTimeStatistics statistics = new RaceTimeStatistics();
+        RaceSimulator simulator = null;
+        int simulatorLaps = 0;
+        long races = 0;
+        try {
+            for (long index = from; index < to; index++) {
+                file.read(index, scenario);
+                Car car = scenario.getCar();
+                long violations = Validator.screenRaceSetup(car, scenario.getTrack(), scenario.getStrategy());
+                if (ValidationRule.hasErrors(violations)) {
+                    execution.skipJob();
+                    if (progressOutput != null) {
+                        progressOutput.println("Skipping scenario " + index + ": "
+                                + ValidationRule.describe(violations, car, scenario.getTrack(), scenario.getStrategy()));
+                    }
+                    continue;
+                }
+                // Neighbouring records usually share a lap count
+                if (simulator == null || simulatorLaps != scenario.getLaps()) {
+                    simulatorLaps = scenario.getLaps();
+                    simulator = new RaceSimulator(simulatorLaps);
+                }
+                for (int replication = 0; replication < scenario.getReplications(); replication++) {
+                    long seed = scenario.getSeed() + replication;
+                    simulator.setSeed(seed);
+                    RaceResult result = simulator.simulateRace(car, scenario.getTrack(), scenario.getStrategy(),
+                            scenario.getWeather());
+                    execution.sink.write(index, simulatorLaps, replication, seed, result);
+                    statistics.add(result.getRaceTime());
+                }
+                races += scenario.getReplications();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not write results of scenario " + scenario.getIndex(), e);
+        }
+        execution.finished(races, statistics);
+    }
+
+    private void reportProgress(Summary summary, long done, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        long jobs;
+        synchronized (summary) {
+            jobs = summary.jobs;
+        }
+        progressOutput.printf(Locale.ROOT, "Batch: %d scenarios done (%.0f/s), %d jobs read%n",
+                done, done / seconds, jobs);
+    }
+
+    // Worker pool, in-flight bound, progress reporter and output of one run
+    private final class Execution implements Closeable {
+        final Summary summary;
+        final Sink sink;
+        final AtomicLong completed = new AtomicLong();
+        final BoundedExecutor workers = new BoundedExecutor("batch-worker", threads, threads * 4);
+        final ValidationCache validation = new ValidationCache();
+        final ScheduledExecutorService progress;
+
+        Execution(Summary summary, Sink sink, long startNanos) {
+            this.summary = summary;
+            this.sink = sink;
+            MetricsRegistry registry = MetricsRegistry.getDefault();
+            registry.gauge(QUEUE_DEPTH_GAUGE, "Batch tasks waiting for a worker", workers::getQueuedCount);
+            registry.gauge(VALIDATION_CACHE_GAUGE, "Outcomes held by the batch ValidationCache",
+                    validation::size);
+            if (progressOutput != null) {
+                progress = Executors.newSingleThreadScheduledExecutor(
+                        BoundedExecutor.daemonThreads("batch-progress"));
+                long periodMillis = progressInterval.toMillis();
+                progress.scheduleAtFixedRate(() -> reportProgress(summary, completed.get(), startNanos),
+                        periodMillis, periodMillis, TimeUnit.MILLISECONDS);
+            } else {
+                progress = null;
+            }
+        }
+
+        void submit(Runnable task) throws InterruptedException {
+            // Blocks the reader until a task slot is free
+            workers.submit(task);
+        }
+
+        void await() throws InterruptedException {
+            workers.await();
+        }
+
+        void addJobs(long count) {
+            synchronized (summary) {
+                summary.jobs += count;
+            }
+        }
+
+        void skipJob() {
+            synchronized (summary) {
+                summary.skippedJobs++;
+            }
+        }
+
+        void finished(long races, RaceTimeStatistics statistics) {
+            completed.addAndGet(races);
+            synchronized (summary) {
+                summary.statistics.merge(statistics);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            MetricsRegistry registry = MetricsRegistry.getDefault();
+            registry.removeGauge(QUEUE_DEPTH_GAUGE);
+            registry.removeGauge(VALIDATION_CACHE_GAUGE);
+            workers.close();
+            if (progress != null) {
+                progress.shutdownNow();
+            }
+            sink.close();
+        }
+    }
+
+    private Sink openSink(Path output) throws IOException {
+        switch (format) {
+            case CSV:
+                return new TextSink(output, false);
+            case JSONL:
+                return new TextSink(output, true);
+            default:
+                return new BinarySink(output);
+        }
+    }
+
+    // Where results go; writes come from all workers
+    private interface Sink extends Closeable {
+        void write(long job, int laps, int replication, long seed, RaceResult result) throws IOException;
+    }
+
+    private static class TextSink implements Sink {
+        private final BufferedWriter writer;
+        private final boolean json;
+        // Rows are built per thread, then appended under the writer lock
+        private final ThreadLocal<StringBuilder> rows = ThreadLocal.withInitial(() -> new StringBuilder(256));
+
+        TextSink(Path output, boolean json) throws IOException {
+            this.writer = Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+            this.json = json;
+            if (!json) {
+                writer.write("job,replication,seed,car,track,strategy,weather,laps,race_time,average_lap_time,pit_stops");
+                writer.newLine();
+            }
+        }
+
+        @Override
+        public void write(long job, int laps, int replication, long seed, RaceResult result) throws IOException {
+            StringBuilder row = rows.get();
+            row.setLength(0);
+            if (json) {
+                row.append("{\"job\":").append(job)
+                        .append(",\"replication\":").append(replication)
+                        .append(",\"seed\":").append(seed);
+                appendJsonString(row.append(",\"car\":"), result.getCarName());
+                appendJsonString(row.append(",\"track\":"), result.getTrackName());
+                appendJsonString(row.append(",\"strategy\":"), result.getStrategy());
+                appendJsonString(row.append(",\"weather\":"), result.getWeatherCondition());
+                row.append(",\"laps\":").append(laps)
+                        .append(",\"raceTime\":").append(result.getRaceTime())
+                        .append(",\"averageLapTime\":").append(result.getAverageLapTime())
+                        .append(",\"pitStops\":").append(result.getPitStopCount())
+                        .append('}');
+            } else {
+                row.append(job).append(',')
+                        .append(replication).append(',')
+                        .append(seed).append(',')
+                        .append(result.getCarName()).append(',')
+                        .append(result.getTrackName()).append(',')
+                        .append(result.getStrategy()).append(',')
+                        .append(result.getWeatherCondition()).append(',')
+                        .append(laps).append(',')
+                        .append(result.getRaceTime()).append(',')
+                        .append(result.getAverageLapTime()).append(',')
+                        .append(result.getPitStopCount());
+            }
+            row.append('\n');
+            synchronized (writer) {
+                writer.append(row);
+            }
+        }
+
+        private static void appendJsonString(StringBuilder sb, String value) {
+            if (value == null) {
+                sb.append("null");
+                return;
+            }
+            sb.append('"');
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                if (c == '"' || c == '\\') {
+                    sb.append('\\').append(c);
+                } else if (c < ' ') {
+                    sb.append(String.format("\\u%04x", (int) c));
+                } else {
+                    sb.append(c);
+                }
+            }
+            sb.append('"');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    private static class BinarySink implements Sink {
+        private final ResultFile.Writer writer;
+
+        BinarySink(Path output) throws IOException {
+            this.writer = ResultFile.newWriter(output);
+        }
+
+        @Override
+        public synchronized void write(long job, int laps, int replication, long seed, RaceResult result)
+                throws IOException {
+            result.setScenarioHash(ResultFile.scenarioKey(job, replication));
+            writer.write(result);
+        }
+
+        @Override
+        public synchronized void close() throws IOException {
+            writer.close();
+        }
+    }
+
+    /**
+     * Totals of a batch run.
+     */
+    public static class Summary {
+        private long jobs;
+        private long skippedJobs;
+        private long scenarios;
+        private long elapsedNanos;
+        private final RaceTimeStatistics statistics = new RaceTimeStatistics();
+
+        public long getJobCount() {
+            return jobs;
+        }
+
+        public long getSkippedJobCount() {
+            return skippedJobs;
+        }
+
+        public long getScenarioCount() {
+            return scenarios;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        public RaceTimeStatistics getStatistics() {
+            return statistics.copy();
+        }
+
+        @Override
+        public String toString() {
+            double seconds = elapsedNanos / 1e9;
+            return String.format(Locale.ROOT,
+                    "%d jobs (%d skipped), %d scenarios in %.2f s (%.0f/s), mean race time %.3f",
+                    jobs, skippedJobs, scenarios, seconds, scenarios / Math.max(seconds, 1e-9),
+                    statistics.getMean());
+        }
+    }
+
+    /**
+     * Entry point for {@code RaceManager --batch}.
+     *
+     * @return the process exit status
+     */
+    static int runCommandLine(String[] args, PrintStream out, PrintStream err) {
+        Path jobs = null;
+        Path output = null;
+        BatchRunner runner = new BatchRunner();
+        runner.setProgressOutput(err);
+        int metricsPort = -1;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--batch":
+                        jobs = Path.of(value);
+                        break;
+                    case "--output":
+                        output = Path.of(value);
+                        break;
+                    case "--format":
+                        runner.setFormat(Format.valueOf(value.toUpperCase(Locale.ROOT)));
+                        break;
+                    case "--threads":
+                        runner.setThreads(Integer.parseInt(value));
+                        break;
+                    case "--progress-seconds":
+                        runner.setProgressInterval(Duration.ofSeconds(Long.parseLong(value)));
+                        break;
+                    case "--metrics-port":
+                        metricsPort = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                i++;
+            }
+            if (jobs == null || output == null) {
+                throw new IllegalArgumentException("--batch and --output are required");
+            }
+        } catch (IllegalArgumentException e) {
+            err.println(e.getMessage());
+            err.println("Usage: RaceManager [--catalog <file>] --batch <jobs.csv> --output <file>"
+                    + " [--format csv|jsonl|binary]"
+                    + " [--threads <n>] [--progress-seconds <s>] [--metrics-port <port>]");
+            return 2;
+        }
+
+        // Registered up front rather than from MetricsRegistry's static initialiser, which
+        // would make the two classes' initialisation depend on each other
+        EngineMetrics.register();
+        MetricsHttpServer metrics = null;
+        try {
+            if (metricsPort >= 0) {
+                metrics = MetricsHttpServer.startLocal(metricsPort);
+                err.println("Serving metrics on http://localhost:" + metrics.getPort() + "/metrics");
+            }
+            out.println(runner.run(jobs, output));
+            return 0;
+        } catch (IOException e) {
+            err.println("Batch failed: " + e.getMessage());
+            return 1;
+        } finally {
+            if (metrics != null) {
+                metrics.close();
+            }
+        }
+    }
+}
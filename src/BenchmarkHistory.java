@@ -0,0 +1,462 @@
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Stores JMH results from the benchmark suite by commit and JVM, and compares two
+ * commits benchmark by benchmark.
+ *
+ * Layout of the history directory:
+ * <pre>
+ *   index.tsv                  one line per recorded run: time, commit, JVM key
+ *   &lt;jvm key&gt;/&lt;commit&gt;.json   the JMH JSON output of that run
+ * </pre>
+ * A change is only called a regression or improvement when the 99.9% confidence
+ * intervals that JMH reports for the two runs do not overlap. Runs without intervals
+ * (a single measurement iteration) are reported as inconclusive.
+ */
+public class BenchmarkHistory {
+    public static final String DEFAULT_DIRECTORY = "benchmark-history";
+    static final String INDEX_FILE = "index.tsv";
+
+    private static final Pattern SAFE_NAME = Pattern.compile("[A-Za-z0-9._+-]+");
+
+    public enum Verdict {
+        REGRESSION, IMPROVEMENT, UNCHANGED, INCONCLUSIVE, ADDED, REMOVED
+    }
+
+    private final Path directory;
+
+    public BenchmarkHistory(Path directory) {
+        if (directory == null) {
+            throw new IllegalArgumentException("History directory cannot be null");
+        }
+        this.directory = directory;
+    }
+
+    /**
+     * Copies a JMH JSON result file into the history.
+     *
+     * @param jmhResults file written by {@code benchmarks.jar} (JSON result format)
+     * @param commit commit the benchmarks ran against, e.g. {@code git rev-parse --short HEAD}
+     * @return the JVM key the results were stored under
+     * @throws IOException if the file cannot be read or is not a JMH result file
+     */
+    public String record(Path jmhResults, String commit) throws IOException {
+        if (commit == null || !SAFE_NAME.matcher(commit).matches()) {
+            throw new IllegalArgumentException("Invalid commit name: " + commit);
+        }
+        String json = Files.readString(jmhResults, StandardCharsets.UTF_8);
+        List<Object> runs = parseRuns(json, jmhResults.toString());
+        if (runs.isEmpty()) {
+            throw new IOException("No benchmark results in " + jmhResults);
+        }
+        String jvmKey = jvmKey(asMap(runs.get(0)));
+
+        Path target = directory.resolve(jvmKey).resolve(commit + ".json");
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), commit, ".tmp");
+        Files.writeString(temp, json, StandardCharsets.UTF_8);
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        try (BufferedWriter index = Files.newBufferedWriter(directory.resolve(INDEX_FILE), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            index.write(System.currentTimeMillis() + "\t" + commit + "\t" + jvmKey);
+            index.newLine();
+        }
+        return jvmKey;
+    }
+
+    /**
+     * Returns the JVM keys that have recorded results.
+     */
+    public Set<String> getJvmKeys() throws IOException {
+        Set<String> keys = new TreeSet<>();
+        for (String[] entry : readIndex()) {
+            keys.add(entry[2]);
+        }
+        return keys;
+    }
+
+    /**
+     * Returns the commits recorded for a JVM, oldest first. A re-recorded commit
+     * moves to its latest position.
+     */
+    public List<String> getCommits(String jvmKey) throws IOException {
+        LinkedHashSet<String> commits = new LinkedHashSet<>();
+        for (String[] entry : readIndex()) {
+            if (entry[2].equals(jvmKey)) {
+                commits.remove(entry[1]);
+                commits.add(entry[1]);
+            }
+        }
+        return new ArrayList<>(commits);
+    }
+
+    private List<String[]> readIndex() throws IOException {
+        Path index = directory.resolve(INDEX_FILE);
+        List<String[]> entries = new ArrayList<>();
+        if (!Files.exists(index)) {
+            return entries;
+        }
+        for (String line : Files.readAllLines(index, StandardCharsets.UTF_8)) {
+            String[] fields = line.split("\t");
+            if (fields.length == 3) {
+                entries.add(fields);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Loads the stored results of one commit, keyed by benchmark id.
+     *
+     * @throws IOException if nothing was recorded for this commit and JVM
+     */
+    public Map<String, Result> load(String commit, String jvmKey) throws IOException {
+        Path file = directory.resolve(jvmKey).resolve(commit + ".json");
+        if (!Files.exists(file)) {
+            throw new IOException("No results recorded for commit " + commit + " on " + jvmKey);
+        }
+        return parseResults(Files.readString(file, StandardCharsets.UTF_8), file.toString());
+    }
+
+    /**
+     * Compares two recorded commits on the same JVM.
+     */
+    public Comparison compare(String baselineCommit, String candidateCommit, String jvmKey) throws IOException {
+        Map<String, Result> baseline = load(baselineCommit, jvmKey);
+        Map<String, Result> candidate = load(candidateCommit, jvmKey);
+        List<Row> rows = new ArrayList<>();
+        Set<String> ids = new TreeSet<>(baseline.keySet());
+        ids.addAll(candidate.keySet());
+        for (String id : ids) {
+            rows.add(new Row(id, baseline.get(id), candidate.get(id)));
+        }
+        return new Comparison(baselineCommit, candidateCommit, jvmKey, rows);
+    }
+
+    /**
+     * Parses JMH JSON output into results keyed by benchmark id
+     * ({@code class.method} plus {@code :param=value} for each parameter).
+     */
+    static Map<String, Result> parseResults(String json, String source) throws IOException {
+        Map<String, Result> results = new LinkedHashMap<>();
+        for (Object run : parseRuns(json, source)) {
+            Map<String, Object> fields = asMap(run);
+            StringBuilder id = new StringBuilder(String.valueOf(fields.get("benchmark")));
+            Object params = fields.get("params");
+            if (params instanceof Map) {
+                for (Map.Entry<String, Object> param : asMap(params).entrySet()) {
+                    id.append(':').append(param.getKey()).append('=').append(param.getValue());
+                }
+            }
+            Map<String, Object> metric = asMap(fields.get("primaryMetric"));
+            double low = Double.NaN;
+            double high = Double.NaN;
+            Object confidence = metric.get("scoreConfidence");
+            if (confidence instanceof List && ((List<?>) confidence).size() == 2) {
+                low = number(((List<?>) confidence).get(0));
+                high = number(((List<?>) confidence).get(1));
+            }
+            results.put(id.toString(), new Result(id.toString(), String.valueOf(fields.get("mode")),
+                    String.valueOf(metric.get("scoreUnit")), number(metric.get("score")),
+                    number(metric.get("scoreError")), low, high));
+        }
+        return results;
+    }
+
+    private static List<Object> parseRuns(String json, String source) throws IOException {
+        Object document;
+        try {
+            document = JsonParser.parse(json);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Not a JMH JSON result file: " + source + " (" + e.getMessage() + ")", e);
+        }
+        if (!(document instanceof List)) {
+            throw new IOException("Not a JMH JSON result file: " + source);
+        }
+        @SuppressWarnings("unchecked")
+        List<Object> runs = (List<Object>) document;
+        for (Object run : runs) {
+            if (!(run instanceof Map) || !(asMap(run).get("primaryMetric") instanceof Map)) {
+                throw new IOException("Not a JMH JSON result file: " + source);
+            }
+        }
+        return runs;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> asMap(Object value) {
+        return (Map<String, Object>) value;
+    }
+
+    // JMH writes NaN and infinities as strings
+    private static double number(Object value) {
+        if (value instanceof Double) {
+            return (Double) value;
+        }
+        if (value instanceof String) {
+            try {
+                return Double.parseDouble((String) value);
+            } catch (NumberFormatException e) {
+                return Double.NaN;
+            }
+        }
+        return Double.NaN;
+    }
+
+    static String jvmKey(Map<String, Object> run) {
+        String key = run.get("jdkVersion") + "-" + run.get("vmName");
+        return key.replaceAll("[^A-Za-z0-9._+-]+", "_");
+    }
+
+    /**
+     * Primary metric of one benchmark in one run.
+     */
+    public static class Result {
+        private final String id;
+        private final String mode;
+        private final String unit;
+        private final double score;
+        private final double error;
+        private final double low;
+        private final double high;
+
+        Result(String id, String mode, String unit, double score, double error, double low, double high) {
+            this.id = id;
+            this.mode = mode;
+            this.unit = unit;
+            this.score = score;
+            this.error = error;
+            this.low = low;
+            this.high = high;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public String getMode() {
+            return mode;
+        }
+
+        public String getUnit() {
+            return unit;
+        }
+
+        public double getScore() {
+            return score;
+        }
+
+        public double getError() {
+            return error;
+        }
+
+        public double getConfidenceLow() {
+            return low;
+        }
+
+        public double getConfidenceHigh() {
+            return high;
+        }
+
+        public boolean hasConfidenceInterval() {
+            return !Double.isNaN(low) && !Double.isNaN(high);
+        }
+
+        /**
+         * Throughput scores improve upwards; time-per-operation modes improve downwards.
+         */
+        public boolean isHigherBetter() {
+            return "thrpt".equals(mode);
+        }
+
+        @Override
+        public String toString() {
+            if (Double.isNaN(error)) {
+                return String.format("%.3f %s", score, unit);
+            }
+            return String.format("%.3f ± %.3f %s", score, error, unit);
+        }
+    }
+
+    /**
+     * One benchmark in a comparison.
+     */
+    public static class Row {
+        private final String id;
+        private final Result baseline;
+        private final Result candidate;
+        private final Verdict verdict;
+
+        Row(String id, Result baseline, Result candidate) {
+            this.id = id;
+            this.baseline = baseline;
+            this.candidate = candidate;
+            this.verdict = judge(baseline, candidate);
+        }
+
+        private static Verdict judge(Result baseline, Result candidate) {
+            if (baseline == null) {
+                return Verdict.ADDED;
+            }
+            if (candidate == null) {
+                return Verdict.REMOVED;
+            }
+            if (!baseline.hasConfidenceInterval() || !candidate.hasConfidenceInterval()
+                    || !baseline.getUnit().equals(candidate.getUnit())
+                    || !baseline.getMode().equals(candidate.getMode())) {
+                return Verdict.INCONCLUSIVE;
+            }
+            if (candidate.low <= baseline.high && baseline.low <= candidate.high) {
+                return Verdict.UNCHANGED;
+            }
+            boolean higher = candidate.score > baseline.score;
+            return higher == baseline.isHigherBetter() ? Verdict.IMPROVEMENT : Verdict.REGRESSION;
+        }
+
+        public String getId() {
+            return id;
+        }
+
+        public Result getBaseline() {
+            return baseline;
+        }
+
+        public Result getCandidate() {
+            return candidate;
+        }
+
+        public Verdict getVerdict() {
+            return verdict;
+        }
+
+        /**
+         * Returns the score change in percent of the baseline, or NaN if either side is missing.
+         */
+        public double getChangePercent() {
+            if (baseline == null || candidate == null || baseline.score == 0) {
+                return Double.NaN;
+            }
+            return (candidate.score - baseline.score) / baseline.score * 100.0;
+        }
+    }
+
+    /**
+     * Result of comparing two commits.
+     */
+    public static class Comparison {
+        private final String baselineCommit;
+        private final String candidateCommit;
+        private final String jvmKey;
+        private final List<Row> rows;
+
+        Comparison(String baselineCommit, String candidateCommit, String jvmKey, List<Row> rows) {
+            this.baselineCommit = baselineCommit;
+            this.candidateCommit = candidateCommit;
+            this.jvmKey = jvmKey;
+            this.rows = rows;
+        }
+
+        public List<Row> getRows() {
+            return rows;
+        }
+
+        public List<Row> getRegressions() {
+            List<Row> regressions = new ArrayList<>();
+            for (Row row : rows) {
+                if (row.verdict == Verdict.REGRESSION) {
+                    regressions.add(row);
+                }
+            }
+            return regressions;
+        }
+
+        public boolean hasRegressions() {
+            return !getRegressions().isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Benchmark comparison %s -> %s on %s%n", baselineCommit, candidateCommit, jvmKey));
+            int width = "Benchmark".length();
+            for (Row row : rows) {
+                width = Math.max(width, row.id.length());
+            }
+            String format = "%-" + width + "s  %-26s  %-26s  %8s  %s%n";
+            sb.append(String.format(format, "Benchmark", "Baseline", "Candidate", "Change", "Verdict"));
+            for (Row row : rows) {
+                double change = row.getChangePercent();
+                sb.append(String.format(format, row.id,
+                        row.baseline == null ? "-" : row.baseline.toString(),
+                        row.candidate == null ? "-" : row.candidate.toString(),
+                        Double.isNaN(change) ? "-" : String.format("%+.1f%%", change),
+                        row.verdict));
+            }
+            sb.append(String.format("%d regression(s)", getRegressions().size()));
+            return sb.toString();
+        }
+    }
+
+    /**
+     * Command line:
+     * <pre>
+     *   record &lt;jmh-result.json&gt; &lt;commit&gt; [--dir &lt;history&gt;]
+     *   compare &lt;baseline commit&gt; &lt;candidate commit&gt; [--jvm &lt;key&gt;] [--dir &lt;history&gt;]
+     * </pre>
+     * {@code compare} exits with status 1 when it finds a regression.
+     */
+    public static void main(String[] args) throws IOException {
+        List<String> positional = new ArrayList<>();
+        String dir = DEFAULT_DIRECTORY;
+        String jvm = null;
+        for (int i = 0; i < args.length; i++) {
+            if ("--dir".equals(args[i]) && i + 1 < args.length) {
+                dir = args[++i];
+            } else if ("--jvm".equals(args[i]) && i + 1 < args.length) {
+                jvm = args[++i];
+            } else {
+                positional.add(args[i]);
+            }
+        }
+        BenchmarkHistory history = new BenchmarkHistory(Paths.get(dir));
+
+        if (positional.size() == 3 && "record".equals(positional.get(0))) {
+            String key = history.record(Paths.get(positional.get(1)), positional.get(2));
+            System.out.println("Recorded " + positional.get(2) + " for " + key);
+        } else if (positional.size() == 3 && "compare".equals(positional.get(0))) {
+            if (jvm == null) {
+                Set<String> keys = history.getJvmKeys();
+                if (keys.size() != 1) {
+                    System.err.println("Results exist for several JVMs, choose one with --jvm: " + keys);
+                    System.exit(2);
+                }
+                jvm = keys.iterator().next();
+            }
+            Comparison comparison = history.compare(positional.get(1), positional.get(2), jvm);
+            System.out.println(comparison);
+            if (comparison.hasRegressions()) {
+                System.exit(1);
+            }
+        } else {
+            System.err.println("Usage: BenchmarkHistory record <jmh-result.json> <commit> [--dir <history>]");
+            System.err.println("       BenchmarkHistory compare <baseline> <candidate> [--jvm <key>] [--dir <history>]");
+            System.exit(2);
+        }
+    }
+}
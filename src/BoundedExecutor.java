@@ -0,0 +1,108 @@
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fixed pool of daemon threads that holds at most a set number of unfinished tasks,
+ * for a producer that reads a large input and hands it out in pieces.
+ *
+ * {@link #submit} blocks the producer until a task slot is free, so the input is never
+ * buffered ahead of the workers. A task's exception is rethrown to the producer, as
+ * is, by a later {@code submit} or by {@link #await}. Used by one producer thread.
+ */
+final class BoundedExecutor implements AutoCloseable {
+    private final ThreadPoolExecutor executor;
+    private final Semaphore inFlight;
+    private final List<Future<?>> pending = new ArrayList<>();
+
+    /**
+     * @param name name of the worker threads
+     * @param threads number of worker threads
+     * @param maxInFlight most tasks submitted but not yet finished
+     */
+    BoundedExecutor(String name, int threads, int maxInFlight) {
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), daemonThreads(name));
+        this.inFlight = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * Returns a factory for daemon threads with the given name, so an abandoned pool
+     * never keeps the JVM alive.
+     */
+    static ThreadFactory daemonThreads(String name) {
+        return r -> {
+            Thread thread = new Thread(r, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /**
+     * Runs the task on the pool once a slot is free, first rethrowing the exception of
+     * any task that has failed.
+     */
+    void submit(Runnable task) throws InterruptedException {
+        inFlight.acquire();
+        pending.add(executor.submit(() -> {
+            try {
+                task.run();
+            } finally {
+                inFlight.release();
+            }
+        }));
+        // Finished tasks can be forgotten as we go, once checked for failure
+        for (Iterator<Future<?>> it = pending.iterator(); it.hasNext(); ) {
+            Future<?> future = it.next();
+            if (future.isDone()) {
+                get(future);
+                it.remove();
+            }
+        }
+    }
+
+    /**
+     * Waits for every submitted task, rethrowing the first exception found.
+     */
+    void await() throws InterruptedException {
+        for (Iterator<Future<?>> it = pending.iterator(); it.hasNext(); ) {
+            get(it.next());
+            it.remove();
+        }
+    }
+
+    /**
+     * Returns the number of submitted tasks still waiting for a worker thread.
+     */
+    int getQueuedCount() {
+        return executor.getQueue().size();
+    }
+
+    private static void get(Future<?> future) throws InterruptedException {
+        try {
+            future.get();
+        } catch (ExecutionException e) {
+            // Runnables can only fail with unchecked exceptions
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw (RuntimeException) cause;
+        }
+    }
+
+    /**
+     * Stops the workers, interrupting any task still running.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+}
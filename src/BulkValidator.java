@@ -0,0 +1,256 @@
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Validates large imports of race setups in parallel against a {@link RuleSet}.
+ *
+ * The caller's thread reads the input into fixed-size chunks and hands them to a fixed
+ * pool of workers. At most two chunks per worker are in flight, so memory stays bounded
+ * however long the input is. Each worker screens its chunk with its own
+ * {@link RuleSet.Evaluator} and merges a small per-chunk summary into the report: rule
+ * counts, the lowest offending ids per rule and the ids of valid setups.
+ */
+public class BulkValidator {
+    private final RuleSet rules;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int chunkSize = 4096;
+    private int offenderLimit = 10;
+
+    /**
+     * Validates against {@link RuleSet#standard()}, which accepts the same setups as
+     * {@link Validator#validateRaceSetup}.
+     */
+    public BulkValidator() {
+        this(RuleSet.standard());
+    }
+
+    public BulkValidator(RuleSet rules) {
+        if (rules == null) {
+            throw new IllegalArgumentException("Rule set cannot be null");
+        }
+        this.rules = rules;
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        if (chunkSize <= 0) {
+            throw new IllegalArgumentException("Chunk size must be positive: " + chunkSize);
+        }
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Sets how many offending setup ids the report keeps per rule (the lowest ids).
+     */
+    public void setOffenderLimit(int offenderLimit) {
+        if (offenderLimit < 0) {
+            throw new IllegalArgumentException("Offender limit cannot be negative: " + offenderLimit);
+        }
+        this.offenderLimit = offenderLimit;
+    }
+
+    public Report validate(Stream<RaceSetup> setups) throws InterruptedException {
+        return validate(setups.iterator());
+    }
+
+    public Report validate(Iterable<RaceSetup> setups) throws InterruptedException {
+        return validate(setups.iterator());
+    }
+
+    /**
+     * Validates every setup from the iterator, which is only read from the calling thread.
+     * Runtime exceptions from a worker are rethrown here.
+     */
+    public Report validate(Iterator<RaceSetup> setups) throws InterruptedException {
+        long startNanos = System.nanoTime();
+        Report report = new Report(rules, offenderLimit);
+        ThreadLocal<RuleSet.Evaluator> evaluators = ThreadLocal.withInitial(rules::newEvaluator);
+        try (BoundedExecutor executor = new BoundedExecutor("bulk-validator", threads, threads * 2)) {
+            while (setups.hasNext()) {
+                RaceSetup[] chunk = new RaceSetup[chunkSize];
+                int size = 0;
+                while (size < chunkSize && setups.hasNext()) {
+                    chunk[size++] = setups.next();
+                }
+                // Blocks the reader until a chunk slot is free
+                int count = size;
+                executor.submit(() -> report.merge(screen(evaluators.get(), chunk, count)));
+            }
+            executor.await();
+        }
+        report.elapsedNanos = System.nanoTime() - startNanos;
+        return report;
+    }
+
+    // Screens one chunk; everything kept here is primitive arrays sized by the chunk
+    private ChunkSummary screen(RuleSet.Evaluator evaluator, RaceSetup[] chunk, int size) {
+        int ruleCount = rules.getRuleCount();
+        long errorMask = rules.getErrorMask();
+        ChunkSummary summary = new ChunkSummary(ruleCount, size);
+        for (int i = 0; i < size; i++) {
+            RaceSetup setup = chunk[i];
+            long violations = evaluator.evaluate(setup.getCar(), setup.getTrack(), setup.getStrategy());
+            if ((violations & errorMask) == 0) {
+                summary.validIds[summary.validCount++] = setup.getId();
+            }
+            while (violations != 0) {
+                int rule = Long.numberOfTrailingZeros(violations);
+                violations &= violations - 1;
+                summary.ruleCounts[rule]++;
+                if (summary.offenderCounts[rule] < offenderLimit) {
+                    if (summary.offenders[rule] == null) {
+                        summary.offenders[rule] = new int[offenderLimit];
+                    }
+                    summary.offenders[rule][summary.offenderCounts[rule]++] = setup.getId();
+                }
+            }
+        }
+        return summary;
+    }
+
+    private static class ChunkSummary {
+        final int size;
+        final long[] ruleCounts;
+        final int[][] offenders;
+        final int[] offenderCounts;
+        final int[] validIds;
+        int validCount;
+
+        ChunkSummary(int ruleCount, int size) {
+            this.size = size;
+            this.ruleCounts = new long[ruleCount];
+            this.offenders = new int[ruleCount][];
+            this.offenderCounts = new int[ruleCount];
+            this.validIds = new int[size];
+        }
+    }
+
+    /**
+     * Outcome of a bulk validation. Rules are identified by their index in the rule set.
+     */
+    public static class Report {
+        private final RuleSet rules;
+        private final int offenderLimit;
+        private final long[] ruleCounts;
+        private final int[][] offenders;
+        private final BitSet validIds = new BitSet();
+        private long total;
+        private long validCount;
+        private long elapsedNanos;
+
+        private Report(RuleSet rules, int offenderLimit) {
+            this.rules = rules;
+            this.offenderLimit = offenderLimit;
+            this.ruleCounts = new long[rules.getRuleCount()];
+            this.offenders = new int[rules.getRuleCount()][];
+            Arrays.fill(offenders, new int[0]);
+        }
+
+        private synchronized void merge(ChunkSummary summary) {
+            total += summary.size;
+            validCount += summary.validCount;
+            for (int i = 0; i < summary.validCount; i++) {
+                validIds.set(summary.validIds[i]);
+            }
+            for (int rule = 0; rule < ruleCounts.length; rule++) {
+                ruleCounts[rule] += summary.ruleCounts[rule];
+                if (summary.offenderCounts[rule] > 0) {
+                    offenders[rule] = lowest(offenders[rule], summary.offenders[rule], summary.offenderCounts[rule]);
+                }
+            }
+        }
+
+        // Chunks finish out of order, so keep the lowest ids seen rather than the first to arrive
+        private int[] lowest(int[] current, int[] incoming, int incomingCount) {
+            int[] merged = Arrays.copyOf(current, current.length + incomingCount);
+            System.arraycopy(incoming, 0, merged, current.length, incomingCount);
+            Arrays.sort(merged);
+            return merged.length <= offenderLimit ? merged : Arrays.copyOf(merged, offenderLimit);
+        }
+
+        public RuleSet getRuleSet() {
+            return rules;
+        }
+
+        public long getTotalCount() {
+            return total;
+        }
+
+        public long getValidCount() {
+            return validCount;
+        }
+
+        public long getInvalidCount() {
+            return total - validCount;
+        }
+
+        /**
+         * Returns how many setups violated the rule at {@code index}, warnings included.
+         */
+        public long getViolationCount(int index) {
+            return ruleCounts[index];
+        }
+
+        public long getViolationCount(String ruleId) {
+            return ruleCounts[indexOf(ruleId)];
+        }
+
+        /**
+         * Returns the lowest ids of setups that violated the rule, ascending.
+         */
+        public int[] getOffenders(int index) {
+            return offenders[index].clone();
+        }
+
+        public int[] getOffenders(String ruleId) {
+            return getOffenders(indexOf(ruleId));
+        }
+
+        private int indexOf(String ruleId) {
+            int index = rules.indexOf(ruleId);
+            if (index < 0) {
+                throw new IllegalArgumentException("Unknown rule: " + ruleId);
+            }
+            return index;
+        }
+
+        /**
+         * Returns the ids of the setups that broke no error rule.
+         */
+        public BitSet getValidIds() {
+            return (BitSet) validIds.clone();
+        }
+
+        public boolean isValid(int setupId) {
+            return validIds.get(setupId);
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Validated %d setups in %.2f s: %d valid, %d invalid (rule set %s)",
+                    total, elapsedNanos / 1e9, validCount, getInvalidCount(), rules.getName()));
+            for (int rule = 0; rule < ruleCounts.length; rule++) {
+                if (ruleCounts[rule] == 0) {
+                    continue;
+                }
+                RuleDefinition definition = rules.getRule(rule);
+                sb.append(String.format("%n  %-28s %-7s %10d  first: %s", definition.getId(),
+                        definition.getSeverity(), ruleCounts[rule], Arrays.toString(offenders[rule])));
+            }
+            return sb.toString();
+        }
+    }
+}
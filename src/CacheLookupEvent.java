@@ -0,0 +1,29 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for a cache lookup. The duration includes computing the value on a miss.
+ * Lookups take microseconds, so the event has no threshold and every lookup is
+ * recorded while it is enabled. It is off unless a recording enables it (a .jfc
+ * setting or {@code Recording.enable("raceoptimizer.CacheLookup")}).
+ */
+@Name("raceoptimizer.CacheLookup")
+@Label("Cache Lookup")
+@Category({"Race Strategy Optimizer", "Cache"})
+@Description("A lookup in one of the engine caches")
+@StackTrace(false)
+@Enabled(false)
+public class CacheLookupEvent extends jdk.jfr.Event {
+    @Label("Cache")
+    String cache;
+
+    @Label("Hit")
+    boolean hit;
+
+    @Label("Cache Size")
+    long size;
+}
@@ -0,0 +1,124 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloads the default {@link ComponentCatalog} from a data file while races run.
+ *
+ * A reload parses the file on the reloader's own daemon thread into a new catalog
+ * snapshot and then {@linkplain ComponentCatalog#publish publishes} it in one atomic
+ * swap. Readers never lock and never see a half-loaded catalog: races already running
+ * finish on the snapshot they started with. If the file cannot be loaded the current
+ * snapshot stays in place.
+ */
+public class CatalogReloader implements Closeable {
+    private final Path file;
+    private final ComponentCatalog base;
+    private final ScheduledExecutorService executor;
+    private volatile PrintStream errors = System.err;
+
+    // Only touched on the reloader thread
+    private FileTime lastModified;
+
+    /**
+     * Reloads {@code file} on top of the standard catalog.
+     */
+    public CatalogReloader(Path file) {
+        this(file, ComponentCatalog.standard());
+    }
+
+    /**
+     * Reloads {@code file} on top of {@code base}, as {@link ComponentCatalog#load(Path, ComponentCatalog)} does.
+     */
+    public CatalogReloader(Path file, ComponentCatalog base) {
+        if (file == null) {
+            throw new IllegalArgumentException("Catalog file cannot be null");
+        }
+        if (base == null) {
+            throw new IllegalArgumentException("Base catalog cannot be null");
+        }
+        this.file = file;
+        this.base = base;
+        this.executor = Executors.newSingleThreadScheduledExecutor(BoundedExecutor.daemonThreads("catalog-reloader"));
+    }
+
+    /**
+     * Sets where {@link #watch} reports reloads that failed; {@code System.err} unless set.
+     */
+    public void setErrorStream(PrintStream errors) {
+        if (errors == null) {
+            throw new IllegalArgumentException("Error stream cannot be null");
+        }
+        this.errors = errors;
+    }
+
+    /**
+     * Loads the file in the background and publishes the result.
+     *
+     * @return the new snapshot, or the load failure wrapped in an {@link UncheckedIOException}
+     */
+    public Future<ComponentCatalog> reload() {
+        return executor.submit(this::load);
+    }
+
+    /**
+     * Checks the file's modification time every {@code interval} and reloads it when it
+     * changes; the first check always loads it. Failures are reported to the error
+     * stream and retried on the next change.
+     */
+    public void watch(Duration interval) {
+        if (interval == null || interval.isNegative() || interval.isZero()) {
+            throw new IllegalArgumentException("Watch interval must be positive");
+        }
+        long millis = Math.max(1, interval.toMillis());
+        executor.scheduleWithFixedDelay(this::reloadIfModified, millis, millis, TimeUnit.MILLISECONDS);
+    }
+
+    private void reloadIfModified() {
+        try {
+            FileTime modified = Files.getLastModifiedTime(file);
+            if (modified.equals(lastModified)) {
+                return;
+            }
+            lastModified = modified;
+            load();
+        } catch (IOException | UncheckedIOException e) {
+            errors.println("Catalog reload failed: " + e.getMessage());
+        }
+    }
+
+    private ComponentCatalog load() {
+        ComponentCatalog snapshot;
+        try {
+            snapshot = ComponentCatalog.load(file, base);
+        } catch (IOException e) {
+            EngineMetrics.CATALOG_RELOAD_FAILURES.increment();
+            throw new UncheckedIOException(e);
+        }
+        ComponentCatalog.publish(snapshot);
+        EngineMetrics.CATALOG_RELOADS.increment();
+        return snapshot;
+    }
+
+    /**
+     * Stops watching; a reload already running finishes first.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
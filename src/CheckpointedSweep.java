@@ -0,0 +1,226 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+/**
+ * Runs a numbered set of scenarios so that a crashed or killed job can pick up where
+ * it left off.
+ *
+ * Every result is appended to a {@link ResultLog} in the job directory, and every
+ * {@code checkpointInterval} results a {@link JobCheckpoint} records the completed
+ * scenarios and the running statistics. On restart the checkpoint is loaded, any
+ * results committed to the log after it are replayed, and only the scenarios that
+ * are still missing are run.
+ */
+public class CheckpointedSweep {
+    public static final String LOG_FILE = "results.log";
+    public static final String CHECKPOINT_FILE = "checkpoint.bin";
+
+    private final Path directory;
+    private final int scenarioCount;
+    private int threads = 1;
+    private int checkpointInterval = 10_000;
+    private int groupCommitSize = ResultLog.DEFAULT_GROUP_SIZE;
+    private long commitIntervalMillis = ResultLog.DEFAULT_COMMIT_INTERVAL_MILLIS;
+
+    private final Object lock = new Object();
+    private BitSet completed;
+    private RaceTimeStatistics statistics;
+    private ResultLog log;
+    private int sinceCheckpoint;
+    private int resumedCount;
+    private final AtomicInteger executedCount = new AtomicInteger();
+
+    public CheckpointedSweep(Path directory, int scenarioCount) {
+        if (scenarioCount < 0) {
+            throw new IllegalArgumentException("Scenario count cannot be negative: " + scenarioCount);
+        }
+        this.directory = directory;
+        this.scenarioCount = scenarioCount;
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public void setCheckpointInterval(int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.checkpointInterval = checkpointInterval;
+    }
+
+    public void setGroupCommit(int groupCommitSize, long commitIntervalMillis) {
+        this.groupCommitSize = groupCommitSize;
+        this.commitIntervalMillis = commitIntervalMillis;
+    }
+
+    /**
+     * Runs every scenario that has not completed yet.
+     *
+     * @param scenario produces the result for a scenario index
+     * @return statistics over all completed scenarios, including ones from earlier runs
+     */
+    public RaceTimeStatistics run(IntFunction<RaceResult> scenario) throws IOException {
+        Files.createDirectories(directory);
+        Path checkpointPath = directory.resolve(CHECKPOINT_FILE);
+        JobCheckpoint checkpoint = JobCheckpoint.load(checkpointPath);
+        if (checkpoint != null && checkpoint.getScenarioCount() != scenarioCount) {
+            throw new IOException("Checkpoint belongs to a job with " + checkpoint.getScenarioCount()
+                    + " scenarios, not " + scenarioCount);
+        }
+        completed = checkpoint != null ? checkpoint.getCompleted() : new BitSet(scenarioCount);
+        statistics = checkpoint != null ? checkpoint.getStatistics() : new RaceTimeStatistics();
+        long checkpointOffset = checkpoint != null ? checkpoint.getLogOffset() : 0;
+
+        // Results committed after the last checkpoint are recovered from the log
+        log = ResultLog.open(directory.resolve(LOG_FILE), groupCommitSize, commitIntervalMillis,
+                (index, result, endOffset) -> {
+                    if (endOffset > checkpointOffset && index < scenarioCount && !completed.get((int) index)) {
+                        completed.set((int) index);
+                        statistics.add(result.getRaceTime());
+                    }
+                });
+        resumedCount = completed.cardinality();
+        sinceCheckpoint = 0;
+        executedCount.set(0);
+
+        BitSet alreadyDone = (BitSet) completed.clone();
+        AtomicInteger next = new AtomicInteger();
+        AtomicBoolean failed = new AtomicBoolean();
+        Runnable worker = () -> {
+            int index;
+            try {
+                while (!failed.get() && (index = next.getAndIncrement()) < scenarioCount) {
+                    if (alreadyDone.get(index)) {
+                        continue;
+                    }
+                    runScenario(index, scenario);
+                }
+            } catch (RuntimeException | Error e) {
+                // Stop the other workers; completed work is kept by the final checkpoint
+                failed.set(true);
+                throw e;
+            }
+        };
+
+        try {
+            if (threads == 1) {
+                worker.run();
+            } else {
+                runInParallel(worker);
+            }
+        } finally {
+            synchronized (lock) {
+                try {
+                    writeCheckpoint();
+                } finally {
+                    log.close();
+                }
+            }
+        }
+        return statistics.copy();
+    }
+
+    private void runInParallel(Runnable worker) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(worker));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Sweep interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IOException("Scenario failed", cause);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // Runs and records one scenario; with tracing on, the result sink gets its own span
+    private void runScenario(int index, IntFunction<RaceResult> scenario) {
+        SimulationTracer.Trace trace = SimulationTracer.currentTrace();
+        if (trace == null) {
+            record(index, scenario.apply(index));
+            return;
+        }
+        int span = trace.open(SimulationTracer.SCENARIO, index);
+        try {
+            RaceResult result = scenario.apply(index);
+            int sink = trace.open(SimulationTracer.SINK, index);
+            try {
+                record(index, result);
+            } finally {
+                trace.close(sink);
+            }
+        } finally {
+            trace.close(span);
+        }
+    }
+
+    private void record(int index, RaceResult result) {
+        // The index is the scenario's identity in this sweep, whatever the simulator set
+        result.setScenarioHash(ResultFile.scenarioKey(index));
+        synchronized (lock) {
+            try {
+                log.append(index, result);
+                completed.set(index);
+                statistics.add(result.getRaceTime());
+                executedCount.incrementAndGet();
+                if (++sinceCheckpoint >= checkpointInterval) {
+                    writeCheckpoint();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not record scenario " + index, e);
+            }
+        }
+    }
+
+    // Caller holds the lock
+    private void writeCheckpoint() throws IOException {
+        log.commit();
+        new JobCheckpoint(scenarioCount, completed, statistics, log.getCommittedSize())
+                .save(directory.resolve(CHECKPOINT_FILE));
+        sinceCheckpoint = 0;
+    }
+
+    /**
+     * Returns how many scenarios were already complete when the last run started.
+     */
+    public int getResumedCount() {
+        return resumedCount;
+    }
+
+    /**
+     * Returns how many scenarios the last run actually executed.
+     */
+    public int getExecutedCount() {
+        return executedCount.get();
+    }
+}
@@ -0,0 +1,567 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * All the engines, tyres, aero kits, tracks, weather presets and strategies the tool
+ * knows, by name and by id.
+ *
+ * {@link #standard()} holds the components of the static factories ({@code
+ * Engine.createTurboEngine} and friends); {@link #load(Path, ComponentCatalog)} adds a
+ * data file on top of it. Files have one component per line, type first:
+ * <pre>
+ * # type,   name,         fields...
+ * engine,   Hybrid,       power, fuel efficiency, weight
+ * tyre,     Intermediate, grip, durability, optimal temperature, wear rate, lap time bonus
+ * aerokit,  Rain Kit,     drag coefficient, downforce, top speed impact
+ * track,    Spa,          length, corners, difficulty, surface
+ * weather,  Storm,        temperature, wind speed, rain intensity
+ * strategy, One Stop,     pit stops, tyre strategy, fuel strategy, estimated race time
+ * </pre>
+ * Files are read a line at a time, so loading is linear in the file size. Components
+ * with identical fields are interned to one shared instance. Ids are assigned per type
+ * in load order; a file entry whose name is already in the base catalog replaces that
+ * entry and keeps its id.
+ *
+ * A catalog never changes once built, so it is a consistent snapshot: readers take the
+ * current default once and use it throughout. Reloading builds a new snapshot with a
+ * higher {@link #getVersion() version} and swaps it in atomically (see
+ * {@link CatalogReloader}). The component instances are shared by every caller: treat
+ * them as immutable. Name lookups try the exact name first and then ignore case, so
+ * exact-case lookups on hot paths do not allocate.
+ */
+public class ComponentCatalog {
+
+    public enum Type {
+        ENGINE("engine", 3),
+        TYRE("tyre", 5),
+        AERO_KIT("aerokit", 3),
+        TRACK("track", 4),
+        WEATHER("weather", 3),
+        STRATEGY("strategy", 4);
+
+        private final String keyword;
+        // Fields after the name
+        private final int fieldCount;
+
+        Type(String keyword, int fieldCount) {
+            this.keyword = keyword;
+            this.fieldCount = fieldCount;
+        }
+
+        public String getKeyword() {
+            return keyword;
+        }
+
+        static Type forKeyword(String keyword) {
+            for (Type type : values()) {
+                if (type.keyword.equalsIgnoreCase(keyword)) {
+                    return type;
+                }
+            }
+            return null;
+        }
+    }
+
+    // Must be initialised before the default catalog below takes the first version
+    private static final AtomicLong VERSIONS = new AtomicLong();
+    private static final AtomicReference<ComponentCatalog> DEFAULT = new AtomicReference<>(standard());
+
+    private final long version = VERSIONS.incrementAndGet();
+
+    private final Section<Engine> engines;
+    private final Section<Tyre> tyres;
+    private final Section<AeroKit> aeroKits;
+    private final Section<Track> tracks;
+    private final Section<Weather> weather;
+    private final Section<RaceStrategy> strategies;
+    // Built on first use; a race to build it only wastes work, as both indexes are equal
+    private volatile TrackIndex trackIndex;
+
+    private ComponentCatalog(ComponentCatalog base) {
+        this.engines = new Section<>(base != null ? base.engines : null);
+        this.tyres = new Section<>(base != null ? base.tyres : null);
+        this.aeroKits = new Section<>(base != null ? base.aeroKits : null);
+        this.tracks = new Section<>(base != null ? base.tracks : null);
+        this.weather = new Section<>(base != null ? base.weather : null);
+        this.strategies = new Section<>(base != null ? base.strategies : null);
+    }
+
+    /**
+     * Returns the current snapshot of the catalog used by {@link RaceManager},
+     * {@link AeroKitFactory}, {@link BatchJob} and {@link RaceSimulator};
+     * {@link #standard()} unless replaced. Never blocks.
+     */
+    public static ComponentCatalog getDefault() {
+        return DEFAULT.get();
+    }
+
+    /**
+     * Makes {@code catalog} the default, whatever its version.
+     */
+    public static void setDefault(ComponentCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        DEFAULT.set(catalog);
+    }
+
+    /**
+     * Makes {@code snapshot} the default unless a newer snapshot already is, so a slow
+     * reload cannot replace the result of a later one.
+     *
+     * @return whether {@code snapshot} is now the default
+     */
+    public static boolean publish(ComponentCatalog snapshot) {
+        if (snapshot == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        return DEFAULT.accumulateAndGet(snapshot,
+                (current, candidate) -> candidate.version > current.version ? candidate : current) == snapshot;
+    }
+
+    /**
+     * Returns a catalog of the components the static factories create, in menu order.
+     */
+    public static ComponentCatalog standard() {
+        ComponentCatalog catalog = new ComponentCatalog(null);
+        Map<ContentKey, Object> interned = new HashMap<>();
+        for (Engine engine : List.of(Engine.createStandardEngine(), Engine.createTurboEngine())) {
+            catalog.add(Type.ENGINE, engine.getType(), engine, interned);
+        }
+        for (Tyre tyre : List.of(Tyre.createSoftTyre(), Tyre.createMediumTyre(), Tyre.createHardTyre())) {
+            catalog.add(Type.TYRE, tyre.getCompound(), tyre, interned);
+        }
+        for (AeroKit kit : AeroKitFactory.createStandardKits()) {
+            catalog.add(Type.AERO_KIT, kit.getName(), kit, interned);
+        }
+        for (Track track : List.of(Track.createMonacoTrack(), Track.createMonzaTrack(),
+                Track.createSilverstoneTrack())) {
+            catalog.add(Type.TRACK, track.getName(), track, interned);
+        }
+        for (Weather conditions : List.of(Weather.createDryWeather(), Weather.createWetWeather(),
+                Weather.createMixedWeather())) {
+            catalog.add(Type.WEATHER, conditions.getCondition(), conditions, interned);
+        }
+        catalog.add(Type.STRATEGY, "Aggressive", RaceStrategy.createAggressiveStrategy(), interned);
+        catalog.add(Type.STRATEGY, "Balanced", RaceStrategy.createBalancedStrategy(), interned);
+        catalog.add(Type.STRATEGY, "Conservative", RaceStrategy.createConservativeStrategy(), interned);
+        return catalog;
+    }
+
+    /**
+     * Loads a catalog holding only the components in {@code file}.
+     *
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    public static ComponentCatalog load(Path file) throws IOException {
+        return load(file, null);
+    }
+
+    /**
+     * Loads {@code file} on top of {@code base}, which is not modified.
+     *
+     * @param base catalog whose entries come first, or null for none
+     * @throws IOException if the file cannot be read or a line is malformed
+     */
+    public static ComponentCatalog load(Path file, ComponentCatalog base) throws IOException {
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            return read(reader, file.toString(), base);
+        }
+    }
+
+    static ComponentCatalog read(BufferedReader reader, String source, ComponentCatalog base) throws IOException {
+        ComponentCatalog catalog = new ComponentCatalog(base);
+        Map<ContentKey, Object> interned = new HashMap<>();
+        if (base != null) {
+            for (Type type : Type.values()) {
+                for (Object component : base.section(type).items) {
+                    interned.putIfAbsent(new ContentKey(type, component), component);
+                }
+            }
+        }
+        // Difficulty, surface and strategy fields repeat; share one string per value
+        Map<String, String> values = new HashMap<>();
+        String[] fields = new String[8];
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int count = split(line, fields);
+            if (count == 0 || fields[0].startsWith("#")) {
+                continue;
+            }
+            try {
+                Type type = Type.forKeyword(fields[0]);
+                if (type == null) {
+                    throw new IllegalArgumentException("Unknown component type: " + fields[0]);
+                }
+                if (count != type.fieldCount + 2) {
+                    throw new IllegalArgumentException("A " + type.keyword + " needs a name and "
+                            + type.fieldCount + " fields, found " + (count - 1) + " values");
+                }
+                String name = fields[1];
+                if (name.isEmpty()) {
+                    throw new IllegalArgumentException("Component name cannot be empty");
+                }
+                Section<?> section = catalog.section(type);
+                int existing = section.idOf(name);
+                if (existing >= section.baseSize) {
+                    throw new IllegalArgumentException("Duplicate " + type.keyword + ": " + name);
+                }
+                catalog.add(type, name, create(type, fields, values), interned);
+            } catch (IllegalArgumentException e) {
+                throw new IOException(source + ":" + lineNumber + ": " + e.getMessage(), e);
+            }
+        }
+        return catalog;
+    }
+
+    // Splits a line into trimmed comma-separated fields; returns 0 for a blank line and
+    // more than the array length when there are too many fields
+    private static int split(String line, String[] fields) {
+        int count = 0;
+        int start = 0;
+        int length = line.length();
+        if (line.isBlank()) {
+            return 0;
+        }
+        while (true) {
+            int comma = line.indexOf(',', start);
+            int end = comma < 0 ? length : comma;
+            if (count == fields.length) {
+                return count + 1;
+            }
+            fields[count++] = line.substring(start, end).trim();
+            if (comma < 0) {
+                return count;
+            }
+            start = comma + 1;
+        }
+    }
+
+    private static Object create(Type type, String[] f, Map<String, String> values) {
+        switch (type) {
+            case ENGINE:
+                return new Engine(f[1], parseInt(f[2], "power"), parseDouble(f[3], "fuel efficiency"),
+                        parseDouble(f[4], "weight"));
+            case TYRE:
+                return new Tyre(f[1], parseDouble(f[2], "grip"), parseInt(f[3], "durability"),
+                        parseInt(f[4], "optimal temperature"), parseDouble(f[5], "wear rate"),
+                        parseDouble(f[6], "lap time bonus"));
+            case AERO_KIT:
+                return new AeroKit(f[1], parseDouble(f[2], "drag coefficient"), parseInt(f[3], "downforce"),
+                        parseInt(f[4], "top speed impact"));
+            case TRACK:
+                return new Track(f[1], parseDouble(f[2], "length"), parseInt(f[3], "corners"),
+                        share(values, f[4]), share(values, f[5]));
+            case WEATHER:
+                return new Weather(f[1], parseInt(f[2], "temperature"), parseInt(f[3], "wind speed"),
+                        parseInt(f[4], "rain intensity"));
+            default:
+                return new RaceStrategy(parseInt(f[2], "pit stops"), share(values, f[3]), share(values, f[4]),
+                        parseDouble(f[5], "estimated race time"));
+        }
+    }
+
+    private static String share(Map<String, String> values, String value) {
+        String shared = values.putIfAbsent(value, value);
+        return shared != null ? shared : value;
+    }
+
+    private static int parseInt(String value, String what) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    private static double parseDouble(String value, String what) {
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + what + ": " + value);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void add(Type type, String name, Object component, Map<ContentKey, Object> interned) {
+        Object shared = interned.putIfAbsent(new ContentKey(type, component), component);
+        ((Section<Object>) section(type)).put(name, shared != null ? shared : component);
+    }
+
+    private Section<?> section(Type type) {
+        switch (type) {
+            case ENGINE:
+                return engines;
+            case TYRE:
+                return tyres;
+            case AERO_KIT:
+                return aeroKits;
+            case TRACK:
+                return tracks;
+            case WEATHER:
+                return weather;
+            default:
+                return strategies;
+        }
+    }
+
+    /**
+     * Returns the snapshot version. Every catalog built in this process gets a higher
+     * version than the ones built before it; versions are not stable across restarts.
+     */
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * Returns how many named entries of the type the catalog holds.
+     */
+    public int size(Type type) {
+        return section(type).items.size();
+    }
+
+    /**
+     * Returns the id of the named entry, or -1 if there is none.
+     */
+    public int idOf(Type type, String name) {
+        return section(type).idOf(name);
+    }
+
+    /**
+     * Returns the entry names of the type in id order.
+     */
+    public List<String> getNames(Type type) {
+        return Collections.unmodifiableList(section(type).names);
+    }
+
+    /** Returns the engine with this name, or null. */
+    public Engine getEngine(String name) {
+        return engines.get(name);
+    }
+
+    public Engine getEngine(int id) {
+        return engines.items.get(id);
+    }
+
+    public List<Engine> getEngines() {
+        return Collections.unmodifiableList(engines.items);
+    }
+
+    /** Returns the tyre with this compound name, or null. */
+    public Tyre getTyre(String name) {
+        return tyres.get(name);
+    }
+
+    public Tyre getTyre(int id) {
+        return tyres.items.get(id);
+    }
+
+    public List<Tyre> getTyres() {
+        return Collections.unmodifiableList(tyres.items);
+    }
+
+    /** Returns the aero kit with this name, or null. */
+    public AeroKit getAeroKit(String name) {
+        return aeroKits.get(name);
+    }
+
+    public AeroKit getAeroKit(int id) {
+        return aeroKits.items.get(id);
+    }
+
+    public List<AeroKit> getAeroKits() {
+        return Collections.unmodifiableList(aeroKits.items);
+    }
+
+    /** Returns the track with this name, or null. */
+    public Track getTrack(String name) {
+        return tracks.get(name);
+    }
+
+    public Track getTrack(int id) {
+        return tracks.items.get(id);
+    }
+
+    public List<Track> getTracks() {
+        return Collections.unmodifiableList(tracks.items);
+    }
+
+    /**
+     * Returns a {@link TrackIndex} of the catalog's tracks, built on the first call.
+     */
+    public TrackIndex getTrackIndex() {
+        TrackIndex index = trackIndex;
+        if (index == null) {
+            index = new TrackIndex(tracks.items);
+            trackIndex = index;
+        }
+        return index;
+    }
+
+    /** Returns the weather preset with this name, or null. */
+    public Weather getWeather(String name) {
+        return weather.get(name);
+    }
+
+    public Weather getWeather(int id) {
+        return weather.items.get(id);
+    }
+
+    public List<Weather> getWeatherPresets() {
+        return Collections.unmodifiableList(weather.items);
+    }
+
+    /** Returns the strategy with this name, or null. */
+    public RaceStrategy getStrategy(String name) {
+        return strategies.get(name);
+    }
+
+    public RaceStrategy getStrategy(int id) {
+        return strategies.items.get(id);
+    }
+
+    public List<RaceStrategy> getStrategies() {
+        return Collections.unmodifiableList(strategies.items);
+    }
+
+    @Override
+    public String toString() {
+        return "ComponentCatalog{version=" + version
+                + ", engines=" + engines.items.size()
+                + ", tyres=" + tyres.items.size()
+                + ", aeroKits=" + aeroKits.items.size()
+                + ", tracks=" + tracks.items.size()
+                + ", weather=" + weather.items.size()
+                + ", strategies=" + strategies.items.size() + "}";
+    }
+
+    // Identifies a component by its fields, for interning; strategies are unnamed, so
+    // two strategy names with the same plan share one instance
+    private static final class ContentKey {
+        private final Type type;
+        private final Object component;
+        private final int hash;
+
+        ContentKey(Type type, Object component) {
+            this.type = type;
+            this.component = component;
+            this.hash = 31 * type.hashCode() + Arrays.hashCode(fields(type, component));
+        }
+
+        private static Object[] fields(Type type, Object component) {
+            switch (type) {
+                case ENGINE: {
+                    Engine e = (Engine) component;
+                    return new Object[] {e.getType(), e.getPower(), e.getFuelEfficiency(), e.getWeight()};
+                }
+                case TYRE: {
+                    Tyre t = (Tyre) component;
+                    return new Object[] {t.getCompound(), t.getGripLevel(), t.getDurability(),
+                            t.getOptimalTemperature(), t.getWearRate(), t.getBaseLapTimeBonus()};
+                }
+                case AERO_KIT: {
+                    AeroKit k = (AeroKit) component;
+                    return new Object[] {k.getName(), k.getDragCoefficient(), k.getDownforce(), k.getTopSpeedImpact()};
+                }
+                case TRACK: {
+                    Track t = (Track) component;
+                    return new Object[] {t.getName(), t.getLength(), t.getCorners(), t.getDifficulty(),
+                            t.getSurfaceType()};
+                }
+                case WEATHER: {
+                    Weather w = (Weather) component;
+                    return new Object[] {w.getCondition(), w.getTemperature(), w.getWindSpeed(),
+                            w.getRainIntensity()};
+                }
+                default: {
+                    RaceStrategy s = (RaceStrategy) component;
+                    return new Object[] {s.getNumberOfPitStops(), s.getTyreStrategy(), s.getFuelStrategy(),
+                            s.getEstimatedRaceTime()};
+                }
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ContentKey)) {
+                return false;
+            }
+            ContentKey other = (ContentKey) o;
+            return type == other.type && hash == other.hash
+                    && Arrays.equals(fields(type, component), fields(type, other.component));
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+
+    // Entries of one type: parallel lists indexed by id plus name indexes
+    private static class Section<T> {
+        final List<T> items;
+        final List<String> names;
+        final Map<String, Integer> ids;
+        final Map<String, Integer> lowerCaseIds;
+        // Entries copied from the base catalog; ids below this may be replaced
+        final int baseSize;
+
+        Section(Section<T> base) {
+            if (base == null) {
+                items = new ArrayList<>();
+                names = new ArrayList<>();
+                ids = new HashMap<>();
+                lowerCaseIds = new HashMap<>();
+            } else {
+                items = new ArrayList<>(base.items);
+                names = new ArrayList<>(base.names);
+                ids = new HashMap<>(base.ids);
+                lowerCaseIds = new HashMap<>(base.lowerCaseIds);
+            }
+            baseSize = items.size();
+        }
+
+        void put(String name, T component) {
+            int id = idOf(name);
+            if (id >= 0) {
+                items.set(id, component);
+                return;
+            }
+            Integer newId = items.size();
+            items.add(component);
+            names.add(name);
+            ids.put(name, newId);
+            lowerCaseIds.putIfAbsent(name.toLowerCase(Locale.ROOT), newId);
+        }
+
+        int idOf(String name) {
+            if (name == null) {
+                return -1;
+            }
+            Integer id = ids.get(name);
+            if (id == null) {
+                id = lowerCaseIds.get(name.toLowerCase(Locale.ROOT));
+            }
+            return id != null ? id : -1;
+        }
+
+        T get(String name) {
+            int id = idOf(name);
+            return id >= 0 ? items.get(id) : null;
+        }
+    }
+}
@@ -0,0 +1,94 @@
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The engine's own metrics, registered once in {@link MetricsRegistry#getDefault()}.
+ *
+ * Hot paths update these fields directly. Per-lap and per-stop totals are added once
+ * per race rather than once per lap.
+ */
+public final class EngineMetrics {
+    private static final MetricsRegistry REGISTRY = MetricsRegistry.getDefault();
+
+    public static final MetricsRegistry.Counter RACES_SIMULATED = REGISTRY.counter(
+            "raceoptimizer_races_simulated_total", "Races simulated");
+    public static final MetricsRegistry.Counter LAPS_SIMULATED = REGISTRY.counter(
+            "raceoptimizer_laps_simulated_total", "Laps simulated");
+    public static final MetricsRegistry.Counter PIT_STOPS = REGISTRY.counter(
+            "raceoptimizer_pit_stops_total", "Pit stops simulated");
+    public static final LatencyHistogram RACE_DURATION = REGISTRY.histogram(
+            "raceoptimizer_race_simulation_seconds", "Time spent in RaceSimulator.simulateRace");
+    // Races currently inside simulateRace, exported as a gauge
+    public static final LongAdder ACTIVE_SIMULATIONS = new LongAdder();
+
+    public static final MetricsRegistry.Counter VALIDATIONS = REGISTRY.counter(
+            "raceoptimizer_validations_total", "Validator calls");
+    public static final MetricsRegistry.Counter CAR_VALIDATION_FAILURES = validationFailures(
+            "InvalidCarConfigurationException");
+    public static final MetricsRegistry.Counter TRACK_VALIDATION_FAILURES = validationFailures(
+            "InvalidTrackDataException");
+    public static final MetricsRegistry.Counter STRATEGY_VALIDATION_FAILURES = validationFailures(
+            "InvalidStrategyException");
+
+    public static final MetricsRegistry.Counter CAR_CACHE_HITS = validationCacheLookups("car", "hit");
+    public static final MetricsRegistry.Counter CAR_CACHE_MISSES = validationCacheLookups("car", "miss");
+    public static final MetricsRegistry.Counter TRACK_CACHE_HITS = validationCacheLookups("track", "hit");
+    public static final MetricsRegistry.Counter TRACK_CACHE_MISSES = validationCacheLookups("track", "miss");
+    public static final MetricsRegistry.Counter STRATEGY_CACHE_HITS = validationCacheLookups("strategy", "hit");
+    public static final MetricsRegistry.Counter STRATEGY_CACHE_MISSES = validationCacheLookups("strategy", "miss");
+
+    public static final MetricsRegistry.Counter OPTIMISER_SETUPS_EVALUATED = optimiserSetups("evaluated");
+    public static final MetricsRegistry.Counter OPTIMISER_SETUPS_PRUNED = optimiserSetups("pruned");
+    public static final MetricsRegistry.Counter OPTIMISER_SETUPS_DUPLICATE = optimiserSetups("duplicate");
+
+    public static final MetricsRegistry.Counter CATALOG_RELOADS = catalogReloads("success");
+    public static final MetricsRegistry.Counter CATALOG_RELOAD_FAILURES = catalogReloads("failure");
+
+    static {
+        REGISTRY.gauge("raceoptimizer_active_simulations", "Races currently being simulated",
+                ACTIVE_SIMULATIONS::sum);
+        REGISTRY.gauge("raceoptimizer_catalog_version", "Version of the default component catalog",
+                () -> ComponentCatalog.getDefault().getVersion());
+    }
+
+    private EngineMetrics() {
+    }
+
+    private static MetricsRegistry.Counter validationFailures(String exceptionType) {
+        return REGISTRY.counter("raceoptimizer_validation_failures_total",
+                "Failed validations by exception type", "exception", exceptionType);
+    }
+
+    private static MetricsRegistry.Counter validationCacheLookups(String cache, String result) {
+        return REGISTRY.counter("raceoptimizer_validation_cache_lookups_total",
+                "ValidationCache lookups by component and outcome", "cache", cache, "result", result);
+    }
+
+    private static MetricsRegistry.Counter optimiserSetups(String outcome) {
+        return REGISTRY.counter("raceoptimizer_optimiser_setups_total",
+                "SetupOptimiser setups by outcome", "outcome", outcome);
+    }
+
+    private static MetricsRegistry.Counter catalogReloads(String result) {
+        return REGISTRY.counter("raceoptimizer_catalog_reloads_total",
+                "CatalogReloader reloads by outcome", "result", result);
+    }
+
+    /**
+     * Does nothing; calling it makes sure the metrics above are registered.
+     */
+    static void register() {
+    }
+
+    /**
+     * Counts a failed validation under its exception type.
+     */
+    static void recordValidationFailure(Exception failure) {
+        if (failure instanceof InvalidCarConfigurationException) {
+            CAR_VALIDATION_FAILURES.increment();
+        } else if (failure instanceof InvalidTrackDataException) {
+            TRACK_VALIDATION_FAILURES.increment();
+        } else if (failure instanceof InvalidStrategyException) {
+            STRATEGY_VALIDATION_FAILURES.increment();
+        }
+    }
+}
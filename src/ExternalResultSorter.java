@@ -0,0 +1,265 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Disk-backed sort of result files that do not fit in the heap.
+ *
+ * The input is cut into chunks that fit the memory budget; chunks are sorted and
+ * written as runs in parallel, then all runs are merged with a k-way merge. At most
+ * {@code parallelism} chunks are sorting while the reader fills one more, and each
+ * chunk gets {@code memoryBudget / (parallelism + 1)} bytes, so peak heap use stays
+ * within the configured budget regardless of the input size.
+ *
+ * Run and intermediate merge files are deleted however the sort ends, including when
+ * it fails part way.
+ */
+public class ExternalResultSorter {
+
+    /** Fastest race first. */
+    public static final Comparator<RaceResult> BY_RACE_TIME =
+            Comparator.comparingDouble(RaceResult::getRaceTime);
+
+    /** Grouped by track, then strategy, fastest first within each group. */
+    public static final Comparator<RaceResult> BY_TRACK_STRATEGY_TIME =
+            Comparator.comparing(RaceResult::getTrackName, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparing(RaceResult::getStrategy, Comparator.nullsFirst(Comparator.<String>naturalOrder()))
+                    .thenComparingDouble(RaceResult::getRaceTime);
+
+    /** Grouped by scenario hash, the order {@link ResultDiff} joins on. */
+    public static final Comparator<RaceResult> BY_SCENARIO_HASH =
+            Comparator.comparingLong(ResultFile::scenarioHash);
+
+    public static final long DEFAULT_MEMORY_BUDGET = 64L * 1024 * 1024;
+
+    // Upper bound on simultaneously open runs during a merge pass
+    public static final int DEFAULT_MAX_FAN_IN = 64;
+
+    private final Comparator<RaceResult> comparator;
+    private final long memoryBudget;
+    private final int parallelism;
+    private final int maxFanIn;
+    private final Path tempDirectory;
+
+    public ExternalResultSorter(Comparator<RaceResult> comparator) {
+        this(comparator, DEFAULT_MEMORY_BUDGET, Runtime.getRuntime().availableProcessors(), null);
+    }
+
+    /**
+     * @param comparator result ordering
+     * @param memoryBudget bytes of heap the sort may use for buffered results
+     * @param parallelism number of chunks sorted concurrently
+     * @param tempDirectory where runs are written, or null for the output file's directory
+     */
+    public ExternalResultSorter(Comparator<RaceResult> comparator, long memoryBudget, int parallelism,
+                                Path tempDirectory) {
+        this(comparator, memoryBudget, parallelism, DEFAULT_MAX_FAN_IN, tempDirectory);
+    }
+
+    ExternalResultSorter(Comparator<RaceResult> comparator, long memoryBudget, int parallelism,
+                         int maxFanIn, Path tempDirectory) {
+        if (comparator == null) {
+            throw new IllegalArgumentException("Comparator cannot be null");
+        }
+        if (memoryBudget <= 0 || parallelism <= 0 || maxFanIn < 2) {
+            throw new IllegalArgumentException("Memory budget and parallelism must be positive, fan-in at least 2");
+        }
+        this.comparator = comparator;
+        this.memoryBudget = memoryBudget;
+        this.parallelism = parallelism;
+        this.maxFanIn = maxFanIn;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Sorts {@code input} into {@code output}.
+     *
+     * @return the number of results written
+     */
+    public long sort(Path input, Path output) throws IOException {
+        Path workDir = tempDirectory != null ? tempDirectory : output.toAbsolutePath().getParent();
+        List<Path> runs = createRuns(input, workDir);
+        // Every run and merge file created so far, so a failed pass leaves none behind
+        List<Path> temporary = new ArrayList<>(runs);
+        try {
+            while (runs.size() > maxFanIn) {
+                List<Path> next = new ArrayList<>();
+                for (int i = 0; i < runs.size(); i += maxFanIn) {
+                    List<Path> group = runs.subList(i, Math.min(runs.size(), i + maxFanIn));
+                    Path merged = Files.createTempFile(workDir, "merge-", ".run");
+                    temporary.add(merged);
+                    merge(group, merged);
+                    deleteAll(group);
+                    next.add(merged);
+                }
+                runs = next;
+            }
+            return merge(runs, output);
+        } finally {
+            deleteAll(temporary);
+        }
+    }
+
+    // Phase 1: cut the input into budget-sized chunks and sort them in parallel
+    private List<Path> createRuns(Path input, Path workDir) throws IOException {
+        // One chunk per sorting thread plus the one the reader is filling
+        long chunkBudget = Math.max(1, memoryBudget / (parallelism + 1));
+        Semaphore inFlight = new Semaphore(parallelism);
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism,
+                BoundedExecutor.daemonThreads("result-sort"));
+        List<Future<Path>> pending = new ArrayList<>();
+        boolean complete = false;
+        try (ResultFile.Reader reader = ResultFile.newReader(input)) {
+            List<RaceResult> chunk = new ArrayList<>();
+            long chunkBytes = 0;
+            RaceResult result;
+            while ((result = reader.next()) != null) {
+                chunk.add(result);
+                chunkBytes += ResultFile.estimateHeapBytes(result);
+                if (chunkBytes >= chunkBudget) {
+                    pending.add(submitRun(executor, inFlight, chunk, workDir));
+                    chunk = new ArrayList<>();
+                    chunkBytes = 0;
+                }
+            }
+            if (!chunk.isEmpty() || pending.isEmpty()) {
+                pending.add(submitRun(executor, inFlight, chunk, workDir));
+            }
+
+            List<Path> runs = new ArrayList<>();
+            for (Future<Path> future : pending) {
+                runs.add(future.get());
+            }
+            complete = true;
+            return runs;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while sorting " + input, e);
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to write sorted run", e.getCause());
+        } finally {
+            executor.shutdownNow();
+            if (!complete) {
+                deleteFinishedRuns(executor, pending);
+            }
+        }
+    }
+
+    // After a failure, waits for the run tasks still writing and deletes every run that
+    // was written; tasks that never started leave nothing behind
+    private static void deleteFinishedRuns(ExecutorService executor, List<Future<Path>> pending) {
+        boolean interrupted = false;
+        while (true) {
+            try {
+                if (executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                    break;
+                }
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        List<Path> runs = new ArrayList<>();
+        for (Future<Path> future : pending) {
+            if (future.isDone() && !future.isCancelled()) {
+                try {
+                    runs.add(future.get());
+                } catch (InterruptedException | ExecutionException e) {
+                    // The task failed and removed its own partial run
+                }
+            }
+        }
+        deleteAll(runs);
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private Future<Path> submitRun(ExecutorService executor, Semaphore inFlight, List<RaceResult> chunk,
+                                   Path workDir) throws InterruptedException {
+        // Blocks the reader until a chunk slot is free, which bounds buffered memory
+        inFlight.acquire();
+        return executor.submit(() -> {
+            try {
+                chunk.sort(comparator);
+                Path run = Files.createTempFile(workDir, "sort-", ".run");
+                try (ResultFile.Writer writer = ResultFile.newWriter(run)) {
+                    for (RaceResult r : chunk) {
+                        writer.write(r);
+                    }
+                } catch (IOException | RuntimeException e) {
+                    deleteAll(List.of(run));
+                    throw e;
+                }
+                return run;
+            } finally {
+                chunk.clear();
+                inFlight.release();
+            }
+        });
+    }
+
+    // Phase 2: k-way merge of sorted runs
+    private long merge(List<Path> runs, Path output) throws IOException {
+        List<ResultFile.Reader> readers = new ArrayList<>();
+        PriorityQueue<Cursor> heads = new PriorityQueue<>((a, b) -> {
+            int c = comparator.compare(a.current, b.current);
+            return c != 0 ? c : Integer.compare(a.index, b.index);
+        });
+        try (ResultFile.Writer writer = ResultFile.newWriter(output)) {
+            for (int i = 0; i < runs.size(); i++) {
+                ResultFile.Reader reader = ResultFile.newReader(runs.get(i));
+                readers.add(reader);
+                RaceResult first = reader.next();
+                if (first != null) {
+                    heads.add(new Cursor(i, reader, first));
+                }
+            }
+            while (!heads.isEmpty()) {
+                Cursor cursor = heads.poll();
+                writer.write(cursor.current);
+                cursor.current = cursor.reader.next();
+                if (cursor.current != null) {
+                    heads.add(cursor);
+                }
+            }
+            return writer.getCount();
+        } finally {
+            for (ResultFile.Reader reader : readers) {
+                reader.close();
+            }
+        }
+    }
+
+    private static void deleteAll(List<Path> paths) {
+        for (Path path : paths) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException e) {
+                // Best effort: a leftover run file does not affect the sorted output
+                path.toFile().deleteOnExit();
+            }
+        }
+    }
+
+    private static class Cursor {
+        private final int index;
+        private final ResultFile.Reader reader;
+        private RaceResult current;
+
+        Cursor(int index, ResultFile.Reader reader, RaceResult current) {
+            this.index = index;
+            this.reader = reader;
+            this.current = current;
+        }
+    }
+}
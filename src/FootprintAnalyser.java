@@ -0,0 +1,340 @@
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+import java.lang.instrument.Instrumentation;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Estimates heap footprint of domain objects and projects heap needs of large jobs.
+ *
+ * Object sizes come from {@link Instrumentation#getObjectSize} when the project jar is
+ * loaded as an agent ({@code -javaagent:race-strategy-optimizer.jar}), and otherwise
+ * from a layout walk that follows HotSpot's rules: object header, field widths,
+ * compressed references and 8-byte alignment. Deep sizes follow references by
+ * reflection. JDK internals that cannot be opened are handled for the types the
+ * engine uses (strings, date-times, collections) and counted shallowly otherwise.
+ */
+public class FootprintAnalyser {
+    private static volatile Instrumentation instrumentation;
+
+    private final int referenceSize;
+    private final int headerSize;
+    private final int arrayHeaderSize;
+    private final int alignment;
+    private final Map<Class<?>, Long> shallowSizes = new IdentityHashMap<>();
+
+    /**
+     * Agent entry point, used when the jar is passed with {@code -javaagent}.
+     */
+    public static void premain(String args, Instrumentation inst) {
+        instrumentation = inst;
+    }
+
+    public static void agentmain(String args, Instrumentation inst) {
+        instrumentation = inst;
+    }
+
+    public static boolean hasInstrumentation() {
+        return instrumentation != null;
+    }
+
+    /**
+     * Uses the running JVM's settings for compressed references and alignment.
+     */
+    public FootprintAnalyser() {
+        this(vmFlag("UseCompressedOops", true), vmFlag("UseCompressedClassPointers", true),
+                Integer.parseInt(vmOption("ObjectAlignmentInBytes", "8")));
+    }
+
+    FootprintAnalyser(boolean compressedOops, boolean compressedClassPointers, int alignment) {
+        if (alignment <= 0 || Integer.bitCount(alignment) != 1) {
+            throw new IllegalArgumentException("Alignment must be a power of two: " + alignment);
+        }
+        this.referenceSize = compressedOops ? 4 : 8;
+        this.headerSize = compressedClassPointers ? 12 : 16;
+        this.arrayHeaderSize = compressedClassPointers ? 16 : 20;
+        this.alignment = alignment;
+    }
+
+    private static boolean vmFlag(String name, boolean fallback) {
+        return Boolean.parseBoolean(vmOption(name, Boolean.toString(fallback)));
+    }
+
+    private static String vmOption(String name, String fallback) {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return hotSpot == null ? fallback : hotSpot.getVMOption(name).getValue();
+        } catch (RuntimeException e) {
+            return fallback;
+        }
+    }
+
+    public int getReferenceSize() {
+        return referenceSize;
+    }
+
+    /**
+     * Returns the size of the object itself, not counting what it references.
+     */
+    public long shallowSize(Object object) {
+        if (object == null) {
+            return 0;
+        }
+        if (instrumentation != null) {
+            return instrumentation.getObjectSize(object);
+        }
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            Class<?> component = type.getComponentType();
+            return align(arrayHeaderSize + (long) Array.getLength(object) * fieldSize(component));
+        }
+        return shallowSizes.computeIfAbsent(type, this::instanceSize);
+    }
+
+    private long instanceSize(Class<?> type) {
+        long size = headerSize;
+        for (Class<?> c = type; c != null; c = c.getSuperclass()) {
+            for (Field field : c.getDeclaredFields()) {
+                if (!Modifier.isStatic(field.getModifiers())) {
+                    size += fieldSize(field.getType());
+                }
+            }
+        }
+        return align(size);
+    }
+
+    private int fieldSize(Class<?> type) {
+        if (!type.isPrimitive()) {
+            return referenceSize;
+        } else if (type == long.class || type == double.class) {
+            return 8;
+        } else if (type == int.class || type == float.class) {
+            return 4;
+        } else if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    private long align(long size) {
+        return (size + alignment - 1) & -alignment;
+    }
+
+    /**
+     * Returns the total size of everything reachable from {@code root}.
+     */
+    public long deepSize(Object root) {
+        return deepSize(root, object -> false);
+    }
+
+    /**
+     * Returns the total size reachable from {@code root}, skipping (and not descending
+     * into) objects for which {@code shared} is true, such as strings that many results
+     * point to.
+     */
+    public long deepSize(Object root, Predicate<Object> shared) {
+        Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+        ArrayDeque<Object> pending = new ArrayDeque<>();
+        push(pending, root);
+        long total = 0;
+        while (!pending.isEmpty()) {
+            Object object = pending.pop();
+            if (!visited.add(object) || (object != root && shared.test(object))) {
+                continue;
+            }
+            total += shallowSize(object);
+            pushChildren(object, pending);
+        }
+        return total;
+    }
+
+    private void pushChildren(Object object, ArrayDeque<Object> pending) {
+        Class<?> type = object.getClass();
+        if (type.isArray()) {
+            if (!type.getComponentType().isPrimitive()) {
+                for (Object element : (Object[]) object) {
+                    push(pending, element);
+                }
+            }
+        } else if (object instanceof String) {
+            // Compact strings: one byte per char when all chars are Latin-1
+            String s = (String) object;
+            boolean latin1 = s.chars().allMatch(c -> c <= 0xFF);
+            push(pending, new byte[latin1 ? s.length() : s.length() * 2]);
+        } else if (object instanceof LocalDateTime) {
+            push(pending, ((LocalDateTime) object).toLocalDate());
+            push(pending, ((LocalDateTime) object).toLocalTime());
+        } else if (object instanceof Collection && isJdkClass(type)) {
+            // Elements plus an approximate backing array of references
+            Collection<?> collection = (Collection<?>) object;
+            push(pending, new Object[collection.size()]);
+            for (Object element : collection) {
+                push(pending, element);
+            }
+        } else if (object instanceof Map && isJdkClass(type)) {
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) object).entrySet()) {
+                push(pending, new Object[2]);
+                push(pending, entry.getKey());
+                push(pending, entry.getValue());
+            }
+        } else if (!isJdkClass(type)) {
+            for (Class<?> c = type; c != null && !isJdkClass(c); c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers()) || field.getType().isPrimitive()
+                            || !field.trySetAccessible()) {
+                        continue;
+                    }
+                    try {
+                        push(pending, field.get(object));
+                    } catch (IllegalAccessException e) {
+                        // Counted shallowly
+                    }
+                }
+            }
+        }
+        // Other JDK types (boxes, enums, ...) are counted shallowly
+    }
+
+    private static void push(ArrayDeque<Object> pending, Object object) {
+        if (object != null) {
+            pending.push(object);
+        }
+    }
+
+    private static boolean isJdkClass(Class<?> type) {
+        return type.getClassLoader() == null;
+    }
+
+    /**
+     * Returns the heap bytes one race adds under a result mode. For {@link ResultMode#FULL}
+     * this is a simulated result plus its slot in a list; the car, track and strategy
+     * names are shared with the components and not counted. {@link ResultMode#TOP_K}
+     * costs the same per kept result, and {@link ResultMode#SUMMARY} reports the cost
+     * per scenario rather than per race.
+     */
+    public long bytesPerEntry(ResultMode mode) {
+        switch (mode) {
+            case FULL:
+            case TOP_K:
+                return deepSize(sampleResult(), object -> object instanceof String) + referenceSize;
+            case COMPACT:
+                return ResultMode.COMPACT_ROW_BYTES;
+            case SUMMARY:
+                // Statistics object, its scenario hash and a reference to it
+                return deepSize(new RaceTimeStatistics()) + Long.BYTES + referenceSize;
+            default:
+                throw new IllegalArgumentException("Unknown result mode: " + mode);
+        }
+    }
+
+    /**
+     * Projects the heap a sweep needs for its results.
+     *
+     * @param scenarios distinct scenarios
+     * @param replications races per scenario
+     * @param topK results kept in {@link ResultMode#TOP_K} mode
+     */
+    public long projectHeapBytes(ResultMode mode, long scenarios, int replications, int topK) {
+        if (scenarios < 0 || replications <= 0 || topK <= 0) {
+            throw new IllegalArgumentException("Scenarios must be non-negative, replications and K positive");
+        }
+        long races = scenarios * replications;
+        switch (mode) {
+            case FULL:
+            case COMPACT:
+                return races * bytesPerEntry(mode);
+            case TOP_K:
+                return Math.min(races, topK) * bytesPerEntry(mode);
+            case SUMMARY:
+                return scenarios * bytesPerEntry(mode);
+            default:
+                throw new IllegalArgumentException("Unknown result mode: " + mode);
+        }
+    }
+
+    private static RaceResult sampleResult() {
+        Car car = sampleCar();
+        return new RaceSimulator(1).simulateRace(car, Track.createSilverstoneTrack(),
+                RaceStrategy.createBalancedStrategy(), Weather.createDryWeather());
+    }
+
+    private static Car sampleCar() {
+        return new Car(1, "Sample Car", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+    }
+
+    /**
+     * Renders object sizes and the heap projection for every result mode.
+     */
+    public String report(long scenarios, int replications, int topK) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("Object sizes (%s, %d-byte references)%n",
+                hasInstrumentation() ? "Instrumentation" : "layout estimate", referenceSize));
+        Track track = Track.createSilverstoneTrack();
+        track.setCurrentWeather(Weather.createDryWeather());
+        appendSize(sb, "Car", deepSize(sampleCar()));
+        appendSize(sb, "Track (with weather)", deepSize(track));
+        appendSize(sb, "RaceStrategy", deepSize(RaceStrategy.createBalancedStrategy()));
+        appendSize(sb, "RaceResult", deepSize(sampleResult()));
+        appendSize(sb, "RaceResult (shared names)", bytesPerEntry(ResultMode.FULL) - referenceSize);
+        appendSize(sb, "Compact result row", ResultMode.COMPACT_ROW_BYTES);
+        appendSize(sb, "Scenario summary", bytesPerEntry(ResultMode.SUMMARY));
+
+        sb.append(String.format("%nProjected result heap for %,d scenarios x %,d replications (K = %,d)%n",
+                scenarios, replications, topK));
+        for (ResultMode mode : ResultMode.values()) {
+            long bytes = projectHeapBytes(mode, scenarios, replications, topK);
+            sb.append(String.format("  %-8s %12s   suggested -Xmx%s%n",
+                    mode, formatBytes(bytes), suggestedHeap(bytes)));
+        }
+        return sb.toString();
+    }
+
+    private static void appendSize(StringBuilder sb, String label, long bytes) {
+        sb.append(String.format("  %-26s %6d bytes%n", label, bytes));
+    }
+
+    // Results at most half the heap after GC, on top of a 256 MB base for the engine
+    static String suggestedHeap(long resultBytes) {
+        long megabytes = (resultBytes * 2 + (256L << 20) + (1L << 20) - 1) >> 20;
+        if (megabytes >= 1024) {
+            return ((megabytes + 1023) >> 10) + "g";
+        }
+        return megabytes + "m";
+    }
+
+    static String formatBytes(long bytes) {
+        String[] units = {"B", "KB", "MB", "GB", "TB", "PB"};
+        double value = bytes;
+        int unit = 0;
+        while (value >= 1024 && unit < units.length - 1) {
+            value /= 1024;
+            unit++;
+        }
+        return unit == 0 ? bytes + " B" : String.format("%.1f %s", value, units[unit]);
+    }
+
+    /**
+     * {@code FootprintAnalyser <scenarios> <replications> [topK]}
+     */
+    public static void main(String[] args) {
+        if (args.length < 2 || args.length > 3) {
+            System.err.println("Usage: FootprintAnalyser <scenarios> <replications> [topK]");
+            System.exit(2);
+        }
+        long scenarios = Long.parseLong(args[0]);
+        int replications = Integer.parseInt(args[1]);
+        int topK = args.length == 3 ? Integer.parseInt(args[2]) : 100;
+        System.out.print(new FootprintAnalyser().report(scenarios, replications, topK));
+    }
+}
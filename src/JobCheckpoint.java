@@ -0,0 +1,138 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.BitSet;
+import java.util.zip.CRC32;
+
+/**
+ * Snapshot of a long-running job's progress: which scenarios are done, the
+ * accumulated race time statistics, and how far the result log had been
+ * committed when the snapshot was taken.
+ *
+ * Checkpoints are written to a temporary file, forced to disk and then moved over
+ * the previous checkpoint atomically, so a crash leaves either the old or the new
+ * checkpoint behind, never a half-written one.
+ */
+public class JobCheckpoint {
+    private static final int MAGIC = 0x5253434B; // "RSCK"
+    private static final short VERSION = 1;
+
+    private final long scenarioCount;
+    private final BitSet completed;
+    private final RaceTimeStatistics statistics;
+    private final long logOffset;
+
+    public JobCheckpoint(long scenarioCount, BitSet completed, RaceTimeStatistics statistics, long logOffset) {
+        this.scenarioCount = scenarioCount;
+        this.completed = (BitSet) completed.clone();
+        this.statistics = statistics.copy();
+        this.logOffset = logOffset;
+    }
+
+    public long getScenarioCount() {
+        return scenarioCount;
+    }
+
+    public BitSet getCompleted() {
+        return (BitSet) completed.clone();
+    }
+
+    public int getCompletedCount() {
+        return completed.cardinality();
+    }
+
+    public RaceTimeStatistics getStatistics() {
+        return statistics.copy();
+    }
+
+    public long getLogOffset() {
+        return logOffset;
+    }
+
+    /**
+     * Writes the checkpoint atomically to {@code path}.
+     */
+    public void save(Path path) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeShort(VERSION);
+        out.writeLong(scenarioCount);
+        out.writeLong(logOffset);
+        statistics.writeTo(out);
+        byte[] bits = completed.toByteArray();
+        out.writeInt(bits.length);
+        out.write(bits);
+        CRC32 crc = new CRC32();
+        crc.update(bytes.toByteArray());
+        out.writeLong(crc.getValue());
+        out.flush();
+
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(true);
+        }
+        Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Loads a checkpoint.
+     *
+     * @return the checkpoint, or null if none has been written yet
+     * @throws IOException if the file exists but is corrupt
+     */
+    public static JobCheckpoint load(Path path) throws IOException {
+        byte[] bytes;
+        try {
+            bytes = Files.readAllBytes(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+        if (bytes.length < Long.BYTES) {
+            throw new IOException("Checkpoint is truncated: " + path);
+        }
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, bytes.length - Long.BYTES);
+        long expected = ByteBuffer.wrap(bytes, bytes.length - Long.BYTES, Long.BYTES).getLong();
+        if (crc.getValue() != expected) {
+            throw new IOException("Checkpoint checksum mismatch: " + path);
+        }
+
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a job checkpoint: " + path);
+        }
+        short version = in.readShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported checkpoint version " + version + ": " + path);
+        }
+        long scenarioCount = in.readLong();
+        long logOffset = in.readLong();
+        RaceTimeStatistics statistics = RaceTimeStatistics.readFrom(in);
+        byte[] bits = new byte[in.readInt()];
+        in.readFully(bits);
+        return new JobCheckpoint(scenarioCount, BitSet.valueOf(bits), statistics, logOffset);
+    }
+
+    @Override
+    public String toString() {
+        return "JobCheckpoint{completed=" + getCompletedCount() + "/" + scenarioCount +
+                ", logOffset=" + logOffset +
+                ", statistics=" + statistics +
+                '}';
+    }
+}
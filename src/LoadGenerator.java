@@ -0,0 +1,709 @@
+import com.sun.management.GarbageCollectionNotificationInfo;
+
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.openmbean.CompositeData;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Load and soak test harness for the simulation engine.
+ *
+ * Drives a weighted mix of operations either open loop (requests arrive at a fixed
+ * rate whether or not earlier ones finished) or closed loop (a fixed number of
+ * clients, each waiting for its previous request). Open-loop latency is measured
+ * from the intended start time, so queueing delay is included rather than hidden.
+ *
+ * While running it samples heap use after GC, GC pauses (from GC notifications) and
+ * completed requests, so the report shows both latency percentiles and whether heap
+ * or throughput drift over a long run. Operations are plain callbacks; the default
+ * mix from {@link #forEngine(int)} calls the in-process engine, but an operation can
+ * equally call a local service.
+ */
+public class LoadGenerator {
+
+    /**
+     * One request type. The random source is private to the calling thread.
+     */
+    public interface Operation {
+        void execute(SplittableRandom random) throws Exception;
+    }
+
+    public enum Mode {
+        OPEN, CLOSED
+    }
+
+    private final Map<String, WeightedOperation> operations = new LinkedHashMap<>();
+    private Mode mode = Mode.CLOSED;
+    private double ratePerSecond = 1000;
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    private long thinkTimeNanos;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int maxBacklog = 10_000;
+    private Duration duration = Duration.ofSeconds(30);
+    private Duration warmup = Duration.ZERO;
+    private Duration sampleInterval = Duration.ofSeconds(1);
+    private long seed = System.nanoTime();
+
+    /**
+     * Adds an operation to the mix. Each request picks an operation with probability
+     * proportional to its weight.
+     */
+    public void addOperation(String name, double weight, Operation operation) {
+        if (name == null || operation == null) {
+            throw new IllegalArgumentException("Operation name and callback cannot be null");
+        }
+        if (!(weight > 0)) {
+            throw new IllegalArgumentException("Weight must be positive: " + weight);
+        }
+        if (operations.containsKey(name)) {
+            throw new IllegalArgumentException("Duplicate operation: " + name);
+        }
+        operations.put(name, new WeightedOperation(operations.size(), name, weight, operation));
+    }
+
+    /**
+     * Issues requests at a fixed rate, run by a pool of {@link #setThreads} workers.
+     * Requests that find more than {@link #setMaxBacklog} waiting are dropped and counted.
+     */
+    public void setOpenLoop(double ratePerSecond) {
+        if (!(ratePerSecond > 0)) {
+            throw new IllegalArgumentException("Rate must be positive: " + ratePerSecond);
+        }
+        this.mode = Mode.OPEN;
+        this.ratePerSecond = ratePerSecond;
+    }
+
+    /**
+     * Runs {@code concurrency} clients that each send their next request
+     * {@code thinkTime} after the previous one completes.
+     */
+    public void setClosedLoop(int concurrency, Duration thinkTime) {
+        if (concurrency <= 0) {
+            throw new IllegalArgumentException("Concurrency must be positive: " + concurrency);
+        }
+        this.mode = Mode.CLOSED;
+        this.concurrency = concurrency;
+        this.thinkTimeNanos = thinkTime.toNanos();
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    public void setMaxBacklog(int maxBacklog) {
+        if (maxBacklog <= 0) {
+            throw new IllegalArgumentException("Backlog must be positive: " + maxBacklog);
+        }
+        this.maxBacklog = maxBacklog;
+    }
+
+    public void setDuration(Duration duration) {
+        this.duration = requirePositive(duration, "Duration");
+    }
+
+    /**
+     * Runs the same load for this long before measuring, to let the JIT settle.
+     */
+    public void setWarmup(Duration warmup) {
+        if (warmup.isNegative()) {
+            throw new IllegalArgumentException("Warm-up cannot be negative: " + warmup);
+        }
+        this.warmup = warmup;
+    }
+
+    public void setSampleInterval(Duration sampleInterval) {
+        this.sampleInterval = requirePositive(sampleInterval, "Sample interval");
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    private static Duration requirePositive(Duration value, String what) {
+        if (value == null || value.isNegative() || value.isZero()) {
+            throw new IllegalArgumentException(what + " must be positive: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * Runs the warm-up (if any) and then the measured phase.
+     */
+    public Report run() throws InterruptedException {
+        if (operations.isEmpty()) {
+            throw new IllegalStateException("No operations added");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        if (!warmup.isZero()) {
+            runPhase(warmup, random.split());
+        }
+        return runPhase(duration, random.split());
+    }
+
+    private Report runPhase(Duration phase, SplittableRandom random) throws InterruptedException {
+        Phase stats = new Phase(new ArrayList<>(operations.values()));
+        GcMonitor gc = new GcMonitor();
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor(
+                BoundedExecutor.daemonThreads("load-sampler"));
+        long start = System.nanoTime();
+        gc.start();
+        sampler.scheduleAtFixedRate(() -> stats.sample(start), 0, sampleInterval.toNanos(), TimeUnit.NANOSECONDS);
+        try {
+            if (mode == Mode.OPEN) {
+                runOpenLoop(stats, phase.toNanos(), random);
+            } else {
+                runClosedLoop(stats, phase.toNanos(), random);
+            }
+        } finally {
+            sampler.shutdownNow();
+            sampler.awaitTermination(1, TimeUnit.SECONDS);
+            gc.stop();
+        }
+        stats.sample(start);
+        return new Report(mode, System.nanoTime() - start, stats, gc);
+    }
+
+    private void runOpenLoop(Phase stats, long durationNanos, SplittableRandom random) throws InterruptedException {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(maxBacklog), BoundedExecutor.daemonThreads("load-worker"));
+        MetricsRegistry.getDefault().gauge("raceoptimizer_load_queue_depth",
+                "Requests waiting in the load generator", () -> workers.getQueue().size());
+        try {
+            double intervalNanos = 1e9 / ratePerSecond;
+            long start = System.nanoTime();
+            for (long k = 0; ; k++) {
+                long intended = start + (long) (k * intervalNanos);
+                if (intended - start >= durationNanos) {
+                    break;
+                }
+                long wait;
+                while ((wait = intended - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                WeightedOperation operation = stats.pick(random);
+                SplittableRandom requestRandom = random.split();
+                try {
+                    workers.execute(() -> stats.execute(operation, intended, requestRandom));
+                } catch (RejectedExecutionException e) {
+                    stats.dropped.increment();
+                }
+            }
+        } finally {
+            workers.shutdown();
+            if (!workers.awaitTermination(1, TimeUnit.MINUTES)) {
+                workers.shutdownNow();
+            }
+            MetricsRegistry.getDefault().removeGauge("raceoptimizer_load_queue_depth");
+        }
+    }
+
+    private void runClosedLoop(Phase stats, long durationNanos, SplittableRandom random) throws InterruptedException {
+        long end = System.nanoTime() + durationNanos;
+        List<Thread> clients = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            SplittableRandom clientRandom = random.split();
+            Thread client = BoundedExecutor.daemonThreads("load-client").newThread(() -> {
+                while (System.nanoTime() < end && !Thread.currentThread().isInterrupted()) {
+                    stats.execute(stats.pick(clientRandom), System.nanoTime(), clientRandom);
+                    if (thinkTimeNanos > 0) {
+                        LockSupport.parkNanos(thinkTimeNanos);
+                    }
+                }
+            });
+            clients.add(client);
+            client.start();
+        }
+        try {
+            for (Thread client : clients) {
+                client.join();
+            }
+        } catch (InterruptedException e) {
+            for (Thread client : clients) {
+                client.interrupt();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a generator with the default engine mix: single races, Monte Carlo
+     * batches of one scenario, strategy searches over every pit stop and fuel plan, and
+     * race setup validations (a fifth of them invalid).
+     *
+     * @param laps race distance used by every simulated race
+     */
+    public static LoadGenerator forEngine(int laps) {
+        if (laps <= 0) {
+            throw new IllegalArgumentException("Lap count must be positive: " + laps);
+        }
+        // RaceSimulator keeps per-race state, so every thread gets its own
+        ThreadLocal<RaceSimulator> simulators = ThreadLocal.withInitial(() -> new RaceSimulator(laps));
+        Track[] tracks = {Track.createMonacoTrack(), Track.createMonzaTrack(), Track.createSilverstoneTrack()};
+        Car[] cars = {
+                new Car(1, "Standard", 950.0, Engine.createStandardEngine(),
+                        Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit()),
+                new Car(2, "Turbo", 900.0, Engine.createTurboEngine(),
+                        Tyre.createSoftTyre(), Tyre.createSoftTyre(), AeroKit.createGroundEffectKit())
+        };
+        Car invalidCar = new Car(3, "Overweight", 2000.0, Engine.createStandardEngine(),
+                Tyre.createHardTyre(), Tyre.createHardTyre(), AeroKit.createLowDragKit());
+        RaceStrategy[] strategies = {RaceStrategy.createAggressiveStrategy(),
+                RaceStrategy.createBalancedStrategy(), RaceStrategy.createConservativeStrategy()};
+        String[] fuels = {"Light", "Medium", "Heavy"};
+        String[] tyrePlans = {"Medium", "Soft-Medium", "Medium-Hard", "Soft-Medium-Hard"};
+        Weather weather = Weather.createDryWeather();
+
+        LoadGenerator generator = new LoadGenerator();
+        generator.addOperation("race", 60, random -> simulators.get().simulateRace(
+                cars[random.nextInt(cars.length)], tracks[random.nextInt(tracks.length)],
+                strategies[random.nextInt(strategies.length)], weather));
+        generator.addOperation("monteCarloBatch", 10, random -> {
+            RaceSimulator simulator = simulators.get();
+            Car car = cars[random.nextInt(cars.length)];
+            Track track = tracks[random.nextInt(tracks.length)];
+            RaceStrategy strategy = strategies[random.nextInt(strategies.length)];
+            RaceTimeStatistics statistics = new RaceTimeStatistics();
+            for (int i = 0; i < 100; i++) {
+                statistics.add(simulator.simulateRace(car, track, strategy, weather).getRaceTime());
+            }
+        });
+        generator.addOperation("strategySearch", 10, random -> {
+            RaceSimulator simulator = simulators.get();
+            Car car = cars[random.nextInt(cars.length)];
+            Track track = tracks[random.nextInt(tracks.length)];
+            TopKCollector<RaceResult> best = TopKCollector.byRaceTime(3);
+            try (TopKCollector<RaceResult>.Producer producer = best.newProducer()) {
+                for (int stops = 0; stops <= 3; stops++) {
+                    for (String fuel : fuels) {
+                        for (String tyres : tyrePlans) {
+                            producer.offer(simulator.simulateRace(car, track,
+                                    new RaceStrategy(stops, tyres, fuel, 90.0), weather));
+                        }
+                    }
+                }
+            }
+        });
+        generator.addOperation("validation", 20, random -> {
+            Car car = random.nextInt(5) == 0 ? invalidCar : cars[random.nextInt(cars.length)];
+            try {
+                Validator.validateRaceSetup(car, tracks[random.nextInt(tracks.length)],
+                        strategies[random.nextInt(strategies.length)]);
+            } catch (InvalidCarConfigurationException e) {
+                // Expected for the invalid share of the mix
+            }
+        });
+        return generator;
+    }
+
+    private static final class WeightedOperation {
+        private final int index;
+        private final String name;
+        private final double weight;
+        private final Operation operation;
+
+        WeightedOperation(int index, String name, double weight, Operation operation) {
+            this.index = index;
+            this.name = name;
+            this.weight = weight;
+            this.operation = operation;
+        }
+    }
+
+    // Counters and samples of one phase
+    private static final class Phase {
+        private final List<WeightedOperation> operations;
+        private final double[] cumulativeWeights;
+        private final LatencyHistogram[] latencies;
+        private final LongAdder[] errors;
+        private final LatencyHistogram overall = new LatencyHistogram();
+        private final LongAdder dropped = new LongAdder();
+        private final List<HeapSample> samples = Collections.synchronizedList(new ArrayList<>());
+
+        Phase(List<WeightedOperation> operations) {
+            this.operations = operations;
+            this.cumulativeWeights = new double[operations.size()];
+            this.latencies = new LatencyHistogram[operations.size()];
+            this.errors = new LongAdder[operations.size()];
+            double total = 0;
+            for (int i = 0; i < operations.size(); i++) {
+                total += operations.get(i).weight;
+                cumulativeWeights[i] = total;
+                latencies[i] = new LatencyHistogram();
+                errors[i] = new LongAdder();
+            }
+        }
+
+        WeightedOperation pick(SplittableRandom random) {
+            double r = random.nextDouble() * cumulativeWeights[cumulativeWeights.length - 1];
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (r < cumulativeWeights[i]) {
+                    return operations.get(i);
+                }
+            }
+            return operations.get(operations.size() - 1);
+        }
+
+        void execute(WeightedOperation operation, long intendedStart, SplittableRandom random) {
+            int index = operation.index;
+            try {
+                operation.operation.execute(random);
+            } catch (Exception e) {
+                errors[index].increment();
+            }
+            long latency = System.nanoTime() - intendedStart;
+            latencies[index].record(latency);
+            overall.record(latency);
+        }
+
+        void sample(long startNanos) {
+            samples.add(new HeapSample((System.nanoTime() - startNanos) / 1_000_000,
+                    heapUsedAfterGc(), overall.getCount()));
+        }
+
+        private static long heapUsedAfterGc() {
+            long used = 0;
+            for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+                MemoryUsage afterGc = pool.getType() == MemoryType.HEAP ? pool.getCollectionUsage() : null;
+                if (afterGc != null) {
+                    used += afterGc.getUsed();
+                }
+            }
+            return used;
+        }
+    }
+
+    // Collects GC pause durations from HotSpot GC notifications
+    private static final class GcMonitor implements NotificationListener {
+        private final LatencyHistogram pauses = new LatencyHistogram();
+        private final List<NotificationEmitter> emitters = new ArrayList<>();
+        private long startCount;
+        private long startMillis;
+        private long count;
+        private long millis;
+
+        void start() {
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                startCount += Math.max(0, bean.getCollectionCount());
+                startMillis += Math.max(0, bean.getCollectionTime());
+                if (bean instanceof NotificationEmitter) {
+                    ((NotificationEmitter) bean).addNotificationListener(this, null, null);
+                    emitters.add((NotificationEmitter) bean);
+                }
+            }
+        }
+
+        void stop() {
+            long endCount = 0;
+            long endMillis = 0;
+            for (GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+                endCount += Math.max(0, bean.getCollectionCount());
+                endMillis += Math.max(0, bean.getCollectionTime());
+            }
+            count = endCount - startCount;
+            millis = endMillis - startMillis;
+            for (NotificationEmitter emitter : emitters) {
+                try {
+                    emitter.removeNotificationListener(this);
+                } catch (javax.management.ListenerNotFoundException e) {
+                    // Already gone
+                }
+            }
+        }
+
+        @Override
+        public void handleNotification(Notification notification, Object handback) {
+            if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(notification.getType())) {
+                return;
+            }
+            GarbageCollectionNotificationInfo info =
+                    GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+            // Concurrent cycles run alongside the application and are not pauses
+            if (!info.getGcName().contains("Concurrent")) {
+                pauses.record(info.getGcInfo().getDuration() * 1_000_000);
+            }
+        }
+    }
+
+    /**
+     * Heap use after the most recent GC and requests completed so far, at one point in the run.
+     */
+    public static final class HeapSample {
+        private final long elapsedMillis;
+        private final long heapUsedAfterGc;
+        private final long completed;
+
+        HeapSample(long elapsedMillis, long heapUsedAfterGc, long completed) {
+            this.elapsedMillis = elapsedMillis;
+            this.heapUsedAfterGc = heapUsedAfterGc;
+            this.completed = completed;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public long getHeapUsedAfterGc() {
+            return heapUsedAfterGc;
+        }
+
+        public long getCompleted() {
+            return completed;
+        }
+    }
+
+    /**
+     * Outcome of a measured run.
+     */
+    public static class Report {
+        private final Mode mode;
+        private final long elapsedNanos;
+        private final Map<String, LatencyHistogram.Snapshot> latencies = new LinkedHashMap<>();
+        private final Map<String, Long> errors = new LinkedHashMap<>();
+        private final LatencyHistogram.Snapshot overall;
+        private final long dropped;
+        private final long gcCount;
+        private final long gcMillis;
+        private final LatencyHistogram.Snapshot gcPauses;
+        private final List<HeapSample> samples;
+
+        private Report(Mode mode, long elapsedNanos, Phase phase, GcMonitor gc) {
+            this.mode = mode;
+            this.elapsedNanos = elapsedNanos;
+            for (int i = 0; i < phase.operations.size(); i++) {
+                latencies.put(phase.operations.get(i).name, phase.latencies[i].snapshot());
+                errors.put(phase.operations.get(i).name, phase.errors[i].sum());
+            }
+            this.overall = phase.overall.snapshot();
+            this.dropped = phase.dropped.sum();
+            this.gcCount = gc.count;
+            this.gcMillis = gc.millis;
+            this.gcPauses = gc.pauses.snapshot();
+            synchronized (phase.samples) {
+                this.samples = new ArrayList<>(phase.samples);
+            }
+        }
+
+        public long getCompleted() {
+            return overall.getCount();
+        }
+
+        public long getCompleted(String operation) {
+            LatencyHistogram.Snapshot snapshot = latencies.get(operation);
+            return snapshot == null ? 0 : snapshot.getCount();
+        }
+
+        public long getErrors() {
+            long total = 0;
+            for (long count : errors.values()) {
+                total += count;
+            }
+            return total;
+        }
+
+        public long getErrors(String operation) {
+            return errors.getOrDefault(operation, 0L);
+        }
+
+        public long getDropped() {
+            return dropped;
+        }
+
+        public double getElapsedSeconds() {
+            return elapsedNanos / 1e9;
+        }
+
+        public double getThroughput() {
+            return getCompleted() / getElapsedSeconds();
+        }
+
+        public LatencyHistogram.Snapshot getLatency() {
+            return overall;
+        }
+
+        public LatencyHistogram.Snapshot getLatency(String operation) {
+            return latencies.get(operation);
+        }
+
+        public long getGcCount() {
+            return gcCount;
+        }
+
+        public long getGcMillis() {
+            return gcMillis;
+        }
+
+        public LatencyHistogram.Snapshot getGcPauses() {
+            return gcPauses;
+        }
+
+        public List<HeapSample> getHeapSamples() {
+            return Collections.unmodifiableList(samples);
+        }
+
+        /**
+         * Least-squares slope of heap used after GC, in bytes per second. A clearly
+         * positive slope over a long run points to a leak.
+         */
+        public double getHeapTrendBytesPerSecond() {
+            List<HeapSample> points = new ArrayList<>();
+            for (HeapSample sample : samples) {
+                if (sample.heapUsedAfterGc > 0) {
+                    points.add(sample);
+                }
+            }
+            if (points.size() < 2) {
+                return 0.0;
+            }
+            double meanX = 0;
+            double meanY = 0;
+            for (HeapSample p : points) {
+                meanX += p.elapsedMillis / 1000.0;
+                meanY += p.heapUsedAfterGc;
+            }
+            meanX /= points.size();
+            meanY /= points.size();
+            double covariance = 0;
+            double variance = 0;
+            for (HeapSample p : points) {
+                double dx = p.elapsedMillis / 1000.0 - meanX;
+                covariance += dx * (p.heapUsedAfterGc - meanY);
+                variance += dx * dx;
+            }
+            return variance == 0 ? 0.0 : covariance / variance;
+        }
+
+        /**
+         * Throughput of the second half of the run divided by the first half. Values
+         * well below 1 mean the engine slows down under sustained load.
+         */
+        public double getThroughputRatio() {
+            if (samples.size() < 3) {
+                return 1.0;
+            }
+            HeapSample first = samples.get(0);
+            HeapSample last = samples.get(samples.size() - 1);
+            HeapSample middle = samples.get(samples.size() / 2);
+            double firstRate = rate(first, middle);
+            double secondRate = rate(middle, last);
+            return firstRate == 0 ? 1.0 : secondRate / firstRate;
+        }
+
+        private static double rate(HeapSample from, HeapSample to) {
+            long millis = to.elapsedMillis - from.elapsedMillis;
+            return millis <= 0 ? 0.0 : (to.completed - from.completed) * 1000.0 / millis;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("%s loop, %.1f s: %d completed (%.1f/s), %d errors, %d dropped%n",
+                    mode == Mode.OPEN ? "Open" : "Closed", getElapsedSeconds(), getCompleted(),
+                    getThroughput(), getErrors(), dropped));
+            String format = "%-16s %10s %10s %10s %10s %10s %10s%n";
+            sb.append(String.format(format, "Operation", "Count", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms"));
+            for (Map.Entry<String, LatencyHistogram.Snapshot> entry : latencies.entrySet()) {
+                appendLatency(sb, format, entry.getKey(), entry.getValue());
+            }
+            appendLatency(sb, format, "all", overall);
+            sb.append(String.format("GC: %d collections, %d ms total, pause p99 %.1f ms, max %.1f ms%n",
+                    gcCount, gcMillis, gcPauses.getValueAtPercentile(99) / 1e6, gcPauses.getMax() / 1e6));
+            sb.append(String.format("Heap after GC trend: %+.1f KB/s, throughput second half / first half: %.2f",
+                    getHeapTrendBytesPerSecond() / 1024, getThroughputRatio()));
+            return sb.toString();
+        }
+
+        private static void appendLatency(StringBuilder sb, String format, String name, LatencyHistogram.Snapshot s) {
+            sb.append(String.format(format, name, s.getCount(),
+                    millis(s.getValueAtPercentile(50)), millis(s.getValueAtPercentile(90)),
+                    millis(s.getValueAtPercentile(99)), millis(s.getValueAtPercentile(99.9)), millis(s.getMax())));
+        }
+
+        private static String millis(long nanos) {
+            return String.format("%.3f", nanos / 1e6);
+        }
+    }
+
+    /**
+     * Runs the default engine mix from the command line:
+     * {@code LoadGenerator [--open <rate/s> | --closed <clients>] [--duration <s>]
+     * [--warmup <s>] [--threads <n>] [--laps <n>]}.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int laps = 50;
+        double rate = 0;
+        int clients = Runtime.getRuntime().availableProcessors();
+        long seconds = 30;
+        long warmupSeconds = 5;
+        int threads = Runtime.getRuntime().availableProcessors();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Missing value for " + args[i]);
+                }
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case "--open":
+                        rate = Double.parseDouble(value);
+                        break;
+                    case "--closed":
+                        clients = Integer.parseInt(value);
+                        break;
+                    case "--duration":
+                        seconds = Long.parseLong(value);
+                        break;
+                    case "--warmup":
+                        warmupSeconds = Long.parseLong(value);
+                        break;
+                    case "--threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "--laps":
+                        laps = Integer.parseInt(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown option: " + args[i]);
+                }
+                i++;
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println("Usage: LoadGenerator [--open <rate/s> | --closed <clients>] [--duration <s>]"
+                    + " [--warmup <s>] [--threads <n>] [--laps <n>]");
+            System.exit(2);
+            return;
+        }
+
+        LoadGenerator generator = forEngine(laps);
+        if (rate > 0) {
+            generator.setOpenLoop(rate);
+        } else {
+            generator.setClosedLoop(clients, Duration.ZERO);
+        }
+        generator.setThreads(threads);
+        generator.setDuration(Duration.ofSeconds(seconds));
+        generator.setWarmup(Duration.ofSeconds(warmupSeconds));
+        System.out.println(generator.run());
+    }
+}
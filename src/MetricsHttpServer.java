@@ -0,0 +1,121 @@
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a {@link MetricsRegistry} at {@code /metrics} in the Prometheus text format,
+ * using the JDK's built-in HTTP server.
+ *
+ * Scrapes are handled on one daemon thread of the server's own and only read a
+ * lock-free {@link MetricsRegistry#snapshot()}, so they never block simulation threads.
+ * Starting the server also registers JVM gauges (heap, threads, uptime), and the
+ * {@link EngineMetrics} when serving the default registry.
+ */
+public class MetricsHttpServer implements Closeable {
+    static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+    private final MetricsRegistry registry;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Binds the server; call {@link #start()} to begin serving.
+     *
+     * @param registry registry to expose
+     * @param address address to bind, port 0 picks a free port
+     */
+    public MetricsHttpServer(MetricsRegistry registry, InetSocketAddress address) throws IOException {
+        if (registry == null) {
+            throw new IllegalArgumentException("Registry cannot be null");
+        }
+        this.registry = registry;
+        this.server = HttpServer.create(address, 0);
+        this.executor = Executors.newSingleThreadExecutor(BoundedExecutor.daemonThreads("metrics-http"));
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Serves the default registry on the loopback interface.
+     */
+    public static MetricsHttpServer startLocal(int port) throws IOException {
+        MetricsHttpServer server = new MetricsHttpServer(MetricsRegistry.getDefault(),
+                new InetSocketAddress("127.0.0.1", port));
+        server.start();
+        return server;
+    }
+
+    public void start() {
+        if (registry == MetricsRegistry.getDefault()) {
+            // Exports the engine's metrics from the first scrape, not only once a race has run
+            EngineMetrics.register();
+        }
+        registerJvmGauges(registry);
+        server.start();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            if (!"/metrics".equals(exchange.getRequestURI().getPath())) {
+                respond(exchange, 404, "Not found\n");
+            } else if (!"GET".equals(exchange.getRequestMethod()) && !"HEAD".equals(exchange.getRequestMethod())) {
+                exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+                respond(exchange, 405, "Method not allowed\n");
+            } else {
+                respond(exchange, 200, registry.snapshot().toPrometheusText());
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", CONTENT_TYPE);
+        if ("HEAD".equals(exchange.getRequestMethod())) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    /**
+     * Registers heap, thread and uptime gauges. Safe to call more than once.
+     */
+    static void registerJvmGauges(MetricsRegistry registry) {
+        MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        registry.gauge("raceoptimizer_jvm_heap_used_bytes", "Heap memory in use",
+                () -> memory.getHeapMemoryUsage().getUsed());
+        registry.gauge("raceoptimizer_jvm_heap_committed_bytes", "Heap memory committed",
+                () -> memory.getHeapMemoryUsage().getCommitted());
+        registry.gauge("raceoptimizer_jvm_heap_max_bytes", "Maximum heap size, -1 if undefined",
+                () -> memory.getHeapMemoryUsage().getMax());
+        registry.gauge("raceoptimizer_jvm_threads_live", "Live JVM threads", threads::getThreadCount);
+        registry.gauge("raceoptimizer_jvm_uptime_seconds", "JVM uptime",
+                () -> ManagementFactory.getRuntimeMXBean().getUptime() / 1000.0);
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.DoubleSupplier;
+import java.util.regex.Pattern;
+
+/**
+ * Dependency-free metrics for the engine: counters, latency histograms and gauges.
+ *
+ * Metrics are looked up once (usually into static fields, see {@link EngineMetrics})
+ * and then updated without locks. Counters are striped {@link LongAdder}s, so threads
+ * running races in parallel do not contend on one cache line. {@link #snapshot()}
+ * reads everything without blocking writers.
+ *
+ * Labels are passed as alternating name/value pairs, for example
+ * {@code counter("validation_failures_total", "...", "exception", "InvalidTrackDataException")}.
+ */
+public class MetricsRegistry {
+    private static final MetricsRegistry DEFAULT = new MetricsRegistry();
+    private static final Pattern NAME = Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*");
+
+    enum Type {
+        COUNTER("counter"), GAUGE("gauge"), SUMMARY("summary");
+
+        final String prometheusName;
+
+        Type(String prometheusName) {
+            this.prometheusName = prometheusName;
+        }
+    }
+
+    private final ConcurrentHashMap<String, Family> families = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registry the engine reports to.
+     */
+    public static MetricsRegistry getDefault() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns the counter with this name and labels, creating it on first use.
+     */
+    public Counter counter(String name, String help, String... labels) {
+        return (Counter) family(name, help, Type.COUNTER).metrics
+                .computeIfAbsent(labelString(labels), k -> new Counter());
+    }
+
+    /**
+     * Returns the latency histogram with this name and labels, creating it on first use.
+     * Values are recorded in nanoseconds and exported in seconds.
+     */
+    public LatencyHistogram histogram(String name, String help, String... labels) {
+        return (LatencyHistogram) family(name, help, Type.SUMMARY).metrics
+                .computeIfAbsent(labelString(labels), k -> new LatencyHistogram());
+    }
+
+    /**
+     * Registers a gauge read on every snapshot. Registering the same name and labels
+     * again replaces the previous supplier.
+     */
+    public void gauge(String name, String help, DoubleSupplier value, String... labels) {
+        if (value == null) {
+            throw new IllegalArgumentException("Gauge supplier cannot be null");
+        }
+        family(name, help, Type.GAUGE).metrics.put(labelString(labels), value);
+    }
+
+    /**
+     * Removes a gauge, for example when the component it reads from shuts down.
+     */
+    public void removeGauge(String name, String... labels) {
+        Family family = families.get(name);
+        if (family != null && family.type == Type.GAUGE) {
+            family.metrics.remove(labelString(labels));
+        }
+    }
+
+    /**
+     * Reads every metric. Counters and histograms are read without locks, so values
+     * recorded concurrently may or may not be included.
+     */
+    public MetricsSnapshot snapshot() {
+        MetricsSnapshot snapshot = new MetricsSnapshot();
+        for (Family family : families.values()) {
+            for (Map.Entry<String, Object> entry : family.metrics.entrySet()) {
+                Object metric = entry.getValue();
+                Object value;
+                if (metric instanceof Counter) {
+                    value = ((Counter) metric).get();
+                } else if (metric instanceof LatencyHistogram) {
+                    value = ((LatencyHistogram) metric).snapshot();
+                } else {
+                    value = readGauge((DoubleSupplier) metric);
+                }
+                snapshot.put(family.name, family.help, family.type, entry.getKey(), value);
+            }
+        }
+        return snapshot;
+    }
+
+    private static double readGauge(DoubleSupplier gauge) {
+        try {
+            return gauge.getAsDouble();
+        } catch (RuntimeException e) {
+            // A broken gauge must not break the whole scrape
+            return Double.NaN;
+        }
+    }
+
+    private Family family(String name, String help, Type type) {
+        if (name == null || !NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid metric name: " + name);
+        }
+        Family family = families.computeIfAbsent(name, n -> new Family(n, help, type));
+        if (family.type != type) {
+            throw new IllegalArgumentException(String.format("Metric %s is already registered as a %s",
+                    name, family.type.prometheusName));
+        }
+        return family;
+    }
+
+    // Renders labels in Prometheus form without the braces: a="1",b="2"
+    static String labelString(String... labels) {
+        if (labels.length % 2 != 0) {
+            throw new IllegalArgumentException("Labels must be name/value pairs");
+        }
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < labels.length; i += 2) {
+            if (labels[i] == null || !NAME.matcher(labels[i]).matches() || labels[i + 1] == null) {
+                throw new IllegalArgumentException("Invalid label: " + labels[i] + "=" + labels[i + 1]);
+            }
+            if (sb.length() > 0) {
+                sb.append(',');
+            }
+            sb.append(labels[i]).append("=\"");
+            String value = labels[i + 1];
+            for (int c = 0; c < value.length(); c++) {
+                char ch = value.charAt(c);
+                if (ch == '\\' || ch == '"') {
+                    sb.append('\\').append(ch);
+                } else if (ch == '\n') {
+                    sb.append("\\n");
+                } else {
+                    sb.append(ch);
+                }
+            }
+            sb.append('"');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Monotonic counter backed by a {@link LongAdder}.
+     */
+    public static class Counter {
+        private final LongAdder adder = new LongAdder();
+
+        public void increment() {
+            adder.increment();
+        }
+
+        public void add(long amount) {
+            if (amount < 0) {
+                throw new IllegalArgumentException("Counters cannot go down: " + amount);
+            }
+            adder.add(amount);
+        }
+
+        public long get() {
+            return adder.sum();
+        }
+    }
+
+    private static class Family {
+        private final String name;
+        private final String help;
+        private final Type type;
+        // Label string -> Counter, LatencyHistogram or DoubleSupplier
+        private final ConcurrentHashMap<String, Object> metrics = new ConcurrentHashMap<>();
+
+        Family(String name, String help, Type type) {
+            this.name = name;
+            this.help = help == null ? "" : help;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Point-in-time values of every metric in a {@link MetricsRegistry}.
+ */
+public class MetricsSnapshot {
+    // Quantiles exported for each latency histogram
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+
+    private final TreeMap<String, FamilyValues> families = new TreeMap<>();
+
+    MetricsSnapshot() {
+    }
+
+    void put(String name, String help, MetricsRegistry.Type type, String labels, Object value) {
+        families.computeIfAbsent(name, n -> new FamilyValues(help, type)).values.put(labels, value);
+    }
+
+    public Set<String> getNames() {
+        return families.keySet();
+    }
+
+    /**
+     * Returns a counter value, or 0 if the counter does not exist.
+     */
+    public long getCounter(String name, String... labels) {
+        Object value = find(name, MetricsRegistry.Type.COUNTER, labels);
+        return value == null ? 0 : (Long) value;
+    }
+
+    /**
+     * Returns a gauge value, or NaN if the gauge does not exist.
+     */
+    public double getGauge(String name, String... labels) {
+        Object value = find(name, MetricsRegistry.Type.GAUGE, labels);
+        return value == null ? Double.NaN : (Double) value;
+    }
+
+    /**
+     * Returns a histogram snapshot, or null if the histogram does not exist.
+     */
+    public LatencyHistogram.Snapshot getHistogram(String name, String... labels) {
+        return (LatencyHistogram.Snapshot) find(name, MetricsRegistry.Type.SUMMARY, labels);
+    }
+
+    private Object find(String name, MetricsRegistry.Type type, String... labels) {
+        FamilyValues family = families.get(name);
+        if (family == null || family.type != type) {
+            return null;
+        }
+        return family.values.get(MetricsRegistry.labelString(labels));
+    }
+
+    /**
+     * Renders the snapshot in the Prometheus text exposition format (version 0.0.4).
+     * Histograms are exported as summaries in seconds.
+     */
+    public String toPrometheusText() {
+        StringBuilder sb = new StringBuilder();
+        for (Map.Entry<String, FamilyValues> entry : families.entrySet()) {
+            String name = entry.getKey();
+            FamilyValues family = entry.getValue();
+            sb.append("# HELP ").append(name).append(' ')
+                    .append(family.help.replace("\\", "\\\\").replace("\n", "\\n")).append('\n');
+            sb.append("# TYPE ").append(name).append(' ').append(family.type.prometheusName).append('\n');
+            for (Map.Entry<String, Object> sample : family.values.entrySet()) {
+                String labels = sample.getKey();
+                Object value = sample.getValue();
+                if (value instanceof LatencyHistogram.Snapshot) {
+                    appendSummary(sb, name, labels, (LatencyHistogram.Snapshot) value);
+                } else {
+                    appendSample(sb, name, labels, value instanceof Long ? (Long) value : (Double) value);
+                }
+            }
+        }
+        return sb.toString();
+    }
+
+    private static void appendSummary(StringBuilder sb, String name, String labels, LatencyHistogram.Snapshot histogram) {
+        String separator = labels.isEmpty() ? "" : ",";
+        for (double quantile : QUANTILES) {
+            appendSample(sb, name, labels + separator + "quantile=\"" + quantile + "\"",
+                    histogram.getValueAtPercentile(quantile * 100) / 1e9);
+        }
+        appendSample(sb, name + "_sum", labels, histogram.getSum() / 1e9);
+        appendSample(sb, name + "_count", labels, histogram.getCount());
+    }
+
+    private static void appendSample(StringBuilder sb, String name, String labels, double value) {
+        sb.append(name);
+        if (!labels.isEmpty()) {
+            sb.append('{').append(labels).append('}');
+        }
+        sb.append(' ').append(formatValue(value)).append('\n');
+    }
+
+    private static String formatValue(double value) {
+        if (Double.isNaN(value)) {
+            return "NaN";
+        } else if (Double.isInfinite(value)) {
+            return value > 0 ? "+Inf" : "-Inf";
+        } else if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return Double.toString(value);
+    }
+
+    private static class FamilyValues {
+        private final String help;
+        private final MetricsRegistry.Type type;
+        private final TreeMap<String, Object> values = new TreeMap<>();
+
+        FamilyValues(String help, MetricsRegistry.Type type) {
+            this.help = help;
+            this.type = type;
+        }
+    }
+}
@@ -0,0 +1,31 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one generation (batch of candidates) of an optimiser run. Generations
+ * are coarse, so every one is recorded.
+ */
+@Name("raceoptimizer.OptimiserGeneration")
+@Label("Optimiser Generation")
+@Category({"Race Strategy Optimizer", "Optimiser"})
+@Description("One generation of candidate setups evaluated by an optimiser")
+@StackTrace(false)
+public class OptimiserGenerationEvent extends jdk.jfr.Event {
+    @Label("Optimiser")
+    String optimiser;
+
+    @Label("Generation")
+    int generation;
+
+    @Label("Candidates Evaluated")
+    long evaluated;
+
+    @Label("Candidates Pruned")
+    long pruned;
+
+    @Label("Best Race Time (min)")
+    double bestRaceTime;
+}
@@ -1,11 +1,26 @@
 public class PerformanceCalculator {
+    // Lap time aero terms are relative to the standard car (Standard engine, Medium tyres,
+    // Standard Kit) on a dry track, whose lap the length and acceleration terms describe,
+    // so that car's lap time is the same as before the terms existed.
+    // Its top speed: 200 hp * 0.75 + 250 top speed impact - 0.30 drag * 120 = 364
+    static final double REFERENCE_TOP_SPEED = 364.0;
+    // Its uncapped cornering grip: (0.85 + 0.85) grip * 5 + 200 downforce / 50 = 12.5
+    static final double REFERENCE_CORNERING = 12.5;
+    // Track length each corner takes up, in km; the rest is straight
+    private static final double CORNER_LENGTH_KM = 0.15;
+    // Seconds one corner takes at a cornering grip of 1, so 0.8 s for the standard car.
+    // With it Monaco favours downforce and Monza low drag, as getBestKitForTrack does
+    private static final double CORNER_SECONDS = 10.0;
 
     public static int calculateTopSpeed(Car car) {
+        return (int) topSpeed(car);
+    }
+
+    // Updated formula considering topSpeedImpact and engine power
+    private static double topSpeed(Car car) {
         Engine engine = car.getEngine();
         AeroKit kit = car.getAeroKit();
-
-        // Updated formula considering topSpeedImpact and engine power
-        return (int) (engine.getPower() * 0.75 + kit.getTopSpeedImpact() - kit.getDragCoefficient() * 120);
+        return engine.getPower() * 0.75 + kit.getTopSpeedImpact() - kit.getDragCoefficient() * 120;
     }
 
     public static double calculateAcceleration(Car car) {
@@ -32,9 +47,50 @@ public class PerformanceCalculator {
 
     // ✅ Updated to account for weather grip modifier
     public static int calculateCorneringAbility(Car car, Track track) {
-        double grip = (car.getFrontTyres().getGripLevel() + car.getRearTyres().getGripLevel()) * track.getEffectiveGrip();
+        return Math.min(10, (int) corneringGrip(car, track, track.getCurrentWeather()));
+    }
+
+    // Cornering ability in the given weather before it is capped to the 1-10 scale
+    private static double corneringGrip(Car car, Track track, Weather weather) {
+        double grip = (car.getFrontTyres().getGripLevel() + car.getRearTyres().getGripLevel())
+                * track.getEffectiveGrip(weather);
         double aeroFactor = car.getAeroKit().getDownforce() / 50.0;
-        return Math.min(10, (int) (grip * 5 + aeroFactor));
+        return grip * 5 + aeroFactor;
+    }
+
+    // Base lap time before tyre, weather and fuel effects (same estimate as createCarPerformance),
+    // with corner grip in the track's current weather
+    public static double calculateLapTime(Car car, Track track) {
+        return calculateLapTime(car, track, track.getCurrentWeather());
+    }
+
+    /**
+     * Returns the base lap time with corner grip in the given weather, which need not be
+     * the track's current weather. Other weather effects are left to the simulator.
+     */
+    public static double calculateLapTime(Car car, Track track, Weather weather) {
+        return track.getLength() * 25 + calculateAcceleration(car) * 2
+                + calculateStraightTimeDelta(car, track) + calculateCornerTimeDelta(car, track, weather);
+    }
+
+    /**
+     * Returns the seconds a lap gains (negative) or loses on the straights against the
+     * standard car, from the car's top speed.
+     */
+    public static double calculateStraightTimeDelta(Car car, Track track) {
+        double straightKm = Math.max(0, track.getLength() - track.getCorners() * CORNER_LENGTH_KM);
+        double topSpeed = Math.max(1, topSpeed(car));
+        return straightKm * 3600 * (1 / topSpeed - 1 / REFERENCE_TOP_SPEED);
+    }
+
+    /**
+     * Returns the seconds a lap gains (negative) or loses in the corners against the
+     * standard car on a dry track, from tyre grip and downforce in the given weather.
+     * Unlike {@link #calculateCorneringAbility}, the grip is not capped.
+     */
+    public static double calculateCornerTimeDelta(Car car, Track track, Weather weather) {
+        double grip = Math.max(1, corneringGrip(car, track, weather));
+        return track.getCorners() * CORNER_SECONDS * (1 / grip - 1 / REFERENCE_CORNERING);
     }
 
     // ✅ Updated to use both car and track (with weather)
@@ -42,7 +98,7 @@ public class PerformanceCalculator {
         int topSpeed = calculateTopSpeed(car);
         double acceleration = calculateAcceleration(car);
         double fuelConsumption = calculateFuelConsumption(car, track);
-        double lapTime = track.getLength() * 25 + acceleration * 2; // Simple estimate
+        double lapTime = calculateLapTime(car, track); // Simple estimate
         int corneringAbility = calculateCorneringAbility(car, track);
 
         return new Performance(topSpeed, acceleration, fuelConsumption, lapTime, corneringAbility);
@@ -1,7 +1,14 @@
+import java.util.Arrays;
+import java.util.List;
 import java.util.Scanner;
+import java.io.IOException;
 import java.io.InputStream;
+import java.nio.file.Path;
+import java.time.Duration;
 
 public class RaceManager {
+    private static final Duration CATALOG_WATCH_INTERVAL = Duration.ofSeconds(2);
+
     private static Car car;
     private static Track track;
     private static Performance performance;
@@ -19,7 +26,36 @@ public class RaceManager {
      * rebuild the scanner. */
     private static InputStream scannerSource = System.in;
 
+    /**
+     * Runs the interactive menu, or a batch job file when started with
+     * {@code --batch <jobs> --output <file>} (see {@link BatchRunner}). Either mode
+     * accepts {@code --catalog <file>} to add components to the standard catalog; the
+     * menu reloads the file whenever it changes.
+     */
     public static void main(String[] args) {
+        Path catalogFile = null;
+        if (args != null && args.length >= 2 && "--catalog".equals(args[0])) {
+            catalogFile = Path.of(args[1]);
+            try {
+                ComponentCatalog.setDefault(ComponentCatalog.load(catalogFile, ComponentCatalog.standard()));
+            } catch (IOException e) {
+                System.err.println("Could not load catalog: " + e.getMessage());
+                System.exit(2);
+                return;
+            }
+            args = Arrays.copyOfRange(args, 2, args.length);
+        }
+        if (args != null && args.length > 0) {
+            int status = BatchRunner.runCommandLine(args, System.out, System.err);
+            if (status != 0) {
+                System.exit(status);
+            }
+            return;
+        }
+        if (catalogFile != null) {
+            // Daemon thread, so it needs no closing when the menu exits
+            new CatalogReloader(catalogFile).watch(CATALOG_WATCH_INTERVAL);
+        }
         boolean running = true;
         while (running) {
             displayMenu();
@@ -73,50 +109,41 @@ public class RaceManager {
     }
 
     private static void createCar() {
+        ComponentCatalog catalog = ComponentCatalog.getDefault();
         System.out.println("\nChoose Engine:");
-        System.out.println("1. Standard");
-        System.out.println("2. Turbocharged");
-        Engine engine = switch (getUserChoice(1, 2)) {
-            case 1 -> Engine.createStandardEngine();
-            case 2 -> Engine.createTurboEngine();
-            default -> throw new IllegalStateException("Unexpected value");
-        };
+        Engine engine = catalog.getEngine(chooseFrom(catalog, ComponentCatalog.Type.ENGINE));
 
         System.out.println("Choose Tyre Compound for Front and Rear:");
-        System.out.println("1. Soft\n2. Medium\n3. Hard");
-        Tyre tyre = switch (getUserChoice(1, 3)) {
-            case 1 -> Tyre.createSoftTyre();
-            case 2 -> Tyre.createMediumTyre();
-            case 3 -> Tyre.createHardTyre();
-            default -> throw new IllegalStateException("Unexpected value");
-        };
+        Tyre tyre = catalog.getTyre(chooseFrom(catalog, ComponentCatalog.Type.TYRE));
 
         System.out.println("Choose AeroKit:");
-        var kits = AeroKitFactory.getAllAvailableKits();
-        for (int i = 0; i < kits.size(); i++) {
-            System.out.printf("%d. %s%n", i + 1, kits.get(i).getName());
-        }
-        AeroKit selectedKit = kits.get(getUserChoice(1, kits.size()) - 1);
+        AeroKit selectedKit = catalog.getAeroKit(chooseFrom(catalog, ComponentCatalog.Type.AERO_KIT));
 
         car = new Car(1, "Custom Racer", 950.0, engine, tyre, tyre, selectedKit);
         System.out.println("Car created successfully!\n" + car);
     }
 
     private static void selectTrack() {
+        ComponentCatalog catalog = ComponentCatalog.getDefault();
         System.out.println("\nSelect Track:");
-        System.out.println("1. Monaco\n2. Monza\n3. Silverstone");
-        track = switch (getUserChoice(1, 3)) {
-            case 1 -> Track.createMonacoTrack();
-            case 2 -> Track.createMonzaTrack();
-            case 3 -> Track.createSilverstoneTrack();
-            default -> throw new IllegalStateException("Unexpected value");
-        };
+        track = catalog.getTrack(chooseFrom(catalog, ComponentCatalog.Type.TRACK));
 
         System.out.println("Track selected:\n" + track);
 
         AeroKit recommendedKit = PerformanceCalculator.getBestKitForTrack(track);
         System.out.println("Recommended AeroKit: " + recommendedKit.getName());
         System.out.println("Kit Type: " + recommendedKit.getKitType());
+
+        try {
+            List<AeroKitRecommender.Recommendation> ranking =
+                    new AeroKitRecommender(catalog).recommend(track, track.getCurrentWeather());
+            System.out.println("Simulated AeroKit ranking:");
+            for (int i = 0; i < Math.min(3, ranking.size()); i++) {
+                System.out.println((i + 1) + ". " + ranking.get(i));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
     private static void calculatePerformance() {
@@ -129,17 +156,21 @@ public class RaceManager {
     }
 
     private static void chooseStrategy() {
+        ComponentCatalog catalog = ComponentCatalog.getDefault();
         System.out.println("\nChoose Strategy:");
-        System.out.println("1. Aggressive\n2. Balanced\n3. Conservative");
-        strategy = switch (getUserChoice(1, 3)) {
-            case 1 -> RaceStrategy.createAggressiveStrategy();
-            case 2 -> RaceStrategy.createBalancedStrategy();
-            case 3 -> RaceStrategy.createConservativeStrategy();
-            default -> throw new IllegalStateException("Unexpected value");
-        };
+        strategy = catalog.getStrategy(chooseFrom(catalog, ComponentCatalog.Type.STRATEGY));
         System.out.println("Strategy selected:\n" + strategy);
     }
 
+    // Lists the catalog entries of one type as a numbered menu and returns the chosen id
+    private static int chooseFrom(ComponentCatalog catalog, ComponentCatalog.Type type) {
+        var names = catalog.getNames(type);
+        for (int i = 0; i < names.size(); i++) {
+            System.out.printf("%d. %s%n", i + 1, names.get(i));
+        }
+        return getUserChoice(1, names.size()) - 1;
+    }
+
     private static void showResults() {
         System.out.println("\n=== Current Setup ===");
         System.out.println("Car: " + (car != null ? car : "Not created"));
@@ -16,6 +16,12 @@ public class RaceResult {
     private int pitStopCount;
     private String weatherCondition;
 
+    // Identifies the simulated scenario across runs; 0 means "derive from the result fields"
+    private long scenarioHash;
+
+    // ComponentCatalog snapshot the race was simulated with; 0 when unknown (e.g. read from a file)
+    private long catalogVersion;
+
     // ✅ Main.java中使用的主要构造函数
     public RaceResult(String carName, String trackName, double raceTime, String strategy) {
         this.carName = carName;
@@ -94,6 +100,14 @@ public class RaceResult {
         return weatherCondition;
     }
 
+    public long getScenarioHash() {
+        return scenarioHash;
+    }
+
+    public long getCatalogVersion() {
+        return catalogVersion;
+    }
+
     // ✅ 保留你原有的方法
     public boolean isWinningTime(double targetTime) {
         return this.raceTime < targetTime;
@@ -132,6 +146,14 @@ public class RaceResult {
         this.weatherCondition = weatherCondition;
     }
 
+    public void setScenarioHash(long scenarioHash) {
+        this.scenarioHash = scenarioHash;
+    }
+
+    public void setCatalogVersion(long catalogVersion) {
+        this.catalogVersion = catalogVersion;
+    }
+
     @Override
     public String toString() {
         return String.format("RaceResult{car='%s', track='%s', time=%.1f min, strategy='%s', " +
@@ -0,0 +1,48 @@
+/**
+ * A car, track and strategy to be validated or raced together, with the row id it
+ * had in the import it came from.
+ */
+public class RaceSetup {
+    private final int id;
+    private final Car car;
+    private final Track track;
+    private final RaceStrategy strategy;
+
+    /**
+     * @param id non-negative row id, unique within one import
+     */
+    public RaceSetup(int id, Car car, Track track, RaceStrategy strategy) {
+        if (id < 0) {
+            throw new IllegalArgumentException("Setup id cannot be negative: " + id);
+        }
+        this.id = id;
+        this.car = car;
+        this.track = track;
+        this.strategy = strategy;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public Car getCar() {
+        return car;
+    }
+
+    public Track getTrack() {
+        return track;
+    }
+
+    public RaceStrategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public String toString() {
+        return "RaceSetup{id=" + id
+                + ", car=" + (car != null ? car.getName() : null)
+                + ", track=" + (track != null ? track.getName() : null)
+                + ", strategy=" + (strategy != null ? strategy.getFuelStrategy() + "/" + strategy.getNumberOfPitStops() : null)
+                + "}";
+    }
+}
@@ -0,0 +1,39 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/**
+ * JFR event for one {@link RaceSimulator#simulateRace} call. Only races slower than the
+ * threshold (1 ms by default) are recorded; set it to 0 ms to see every race.
+ */
+@Name("raceoptimizer.RaceSimulation")
+@Label("Race Simulation")
+@Category({"Race Strategy Optimizer", "Simulation"})
+@Description("A complete simulated race")
+@Threshold("1 ms")
+@StackTrace(false)
+public class RaceSimulationEvent extends jdk.jfr.Event {
+    @Label("Car")
+    String car;
+
+    @Label("Track")
+    String track;
+
+    @Label("Strategy")
+    String strategy;
+
+    @Label("Laps")
+    int laps;
+
+    @Label("Pit Stops")
+    int pitStops;
+
+    @Label("Weather")
+    String weather;
+
+    @Label("Race Time (min)")
+    double raceTime;
+}
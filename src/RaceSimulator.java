@@ -1,17 +1,64 @@
+import java.util.List;
 import java.util.Random;
 
 /**
  * Handles race simulation logic and calculations.
+ *
+ * The lap loop in {@link #simulateRace} does not allocate: everything that stays
+ * constant for a race (base lap time, track factors, weather and fuel modifiers) is
+ * worked out before the loop, and tyres are the shared instances of the
+ * {@link ComponentCatalog}. Each race reads the catalog snapshot once, so a catalog
+ * reloaded mid-race takes effect from the next race, and records its version in the
+ * {@link RaceResult}.
+ * {@code AllocationBudgetTest} keeps it that way.
  */
 public class RaceSimulator {
+    // Tyres are only read during a race, so catalog instances are shared; this one is
+    // the fallback when a catalog has no Medium compound
+    private static final Tyre MEDIUM_TYRE = Tyre.createMediumTyre();
+
     private int totalLaps;
     private int currentLap;
     private boolean isRaceFinished;
+    private final Random rand;
+    // Last seed of rand, part of each result's scenario hash
+    private long seed;
+    // Pinned by setCatalog; null means the default snapshot current when each race starts
+    private ComponentCatalog catalog;
 
     public RaceSimulator(int totalLaps) {
+        this(totalLaps, new Random().nextLong());
+    }
+
+    /**
+     * Creates a simulator whose lap time variation is reproducible: the same seed and
+     * inputs give the same race time.
+     */
+    public RaceSimulator(int totalLaps, long seed) {
         this.totalLaps = totalLaps;
         this.currentLap = 0;
         this.isRaceFinished = false;
+        this.rand = new Random(seed);
+        this.seed = seed;
+    }
+
+    /**
+     * Reseeds the lap time variation, so one simulator can run many seeded races.
+     */
+    public void setSeed(long seed) {
+        rand.setSeed(seed);
+        this.seed = seed;
+    }
+
+    /**
+     * Pins the catalog the strategy's tyre compounds are looked up in. Unless set, each
+     * race uses the default catalog snapshot current when it starts.
+     */
+    public void setCatalog(ComponentCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.catalog = catalog;
     }
 
     /**
@@ -24,8 +71,26 @@ public class RaceSimulator {
      * @return RaceResult containing the race outcome
      */
     public RaceResult simulateRace(Car car, Track track, RaceStrategy strategy, Weather weather) {
+        SimulationTracer.Trace trace = SimulationTracer.currentTrace();
+        int span = trace == null ? -1 : trace.open(SimulationTracer.SIMULATE_RACE, totalLaps);
+        EngineMetrics.ACTIVE_SIMULATIONS.increment();
+        try {
+            return runRace(car, track, strategy, weather, trace);
+        } finally {
+            EngineMetrics.ACTIVE_SIMULATIONS.decrement();
+            if (trace != null) {
+                trace.close(span);
+            }
+        }
+    }
+
+    private RaceResult runRace(Car car, Track track, RaceStrategy strategy, Weather weather,
+                               SimulationTracer.Trace trace) {
+        long startNanos = System.nanoTime();
+        RaceSimulationEvent event = new RaceSimulationEvent();
+        event.begin();
+        int span = trace == null ? -1 : trace.open(SimulationTracer.SETUP, 0);
         double totalLapTime = 0;
-        Random rand = new Random();
 
         // Reset race state
         currentLap = 0;
@@ -45,18 +110,34 @@ public class RaceSimulator {
         int lapsInCurrentStint = 0;
 
         // Parse compounds from strategy
-        java.util.List<String> compounds = strategy.getTyreCompoundsForStints(stints);
-        Tyre currentTyre = getTyreByCompound(compounds.get(0));
-
+        List<String> compounds = strategy.getTyreCompoundsForStints(stints);
+        ComponentCatalog snapshot = catalog != null ? catalog : ComponentCatalog.getDefault();
+        Tyre currentTyre = getTyreByCompound(snapshot, compounds.get(0));
+
+        // Lap-invariant parts of the lap time, computed once per race
+        double baseLapTime = PerformanceCalculator.calculateLapTime(car, track, weather);
+        double cornerFactor = getCornerFactor(track);
+        double lengthFactor = getLengthFactor(track);
+        double lapMultiplier = getConditionMultiplier(track, weather) * getFuelMultiplier(strategy, cornerFactor);
+
+        if (trace != null) {
+            trace.close(span);
+            span = trace.open(SimulationTracer.STINT, 0);
+        }
         for (int i = 0; i < totalLaps; i++) {
             // Pit stop at the start of each new stint except the first
             if (lapsInCurrentStint == 0 && i != 0) {
                 lapsOnTyre = 0;
                 stintIndex++;
-                currentTyre = getTyreByCompound(compounds.get(stintIndex));
+                currentTyre = getTyreByCompound(snapshot, compounds.get(stintIndex));
+                if (trace != null) {
+                    trace.close(span);
+                    span = trace.open(SimulationTracer.STINT, stintIndex);
+                }
             }
 
-            double lapTime = simulateLapWithTyre(car, track, weather, currentTyre, lapsOnTyre, strategy);
+            double lapTime = simulateLapWithTyre(baseLapTime, currentTyre, lapsOnTyre,
+                    cornerFactor, lengthFactor, lapMultiplier);
             // Add realistic variation ±2 seconds
             lapTime += rand.nextDouble() * 4 - 2;
             totalLapTime += lapTime;
@@ -67,10 +148,17 @@ public class RaceSimulator {
                 lapsInCurrentStint = 0;
             }
         }
-
         // Calculate pit stop time
+        if (trace != null) {
+            trace.close(span);
+            span = trace.open(SimulationTracer.PIT_STOPS, totalPitStops);
+        }
         double pitStopTime = simulatePitStop(strategy);
         double totalTime = totalLapTime + pitStopTime;
+        if (trace != null) {
+            trace.close(span);
+            span = trace.open(SimulationTracer.RESULT, 0);
+        }
 
         isRaceFinished = true;
 
@@ -93,38 +181,69 @@ public class RaceSimulator {
         result.setAverageLapTime(averageLap);
         result.setPitStopCount(strategy.getNumberOfPitStops());
         result.setWeatherCondition(weather.getCondition());
+        result.setCatalogVersion(snapshot.getVersion());
+        result.setScenarioHash(scenarioHash(car, track, strategy, weather));
+        if (trace != null) {
+            trace.close(span);
+        }
 
+        // Lap and pit stop totals are added once per race to keep the lap loop free of counters
+        EngineMetrics.RACES_SIMULATED.increment();
+        EngineMetrics.LAPS_SIMULATED.add(totalLaps);
+        EngineMetrics.PIT_STOPS.add(totalPitStops);
+        EngineMetrics.RACE_DURATION.recordSince(startNanos);
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.car = car.getName();
+            event.track = track.getName();
+            event.strategy = strategyName;
+            event.laps = totalLaps;
+            event.pitStops = totalPitStops;
+            event.weather = weather.getCondition();
+            event.raceTime = result.getRaceTime();
+            event.commit();
+        }
         return result;
     }
 
     /**
-     * Simulates a single lap.
+     * Returns the race time {@link #simulateRace} averages to for these inputs, in
+     * minutes, without simulating laps. The lap time variation averages to zero, so each
+     * stint's laps sum in closed form; the cost does not depend on the number of laps.
+     * Records no metrics or events.
      */
-    public double simulateLap(Car car, Track track, Weather weather) {
-        Performance performance = PerformanceCalculator.createCarPerformance(car, track);
-        double lapTime = performance.getLapTime();
-
-        // Apply weather modifiers
-        if (weather.getRainIntensity() > 5) {
-            lapTime *= 1.10;  // 10% slower for heavy rain
-        }
-
-        if (weather.getWindSpeed() > 30) {
-            lapTime *= 1.05;  // 5% slower for high wind
-        }
+    public double expectedRaceTime(Car car, Track track, RaceStrategy strategy, Weather weather) {
+        ComponentCatalog snapshot = catalog != null ? catalog : ComponentCatalog.getDefault();
+        int stints = strategy.getNumberOfPitStops() + 1;
+        List<String> compounds = strategy.getTyreCompoundsForStints(stints);
+        double baseLapTime = PerformanceCalculator.calculateLapTime(car, track, weather);
+        double cornerFactor = getCornerFactor(track);
+        double lengthFactor = getLengthFactor(track);
+        double lapMultiplier = getConditionMultiplier(track, weather) * getFuelMultiplier(strategy, cornerFactor);
 
-        // Apply track difficulty modifier
-        switch (track.getDifficulty()) {
-            case "Hard":
-                lapTime *= 1.05;
-                break;
-            case "Easy":
-                lapTime *= 0.98;
-                break;
-            // Medium remains unchanged
+        double totalLapTime = 0;
+        for (int i = 0; i < stints; i++) {
+            // Same split as simulateRace: the first totalLaps % stints stints get a lap more
+            int laps = totalLaps / stints + (i < totalLaps % stints ? 1 : 0);
+            Tyre tyre = getTyreByCompound(snapshot, compounds.get(i));
+            double bonus = tyre.getBaseLapTimeBonus() * cornerFactor * cornerFactor / lengthFactor;
+            // Sum of the wear penalty over tyre ages 0..laps-1, before and past the cliff
+            int durability = Math.max(0, tyre.getDurability());
+            long normal = Math.min(laps - 1, durability);
+            long pastCliff = Math.max(0, laps - 1 - durability);
+            double wear = normal * (normal + 1) / 2 * 3.0 + pastCliff * (pastCliff + 1) / 2 * 8.0;
+            totalLapTime += (laps * (baseLapTime + bonus) + wear * tyre.getWearRate() * cornerFactor * lengthFactor)
+                    * lapMultiplier;
         }
+        return (totalLapTime + simulatePitStop(strategy)) / 60.0;
+    }
 
-        return lapTime;
+    /**
+     * Simulates a single lap.
+     */
+    public double simulateLap(Car car, Track track, Weather weather) {
+        return PerformanceCalculator.calculateLapTime(car, track, weather) * getConditionMultiplier(track, weather);
     }
 
     /**
@@ -152,6 +271,29 @@ public class RaceSimulator {
         return pitStops * perStopTime;
     }
 
+    /**
+     * Hashes everything the race time depends on, so two results share a scenario
+     * hash only when the same seeded race was run. Races of an unseeded simulator get
+     * a random seed and so never share one.
+     */
+    private long scenarioHash(Car car, Track track, RaceStrategy strategy, Weather weather) {
+        long h = ResultFile.HASH_SEED;
+        h = ResultFile.mix(h, car.getEngine() != null ? car.getEngine().getType() : null);
+        h = ResultFile.mix(h, car.getFrontTyres() != null ? car.getFrontTyres().getCompound() : null);
+        h = ResultFile.mix(h, car.getRearTyres() != null ? car.getRearTyres().getCompound() : null);
+        h = ResultFile.mix(h, car.getAeroKit() != null ? car.getAeroKit().getName() : null);
+        h = ResultFile.mix(h, Double.doubleToLongBits(car.getWeight()));
+        h = ResultFile.mix(h, track.getName());
+        h = ResultFile.mix(h, weather.getCondition());
+        h = ResultFile.mix(h, weather.getRainIntensity());
+        h = ResultFile.mix(h, strategy.getNumberOfPitStops());
+        h = ResultFile.mix(h, strategy.getTyreStrategy());
+        h = ResultFile.mix(h, strategy.getFuelStrategy());
+        h = ResultFile.mix(h, totalLaps);
+        h = ResultFile.mix(h, seed);
+        return ResultFile.finish(h);
+    }
+
     /**
      * Generates a strategy name based on strategy characteristics.
      */
@@ -174,18 +316,16 @@ public class RaceSimulator {
         return currentLap;
     }
 
-    // New helper for lap time with tyre wear/compound
-    private double simulateLapWithTyre(Car car, Track track, Weather weather, Tyre tyre, int lapsOnTyre, RaceStrategy strategy) {
-        Performance performance = PerformanceCalculator.createCarPerformance(car, track);
-        double lapTime = performance.getLapTime();
+    // Lap time with tyre compound and wear; every lap-invariant term is passed in precomputed
+    private double simulateLapWithTyre(double baseLapTime, Tyre tyre, int lapsOnTyre,
+                                       double cornerFactor, double lengthFactor, double lapMultiplier) {
+        double lapTime = baseLapTime;
 
         // Tyre compound base bonus scaled by how technical the track is (more corners -> greater benefit from softer tyres)
-        double cornerFactor = Math.max(0.6, track.getCorners() / 15.0);
-        double lengthFactor = Math.max(0.7, track.getLength() / 4.5);
         lapTime += tyre.getBaseLapTimeBonus() * cornerFactor * cornerFactor / lengthFactor;
-        
+
         // Tyre wear penalty with cliff effect
-        double wearPenalty = 0;
+        double wearPenalty;
         if (lapsOnTyre > tyre.getDurability()) {
             // After durability is exceeded, apply a sharp performance cliff
             wearPenalty = tyre.getWearRate() * (lapsOnTyre - tyre.getDurability()) * 8.0 * cornerFactor * lengthFactor;
@@ -195,25 +335,45 @@ public class RaceSimulator {
         }
         lapTime += wearPenalty;
 
+        // Weather, track difficulty and fuel load modifiers
+        return lapTime * lapMultiplier;
+    }
+
+    private static double getCornerFactor(Track track) {
+        return Math.max(0.6, track.getCorners() / 15.0);
+    }
+
+    private static double getLengthFactor(Track track) {
+        return Math.max(0.7, track.getLength() / 4.5);
+    }
+
+    // Combined weather and track difficulty modifier
+    private static double getConditionMultiplier(Track track, Weather weather) {
+        double multiplier = 1.0;
+
         // Apply weather modifiers
         if (weather.getRainIntensity() > 5) {
-            lapTime *= 1.10;  // 10% slower for heavy rain
+            multiplier *= 1.10;  // 10% slower for heavy rain
         }
         if (weather.getWindSpeed() > 30) {
-            lapTime *= 1.05;  // 5% slower for high wind
+            multiplier *= 1.05;  // 5% slower for high wind
         }
+
         // Apply track difficulty modifier
         switch (track.getDifficulty()) {
             case "Hard":
-                lapTime *= 1.05;
+                multiplier *= 1.05;
                 break;
             case "Easy":
-                lapTime *= 0.98;
+                multiplier *= 0.98;
                 break;
             // Medium remains unchanged
         }
+        return multiplier;
+    }
 
-        // Fuel load modifier based on strategy
+    // Fuel load modifier based on strategy
+    private static double getFuelMultiplier(RaceStrategy strategy, double cornerFactor) {
         double fuelAdj = 0.0;
         switch (strategy.getFuelStrategy()) {
             case "Light":
@@ -224,22 +384,16 @@ public class RaceSimulator {
                 break;
             // Medium remains unchanged
         }
-        lapTime *= (1.0 + fuelAdj);
-
-        return lapTime;
+        return 1.0 + fuelAdj;
     }
 
-    // Helper to get Tyre object by compound name
-    private Tyre getTyreByCompound(String compound) {
-        switch (compound.toLowerCase()) {
-            case "soft":
-                return Tyre.createSoftTyre();
-            case "medium":
-                return Tyre.createMediumTyre();
-            case "hard":
-                return Tyre.createHardTyre();
-            default:
-                return Tyre.createMediumTyre(); // fallback
+    // Helper to get the shared Tyre for a compound name
+    private static Tyre getTyreByCompound(ComponentCatalog catalog, String compound) {
+        Tyre tyre = catalog.getTyre(compound);
+        if (tyre != null) {
+            return tyre;
         }
+        tyre = catalog.getTyre("Medium");
+        return tyre != null ? tyre : MEDIUM_TYRE; // medium and fallback
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,110 @@
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Streaming summary of race times (count, mean, spread, min and max).
+ * Uses Welford's update so the mean and variance stay accurate over long sweeps.
+ */
+public class RaceTimeStatistics {
+    private long count;
+    private double mean;
+    private double m2;
+    private double min = Double.POSITIVE_INFINITY;
+    private double max = Double.NEGATIVE_INFINITY;
+
+    public void add(double value) {
+        count++;
+        double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (value < min) {
+            min = value;
+        }
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Folds another summary into this one.
+     */
+    public void merge(RaceTimeStatistics other) {
+        if (other.count == 0) {
+            return;
+        }
+        if (count == 0) {
+            copyFrom(other);
+            return;
+        }
+        long total = count + other.count;
+        double delta = other.mean - mean;
+        mean += delta * other.count / total;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+        count = total;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    public RaceTimeStatistics copy() {
+        RaceTimeStatistics copy = new RaceTimeStatistics();
+        copy.copyFrom(this);
+        return copy;
+    }
+
+    private void copyFrom(RaceTimeStatistics other) {
+        count = other.count;
+        mean = other.mean;
+        m2 = other.m2;
+        min = other.min;
+        max = other.max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getMean() {
+        return count > 0 ? mean : 0.0;
+    }
+
+    public double getVariance() {
+        return count > 1 ? m2 / (count - 1) : 0.0;
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return count > 0 ? min : 0.0;
+    }
+
+    public double getMax() {
+        return count > 0 ? max : 0.0;
+    }
+
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    public static RaceTimeStatistics readFrom(DataInput in) throws IOException {
+        RaceTimeStatistics stats = new RaceTimeStatistics();
+        stats.count = in.readLong();
+        stats.mean = in.readDouble();
+        stats.m2 = in.readDouble();
+        stats.min = in.readDouble();
+        stats.max = in.readDouble();
+        return stats;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("RaceTimeStatistics{count=%d, mean=%.3f, stdDev=%.3f, min=%.3f, max=%.3f}",
+                count, getMean(), getStandardDeviation(), getMin(), getMax());
+    }
+}
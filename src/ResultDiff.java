@@ -0,0 +1,314 @@
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compares two result files scenario by scenario, typically a sweep before and after
+ * a change to the lap or performance model.
+ *
+ * Both inputs must be sorted by scenario hash (see
+ * {@link ExternalResultSorter#BY_SCENARIO_HASH}); {@link #diffUnsorted} sorts them
+ * first. The files are then merge-joined in a single streaming pass, so memory use
+ * depends only on the number of largest movers kept, not on the file sizes.
+ * Results with equal hashes are paired in file order, which the sort does not keep,
+ * so the hash has to include the replication (see {@link ResultFile#scenarioHash}).
+ */
+public class ResultDiff {
+
+    /**
+     * Receives every matched scenario during the join.
+     */
+    public interface DeltaListener {
+        void onDelta(long scenarioHash, RaceResult baseline, RaceResult candidate, double delta);
+    }
+
+    private final int moverCount;
+    private final double bucketWidth;
+    private final int bucketsPerSide;
+    private DeltaListener listener;
+
+    public ResultDiff() {
+        this(20, 0.1, 50);
+    }
+
+    /**
+     * @param moverCount how many largest movers to keep
+     * @param bucketWidth width of a delta histogram bucket, in race time units (minutes)
+     * @param bucketsPerSide buckets on each side of zero; larger deltas go to the end buckets
+     */
+    public ResultDiff(int moverCount, double bucketWidth, int bucketsPerSide) {
+        if (moverCount <= 0 || bucketWidth <= 0 || bucketsPerSide <= 0) {
+            throw new IllegalArgumentException("Mover count, bucket width and bucket count must be positive");
+        }
+        this.moverCount = moverCount;
+        this.bucketWidth = bucketWidth;
+        this.bucketsPerSide = bucketsPerSide;
+    }
+
+    public void setListener(DeltaListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Sorts both files by scenario hash into {@code tempDirectory}, then diffs them.
+     */
+    public Report diffUnsorted(Path baseline, Path candidate, Path tempDirectory, long memoryBudget)
+            throws IOException {
+        ExternalResultSorter sorter = new ExternalResultSorter(ExternalResultSorter.BY_SCENARIO_HASH,
+                memoryBudget, Runtime.getRuntime().availableProcessors(), tempDirectory);
+        Path sortedBaseline = Files.createTempFile(tempDirectory, "baseline-", ".bin");
+        Path sortedCandidate = Files.createTempFile(tempDirectory, "candidate-", ".bin");
+        try {
+            sorter.sort(baseline, sortedBaseline);
+            sorter.sort(candidate, sortedCandidate);
+            return diff(sortedBaseline, sortedCandidate);
+        } finally {
+            Files.deleteIfExists(sortedBaseline);
+            Files.deleteIfExists(sortedCandidate);
+        }
+    }
+
+    /**
+     * Diffs two files that are already sorted by scenario hash.
+     *
+     * @throws IOException if either file is not sorted
+     */
+    public Report diff(Path baseline, Path candidate) throws IOException {
+        Report report = new Report(2 * bucketsPerSide + 1);
+        // Keyed on -|delta| so the biggest moves rank first
+        TopKCollector<Mover> movers = new TopKCollector<>(moverCount, (Mover m) -> -Math.abs(m.getDelta()));
+
+        try (ResultFile.Reader left = ResultFile.newReader(baseline);
+             ResultFile.Reader right = ResultFile.newReader(candidate);
+             TopKCollector<Mover>.Producer moverProducer = movers.newProducer()) {
+            SortedCursor a = new SortedCursor(left, baseline);
+            SortedCursor b = new SortedCursor(right, candidate);
+            while (a.current != null && b.current != null) {
+                long ha = a.hash;
+                long hb = b.hash;
+                if (ha < hb) {
+                    report.baselineOnly++;
+                    report.baseline.add(a.current.getRaceTime());
+                    a.advance();
+                } else if (ha > hb) {
+                    report.candidateOnly++;
+                    report.candidate.add(b.current.getRaceTime());
+                    b.advance();
+                } else {
+                    match(report, moverProducer, ha, a.current, b.current);
+                    a.advance();
+                    b.advance();
+                }
+            }
+            while (a.current != null) {
+                report.baselineOnly++;
+                report.baseline.add(a.current.getRaceTime());
+                a.advance();
+            }
+            while (b.current != null) {
+                report.candidateOnly++;
+                report.candidate.add(b.current.getRaceTime());
+                b.advance();
+            }
+        }
+        report.largestMovers = movers.results();
+        return report;
+    }
+
+    private void match(Report report, TopKCollector<Mover>.Producer movers, long hash,
+                       RaceResult baseline, RaceResult candidate) {
+        double delta = candidate.getRaceTime() - baseline.getRaceTime();
+        report.matched++;
+        report.baseline.add(baseline.getRaceTime());
+        report.candidate.add(candidate.getRaceTime());
+        report.delta.add(delta);
+        if (delta < 0) {
+            report.faster++;
+        } else if (delta > 0) {
+            report.slower++;
+        }
+
+        int bucket = (int) Math.floor(delta / bucketWidth + 0.5) + bucketsPerSide;
+        bucket = Math.max(0, Math.min(report.histogram.length - 1, bucket));
+        report.histogram[bucket]++;
+
+        if (listener != null) {
+            listener.onDelta(hash, baseline, candidate, delta);
+        }
+        // Only build a mover when it can still make the list
+        if (movers.canQualify(-Math.abs(delta))) {
+            movers.offer(new Mover(hash, baseline, candidate.getRaceTime()));
+        }
+    }
+
+    // Reads a file and checks that scenario hashes never go down
+    private static class SortedCursor {
+        private final ResultFile.Reader reader;
+        private final Path path;
+        private RaceResult current;
+        private long hash;
+
+        SortedCursor(ResultFile.Reader reader, Path path) throws IOException {
+            this.reader = reader;
+            this.path = path;
+            this.hash = Long.MIN_VALUE;
+            advance();
+        }
+
+        void advance() throws IOException {
+            current = reader.next();
+            if (current != null) {
+                long next = ResultFile.scenarioHash(current);
+                if (next < hash) {
+                    throw new IOException("Result file is not sorted by scenario hash: " + path);
+                }
+                hash = next;
+            }
+        }
+    }
+
+    /**
+     * A scenario whose race time moved between the two files.
+     */
+    public static class Mover {
+        private final long scenarioHash;
+        private final String carName;
+        private final String trackName;
+        private final String strategy;
+        private final double baselineTime;
+        private final double candidateTime;
+
+        Mover(long scenarioHash, RaceResult baseline, double candidateTime) {
+            this.scenarioHash = scenarioHash;
+            this.carName = baseline.getCarName();
+            this.trackName = baseline.getTrackName();
+            this.strategy = baseline.getStrategy();
+            this.baselineTime = baseline.getRaceTime();
+            this.candidateTime = candidateTime;
+        }
+
+        public long getScenarioHash() {
+            return scenarioHash;
+        }
+
+        public String getCarName() {
+            return carName;
+        }
+
+        public String getTrackName() {
+            return trackName;
+        }
+
+        public String getStrategy() {
+            return strategy;
+        }
+
+        public double getBaselineTime() {
+            return baselineTime;
+        }
+
+        public double getCandidateTime() {
+            return candidateTime;
+        }
+
+        public double getDelta() {
+            return candidateTime - baselineTime;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%016x %s @ %s (%s): %.3f -> %.3f (%+.3f)",
+                    scenarioHash, carName, trackName, strategy, baselineTime, candidateTime, getDelta());
+        }
+    }
+
+    /**
+     * Outcome of a diff.
+     */
+    public class Report {
+        private long matched;
+        private long baselineOnly;
+        private long candidateOnly;
+        private long faster;
+        private long slower;
+        private final RaceTimeStatistics baseline = new RaceTimeStatistics();
+        private final RaceTimeStatistics candidate = new RaceTimeStatistics();
+        private final RaceTimeStatistics delta = new RaceTimeStatistics();
+        private final long[] histogram;
+        private List<Mover> largestMovers = new ArrayList<>();
+
+        private Report(int buckets) {
+            this.histogram = new long[buckets];
+        }
+
+        public long getMatchedCount() {
+            return matched;
+        }
+
+        public long getBaselineOnlyCount() {
+            return baselineOnly;
+        }
+
+        public long getCandidateOnlyCount() {
+            return candidateOnly;
+        }
+
+        public long getFasterCount() {
+            return faster;
+        }
+
+        public long getSlowerCount() {
+            return slower;
+        }
+
+        public RaceTimeStatistics getBaselineStatistics() {
+            return baseline.copy();
+        }
+
+        public RaceTimeStatistics getCandidateStatistics() {
+            return candidate.copy();
+        }
+
+        public RaceTimeStatistics getDeltaStatistics() {
+            return delta.copy();
+        }
+
+        /**
+         * Returns the delta histogram. Bucket {@code i} counts deltas around
+         * {@link #getBucketCenter(int)}; the first and last buckets also hold everything beyond.
+         */
+        public long[] getDeltaHistogram() {
+            return histogram.clone();
+        }
+
+        public double getBucketCenter(int bucket) {
+            return (bucket - bucketsPerSide) * bucketWidth;
+        }
+
+        public List<Mover> getLargestMovers() {
+            return largestMovers;
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Matched scenarios: %d (baseline only: %d, candidate only: %d)%n",
+                    matched, baselineOnly, candidateOnly));
+            sb.append(String.format("Faster: %d, slower: %d, unchanged: %d%n",
+                    faster, slower, matched - faster - slower));
+            sb.append(String.format("Mean race time: %.3f -> %.3f (%+.3f)%n",
+                    baseline.getMean(), candidate.getMean(), candidate.getMean() - baseline.getMean()));
+            sb.append(String.format("Std deviation: %.3f -> %.3f%n",
+                    baseline.getStandardDeviation(), candidate.getStandardDeviation()));
+            sb.append(String.format("Delta: mean %+.3f, std dev %.3f, min %+.3f, max %+.3f%n",
+                    delta.getMean(), delta.getStandardDeviation(), delta.getMin(), delta.getMax()));
+            sb.append("Largest movers:");
+            for (Mover mover : largestMovers) {
+                sb.append(System.lineSeparator()).append("  ").append(mover);
+            }
+            return sb.toString();
+        }
+    }
+}
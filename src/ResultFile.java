@@ -0,0 +1,278 @@
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Compact binary file format for stored race results.
+ *
+ * Layout: a header (magic, version) followed by one record per result:
+ * scenario hash, race time, average lap time, pit stop count, timestamp
+ * (epoch millis UTC, or -1 when missing) and the car, track, strategy and
+ * weather labels. Labels are written with a presence flag so null values
+ * survive a round trip.
+ */
+public class ResultFile {
+
+    public static final int MAGIC = 0x52535246; // "RSRF"
+    public static final short VERSION = 1;
+
+    // Default I/O buffer size for readers and writers
+    public static final int BUFFER_SIZE = 64 * 1024;
+
+    // Rough heap cost of a decoded RaceResult without its label strings
+    private static final int RESULT_OBJECT_BYTES = 96;
+
+    private ResultFile() {
+    }
+
+    /**
+     * Returns the scenario hash of a result: the stored hash when one was set,
+     * otherwise a hash derived from the car, track, strategy and weather labels
+     * plus the pit stop count.
+     *
+     * The producers set the stored hash: {@link RaceSimulator} from its full inputs
+     * and seed, {@link BatchRunner} from the job and replication and
+     * {@link CheckpointedSweep} from the scenario index. The label fallback is coarse
+     * (the strategy label does not name the tyres, for one), so results that only
+     * have it may share a hash with unrelated races. {@link ResultDiff} pairs results
+     * with equal hashes, which is only meaningful when the hash tells replications
+     * apart.
+     */
+    public static long scenarioHash(RaceResult result) {
+        if (result.getScenarioHash() != 0) {
+            return result.getScenarioHash();
+        }
+        long h = HASH_SEED;
+        h = mix(h, result.getCarName());
+        h = mix(h, result.getTrackName());
+        h = mix(h, result.getStrategy());
+        h = mix(h, result.getWeatherCondition());
+        h = (h ^ result.getPitStopCount()) * 0x100000001b3L;
+        return finish(h);
+    }
+
+    /**
+     * Returns the scenario hash for a producer's own scenario ids, such as a job line
+     * and a replication.
+     */
+    public static long scenarioKey(long... ids) {
+        long h = HASH_SEED;
+        for (long id : ids) {
+            h = mix(h, id);
+        }
+        return finish(h);
+    }
+
+    // FNV-1a, folded over labels and numbers in turn
+    static final long HASH_SEED = 0xcbf29ce484222325L;
+
+    static long mix(long h, String s) {
+        if (s == null) {
+            return (h ^ 0xff) * 0x100000001b3L;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            h = (h ^ s.charAt(i)) * 0x100000001b3L;
+        }
+        return (h ^ 0x1f) * 0x100000001b3L;
+    }
+
+    static long mix(long h, long value) {
+        for (int shift = 0; shift < 64; shift += 8) {
+            h = (h ^ ((value >>> shift) & 0xff)) * 0x100000001b3L;
+        }
+        return h;
+    }
+
+    // Never hand out 0, it means "unset" on RaceResult
+    static long finish(long h) {
+        return h != 0 ? h : 1;
+    }
+
+    /**
+     * Estimates the heap footprint of a decoded result, used for memory budgets.
+     */
+    public static long estimateHeapBytes(RaceResult result) {
+        return RESULT_OBJECT_BYTES
+                + stringBytes(result.getCarName())
+                + stringBytes(result.getTrackName())
+                + stringBytes(result.getStrategy())
+                + stringBytes(result.getWeatherCondition());
+    }
+
+    private static long stringBytes(String s) {
+        return s == null ? 0 : 40 + s.length();
+    }
+
+    /**
+     * Writes one record (without file header).
+     */
+    public static void writeRecord(DataOutput out, RaceResult result) throws IOException {
+        out.writeLong(scenarioHash(result));
+        out.writeDouble(result.getRaceTime());
+        out.writeDouble(result.getAverageLapTime());
+        out.writeInt(result.getPitStopCount());
+        LocalDateTime timestamp = result.getTimestamp();
+        out.writeLong(timestamp != null ? timestamp.toInstant(ZoneOffset.UTC).toEpochMilli() : -1L);
+        writeLabel(out, result.getCarName());
+        writeLabel(out, result.getTrackName());
+        writeLabel(out, result.getStrategy());
+        writeLabel(out, result.getWeatherCondition());
+    }
+
+    /**
+     * Reads one record (without file header).
+     */
+    public static RaceResult readRecord(DataInput in) throws IOException {
+        return readRecordBody(in.readLong(), in, null);
+    }
+
+    private static RaceResult readRecordBody(long scenarioHash, DataInput in, Map<String, String> labels)
+            throws IOException {
+        double raceTime = in.readDouble();
+        double averageLapTime = in.readDouble();
+        int pitStopCount = in.readInt();
+        long millis = in.readLong();
+        String carName = readLabel(in, labels);
+        String trackName = readLabel(in, labels);
+        String strategy = readLabel(in, labels);
+        String weather = readLabel(in, labels);
+
+        LocalDateTime timestamp = millis >= 0
+                ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC)
+                : null;
+        RaceResult result = new RaceResult(carName, trackName, raceTime, strategy,
+                timestamp, averageLapTime, pitStopCount, weather);
+        result.setScenarioHash(scenarioHash);
+        return result;
+    }
+
+    private static void writeLabel(DataOutput out, String label) throws IOException {
+        if (label == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            out.writeUTF(label);
+        }
+    }
+
+    private static String readLabel(DataInput in, Map<String, String> labels) throws IOException {
+        if (!in.readBoolean()) {
+            return null;
+        }
+        String label = in.readUTF();
+        if (labels == null) {
+            return label;
+        }
+        String shared = labels.putIfAbsent(label, label);
+        return shared != null ? shared : label;
+    }
+
+    public static Writer newWriter(Path path) throws IOException {
+        return new Writer(path);
+    }
+
+    public static Reader newReader(Path path) throws IOException {
+        return new Reader(path);
+    }
+
+    /**
+     * Streams results into a result file.
+     */
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private long count;
+
+        private Writer(Path path) throws IOException {
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path), BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+        }
+
+        public void write(RaceResult result) throws IOException {
+            writeRecord(out, result);
+            count++;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * Streams results out of a result file. Repeated labels (track names, strategies,
+     * weather conditions) are shared between decoded results to keep the heap small.
+     */
+    public static class Reader implements Closeable {
+        // Results in a sweep reuse a handful of labels; cap the table in case they don't
+        private static final int MAX_SHARED_LABELS = 4096;
+
+        private final DataInputStream in;
+        private final Map<String, String> labels = new HashMap<>();
+        private long count;
+
+        private Reader(Path path) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE));
+            int magic;
+            try {
+                magic = in.readInt();
+            } catch (EOFException e) {
+                in.close();
+                throw new IOException("Not a result file (empty): " + path);
+            }
+            if (magic != MAGIC) {
+                in.close();
+                throw new IOException("Not a result file: " + path);
+            }
+            short version = in.readShort();
+            if (version != VERSION) {
+                in.close();
+                throw new IOException("Unsupported result file version " + version + ": " + path);
+            }
+        }
+
+        /**
+         * Returns the next result, or null at the end of the file.
+         */
+        public RaceResult next() throws IOException {
+            long scenarioHash;
+            try {
+                scenarioHash = in.readLong();
+            } catch (EOFException e) {
+                return null;
+            }
+            if (labels.size() > MAX_SHARED_LABELS) {
+                labels.clear();
+            }
+            RaceResult result = readRecordBody(scenarioHash, in, labels);
+            count++;
+            return result;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+}
@@ -0,0 +1,293 @@
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+/**
+ * Crash-safe, append-only log of race results.
+ *
+ * Every entry is framed as {@code [length][crc32][scenario index + result record]}.
+ * Appends are buffered and made durable in groups: the buffer is written and
+ * {@code fsync}ed once {@code groupSize} entries are pending or the commit interval
+ * has passed, whichever comes first. A background flusher checks the interval
+ * between appends, so an entry is committed within about 1.25 commit intervals even
+ * if no further append follows. On open, the log is scanned and truncated after the
+ * last intact frame, so a torn write from a crash never surfaces as a result.
+ */
+public class ResultLog implements Closeable {
+
+    public static final int MAGIC = 0x5253524C; // "RSRL"
+    public static final short VERSION = 1;
+    private static final int HEADER_BYTES = 6;
+    private static final int FRAME_HEADER_BYTES = 8;
+    private static final int MAX_FRAME_BYTES = 1 << 20;
+
+    public static final int DEFAULT_GROUP_SIZE = 256;
+    public static final long DEFAULT_COMMIT_INTERVAL_MILLIS = 1000;
+
+    private final FileChannel channel;
+    private final int groupSize;
+    private final long commitIntervalNanos;
+
+    private final ByteArrayOutputStream frameBytes = new ByteArrayOutputStream(256);
+    private final DataOutputStream frameOut = new DataOutputStream(frameBytes);
+    private final CRC32 crc = new CRC32();
+    private final ScheduledExecutorService flusher;
+    private ByteBuffer pending = ByteBuffer.allocate(64 * 1024);
+    private int pendingEntries;
+    private long lastCommitNanos = System.nanoTime();
+    private long committedSize;
+    private long entryCount;
+    // Set when a background commit fails; reported by the next append, commit or close
+    private IOException flushFailure;
+
+    /**
+     * Receives entries while a log is being replayed.
+     */
+    public interface EntryHandler {
+        void onEntry(long scenarioIndex, RaceResult result, long endOffset) throws IOException;
+    }
+
+    private ResultLog(FileChannel channel, long committedSize, long entryCount, int groupSize,
+                      long commitIntervalMillis) {
+        this.channel = channel;
+        this.committedSize = committedSize;
+        this.entryCount = entryCount;
+        this.groupSize = groupSize;
+        this.commitIntervalNanos = commitIntervalMillis * 1_000_000L;
+        if (commitIntervalMillis > 0) {
+            flusher = Executors.newSingleThreadScheduledExecutor(BoundedExecutor.daemonThreads("result-log-flusher"));
+            long period = Math.max(1, commitIntervalNanos / 4);
+            flusher.scheduleWithFixedDelay(this::commitIfDue, period, period, TimeUnit.NANOSECONDS);
+        } else {
+            // Every append commits, so there is never anything left to flush
+            flusher = null;
+        }
+    }
+
+    public static ResultLog open(Path path) throws IOException {
+        return open(path, DEFAULT_GROUP_SIZE, DEFAULT_COMMIT_INTERVAL_MILLIS, null);
+    }
+
+    /**
+     * Opens (or creates) a log, dropping any torn tail left behind by a crash.
+     *
+     * @param groupSize entries per group commit
+     * @param commitIntervalMillis time after the last commit at which pending entries are
+     *        committed, by the next append or the background flusher; 0 commits every append
+     * @param handler receives every intact entry already in the log, may be null
+     */
+    public static ResultLog open(Path path, int groupSize, long commitIntervalMillis, EntryHandler handler)
+            throws IOException {
+        if (groupSize <= 0 || commitIntervalMillis < 0) {
+            throw new IllegalArgumentException("Group size must be positive and commit interval non-negative");
+        }
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            long[] scan = {HEADER_BYTES, 0};
+            if (channel.size() < HEADER_BYTES) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+                header.putInt(MAGIC).putShort(VERSION).flip();
+                channel.truncate(0);
+                channel.write(header, 0);
+                channel.force(true);
+            } else {
+                checkHeader(channel, path);
+                scan = scan(channel, handler);
+                if (scan[0] < channel.size()) {
+                    channel.truncate(scan[0]);
+                    channel.force(true);
+                }
+            }
+            channel.position(scan[0]);
+            return new ResultLog(channel, scan[0], scan[1], groupSize, commitIntervalMillis);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    private static void checkHeader(FileChannel channel, Path path) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        channel.read(header, 0);
+        header.flip();
+        if (header.getInt() != MAGIC) {
+            throw new IOException("Not a result log: " + path);
+        }
+        short version = header.getShort();
+        if (version != VERSION) {
+            throw new IOException("Unsupported result log version " + version + ": " + path);
+        }
+    }
+
+    // Returns {offset after the last intact frame, number of intact frames}
+    private static long[] scan(FileChannel channel, EntryHandler handler) throws IOException {
+        long size = channel.size();
+        long offset = HEADER_BYTES;
+        long entries = 0;
+        ByteBuffer frameHeader = ByteBuffer.allocate(FRAME_HEADER_BYTES);
+        CRC32 crc = new CRC32();
+        while (offset + FRAME_HEADER_BYTES <= size) {
+            frameHeader.clear();
+            readFully(channel, frameHeader, offset);
+            frameHeader.flip();
+            int length = frameHeader.getInt();
+            int expectedCrc = frameHeader.getInt();
+            if (length <= 0 || length > MAX_FRAME_BYTES || offset + FRAME_HEADER_BYTES + length > size) {
+                break;
+            }
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            readFully(channel, payload, offset + FRAME_HEADER_BYTES);
+            crc.reset();
+            crc.update(payload.array(), 0, length);
+            if ((int) crc.getValue() != expectedCrc) {
+                break;
+            }
+            offset += FRAME_HEADER_BYTES + length;
+            entries++;
+            if (handler != null) {
+                DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload.array()));
+                long scenarioIndex = in.readLong();
+                handler.onEntry(scenarioIndex, ResultFile.readRecord(in), offset);
+            }
+        }
+        return new long[]{offset, entries};
+    }
+
+    private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = channel.read(buffer, position + buffer.position());
+            if (read < 0) {
+                throw new IOException("Unexpected end of result log");
+            }
+        }
+    }
+
+    /**
+     * Replays every intact entry of an existing log without opening it for writing.
+     *
+     * @return the number of entries replayed
+     */
+    public static long replay(Path path, EntryHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            checkHeader(channel, path);
+            return scan(channel, handler)[1];
+        }
+    }
+
+    /**
+     * Appends an entry. It becomes durable with the next group commit.
+     */
+    public synchronized void append(long scenarioIndex, RaceResult result) throws IOException {
+        checkFlushFailure();
+        frameBytes.reset();
+        frameOut.writeLong(scenarioIndex);
+        ResultFile.writeRecord(frameOut, result);
+        byte[] payload = frameBytes.toByteArray();
+        int length = payload.length;
+        if (length > MAX_FRAME_BYTES) {
+            throw new IOException("Result entry too large: " + length + " bytes");
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+
+        ensurePendingCapacity(FRAME_HEADER_BYTES + length);
+        pending.putInt(length);
+        pending.putInt((int) crc.getValue());
+        pending.put(payload, 0, length);
+        pendingEntries++;
+        entryCount++;
+
+        if (pendingEntries >= groupSize || System.nanoTime() - lastCommitNanos >= commitIntervalNanos) {
+            commit();
+        }
+    }
+
+    private void ensurePendingCapacity(int bytes) {
+        if (pending.remaining() < bytes) {
+            ByteBuffer larger = ByteBuffer.allocate(Math.max(pending.capacity() * 2, pending.position() + bytes));
+            pending.flip();
+            larger.put(pending);
+            pending = larger;
+        }
+    }
+
+    // Runs on the flusher thread
+    private synchronized void commitIfDue() {
+        if (flushFailure != null || pendingEntries == 0 || !channel.isOpen()
+                || System.nanoTime() - lastCommitNanos < commitIntervalNanos) {
+            return;
+        }
+        try {
+            commit();
+        } catch (IOException e) {
+            flushFailure = e;
+        }
+    }
+
+    private void checkFlushFailure() throws IOException {
+        if (flushFailure != null) {
+            throw new IOException("Background commit of the result log failed", flushFailure);
+        }
+    }
+
+    /**
+     * Writes all pending entries and forces them to disk.
+     */
+    public synchronized void commit() throws IOException {
+        checkFlushFailure();
+        lastCommitNanos = System.nanoTime();
+        if (pendingEntries == 0) {
+            return;
+        }
+        pending.flip();
+        while (pending.hasRemaining()) {
+            channel.write(pending);
+        }
+        pending.clear();
+        channel.force(false);
+        committedSize = channel.position();
+        pendingEntries = 0;
+    }
+
+    /**
+     * Returns the size in bytes of the durable part of the log.
+     */
+    public synchronized long getCommittedSize() {
+        return committedSize;
+    }
+
+    /**
+     * Returns the number of entries in the log, including ones still pending.
+     */
+    public synchronized long getEntryCount() {
+        return entryCount;
+    }
+
+    public synchronized int getPendingEntries() {
+        return pendingEntries;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        try {
+            commit();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+/**
+ * How much of each simulated race a job keeps in memory.
+ */
+public enum ResultMode {
+    /** Every {@link RaceResult} object is kept. */
+    FULL,
+    /**
+     * One compact row per race in primitive columns: scenario hash (long), race time
+     * (double), average lap time (float) and pit stops (byte).
+     */
+    COMPACT,
+    /** Only the K fastest results are kept, as with {@link TopKCollector}. */
+    TOP_K,
+    /** Replications are folded into one {@link RaceTimeStatistics} per scenario. */
+    SUMMARY;
+
+    /** Bytes of one {@link #COMPACT} row. */
+    public static final int COMPACT_ROW_BYTES = Long.BYTES + Double.BYTES + Float.BYTES + Byte.BYTES;
+}
@@ -0,0 +1,171 @@
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * One declared validation rule: the condition a setup must meet, an optional
+ * condition that decides whether the rule applies at all, and a severity.
+ *
+ * Definitions are plain data. {@link RuleSet#compile} turns a list of them into the
+ * arrays that are actually evaluated.
+ */
+public final class RuleDefinition {
+
+    public enum Severity {
+        ERROR, WARNING
+    }
+
+    private final String id;
+    private final Severity severity;
+    private final Condition check;
+    private final Condition when;
+    private final String message;
+
+    /**
+     * @param id unique name of the rule within its set
+     * @param severity whether a violation makes the setup invalid
+     * @param check condition every applicable setup must meet
+     * @param when condition under which the rule applies, or null to always apply
+     * @param message message template, {@code {value}} is replaced by the checked value; may be null
+     */
+    public RuleDefinition(String id, Severity severity, Condition check, Condition when, String message) {
+        if (id == null || id.isEmpty()) {
+            throw new IllegalArgumentException("Rule id cannot be empty");
+        }
+        if (severity == null || check == null) {
+            throw new IllegalArgumentException("Rule " + id + " needs a severity and a check");
+        }
+        this.id = id;
+        this.severity = severity;
+        this.check = check;
+        this.when = when;
+        this.message = message != null ? message : id + ": " + check.getField().getKey() + " = {value}";
+    }
+
+    /**
+     * An error rule that always applies.
+     */
+    public static RuleDefinition error(String id, Condition check, String message) {
+        return new RuleDefinition(id, Severity.ERROR, check, null, message);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public Severity getSeverity() {
+        return severity;
+    }
+
+    public Condition getCheck() {
+        return check;
+    }
+
+    public Condition getWhen() {
+        return when;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    @Override
+    public String toString() {
+        return id + " (" + severity + "): " + check + (when != null ? " when " + when : "");
+    }
+
+    /**
+     * A test on one field: a numeric range, or a set of allowed or forbidden values
+     * for a categorical field.
+     */
+    public static final class Condition {
+        private final RuleField field;
+        private final double min;
+        private final double max;
+        private final Set<String> values;
+        private final boolean exclude;
+
+        private Condition(RuleField field, double min, double max, Set<String> values, boolean exclude) {
+            this.field = field;
+            this.min = min;
+            this.max = max;
+            this.values = values;
+            this.exclude = exclude;
+        }
+
+        /**
+         * Matches numeric values in {@code [min, max]}. Use infinities for open ends and
+         * {@link Math#nextUp}/{@link Math#nextDown} for exclusive bounds.
+         */
+        public static Condition range(RuleField field, double min, double max) {
+            if (field == null || field.isCategorical()) {
+                throw new IllegalArgumentException("Range needs a numeric field: " + field);
+            }
+            if (Double.isNaN(min) || Double.isNaN(max) || min > max) {
+                throw new IllegalArgumentException("Invalid range for " + field.getKey() + ": " + min + ".." + max);
+            }
+            return new Condition(field, min, max, null, false);
+        }
+
+        /**
+         * Matches any of the given values; a missing value never matches.
+         */
+        public static Condition oneOf(RuleField field, String... values) {
+            return categorical(field, values, false);
+        }
+
+        /**
+         * Matches anything except the given values, including a missing value.
+         */
+        public static Condition noneOf(RuleField field, String... values) {
+            return categorical(field, values, true);
+        }
+
+        private static Condition categorical(RuleField field, String[] values, boolean exclude) {
+            if (field == null || !field.isCategorical()) {
+                throw new IllegalArgumentException("Value list needs a categorical field: " + field);
+            }
+            if (values.length == 0) {
+                throw new IllegalArgumentException("Value list for " + field.getKey() + " is empty");
+            }
+            Set<String> set = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(values)));
+            return new Condition(field, Double.NaN, Double.NaN, set, exclude);
+        }
+
+        public RuleField getField() {
+            return field;
+        }
+
+        public boolean isRange() {
+            return values == null;
+        }
+
+        public double getMin() {
+            return min;
+        }
+
+        public double getMax() {
+            return max;
+        }
+
+        /**
+         * Returns the listed values of a categorical condition, empty for ranges.
+         */
+        public Set<String> getValues() {
+            return values != null ? values : Collections.emptySet();
+        }
+
+        public boolean isExclude() {
+            return exclude;
+        }
+
+        @Override
+        public String toString() {
+            if (isRange()) {
+                return field.getKey() + " in [" + min + ", " + max + "]";
+            }
+            return field.getKey() + (exclude ? " not in " : " in ") + values;
+        }
+    }
+}
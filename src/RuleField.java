@@ -0,0 +1,119 @@
+/**
+ * A value of a race setup that declarative validation rules can check.
+ *
+ * Numeric fields read as {@code NaN} when the component they belong to is missing,
+ * which rules treat as "nothing to check"; the {@code has*} fields are 1 or 0 and
+ * catch missing components instead. Categorical fields are compared by their text.
+ */
+public enum RuleField {
+    HAS_ENGINE("hasEngine", false),
+    HAS_FRONT_TYRES("hasFrontTyres", false),
+    HAS_REAR_TYRES("hasRearTyres", false),
+    HAS_AEROKIT("hasAeroKit", false),
+    CAR_WEIGHT("carWeight", false),
+    TOTAL_WEIGHT("totalWeight", false),
+    ENGINE_POWER("enginePower", false),
+    ENGINE_WEIGHT("engineWeight", false),
+    DOWNFORCE("downforce", false),
+    DRAG_COEFFICIENT("dragCoefficient", false),
+    TRACK_LENGTH("trackLength", false),
+    CORNERS("corners", false),
+    CORNER_DENSITY("cornerDensity", false),
+    DIFFICULTY("difficulty", true),
+    PIT_STOPS("pitStops", false),
+    FUEL_STRATEGY("fuelStrategy", true),
+    ESTIMATED_RACE_TIME("estimatedRaceTime", false);
+
+    private final String key;
+    private final boolean categorical;
+
+    RuleField(String key, boolean categorical) {
+        this.key = key;
+        this.categorical = categorical;
+    }
+
+    /**
+     * Returns the name used for this field in rule files.
+     */
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isCategorical() {
+        return categorical;
+    }
+
+    /**
+     * Looks a field up by its rule file name.
+     *
+     * @throws IllegalArgumentException if there is no such field
+     */
+    public static RuleField forKey(String key) {
+        for (RuleField field : values()) {
+            if (field.key.equals(key)) {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rule field: " + key);
+    }
+
+    /**
+     * Reads a numeric field, or {@code NaN} if its component is missing.
+     *
+     * @throws IllegalStateException for categorical fields
+     */
+    public double numericValue(Car car, Track track, RaceStrategy strategy) {
+        Engine engine = car == null ? null : car.getEngine();
+        AeroKit aeroKit = car == null ? null : car.getAeroKit();
+        switch (this) {
+            case HAS_ENGINE:
+                return engine != null ? 1 : 0;
+            case HAS_FRONT_TYRES:
+                return car != null && car.getFrontTyres() != null ? 1 : 0;
+            case HAS_REAR_TYRES:
+                return car != null && car.getRearTyres() != null ? 1 : 0;
+            case HAS_AEROKIT:
+                return aeroKit != null ? 1 : 0;
+            case CAR_WEIGHT:
+                return car == null ? Double.NaN : car.getWeight();
+            case TOTAL_WEIGHT:
+                return car == null ? Double.NaN : car.getTotalWeight();
+            case ENGINE_POWER:
+                return engine == null ? Double.NaN : engine.getPower();
+            case ENGINE_WEIGHT:
+                return engine == null ? Double.NaN : engine.getWeight();
+            case DOWNFORCE:
+                return aeroKit == null ? Double.NaN : aeroKit.getDownforce();
+            case DRAG_COEFFICIENT:
+                return aeroKit == null ? Double.NaN : aeroKit.getDragCoefficient();
+            case TRACK_LENGTH:
+                return track == null ? Double.NaN : track.getLength();
+            case CORNERS:
+                return track == null ? Double.NaN : track.getCorners();
+            case CORNER_DENSITY:
+                return track == null || track.getLength() <= 0 ? Double.NaN : track.getCorners() / track.getLength();
+            case PIT_STOPS:
+                return strategy == null ? Double.NaN : strategy.getNumberOfPitStops();
+            case ESTIMATED_RACE_TIME:
+                return strategy == null ? Double.NaN : strategy.getEstimatedRaceTime();
+            default:
+                throw new IllegalStateException(this + " is categorical");
+        }
+    }
+
+    /**
+     * Reads a categorical field, or null if it (or its component) is missing.
+     *
+     * @throws IllegalStateException for numeric fields
+     */
+    public String textValue(Car car, Track track, RaceStrategy strategy) {
+        switch (this) {
+            case DIFFICULTY:
+                return track == null ? null : track.getDifficulty();
+            case FUEL_STRATEGY:
+                return strategy == null ? null : strategy.getFuelStrategy();
+            default:
+                throw new IllegalStateException(this + " is numeric");
+        }
+    }
+}
@@ -0,0 +1,618 @@
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A compiled set of {@link RuleDefinition}s, for example the rules of one racing series.
+ *
+ * Compiling flattens the rules into parallel primitive arrays: each rule becomes a field
+ * index plus either a {@code [min, max]} range or a bitmask of allowed category codes,
+ * with an optional condition of the same shape. Setup values are read into a
+ * {@code double[]} indexed by field (categories become codes from a per-set dictionary),
+ * so evaluation is array reads and comparisons only. The short-circuit path reads each
+ * field only when the first rule that needs it runs.
+ *
+ * Rule sets are immutable and can be shared. Evaluation goes through an
+ * {@link Evaluator}, one per thread, which keeps rejection counts and moves the error
+ * rules that fail most often to the front of its short-circuit order.
+ *
+ * Rule files are JSON:
+ * <pre>
+ * {"name": "endurance", "rules": [
+ *   {"id": "pit-stops", "field": "pitStops", "min": 1, "max": 8},
+ *   {"id": "fuel", "field": "fuelStrategy", "oneOf": ["Medium", "Heavy"]},
+ *   {"id": "light-fuel-without-stops", "field": "fuelStrategy", "noneOf": ["Light"],
+ *    "when": {"field": "pitStops", "max": 0}},
+ *   {"id": "race-time", "severity": "warning", "field": "estimatedRaceTime", "below": 360,
+ *    "message": "Estimated race time {value} looks too long"}]}
+ * </pre>
+ * {@code min}/{@code max} are inclusive, {@code above}/{@code below} exclusive.
+ */
+public final class RuleSet {
+    /** Most rules a set may hold, one bit each in an evaluation result. */
+    public static final int MAX_RULES = 64;
+    /** How many evaluations an {@link Evaluator} runs between reorderings. */
+    public static final int REORDER_INTERVAL = 1024;
+
+    private static final RuleField[] FIELDS = RuleField.values();
+    private static final int FIELD_COUNT = FIELDS.length;
+    // Category codes 0..61 come from the dictionary; the last two are reserved
+    private static final int MAX_CATEGORIES = 62;
+    private static final int OTHER_CODE = 62;
+    private static final int MISSING_CODE = 63;
+
+    private final String name;
+    private final List<RuleDefinition> rules;
+    private final long errorMask;
+
+    // Compiled form, indexed by rule
+    private final int[] checkField;
+    private final double[] checkMin;
+    private final double[] checkMax;
+    private final long[] checkCodes;
+    private final int[] whenField;
+    private final double[] whenMin;
+    private final double[] whenMax;
+    private final long[] whenCodes;
+
+    // Fields read by at least one rule, and the category dictionary of each categorical field
+    private final RuleField[] usedFields;
+    private final String[][] dictionaries = new String[FIELD_COUNT][];
+
+    private RuleSet(String name, List<RuleDefinition> rules) {
+        if (rules.isEmpty() || rules.size() > MAX_RULES) {
+            throw new IllegalArgumentException("A rule set needs 1 to " + MAX_RULES + " rules, got " + rules.size());
+        }
+        this.name = name;
+        this.rules = Collections.unmodifiableList(new ArrayList<>(rules));
+        int count = rules.size();
+        checkField = new int[count];
+        checkMin = new double[count];
+        checkMax = new double[count];
+        checkCodes = new long[count];
+        whenField = new int[count];
+        whenMin = new double[count];
+        whenMax = new double[count];
+        whenCodes = new long[count];
+
+        // Build the dictionaries first so every value list can be turned into codes
+        Map<RuleField, List<String>> categories = new LinkedHashMap<>();
+        boolean[] used = new boolean[FIELD_COUNT];
+        List<String> ids = new ArrayList<>();
+        for (RuleDefinition rule : rules) {
+            if (ids.contains(rule.getId())) {
+                throw new IllegalArgumentException("Duplicate rule id: " + rule.getId());
+            }
+            ids.add(rule.getId());
+            for (RuleDefinition.Condition condition : new RuleDefinition.Condition[] {rule.getCheck(), rule.getWhen()}) {
+                if (condition == null) {
+                    continue;
+                }
+                used[condition.getField().ordinal()] = true;
+                List<String> dictionary = categories.computeIfAbsent(condition.getField(), f -> new ArrayList<>());
+                for (String value : condition.getValues()) {
+                    if (!dictionary.contains(value)) {
+                        dictionary.add(value);
+                    }
+                }
+                if (dictionary.size() > MAX_CATEGORIES) {
+                    throw new IllegalArgumentException("Too many distinct values for " + condition.getField().getKey());
+                }
+            }
+        }
+        categories.forEach((field, values) -> dictionaries[field.ordinal()] = values.toArray(new String[0]));
+        List<RuleField> fields = new ArrayList<>();
+        for (RuleField field : RuleField.values()) {
+            if (used[field.ordinal()]) {
+                fields.add(field);
+            }
+        }
+        usedFields = fields.toArray(new RuleField[0]);
+
+        long errors = 0;
+        for (int i = 0; i < count; i++) {
+            RuleDefinition rule = rules.get(i);
+            RuleDefinition.Condition check = rule.getCheck();
+            checkField[i] = check.getField().ordinal();
+            checkMin[i] = check.getMin();
+            checkMax[i] = check.getMax();
+            checkCodes[i] = codesOf(check);
+            RuleDefinition.Condition when = rule.getWhen();
+            whenField[i] = when == null ? -1 : when.getField().ordinal();
+            if (when != null) {
+                whenMin[i] = when.getMin();
+                whenMax[i] = when.getMax();
+                whenCodes[i] = codesOf(when);
+            }
+            if (rule.getSeverity() == RuleDefinition.Severity.ERROR) {
+                errors |= 1L << i;
+            }
+        }
+        this.errorMask = errors;
+    }
+
+    // Bitmask of the category codes a condition accepts, 0 for ranges
+    private long codesOf(RuleDefinition.Condition condition) {
+        if (condition.isRange()) {
+            return 0;
+        }
+        long codes = 0;
+        for (String value : condition.getValues()) {
+            codes |= 1L << code(condition.getField(), value);
+        }
+        // An exclusion list accepts everything else, including unknown and missing values
+        return condition.isExclude() ? ~codes : codes;
+    }
+
+    /**
+     * Compiles a list of rule definitions.
+     *
+     * @throws IllegalArgumentException if the rules are empty, too many, or have duplicate ids
+     */
+    public static RuleSet compile(String name, List<RuleDefinition> rules) {
+        return new RuleSet(name, rules);
+    }
+
+    /**
+     * The error rules of {@link Validator} as a rule set, plus its main warnings.
+     * A setup has errors here exactly when {@link Validator#screenRaceSetup} reports errors.
+     */
+    public static RuleSet standard() {
+        List<RuleDefinition> rules = new ArrayList<>();
+        rules.add(RuleDefinition.error("engine-assigned",
+                RuleDefinition.Condition.range(RuleField.HAS_ENGINE, 1, 1), "Engine is not assigned"));
+        rules.add(RuleDefinition.error("front-tyres-assigned",
+                RuleDefinition.Condition.range(RuleField.HAS_FRONT_TYRES, 1, 1), "Front tyres are not assigned"));
+        rules.add(RuleDefinition.error("rear-tyres-assigned",
+                RuleDefinition.Condition.range(RuleField.HAS_REAR_TYRES, 1, 1), "Rear tyres are not assigned"));
+        rules.add(RuleDefinition.error("aerokit-assigned",
+                RuleDefinition.Condition.range(RuleField.HAS_AEROKIT, 1, 1), "AeroKit is not assigned"));
+        rules.add(RuleDefinition.error("car-weight",
+                RuleDefinition.Condition.range(RuleField.CAR_WEIGHT, Validator.MIN_CAR_WEIGHT, Validator.MAX_CAR_WEIGHT),
+                "Car weight ({value} kg) is outside " + Validator.MIN_CAR_WEIGHT + "-" + Validator.MAX_CAR_WEIGHT + " kg"));
+        rules.add(RuleDefinition.error("engine-power",
+                RuleDefinition.Condition.range(RuleField.ENGINE_POWER, Validator.MIN_ENGINE_POWER, Validator.MAX_ENGINE_POWER),
+                "Engine power ({value} HP) is outside " + Validator.MIN_ENGINE_POWER + "-" + Validator.MAX_ENGINE_POWER + " HP"));
+        rules.add(RuleDefinition.error("engine-weight",
+                RuleDefinition.Condition.range(RuleField.ENGINE_WEIGHT, Math.nextUp(0.0), Double.POSITIVE_INFINITY),
+                "Engine weight must be positive"));
+        rules.add(RuleDefinition.error("track-length",
+                RuleDefinition.Condition.range(RuleField.TRACK_LENGTH, Validator.MIN_TRACK_LENGTH, Validator.MAX_TRACK_LENGTH),
+                "Track length ({value} km) is outside " + Validator.MIN_TRACK_LENGTH + "-" + Validator.MAX_TRACK_LENGTH + " km"));
+        rules.add(RuleDefinition.error("corners",
+                RuleDefinition.Condition.range(RuleField.CORNERS, Validator.MIN_CORNER_COUNT, Validator.MAX_CORNER_COUNT),
+                "Corner count ({value}) is outside " + Validator.MIN_CORNER_COUNT + "-" + Validator.MAX_CORNER_COUNT));
+        rules.add(RuleDefinition.error("difficulty",
+                RuleDefinition.Condition.oneOf(RuleField.DIFFICULTY, Validator.VALID_DIFFICULTIES.toArray(new String[0])),
+                "Invalid difficulty '{value}'"));
+        rules.add(RuleDefinition.error("pit-stops",
+                RuleDefinition.Condition.range(RuleField.PIT_STOPS, Validator.MIN_PIT_STOPS, Validator.MAX_PIT_STOPS),
+                "Pit stop count ({value}) is outside " + Validator.MIN_PIT_STOPS + "-" + Validator.MAX_PIT_STOPS));
+        rules.add(RuleDefinition.error("fuel-strategy",
+                RuleDefinition.Condition.oneOf(RuleField.FUEL_STRATEGY, Validator.VALID_FUEL_STRATEGIES.toArray(new String[0])),
+                "Invalid fuel strategy '{value}'"));
+        rules.add(new RuleDefinition("light-fuel-without-stops", RuleDefinition.Severity.ERROR,
+                RuleDefinition.Condition.noneOf(RuleField.FUEL_STRATEGY, "Light"),
+                RuleDefinition.Condition.range(RuleField.PIT_STOPS, 0, 0),
+                "Light fuel strategy with 0 pit stops is not feasible"));
+
+        rules.add(new RuleDefinition("total-weight", RuleDefinition.Severity.WARNING,
+                RuleDefinition.Condition.range(RuleField.TOTAL_WEIGHT, Double.NEGATIVE_INFINITY, Validator.MAX_CAR_WEIGHT + 200),
+                null, "Total weight ({value} kg) seems very high"));
+        rules.add(new RuleDefinition("corner-density", RuleDefinition.Severity.WARNING,
+                RuleDefinition.Condition.range(RuleField.CORNER_DENSITY, 1, 8),
+                null, "Unusual corner density ({value} corners/km)"));
+        rules.add(new RuleDefinition("long-track-without-stops", RuleDefinition.Severity.WARNING,
+                RuleDefinition.Condition.range(RuleField.PIT_STOPS, 1, Double.POSITIVE_INFINITY),
+                RuleDefinition.Condition.range(RuleField.TRACK_LENGTH, Math.nextUp(6.0), Double.POSITIVE_INFINITY),
+                "Long track with no pit stops may be risky for fuel consumption"));
+        rules.add(new RuleDefinition("heavy-fuel-many-stops", RuleDefinition.Severity.WARNING,
+                RuleDefinition.Condition.noneOf(RuleField.FUEL_STRATEGY, "Heavy"),
+                RuleDefinition.Condition.range(RuleField.PIT_STOPS, 3, Double.POSITIVE_INFINITY),
+                "Heavy fuel strategy with many pit stops may not be optimal"));
+        rules.add(new RuleDefinition("estimated-race-time", RuleDefinition.Severity.WARNING,
+                RuleDefinition.Condition.range(RuleField.ESTIMATED_RACE_TIME, 30, 180),
+                null, "Estimated race time ({value}) is outside 30-180"));
+        return compile("standard", rules);
+    }
+
+    /**
+     * Loads and compiles a JSON rule file.
+     *
+     * @throws IOException if the file cannot be read or does not describe a valid rule set
+     */
+    public static RuleSet load(Path file) throws IOException {
+        String text = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+        try {
+            return parse(text);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("Invalid rule file " + file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Compiles a rule set from JSON text in the format described above.
+     *
+     * @throws IllegalArgumentException if the text is not a valid rule set
+     */
+    @SuppressWarnings("unchecked")
+    public static RuleSet parse(String json) {
+        Object document = JsonParser.parse(json);
+        if (!(document instanceof Map)) {
+            throw new IllegalArgumentException("Rule set must be a JSON object");
+        }
+        Map<String, Object> root = (Map<String, Object>) document;
+        Object name = root.get("name");
+        Object list = root.get("rules");
+        if (!(list instanceof List)) {
+            throw new IllegalArgumentException("Rule set needs a \"rules\" array");
+        }
+        List<RuleDefinition> rules = new ArrayList<>();
+        for (Object entry : (List<Object>) list) {
+            if (!(entry instanceof Map)) {
+                throw new IllegalArgumentException("Each rule must be a JSON object");
+            }
+            rules.add(parseRule((Map<String, Object>) entry));
+        }
+        return compile(name instanceof String ? (String) name : "unnamed", rules);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RuleDefinition parseRule(Map<String, Object> rule) {
+        String id = stringValue(rule, "id");
+        if (id == null) {
+            throw new IllegalArgumentException("Rule without an id: " + rule);
+        }
+        String severity = stringValue(rule, "severity");
+        RuleDefinition.Severity level;
+        if (severity == null || severity.equalsIgnoreCase("error")) {
+            level = RuleDefinition.Severity.ERROR;
+        } else if (severity.equalsIgnoreCase("warning")) {
+            level = RuleDefinition.Severity.WARNING;
+        } else {
+            throw new IllegalArgumentException("Rule " + id + " has unknown severity: " + severity);
+        }
+        Object when = rule.get("when");
+        if (when != null && !(when instanceof Map)) {
+            throw new IllegalArgumentException("Rule " + id + " has a \"when\" that is not an object");
+        }
+        return new RuleDefinition(id, level, parseCondition(id, rule),
+                when == null ? null : parseCondition(id, (Map<String, Object>) when), stringValue(rule, "message"));
+    }
+
+    private static RuleDefinition.Condition parseCondition(String id, Map<String, Object> condition) {
+        String key = stringValue(condition, "field");
+        if (key == null) {
+            throw new IllegalArgumentException("Rule " + id + " has a condition without a field");
+        }
+        RuleField field = RuleField.forKey(key);
+        if (condition.containsKey("oneOf")) {
+            return RuleDefinition.Condition.oneOf(field, stringList(id, condition.get("oneOf")));
+        }
+        if (condition.containsKey("noneOf")) {
+            return RuleDefinition.Condition.noneOf(field, stringList(id, condition.get("noneOf")));
+        }
+        double min = Double.NEGATIVE_INFINITY;
+        double max = Double.POSITIVE_INFINITY;
+        if (condition.containsKey("min")) {
+            min = numberValue(id, condition, "min");
+        }
+        if (condition.containsKey("above")) {
+            min = Math.max(min, Math.nextUp(numberValue(id, condition, "above")));
+        }
+        if (condition.containsKey("max")) {
+            max = numberValue(id, condition, "max");
+        }
+        if (condition.containsKey("below")) {
+            max = Math.min(max, Math.nextDown(numberValue(id, condition, "below")));
+        }
+        if (min == Double.NEGATIVE_INFINITY && max == Double.POSITIVE_INFINITY) {
+            throw new IllegalArgumentException("Rule " + id + " has no bounds or values for " + key);
+        }
+        return RuleDefinition.Condition.range(field, min, max);
+    }
+
+    private static String stringValue(Map<String, Object> object, String key) {
+        Object value = object.get(key);
+        return value instanceof String ? (String) value : null;
+    }
+
+    private static double numberValue(String id, Map<String, Object> object, String key) {
+        Object value = object.get(key);
+        if (!(value instanceof Double)) {
+            throw new IllegalArgumentException("Rule " + id + " needs a number for \"" + key + "\"");
+        }
+        return (Double) value;
+    }
+
+    private static String[] stringList(String id, Object value) {
+        if (!(value instanceof List)) {
+            throw new IllegalArgumentException("Rule " + id + " needs a list of strings");
+        }
+        List<?> list = (List<?>) value;
+        String[] values = new String[list.size()];
+        for (int i = 0; i < values.length; i++) {
+            if (!(list.get(i) instanceof String)) {
+                throw new IllegalArgumentException("Rule " + id + " needs a list of strings");
+            }
+            values[i] = (String) list.get(i);
+        }
+        return values;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getRuleCount() {
+        return rules.size();
+    }
+
+    /**
+     * Returns the rule behind bit {@code index} of an evaluation result.
+     */
+    public RuleDefinition getRule(int index) {
+        return rules.get(index);
+    }
+
+    public List<RuleDefinition> getRules() {
+        return rules;
+    }
+
+    /**
+     * Returns the bit index of the rule with the given id, or -1.
+     */
+    public int indexOf(String id) {
+        for (int i = 0; i < rules.size(); i++) {
+            if (rules.get(i).getId().equals(id)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the bits of the error rules.
+     */
+    public long getErrorMask() {
+        return errorMask;
+    }
+
+    public boolean hasErrors(long violations) {
+        return (violations & errorMask) != 0;
+    }
+
+    public Evaluator newEvaluator() {
+        return new Evaluator();
+    }
+
+    /**
+     * Reads the fields this set uses into {@code features}, indexed by {@link RuleField#ordinal()}.
+     * Unused fields are left untouched.
+     */
+    public void extract(Car car, Track track, RaceStrategy strategy, double[] features) {
+        for (RuleField field : usedFields) {
+            features[field.ordinal()] = read(field, car, track, strategy);
+        }
+    }
+
+    private double read(RuleField field, Car car, Track track, RaceStrategy strategy) {
+        return field.isCategorical()
+                ? code(field, field.textValue(car, track, strategy))
+                : field.numericValue(car, track, strategy);
+    }
+
+    /**
+     * Returns a zeroed array large enough for {@link #extract}.
+     */
+    public static double[] newFeatureArray() {
+        return new double[FIELD_COUNT];
+    }
+
+    // Dictionary code of a category value, without allocating
+    private int code(RuleField field, String value) {
+        if (value == null || value.isBlank()) {
+            return MISSING_CODE;
+        }
+        String[] dictionary = dictionaries[field.ordinal()];
+        if (dictionary != null) {
+            for (int i = 0; i < dictionary.length; i++) {
+                if (dictionary[i].equals(value)) {
+                    return i;
+                }
+            }
+        }
+        return OTHER_CODE;
+    }
+
+    private boolean violates(int rule, double[] features) {
+        int when = whenField[rule];
+        if (when >= 0 && !matches(features[when], whenMin[rule], whenMax[rule], whenCodes[rule])) {
+            return false;
+        }
+        double value = features[checkField[rule]];
+        // A missing component has nothing to check; the has* fields report it instead
+        return value == value && !matches(value, checkMin[rule], checkMax[rule], checkCodes[rule]);
+    }
+
+    private static boolean matches(double value, double min, double max, long codes) {
+        if (codes != 0) {
+            return value == value && (codes >>> (int) value & 1) != 0;
+        }
+        return value >= min && value <= max;
+    }
+
+    /**
+     * Formats the message of every rule in {@code violations}, in declaration order.
+     */
+    public List<String> describe(long violations, Car car, Track track, RaceStrategy strategy) {
+        List<String> messages = new ArrayList<>(Long.bitCount(violations));
+        for (int i = 0; i < rules.size(); i++) {
+            if ((violations >>> i & 1) != 0) {
+                RuleDefinition rule = rules.get(i);
+                RuleField field = rule.getCheck().getField();
+                String value = field.isCategorical()
+                        ? String.valueOf(field.textValue(car, track, strategy))
+                        : formatValue(field.numericValue(car, track, strategy));
+                messages.add(rule.getMessage().replace("{value}", value));
+            }
+        }
+        return messages;
+    }
+
+    private static String formatValue(double value) {
+        if (value == Math.rint(value) && Math.abs(value) < 1e15) {
+            return Long.toString((long) value);
+        }
+        return String.format("%.2f", value);
+    }
+
+    @Override
+    public String toString() {
+        return "RuleSet{" + name + ", " + rules.size() + " rules}";
+    }
+
+    /**
+     * Evaluates setups against the rule set. Not thread-safe; create one per thread.
+     *
+     * Each evaluator counts which error rules reject setups and, every
+     * {@link #REORDER_INTERVAL} evaluations, reorders its short-circuit path so the most
+     * frequent rejections are tried first. Counts are halved at each reordering so the
+     * order follows shifts in the input mix.
+     */
+    public final class Evaluator {
+        private final double[] features = new double[FIELD_COUNT];
+        private final int[] order;
+        private final long[] rejections = new long[rules.size()];
+        private int sinceReorder;
+
+        private Evaluator() {
+            order = new int[Long.bitCount(errorMask)];
+            int n = 0;
+            for (int i = 0; i < rules.size(); i++) {
+                if ((errorMask >>> i & 1) != 0) {
+                    order[n++] = i;
+                }
+            }
+        }
+
+        /**
+         * Returns the bits of every violated rule, errors and warnings.
+         */
+        public long evaluate(Car car, Track track, RaceStrategy strategy) {
+            extract(car, track, strategy, features);
+            return evaluate(features);
+        }
+
+        /**
+         * Evaluates pre-extracted field values; see {@link RuleSet#extract}.
+         */
+        public long evaluate(double[] values) {
+            long violations = 0;
+            for (int i = 0; i < checkField.length; i++) {
+                if (violates(i, values)) {
+                    violations |= 1L << i;
+                    rejections[i]++;
+                }
+            }
+            countEvaluation();
+            return violations;
+        }
+
+        /**
+         * Returns true if the setup breaks no error rule, stopping at the first that fails.
+         */
+        public boolean isValid(Car car, Track track, RaceStrategy strategy) {
+            return firstError(car, track, strategy) < 0;
+        }
+
+        /**
+         * Returns the index of an error rule the setup violates, or -1 if there is none.
+         * When several fail, the one reported is the one this evaluator currently tries first.
+         */
+        public int firstError(Car car, Track track, RaceStrategy strategy) {
+            // Fields are read as rules need them, so an early rejection skips the rest
+            long loaded = 0;
+            int failed = -1;
+            for (int rule : order) {
+                int when = whenField[rule];
+                if (when >= 0 && (loaded >>> when & 1) == 0) {
+                    features[when] = read(FIELDS[when], car, track, strategy);
+                    loaded |= 1L << when;
+                }
+                int check = checkField[rule];
+                if ((loaded >>> check & 1) == 0) {
+                    features[check] = read(FIELDS[check], car, track, strategy);
+                    loaded |= 1L << check;
+                }
+                if (violates(rule, features)) {
+                    rejections[rule]++;
+                    failed = rule;
+                    break;
+                }
+            }
+            countEvaluation();
+            return failed;
+        }
+
+        public int firstError(double[] values) {
+            int failed = -1;
+            for (int rule : order) {
+                if (violates(rule, values)) {
+                    rejections[rule]++;
+                    failed = rule;
+                    break;
+                }
+            }
+            countEvaluation();
+            return failed;
+        }
+
+        private void countEvaluation() {
+            if (++sinceReorder >= REORDER_INTERVAL) {
+                reorder();
+            }
+        }
+
+        // Stable insertion sort by rejection count, then decay the counts
+        private void reorder() {
+            for (int i = 1; i < order.length; i++) {
+                int rule = order[i];
+                int j = i - 1;
+                while (j >= 0 && rejections[order[j]] < rejections[rule]) {
+                    order[j + 1] = order[j];
+                    j--;
+                }
+                order[j + 1] = rule;
+            }
+            for (int i = 0; i < rejections.length; i++) {
+                rejections[i] >>= 1;
+            }
+            sinceReorder = 0;
+        }
+
+        /**
+         * Returns the error rule indices in the order they are currently tried.
+         */
+        public int[] getOrder() {
+            return order.clone();
+        }
+
+        /**
+         * Returns the decayed rejection count of every rule, indexed like the result bits.
+         */
+        public long[] getRejectionCounts() {
+            return rejections.clone();
+        }
+
+        public RuleSet getRuleSet() {
+            return RuleSet.this;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact binary file format for batch scenarios, the binary counterpart of a
+ * {@link BatchJob} file.
+ *
+ * Layout: magic, version and header length, then the header: seven catalogs (car names,
+ * engines, tyres, aero kits, tracks, weather, strategies), each a count followed by the
+ * component fields. After the header come fixed-width {@link #RECORD_SIZE}-byte records:
+ * <pre>
+ *  0 seed          long   seed of the first replication
+ *  8 weight        double car weight
+ * 16 laps          int
+ * 20 replications  int
+ * 24 car name, engine, tyre, aero kit, track, weather, strategy   unsigned short catalog ids
+ * 38 reserved      short
+ * </pre>
+ * Because records have a fixed width, a reader maps the file and decodes any record by
+ * index, so a file can be split across threads without scanning it.
+ */
+public class ScenarioFile {
+
+    public static final int MAGIC = 0x52535346; // "RSSF"
+    public static final short VERSION = 1;
+    public static final int RECORD_SIZE = 40;
+
+    // Catalog ids are unsigned shorts
+    static final int MAX_CATALOG_SIZE = 0xFFFF + 1;
+    // Bytes before the header: magic, version, header length
+    private static final int PREAMBLE_SIZE = 10;
+    // Records per mapped segment; a single mapping cannot exceed 2 GB
+    private static final int SEGMENT_RECORDS = Integer.MAX_VALUE / RECORD_SIZE;
+
+    private ScenarioFile() {
+    }
+
+    /**
+     * Returns whether the file starts with the scenario file magic number.
+     */
+    public static boolean isScenarioFile(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer magic = ByteBuffer.allocate(4);
+            while (magic.hasRemaining() && channel.read(magic) >= 0) {
+                // Keep reading until four bytes or the end of the file
+            }
+            return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+        }
+    }
+
+    public static Writer newWriter(Path path, Catalog catalog) throws IOException {
+        return new Writer(path, catalog);
+    }
+
+    /**
+     * Maps a scenario file for reading. The catalogs are decoded once; records are
+     * decoded on demand.
+     */
+    public static Mapped map(Path path) throws IOException {
+        return new Mapped(path);
+    }
+
+    /**
+     * The components a scenario file refers to. Each {@code add} method returns the id
+     * to put in records; adding the same instance again returns its existing id.
+     */
+    public static class Catalog {
+        private final Table<String> carNames = new Table<>();
+        private final Table<Engine> engines = new Table<>();
+        private final Table<Tyre> tyres = new Table<>();
+        private final Table<AeroKit> aeroKits = new Table<>();
+        private final Table<Track> tracks = new Table<>();
+        private final Table<Weather> weather = new Table<>();
+        private final Table<RaceStrategy> strategies = new Table<>();
+
+        public int addCarName(String name) {
+            return carNames.add(name);
+        }
+
+        public int addEngine(Engine engine) {
+            return engines.add(engine);
+        }
+
+        public int addTyre(Tyre tyre) {
+            return tyres.add(tyre);
+        }
+
+        public int addAeroKit(AeroKit aeroKit) {
+            return aeroKits.add(aeroKit);
+        }
+
+        public int addTrack(Track track) {
+            return tracks.add(track);
+        }
+
+        public int addWeather(Weather conditions) {
+            return weather.add(conditions);
+        }
+
+        public int addStrategy(RaceStrategy strategy) {
+            return strategies.add(strategy);
+        }
+
+        private void writeTo(DataOutput out) throws IOException {
+            out.writeInt(carNames.items.size());
+            for (String name : carNames.items) {
+                writeText(out, name);
+            }
+            out.writeInt(engines.items.size());
+            for (Engine engine : engines.items) {
+                writeText(out, engine.getType());
+                out.writeInt(engine.getPower());
+                out.writeDouble(engine.getFuelEfficiency());
+                out.writeDouble(engine.getWeight());
+            }
+            out.writeInt(tyres.items.size());
+            for (Tyre tyre : tyres.items) {
+                writeText(out, tyre.getCompound());
+                out.writeDouble(tyre.getGripLevel());
+                out.writeInt(tyre.getDurability());
+                out.writeInt(tyre.getOptimalTemperature());
+                out.writeDouble(tyre.getWearRate());
+                out.writeDouble(tyre.getBaseLapTimeBonus());
+            }
+            out.writeInt(aeroKits.items.size());
+            for (AeroKit kit : aeroKits.items) {
+                writeText(out, kit.getName());
+                out.writeDouble(kit.getDragCoefficient());
+                out.writeInt(kit.getDownforce());
+                out.writeInt(kit.getTopSpeedImpact());
+            }
+            out.writeInt(tracks.items.size());
+            for (Track track : tracks.items) {
+                writeText(out, track.getName());
+                out.writeDouble(track.getLength());
+                out.writeInt(track.getCorners());
+                writeText(out, track.getDifficulty());
+                writeText(out, track.getSurfaceType());
+            }
+            out.writeInt(weather.items.size());
+            for (Weather conditions : weather.items) {
+                writeText(out, conditions.getCondition());
+                out.writeInt(conditions.getTemperature());
+                out.writeInt(conditions.getWindSpeed());
+                out.writeInt(conditions.getRainIntensity());
+            }
+            out.writeInt(strategies.items.size());
+            for (RaceStrategy strategy : strategies.items) {
+                out.writeInt(strategy.getNumberOfPitStops());
+                writeText(out, strategy.getTyreStrategy());
+                writeText(out, strategy.getFuelStrategy());
+                out.writeDouble(strategy.getEstimatedRaceTime());
+            }
+        }
+
+        private static Catalog readFrom(DataInput in) throws IOException {
+            Catalog catalog = new Catalog();
+            for (int i = readCount(in); i > 0; i--) {
+                catalog.carNames.items.add(readText(in));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                catalog.engines.items.add(new Engine(readText(in), in.readInt(), in.readDouble(), in.readDouble()));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                catalog.tyres.items.add(new Tyre(readText(in), in.readDouble(), in.readInt(), in.readInt(),
+                        in.readDouble(), in.readDouble()));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                catalog.aeroKits.items.add(new AeroKit(readText(in), in.readDouble(), in.readInt(), in.readInt()));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                catalog.tracks.items.add(new Track(readText(in), in.readDouble(), in.readInt(), readText(in),
+                        readText(in)));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                catalog.weather.items.add(new Weather(readText(in), in.readInt(), in.readInt(), in.readInt()));
+            }
+            for (int i = readCount(in); i > 0; i--) {
+                catalog.strategies.items.add(new RaceStrategy(in.readInt(), readText(in), readText(in),
+                        in.readDouble()));
+            }
+            return catalog;
+        }
+
+        private static int readCount(DataInput in) throws IOException {
+            int count = in.readInt();
+            if (count < 0 || count > MAX_CATALOG_SIZE) {
+                throw new IOException("Corrupt scenario file catalog size: " + count);
+            }
+            return count;
+        }
+    }
+
+    // Catalog entries in id order, interned by identity
+    private static class Table<T> {
+        final List<T> items = new ArrayList<>();
+        final Map<T, Integer> ids = new IdentityHashMap<>();
+
+        int add(T item) {
+            if (item == null) {
+                throw new IllegalArgumentException("Catalog entries cannot be null");
+            }
+            Integer id = ids.get(item);
+            if (id != null) {
+                return id;
+            }
+            if (items.size() == MAX_CATALOG_SIZE) {
+                throw new IllegalArgumentException("Catalog is full (" + MAX_CATALOG_SIZE + " entries)");
+            }
+            items.add(item);
+            ids.put(item, items.size() - 1);
+            return items.size() - 1;
+        }
+
+        // Copies into an array for lock-free lookups by id
+        T[] toArray(T[] empty) {
+            return items.toArray(empty);
+        }
+    }
+
+    private static void writeText(DataOutput out, String text) throws IOException {
+        if (text == null) {
+            out.writeBoolean(false);
+        } else {
+            out.writeBoolean(true);
+            out.writeUTF(text);
+        }
+    }
+
+    private static String readText(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    /**
+     * Streams scenario records into a file whose header holds the given catalog. The
+     * catalog must be complete before the writer is created.
+     */
+    public static class Writer implements Closeable {
+        private final DataOutputStream out;
+        private final Catalog catalog;
+        private final int[] catalogSizes;
+        private long count;
+
+        private Writer(Path path, Catalog catalog) throws IOException {
+            this.catalog = catalog;
+            this.catalogSizes = new int[] {catalog.carNames.items.size(), catalog.engines.items.size(),
+                    catalog.tyres.items.size(), catalog.aeroKits.items.size(), catalog.tracks.items.size(),
+                    catalog.weather.items.size(), catalog.strategies.items.size()};
+            ByteArrayOutputStream header = new ByteArrayOutputStream();
+            catalog.writeTo(new DataOutputStream(header));
+            this.out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path),
+                    ResultFile.BUFFER_SIZE));
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            out.writeInt(header.size());
+            header.writeTo(out);
+        }
+
+        /**
+         * Writes one scenario. The ids are those returned by the writer's {@link Catalog}.
+         *
+         * @throws IllegalArgumentException if an id is not in the catalog or a count is not positive
+         */
+        public void write(int carName, int engine, int tyre, int aeroKit, double weight, int track, int weather,
+                          int strategy, int laps, int replications, long seed) throws IOException {
+            checkId(carName, 0, "car name");
+            checkId(engine, 1, "engine");
+            checkId(tyre, 2, "tyre");
+            checkId(aeroKit, 3, "aero kit");
+            checkId(track, 4, "track");
+            checkId(weather, 5, "weather");
+            checkId(strategy, 6, "strategy");
+            if (laps <= 0 || replications <= 0) {
+                throw new IllegalArgumentException("Laps and replications must be positive");
+            }
+            out.writeLong(seed);
+            out.writeDouble(weight);
+            out.writeInt(laps);
+            out.writeInt(replications);
+            out.writeShort(carName);
+            out.writeShort(engine);
+            out.writeShort(tyre);
+            out.writeShort(aeroKit);
+            out.writeShort(track);
+            out.writeShort(weather);
+            out.writeShort(strategy);
+            out.writeShort(0);
+            count++;
+        }
+
+        private void checkId(int id, int table, String what) {
+            if (id < 0 || id >= catalogSizes[table]) {
+                throw new IllegalArgumentException("Unknown " + what + " id: " + id);
+            }
+        }
+
+        public Catalog getCatalog() {
+            return catalog;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        @Override
+        public void close() throws IOException {
+            out.close();
+        }
+    }
+
+    /**
+     * A memory-mapped scenario file. Decoding a record reads primitives straight from
+     * the mapping into a caller-owned {@link Scenario}, so it allocates nothing; any
+     * number of threads may decode at once, each with its own scenario.
+     */
+    public static class Mapped implements Closeable {
+        private final FileChannel channel;
+        private final ByteBuffer[] segments;
+        private final long recordCount;
+        private final String[] carNames;
+        private final Engine[] engines;
+        private final Tyre[] tyres;
+        private final AeroKit[] aeroKits;
+        private final Track[] tracks;
+        private final Weather[] weather;
+        private final RaceStrategy[] strategies;
+
+        private Mapped(Path path) throws IOException {
+            this.channel = FileChannel.open(path, StandardOpenOption.READ);
+            try {
+                ByteBuffer preamble = ByteBuffer.allocate(PREAMBLE_SIZE);
+                readFully(preamble, 0, path);
+                if (preamble.getInt(0) != MAGIC) {
+                    throw new IOException("Not a scenario file: " + path);
+                }
+                short version = preamble.getShort(4);
+                if (version != VERSION) {
+                    throw new IOException("Unsupported scenario file version " + version + ": " + path);
+                }
+                int headerSize = preamble.getInt(6);
+                long recordsStart = PREAMBLE_SIZE + (long) headerSize;
+                long recordBytes = channel.size() - recordsStart;
+                if (headerSize < 0 || recordBytes < 0 || recordBytes % RECORD_SIZE != 0) {
+                    throw new IOException("Truncated scenario file: " + path);
+                }
+                ByteBuffer header = ByteBuffer.allocate(headerSize);
+                readFully(header, PREAMBLE_SIZE, path);
+                Catalog catalog = Catalog.readFrom(new DataInputStream(new ByteArrayInputStream(header.array())));
+                this.carNames = catalog.carNames.toArray(new String[0]);
+                this.engines = catalog.engines.toArray(new Engine[0]);
+                this.tyres = catalog.tyres.toArray(new Tyre[0]);
+                this.aeroKits = catalog.aeroKits.toArray(new AeroKit[0]);
+                this.tracks = catalog.tracks.toArray(new Track[0]);
+                this.weather = catalog.weather.toArray(new Weather[0]);
+                this.strategies = catalog.strategies.toArray(new RaceStrategy[0]);
+
+                this.recordCount = recordBytes / RECORD_SIZE;
+                this.segments = new ByteBuffer[(int) ((recordCount + SEGMENT_RECORDS - 1) / SEGMENT_RECORDS)];
+                for (int i = 0; i < segments.length; i++) {
+                    long first = (long) i * SEGMENT_RECORDS;
+                    long records = Math.min(SEGMENT_RECORDS, recordCount - first);
+                    segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, recordsStart + first * RECORD_SIZE,
+                            records * RECORD_SIZE);
+                }
+            } catch (IOException | RuntimeException e) {
+                channel.close();
+                throw e;
+            }
+        }
+
+        private void readFully(ByteBuffer buffer, long position, Path path) throws IOException {
+            while (buffer.hasRemaining()) {
+                if (channel.read(buffer, position + buffer.position()) < 0) {
+                    throw new IOException("Truncated scenario file: " + path);
+                }
+            }
+        }
+
+        public long getRecordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Decodes record {@code index} into {@code scenario}.
+         *
+         * @throws IllegalArgumentException if the index is out of range
+         * @throws IllegalStateException if the record refers to a missing catalog entry
+         */
+        public void read(long index, Scenario scenario) {
+            if (index < 0 || index >= recordCount) {
+                throw new IllegalArgumentException("Record " + index + " out of range [0, " + recordCount + ")");
+            }
+            ByteBuffer segment = segments[(int) (index / SEGMENT_RECORDS)];
+            int at = (int) (index % SEGMENT_RECORDS) * RECORD_SIZE;
+            try {
+                Car car = scenario.car;
+                car.setId((int) index);
+                car.setName(carNames[Short.toUnsignedInt(segment.getShort(at + 24))]);
+                car.setEngine(engines[Short.toUnsignedInt(segment.getShort(at + 26))]);
+                Tyre tyre = tyres[Short.toUnsignedInt(segment.getShort(at + 28))];
+                car.setFrontTyres(tyre);
+                car.setRearTyres(tyre);
+                car.setAeroKit(aeroKits[Short.toUnsignedInt(segment.getShort(at + 30))]);
+                car.setWeight(segment.getDouble(at + 8));
+                scenario.track = tracks[Short.toUnsignedInt(segment.getShort(at + 32))];
+                scenario.weather = weather[Short.toUnsignedInt(segment.getShort(at + 34))];
+                scenario.strategy = strategies[Short.toUnsignedInt(segment.getShort(at + 36))];
+            } catch (ArrayIndexOutOfBoundsException e) {
+                throw new IllegalStateException("Record " + index + " refers to a missing catalog entry", e);
+            }
+            scenario.index = index;
+            scenario.seed = segment.getLong(at);
+            scenario.laps = segment.getInt(at + 16);
+            scenario.replications = segment.getInt(at + 20);
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    /**
+     * A reusable view of one decoded record. The car is owned by the scenario and
+     * overwritten by each {@link Mapped#read}; the other components are shared catalog
+     * entries and must not be modified.
+     */
+    public static class Scenario {
+        private final Car car = new Car(0, null, 0, null, null, null, null);
+        private Track track;
+        private Weather weather;
+        private RaceStrategy strategy;
+        private long index;
+        private long seed;
+        private int laps;
+        private int replications;
+
+        public long getIndex() {
+            return index;
+        }
+
+        public Car getCar() {
+            return car;
+        }
+
+        public Track getTrack() {
+            return track;
+        }
+
+        public Weather getWeather() {
+            return weather;
+        }
+
+        public RaceStrategy getStrategy() {
+            return strategy;
+        }
+
+        public int getLaps() {
+            return laps;
+        }
+
+        public int getReplications() {
+            return replications;
+        }
+
+        /**
+         * Returns the seed of the first replication; replication {@code r} uses {@code seed + r}.
+         */
+        public long getSeed() {
+            return seed;
+        }
+    }
+}
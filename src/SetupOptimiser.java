@@ -0,0 +1,445 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Searches every whole-car setup in a {@link ComponentCatalog} for the fastest on a
+ * track: engine, front and rear tyres, aero kit, and a strategy of pit stop count,
+ * fuel strategy and tyre plan.
+ *
+ * The space is reduced before anything is simulated:
+ * <ul>
+ *   <li>Components are compared by the attributes that validation and the lap model
+ *       read: engines by power and weight, car tyres by grip, kits by drag, downforce
+ *       and top speed impact. Components alike in those are searched once. The lap
+ *       model reads front and rear grip as a sum, so each pair of car tyres is searched
+ *       one way round only. Tyre plans are compared by the tyres they resolve to for
+ *       each stint count. Together these mean no two evaluated setups are the same to
+ *       the objective.</li>
+ *   <li>Infeasible setups are pruned a whole subtree at a time through
+ *       {@link Validator}'s screening methods: each strategy is screened once for the
+ *       track and each engine once, before the tyres and kits under it are enumerated.</li>
+ * </ul>
+ * The remaining setups are split into one task per engine and front tyre on a fixed
+ * pool, and timed with {@link RaceSimulator#expectedRaceTime}. The best K go into a
+ * {@link TopKCollector}, with equal times ordered by component and strategy names so
+ * the top K is the same for any thread count. Every time a worker beats the best time so far, the
+ * improvement listener is told straight away, so callers can show progress.
+ *
+ * Tyre plans are the tyre strategies of the catalog's strategies plus one plan per
+ * tyre compound. Pit stop counts cover {@link Validator#MIN_PIT_STOPS} to
+ * {@link Validator#MAX_PIT_STOPS} and fuel strategies
+ * {@link Validator#VALID_FUEL_STRATEGIES}.
+ */
+public class SetupOptimiser {
+    static final String NAME = "SetupOptimiser";
+    // Estimate given to candidate strategies, inside the range validation accepts
+    private static final double PLACEHOLDER_ESTIMATE = 95.0;
+
+    private final ComponentCatalog catalog;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int topK = 10;
+    private int laps = 50;
+    private double carWeight = 950.0;
+    private Consumer<Solution> improvementListener;
+
+    /**
+     * Searches the default catalog snapshot current at construction.
+     */
+    public SetupOptimiser() {
+        this(ComponentCatalog.getDefault());
+    }
+
+    public SetupOptimiser(ComponentCatalog catalog) {
+        if (catalog == null) {
+            throw new IllegalArgumentException("Catalog cannot be null");
+        }
+        this.catalog = catalog;
+    }
+
+    public void setThreads(int threads) {
+        if (threads <= 0) {
+            throw new IllegalArgumentException("Thread count must be positive: " + threads);
+        }
+        this.threads = threads;
+    }
+
+    /**
+     * Sets how many of the fastest setups the report keeps.
+     */
+    public void setTopK(int topK) {
+        if (topK <= 0) {
+            throw new IllegalArgumentException("Top K must be positive: " + topK);
+        }
+        this.topK = topK;
+    }
+
+    public void setLaps(int laps) {
+        if (laps <= 0) {
+            throw new IllegalArgumentException("Lap count must be positive: " + laps);
+        }
+        this.laps = laps;
+    }
+
+    /**
+     * Sets the chassis weight of every car, without the engine.
+     */
+    public void setCarWeight(double carWeight) {
+        if (carWeight <= 0) {
+            throw new IllegalArgumentException("Car weight must be positive: " + carWeight);
+        }
+        this.carWeight = carWeight;
+    }
+
+    /**
+     * Sets a listener told about each setup that beats the best time found so far. It is
+     * called from worker threads, one call at a time and in order of improving time.
+     */
+    public void setImprovementListener(Consumer<Solution> improvementListener) {
+        this.improvementListener = improvementListener;
+    }
+
+    /**
+     * Finds the fastest setups for the track and weather.
+     *
+     * @throws IllegalArgumentException if the track fails validation
+     */
+    public Report optimise(Track track, Weather weather) throws InterruptedException {
+        if (track == null || weather == null) {
+            throw new IllegalArgumentException("Track and weather cannot be null");
+        }
+        if (ValidationRule.hasErrors(Validator.screenTrack(track))) {
+            throw new IllegalArgumentException("Track fails validation: " + track.getName());
+        }
+        long startNanos = System.nanoTime();
+        List<Engine> engines = distinct(catalog.getEngines(), e -> Arrays.asList(e.getPower(), e.getWeight()));
+        // Stints race on the strategy's compounds, so a car tyre only matters for its grip
+        List<Tyre> tyres = distinct(catalog.getTyres(), t -> List.of(t.getGripLevel()));
+        List<AeroKit> kits = distinct(catalog.getAeroKits(),
+                k -> Arrays.asList(k.getDragCoefficient(), k.getDownforce(), k.getTopSpeedImpact()));
+        List<String> plans = tyrePlans();
+        int fuels = Validator.VALID_FUEL_STRATEGIES.size();
+        int pitStopCounts = Validator.MAX_PIT_STOPS - Validator.MIN_PIT_STOPS + 1;
+        List<RaceStrategy> strategies = distinctStrategies(plans);
+
+        Search search = new Search(track, weather, tyres, kits);
+        // Unordered front and rear pairs
+        long carsPerEngine = (long) tyres.size() * (tyres.size() + 1) / 2 * kits.size();
+        for (RaceStrategy strategy : strategies) {
+            if (ValidationRule.hasErrors(Validator.screenStrategy(strategy, track))) {
+                search.pruned.add(engines.size() * carsPerEngine);
+            } else {
+                search.strategies.add(strategy);
+            }
+        }
+        Report report = new Report();
+        report.spaceSize = (long) catalog.getEngines().size() * catalog.getTyres().size() * catalog.getTyres().size()
+                * catalog.getAeroKits().size() * pitStopCounts * fuels * plans.size();
+        report.duplicates = report.spaceSize - engines.size() * carsPerEngine * strategies.size();
+
+        // Engines that fail validation take every car and strategy under them with them
+        List<Engine> feasible = new ArrayList<>();
+        Car probe = new Car(0, NAME, carWeight, null, null, null, null);
+        for (Engine engine : engines) {
+            probe.setEngine(engine);
+            probe.setFrontTyres(tyres.isEmpty() ? null : tyres.get(0));
+            probe.setRearTyres(probe.getFrontTyres());
+            probe.setAeroKit(kits.isEmpty() ? null : kits.get(0));
+            long violations = Validator.screenRaceSetup(probe, track, RaceStrategy.createBalancedStrategy());
+            if (ValidationRule.hasErrors(violations & ~ValidationRule.STRATEGY_RULES)) {
+                search.pruned.add(carsPerEngine * search.strategies.size());
+            } else {
+                feasible.add(engine);
+            }
+        }
+        if (!search.strategies.isEmpty()) {
+            search.run(feasible);
+        }
+
+        EngineMetrics.OPTIMISER_SETUPS_EVALUATED.add(search.evaluated.sum());
+        EngineMetrics.OPTIMISER_SETUPS_PRUNED.add(search.pruned.sum());
+        EngineMetrics.OPTIMISER_SETUPS_DUPLICATE.add(report.duplicates);
+        report.evaluated = search.evaluated.sum();
+        report.pruned = search.pruned.sum();
+        report.best = search.collector.results();
+        report.elapsedNanos = System.nanoTime() - startNanos;
+        return report;
+    }
+
+    // Catalog tyre strategies, then one single-compound plan per tyre
+    private List<String> tyrePlans() {
+        Set<String> plans = new LinkedHashSet<>();
+        for (RaceStrategy strategy : catalog.getStrategies()) {
+            if (strategy.getTyreStrategy() != null && !strategy.getTyreStrategy().isBlank()) {
+                plans.add(strategy.getTyreStrategy());
+            }
+        }
+        plans.addAll(catalog.getNames(ComponentCatalog.Type.TYRE));
+        return new ArrayList<>(plans);
+    }
+
+    // One strategy per pit stop count, fuel strategy and distinct sequence of stint tyres
+    private List<RaceStrategy> distinctStrategies(List<String> plans) {
+        List<RaceStrategy> strategies = new ArrayList<>();
+        for (int pitStops = Validator.MIN_PIT_STOPS; pitStops <= Validator.MAX_PIT_STOPS; pitStops++) {
+            Map<List<Tyre>, String> byStintTyres = new LinkedHashMap<>();
+            for (String plan : plans) {
+                RaceStrategy strategy = new RaceStrategy(pitStops, plan, null, PLACEHOLDER_ESTIMATE);
+                List<Tyre> stintTyres = new ArrayList<>();
+                for (String compound : strategy.getTyreCompoundsForStints(pitStops + 1)) {
+                    stintTyres.add(resolveTyre(compound));
+                }
+                byStintTyres.putIfAbsent(stintTyres, plan);
+            }
+            for (String fuel : Validator.VALID_FUEL_STRATEGIES) {
+                for (String plan : byStintTyres.values()) {
+                    strategies.add(new RaceStrategy(pitStops, plan, fuel, PLACEHOLDER_ESTIMATE));
+                }
+            }
+        }
+        return strategies;
+    }
+
+    // The tyre RaceSimulator races on for a compound name
+    private Tyre resolveTyre(String compound) {
+        Tyre tyre = catalog.getTyre(compound);
+        return tyre != null ? tyre : catalog.getTyre("Medium");
+    }
+
+    // First component of each content, in catalog order
+    private static <T> List<T> distinct(List<T> components, Function<T, List<Object>> content) {
+        Map<List<Object>, T> byContent = new LinkedHashMap<>();
+        for (T component : components) {
+            byContent.putIfAbsent(content.apply(component), component);
+        }
+        return new ArrayList<>(byContent.values());
+    }
+
+    // State shared by the workers of one optimise call
+    private final class Search {
+        final Track track;
+        final Weather weather;
+        final List<Tyre> tyres;
+        final List<AeroKit> kits;
+        final List<RaceStrategy> strategies = new ArrayList<>();
+        final TopKCollector<Solution> collector =
+                new TopKCollector<>(topK, Solution::getExpectedRaceTime, Solution.BY_NAMES);
+        final LongAdder evaluated = new LongAdder();
+        final LongAdder pruned = new LongAdder();
+        final Object improvementLock = new Object();
+        volatile double bestTime = Double.POSITIVE_INFINITY;
+
+        Search(Track track, Weather weather, List<Tyre> tyres, List<AeroKit> kits) {
+            this.track = track;
+            this.weather = weather;
+            this.tyres = tyres;
+            this.kits = kits;
+        }
+
+        void run(List<Engine> engines) throws InterruptedException {
+            int units = engines.size() * tyres.size();
+            if (threads == 1 || units <= 1) {
+                for (int unit = 0; unit < units; unit++) {
+                    searchUnit(unit, engines.get(unit / tyres.size()), unit % tyres.size());
+                }
+                return;
+            }
+            try (BoundedExecutor executor = new BoundedExecutor("setup-optimiser", threads, threads * 2)) {
+                for (int unit = 0; unit < units; unit++) {
+                    int generation = unit;
+                    Engine engine = engines.get(unit / tyres.size());
+                    int front = unit % tyres.size();
+                    executor.submit(() -> searchUnit(generation, engine, front));
+                }
+                executor.await();
+            }
+        }
+
+        // Every rear tyre from the front tyre's index on, kit and strategy for one engine
+        // and front tyre
+        private void searchUnit(int generation, Engine engine, int frontIndex) {
+            Tyre front = tyres.get(frontIndex);
+            OptimiserGenerationEvent event = new OptimiserGenerationEvent();
+            event.begin();
+            RaceSimulator simulator = new RaceSimulator(laps);
+            simulator.setCatalog(catalog);
+            Car car = new Car(0, NAME, carWeight, engine, front, null, null);
+            long unitEvaluated = 0;
+            long unitPruned = 0;
+            double unitBest = Double.POSITIVE_INFINITY;
+            try (TopKCollector<Solution>.Producer producer = collector.newProducer()) {
+                for (Tyre rear : tyres.subList(frontIndex, tyres.size())) {
+                    car.setRearTyres(rear);
+                    for (AeroKit kit : kits) {
+                        car.setAeroKit(kit);
+                        for (RaceStrategy strategy : strategies) {
+                            if (ValidationRule.hasErrors(Validator.screenRaceSetup(car, track, strategy))) {
+                                unitPruned++;
+                                continue;
+                            }
+                            double time = simulator.expectedRaceTime(car, track, strategy, weather);
+                            unitEvaluated++;
+                            unitBest = Math.min(unitBest, time);
+                            if (producer.canQualify(time)) {
+                                Solution solution = new Solution(engine, front, rear, kit, strategy, time);
+                                producer.offer(solution);
+                                improve(solution);
+                            }
+                        }
+                    }
+                }
+            }
+            evaluated.add(unitEvaluated);
+            pruned.add(unitPruned);
+
+            event.end();
+            event.optimiser = NAME;
+            event.generation = generation;
+            event.evaluated = unitEvaluated;
+            event.pruned = unitPruned;
+            event.bestRaceTime = unitBest;
+            event.commit();
+        }
+
+        private void improve(Solution solution) {
+            if (solution.expectedRaceTime >= bestTime) {
+                return;
+            }
+            synchronized (improvementLock) {
+                if (solution.expectedRaceTime < bestTime) {
+                    bestTime = solution.expectedRaceTime;
+                    if (improvementListener != null) {
+                        improvementListener.accept(solution);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * One whole-car setup and its expected race time.
+     */
+    public static class Solution {
+        // Orders setups with equal times, one name at a time
+        static final Comparator<Solution> BY_NAMES = Comparator
+                .comparing((Solution s) -> s.engine.getType())
+                .thenComparing(s -> s.frontTyres.getCompound())
+                .thenComparing(s -> s.rearTyres.getCompound())
+                .thenComparing(s -> s.aeroKit.getName())
+                .thenComparingInt(s -> s.strategy.getNumberOfPitStops())
+                .thenComparing(s -> s.strategy.getFuelStrategy())
+                .thenComparing(s -> s.strategy.getTyreStrategy());
+
+        private final Engine engine;
+        private final Tyre frontTyres;
+        private final Tyre rearTyres;
+        private final AeroKit aeroKit;
+        private final RaceStrategy strategy;
+        private final double expectedRaceTime;
+
+        Solution(Engine engine, Tyre frontTyres, Tyre rearTyres, AeroKit aeroKit, RaceStrategy strategy,
+                 double expectedRaceTime) {
+            this.engine = engine;
+            this.frontTyres = frontTyres;
+            this.rearTyres = rearTyres;
+            this.aeroKit = aeroKit;
+            // Carries the expected time as its estimate
+            this.strategy = new RaceStrategy(strategy.getNumberOfPitStops(), strategy.getTyreStrategy(),
+                    strategy.getFuelStrategy(), expectedRaceTime);
+            this.expectedRaceTime = expectedRaceTime;
+        }
+
+        public Engine getEngine() {
+            return engine;
+        }
+
+        public Tyre getFrontTyres() {
+            return frontTyres;
+        }
+
+        public Tyre getRearTyres() {
+            return rearTyres;
+        }
+
+        public AeroKit getAeroKit() {
+            return aeroKit;
+        }
+
+        /** Returns the strategy, with the expected race time as its estimate. */
+        public RaceStrategy getStrategy() {
+            return strategy;
+        }
+
+        /** Returns the expected race time in minutes, as in {@link RaceResult#getRaceTime()}. */
+        public double getExpectedRaceTime() {
+            return expectedRaceTime;
+        }
+
+        /**
+         * Builds a car with this setup.
+         */
+        public Car toCar(int id, String name, double weight) {
+            return new Car(id, name, weight, engine, frontTyres, rearTyres, aeroKit);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%.2f min: %s engine, %s/%s tyres, %s, %d stops, %s fuel, %s",
+                    expectedRaceTime, engine.getType(), frontTyres.getCompound(), rearTyres.getCompound(),
+                    aeroKit.getName(), strategy.getNumberOfPitStops(), strategy.getFuelStrategy(),
+                    strategy.getTyreStrategy());
+        }
+    }
+
+    /**
+     * Outcome of one {@link #optimise} call.
+     */
+    public static class Report {
+        private List<Solution> best;
+        private long spaceSize;
+        private long duplicates;
+        private long pruned;
+        private long evaluated;
+        private long elapsedNanos;
+
+        private Report() {
+        }
+
+        /** Returns the fastest setups found, fastest first. */
+        public List<Solution> getBest() {
+            return best;
+        }
+
+        /** Returns the number of setups in the full space, before deduplication. */
+        public long getSpaceSize() {
+            return spaceSize;
+        }
+
+        /** Returns the number of setups skipped as equivalent to another. */
+        public long getDuplicates() {
+            return duplicates;
+        }
+
+        /** Returns the number of distinct setups skipped because they fail validation. */
+        public long getPruned() {
+            return pruned;
+        }
+
+        /** Returns the number of setups whose race time was evaluated. */
+        public long getEvaluated() {
+            return evaluated;
+        }
+
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+    }
+}
@@ -0,0 +1,295 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in span tracing for single simulations, for latency debugging.
+ *
+ * While enabled, each thread records spans (race setup, every stint, pit stop time,
+ * result construction, result sink) into a preallocated per-thread {@link Trace}.
+ * When the outermost span closes, the trace is copied into a fixed-size ring of
+ * recent traces, and traces slower than the threshold are passed to a
+ * {@link SlowTraceListener}. Nothing is allocated per trace apart from the slow trace
+ * dump.
+ *
+ * When disabled, {@link #currentTrace()} returns null and each instrumentation point
+ * costs one null check.
+ */
+public final class SimulationTracer {
+    // Span names used by the engine
+    public static final String SCENARIO = "scenario";
+    public static final String SIMULATE_RACE = "simulateRace";
+    public static final String SETUP = "setup";
+    public static final String STINT = "stint";
+    public static final String PIT_STOPS = "pitStops";
+    public static final String RESULT = "result";
+    public static final String SINK = "sink";
+
+    // Spans kept per trace; further spans are counted as dropped
+    static final int MAX_SPANS = 64;
+
+    private static volatile SimulationTracer active;
+
+    /**
+     * Receives traces slower than the threshold.
+     */
+    public interface SlowTraceListener {
+        void onSlowTrace(TraceRecord trace);
+    }
+
+    private final TraceRecord[] ring;
+    private final AtomicLong sequence = new AtomicLong();
+    private final long slowThresholdNanos;
+    private final SlowTraceListener listener;
+    private final ThreadLocal<Trace> traces = ThreadLocal.withInitial(() -> new Trace(this));
+
+    private SimulationTracer(int capacity, long slowThresholdNanos, SlowTraceListener listener) {
+        this.ring = new TraceRecord[capacity];
+        for (int i = 0; i < capacity; i++) {
+            ring[i] = new TraceRecord();
+        }
+        this.slowThresholdNanos = slowThresholdNanos;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts tracing on all threads, replacing any tracer already enabled.
+     *
+     * @param capacity number of recent traces kept
+     * @param slowThresholdNanos traces at least this long go to the listener
+     * @param listener receives slow traces, may be null
+     */
+    public static SimulationTracer enable(int capacity, long slowThresholdNanos, SlowTraceListener listener) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (slowThresholdNanos < 0) {
+            throw new IllegalArgumentException("Slow threshold cannot be negative: " + slowThresholdNanos);
+        }
+        SimulationTracer tracer = new SimulationTracer(capacity, slowThresholdNanos, listener);
+        active = tracer;
+        return tracer;
+    }
+
+    public static void disable() {
+        active = null;
+    }
+
+    public static boolean isEnabled() {
+        return active != null;
+    }
+
+    /**
+     * Returns the calling thread's trace, or null when tracing is disabled.
+     */
+    public static Trace currentTrace() {
+        SimulationTracer tracer = active;
+        return tracer == null ? null : tracer.traces.get();
+    }
+
+    /**
+     * Returns copies of the recent traces, oldest first.
+     */
+    public List<TraceRecord> getRecentTraces() {
+        long end = sequence.get();
+        long start = Math.max(0, end - ring.length);
+        List<TraceRecord> recent = new ArrayList<>();
+        for (long s = start; s < end; s++) {
+            TraceRecord slot = ring[(int) (s % ring.length)];
+            TraceRecord copy = new TraceRecord();
+            synchronized (slot) {
+                if (slot.sequence != s) {
+                    continue; // overwritten since we read the sequence
+                }
+                copy.copyFrom(slot);
+            }
+            recent.add(copy);
+        }
+        return recent;
+    }
+
+    public long getCompletedTraceCount() {
+        return sequence.get();
+    }
+
+    private void complete(Trace trace) {
+        long s = sequence.getAndIncrement();
+        TraceRecord slot = ring[(int) (s % ring.length)];
+        synchronized (slot) {
+            slot.copyFrom(trace, s);
+        }
+        if (listener != null && trace.ends[0] - trace.starts[0] >= slowThresholdNanos) {
+            TraceRecord copy = new TraceRecord();
+            copy.copyFrom(trace, s);
+            listener.onSlowTrace(copy);
+        }
+    }
+
+    /**
+     * Spans of the trace in progress on one thread. Not thread-safe; only the owning
+     * thread may use it.
+     */
+    public static final class Trace {
+        private final SimulationTracer tracer;
+        private final String[] names = new String[MAX_SPANS];
+        private final int[] details = new int[MAX_SPANS];
+        private final int[] depths = new int[MAX_SPANS];
+        private final long[] starts = new long[MAX_SPANS];
+        private final long[] ends = new long[MAX_SPANS];
+        private int count;
+        private int depth;
+        private int dropped;
+
+        private Trace(SimulationTracer tracer) {
+            this.tracer = tracer;
+        }
+
+        /**
+         * Opens a span and returns its id for {@link #close(int)}.
+         *
+         * @param name span name, normally one of the constants above
+         * @param detail span detail such as the stint or scenario index
+         */
+        public int open(String name, int detail) {
+            int id = -1;
+            if (count < MAX_SPANS) {
+                id = count++;
+                names[id] = name;
+                details[id] = detail;
+                depths[id] = depth;
+                starts[id] = System.nanoTime();
+                ends[id] = -1;
+            } else {
+                dropped++;
+            }
+            depth++;
+            return id;
+        }
+
+        /**
+         * Closes the span and any spans still open inside it. Closing the outermost span
+         * completes the trace.
+         */
+        public void close(int id) {
+            long now = System.nanoTime();
+            if (id < 0) {
+                depth--;
+            } else {
+                for (int i = id; i < count; i++) {
+                    if (ends[i] < 0) {
+                        ends[i] = now;
+                    }
+                }
+                depth = depths[id];
+            }
+            if (depth <= 0) {
+                if (count > 0) {
+                    tracer.complete(this);
+                }
+                count = 0;
+                depth = 0;
+                dropped = 0;
+            }
+        }
+    }
+
+    /**
+     * A completed trace: spans in the order they were opened, with their nesting depth.
+     */
+    public static final class TraceRecord {
+        private final String[] names = new String[MAX_SPANS];
+        private final int[] details = new int[MAX_SPANS];
+        private final int[] depths = new int[MAX_SPANS];
+        private final long[] starts = new long[MAX_SPANS];
+        private final long[] ends = new long[MAX_SPANS];
+        private int count;
+        private int dropped;
+        private long sequence = -1;
+
+        private void copyFrom(Trace trace, long sequence) {
+            count = trace.count;
+            dropped = trace.dropped;
+            this.sequence = sequence;
+            System.arraycopy(trace.names, 0, names, 0, count);
+            System.arraycopy(trace.details, 0, details, 0, count);
+            System.arraycopy(trace.depths, 0, depths, 0, count);
+            System.arraycopy(trace.starts, 0, starts, 0, count);
+            System.arraycopy(trace.ends, 0, ends, 0, count);
+        }
+
+        private void copyFrom(TraceRecord other) {
+            count = other.count;
+            dropped = other.dropped;
+            sequence = other.sequence;
+            System.arraycopy(other.names, 0, names, 0, count);
+            System.arraycopy(other.details, 0, details, 0, count);
+            System.arraycopy(other.depths, 0, depths, 0, count);
+            System.arraycopy(other.starts, 0, starts, 0, count);
+            System.arraycopy(other.ends, 0, ends, 0, count);
+        }
+
+        public int getSpanCount() {
+            return count;
+        }
+
+        public int getDroppedSpanCount() {
+            return dropped;
+        }
+
+        public String getName(int span) {
+            return names[checkSpan(span)];
+        }
+
+        public int getDetail(int span) {
+            return details[checkSpan(span)];
+        }
+
+        public int getDepth(int span) {
+            return depths[checkSpan(span)];
+        }
+
+        /**
+         * Returns the span start relative to the start of the trace.
+         */
+        public long getOffsetNanos(int span) {
+            return starts[checkSpan(span)] - starts[0];
+        }
+
+        public long getDurationNanos(int span) {
+            checkSpan(span);
+            return ends[span] - starts[span];
+        }
+
+        public long getTotalNanos() {
+            return count == 0 ? 0 : ends[0] - starts[0];
+        }
+
+        private int checkSpan(int span) {
+            if (span < 0 || span >= count) {
+                throw new IndexOutOfBoundsException("Span " + span + " of " + count);
+            }
+            return span;
+        }
+
+        /**
+         * Renders the trace as an indented span tree with offsets and durations in microseconds.
+         */
+        @Override
+        public String toString() {
+            StringBuilder sb = new StringBuilder();
+            sb.append(String.format("Trace #%d: %.1f us", sequence, getTotalNanos() / 1000.0));
+            for (int i = 0; i < count; i++) {
+                sb.append(System.lineSeparator());
+                for (int d = 0; d <= depths[i]; d++) {
+                    sb.append("  ");
+                }
+                sb.append(String.format("%s[%d] +%.1f us %.1f us",
+                        names[i], details[i], getOffsetNanos(i) / 1000.0, getDurationNanos(i) / 1000.0));
+            }
+            if (dropped > 0) {
+                sb.append(System.lineSeparator()).append("  (").append(dropped).append(" spans dropped)");
+            }
+            return sb.toString();
+        }
+    }
+}
@@ -0,0 +1,271 @@
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Result buffer with a fixed heap budget for long-running processes.
+ *
+ * The most recent results stay in memory. Once their estimated size exceeds the
+ * budget, the oldest half is written to a {@link ResultFile} segment in the spill
+ * directory and dropped from the heap. Queries walk the spilled segments (oldest
+ * first) and then the in-memory tail, so callers see one continuous sequence.
+ * Each segment remembers its race time range, which lets range queries skip
+ * segments without reading them.
+ *
+ * Spilled segments are kept until the buffer is closed. A caller that would rather
+ * lose old results than fill the disk can set a retention bound on their total file
+ * size ({@link #setMaxSpilledBytes}); past it the oldest segments are deleted, and the
+ * walks report how many results they could no longer visit.
+ */
+public class SpillingResultBuffer implements Closeable {
+
+    private final Path spillDirectory;
+    private final long heapBudget;
+
+    private final ArrayDeque<RaceResult> recent = new ArrayDeque<>();
+    private final List<Segment> segments = new ArrayList<>();
+    private long recentBytes;
+    private long spilledCount;
+    private long spilledBytes;
+    private long droppedCount;
+    // No retention bound unless set
+    private long maxSpilledBytes = Long.MAX_VALUE;
+    private boolean closed;
+
+    /**
+     * @param spillDirectory directory for spill segments, created if missing
+     * @param heapBudget estimated bytes of results to keep on the heap
+     */
+    public SpillingResultBuffer(Path spillDirectory, long heapBudget) throws IOException {
+        if (heapBudget <= 0) {
+            throw new IllegalArgumentException("Heap budget must be positive: " + heapBudget);
+        }
+        this.spillDirectory = Files.createDirectories(spillDirectory);
+        this.heapBudget = heapBudget;
+    }
+
+    /**
+     * Sets the total size of spill segments to keep on disk; the oldest segments, and
+     * the results in them, are deleted once it is exceeded.
+     */
+    public synchronized void setMaxSpilledBytes(long maxSpilledBytes) throws IOException {
+        if (maxSpilledBytes <= 0) {
+            throw new IllegalArgumentException("Maximum spilled bytes must be positive: " + maxSpilledBytes);
+        }
+        this.maxSpilledBytes = maxSpilledBytes;
+        dropOldestSegments();
+    }
+
+    public synchronized void add(RaceResult result) throws IOException {
+        if (closed) {
+            throw new IllegalStateException("Buffer is closed");
+        }
+        recent.addLast(result);
+        recentBytes += ResultFile.estimateHeapBytes(result);
+        if (recentBytes > heapBudget) {
+            spillOldest();
+        }
+    }
+
+    // Moves the oldest results to disk until half the budget is free again
+    private void spillOldest() throws IOException {
+        Path file = Files.createTempFile(spillDirectory, "spill-", ".bin");
+        double min = Double.POSITIVE_INFINITY;
+        double max = Double.NEGATIVE_INFINITY;
+        long count = 0;
+        try (ResultFile.Writer writer = ResultFile.newWriter(file)) {
+            while (!recent.isEmpty() && recentBytes > heapBudget / 2) {
+                RaceResult result = recent.pollFirst();
+                recentBytes -= ResultFile.estimateHeapBytes(result);
+                writer.write(result);
+                min = Math.min(min, result.getRaceTime());
+                max = Math.max(max, result.getRaceTime());
+                count++;
+            }
+        }
+        Segment segment = new Segment(file, min, max, count, Files.size(file));
+        segments.add(segment);
+        spilledCount += segment.count;
+        spilledBytes += segment.bytes;
+        dropOldestSegments();
+    }
+
+    // Deletes the oldest segments until the spilled files fit the retention bound
+    private void dropOldestSegments() throws IOException {
+        while (spilledBytes > maxSpilledBytes && !segments.isEmpty()) {
+            Segment oldest = segments.remove(0);
+            spilledCount -= oldest.count;
+            spilledBytes -= oldest.bytes;
+            droppedCount += oldest.count;
+            Files.deleteIfExists(oldest.file);
+        }
+    }
+
+    /**
+     * Visits every result, oldest first, across both tiers.
+     *
+     * @return how many older results were deleted by the retention bound and so not
+     *         visited; 0 unless {@link #setMaxSpilledBytes} was called
+     */
+    public long forEach(Consumer<RaceResult> action) throws IOException {
+        return forEachWithRaceTimeBetween(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, action);
+    }
+
+    /**
+     * Visits every result whose race time lies in {@code [minTime, maxTime]}, oldest first.
+     * Spilled segments entirely outside the range are not read.
+     *
+     * @return how many older results (in any range) were deleted by the retention bound
+     *         and so not visited
+     */
+    public long forEachWithRaceTimeBetween(double minTime, double maxTime, Consumer<RaceResult> action)
+            throws IOException {
+        return walk(minTime, maxTime, result -> {
+            action.accept(result);
+            return true;
+        });
+    }
+
+    /**
+     * Returns up to {@code limit} matching results, oldest first. With a retention bound
+     * set, results it deleted are not matched; {@link #getDroppedCount()} tells how many.
+     */
+    public List<RaceResult> query(Predicate<RaceResult> filter, int limit) throws IOException {
+        List<RaceResult> matches = new ArrayList<>();
+        if (limit <= 0) {
+            return matches;
+        }
+        walk(Double.NEGATIVE_INFINITY, Double.POSITIVE_INFINITY, result -> {
+            if (filter.test(result)) {
+                matches.add(result);
+            }
+            return matches.size() < limit;
+        });
+        return matches;
+    }
+
+    // Passes results in the race time range to the visitor, oldest first, until it
+    // returns false. Returns how many results were dropped before or during the walk.
+    private long walk(double minTime, double maxTime, Predicate<RaceResult> visitor) throws IOException {
+        List<Segment> spilled;
+        RaceResult[] inMemory;
+        long dropped;
+        synchronized (this) {
+            spilled = new ArrayList<>(segments);
+            inMemory = recent.toArray(new RaceResult[0]);
+            dropped = droppedCount;
+        }
+        for (Segment segment : spilled) {
+            if (segment.maxTime < minTime || segment.minTime > maxTime) {
+                continue;
+            }
+            ResultFile.Reader reader;
+            try {
+                reader = ResultFile.newReader(segment.file);
+            } catch (NoSuchFileException e) {
+                // Dropped by the retention bound since the walk started
+                dropped += segment.count;
+                continue;
+            }
+            try (reader) {
+                RaceResult result;
+                while ((result = reader.next()) != null) {
+                    if (result.getRaceTime() >= minTime && result.getRaceTime() <= maxTime
+                            && !visitor.test(result)) {
+                        return dropped;
+                    }
+                }
+            }
+        }
+        for (RaceResult result : inMemory) {
+            if (result.getRaceTime() >= minTime && result.getRaceTime() <= maxTime && !visitor.test(result)) {
+                return dropped;
+            }
+        }
+        return dropped;
+    }
+
+    public synchronized long size() {
+        return spilledCount + recent.size();
+    }
+
+    public synchronized int getInMemoryCount() {
+        return recent.size();
+    }
+
+    public synchronized long getSpilledCount() {
+        return spilledCount;
+    }
+
+    /**
+     * Returns how many spilled results were deleted by the retention bound.
+     */
+    public synchronized long getDroppedCount() {
+        return droppedCount;
+    }
+
+    /**
+     * Returns the total size of the spill segments on disk.
+     */
+    public synchronized long getSpilledBytes() {
+        return spilledBytes;
+    }
+
+    public synchronized int getSegmentCount() {
+        return segments.size();
+    }
+
+    /**
+     * Returns the estimated heap bytes held by the in-memory tier.
+     */
+    public synchronized long getEstimatedHeapBytes() {
+        return recentBytes;
+    }
+
+    /**
+     * Drops all results and deletes the spill segments.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        closed = true;
+        recent.clear();
+        recentBytes = 0;
+        IOException failure = null;
+        for (Segment segment : segments) {
+            try {
+                Files.deleteIfExists(segment.file);
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+        segments.clear();
+        spilledCount = 0;
+        spilledBytes = 0;
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private static class Segment {
+        private final Path file;
+        private final double minTime;
+        private final double maxTime;
+        private final long count;
+        private final long bytes;
+
+        Segment(Path file, double minTime, double maxTime, long count, long bytes) {
+            this.file = file;
+            this.minTime = minTime;
+            this.maxTime = maxTime;
+            this.count = count;
+            this.bytes = bytes;
+        }
+    }
+}
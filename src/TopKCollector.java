@@ -0,0 +1,306 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Concurrent collector that keeps only the best K elements of an unbounded stream.
+ *
+ * Each producing thread works through its own {@link Producer}, which holds a bounded
+ * heap of at most K elements. Producers publish into the shared leaderboard with a
+ * compare-and-set merge, so there is no lock anywhere on the offer path. Once the
+ * leaderboard is full its worst entry becomes a global threshold that only ever gets
+ * tighter; producers can read it (see {@link #canQualify(double)}) to skip building
+ * results that would be rejected anyway.
+ *
+ * Memory is O(K) per producer plus O(K) for the leaderboard.
+ *
+ * @param <T> element type
+ */
+public class TopKCollector<T> {
+    private final int capacity;
+    private final Comparator<? super T> comparator;
+    private final ToDoubleFunction<? super T> keyFunction;
+    // With a tie-break, an element whose key equals the threshold may still be better
+    private final boolean tieBreaking;
+
+    // Immutable, sorted best-first array of at most capacity elements
+    private final AtomicReference<Object[]> leaderboard = new AtomicReference<>(new Object[0]);
+    // Worst key currently on a full leaderboard, stored as raw double bits
+    private final AtomicLong thresholdBits = new AtomicLong(Double.doubleToRawLongBits(Double.POSITIVE_INFINITY));
+    private final AtomicLong offered = new AtomicLong();
+
+    /**
+     * Creates a collector ordered by an arbitrary comparator (smaller is better).
+     *
+     * @param capacity number of elements to keep
+     * @param comparator ordering, the first element is the best
+     */
+    public TopKCollector(int capacity, Comparator<? super T> comparator) {
+        this(capacity, comparator, null, false);
+    }
+
+    /**
+     * Creates a collector ordered by a numeric key (smaller is better). The key also
+     * drives the primitive threshold exposed through {@link #canQualify(double)}.
+     *
+     * @param capacity number of elements to keep
+     * @param keyFunction extracts the ordering key
+     */
+    public TopKCollector(int capacity, ToDoubleFunction<? super T> keyFunction) {
+        this(capacity, Comparator.comparingDouble(keyFunction), keyFunction, false);
+    }
+
+    /**
+     * Creates a collector ordered by a numeric key, with elements of equal key ordered by
+     * {@code tieBreak}. With a tie-break that orders all distinct elements, the result
+     * does not depend on the order elements arrive in or on how many producers there are.
+     *
+     * @param capacity number of elements to keep
+     * @param keyFunction extracts the ordering key
+     * @param tieBreak ordering of elements with equal keys
+     */
+    public TopKCollector(int capacity, ToDoubleFunction<? super T> keyFunction, Comparator<? super T> tieBreak) {
+        this(capacity, Comparator.<T>comparingDouble(keyFunction).thenComparing(tieBreak), keyFunction, true);
+    }
+
+    private TopKCollector(int capacity, Comparator<? super T> comparator, ToDoubleFunction<? super T> keyFunction,
+                          boolean tieBreaking) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        if (comparator == null) {
+            throw new IllegalArgumentException("Comparator cannot be null");
+        }
+        this.capacity = capacity;
+        this.comparator = comparator;
+        this.keyFunction = keyFunction;
+        this.tieBreaking = tieBreaking;
+    }
+
+    /**
+     * Creates a leaderboard of the K fastest race results.
+     */
+    public static TopKCollector<RaceResult> byRaceTime(int capacity) {
+        return new TopKCollector<>(capacity, RaceResult::getRaceTime);
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * Returns a new producer handle. A producer must only be used by one thread at a
+     * time and must be flushed (or closed) before its elements show up in {@link #results()}.
+     */
+    public Producer newProducer() {
+        return new Producer();
+    }
+
+    /**
+     * Returns the current global threshold key. Only elements with a strictly smaller key
+     * can still enter the leaderboard, or an equal key when the collector has a
+     * tie-break. Positive infinity until the leaderboard is full or
+     * when the collector has no key function.
+     */
+    public double getThreshold() {
+        return Double.longBitsToDouble(thresholdBits.get());
+    }
+
+    /**
+     * Cheap check producers can run before building a candidate.
+     *
+     * @param key the candidate's ordering key
+     * @return false if the candidate cannot make the leaderboard
+     */
+    public boolean canQualify(double key) {
+        double threshold = getThreshold();
+        return key < threshold || (tieBreaking && key == threshold);
+    }
+
+    /**
+     * Returns the published leaderboard, best first.
+     */
+    @SuppressWarnings("unchecked")
+    public List<T> results() {
+        Object[] current = leaderboard.get();
+        List<T> list = new ArrayList<>(current.length);
+        for (Object o : current) {
+            list.add((T) o);
+        }
+        return Collections.unmodifiableList(list);
+    }
+
+    /**
+     * Returns the number of elements on the published leaderboard.
+     */
+    public int size() {
+        return leaderboard.get().length;
+    }
+
+    /**
+     * Returns how many elements were offered through all producers, including rejected ones.
+     */
+    public long getOfferedCount() {
+        return offered.get();
+    }
+
+    // Lock-free merge of a sorted batch into the leaderboard
+    @SuppressWarnings("unchecked")
+    private void publish(Object[] batch, int batchSize) {
+        if (batchSize == 0) {
+            return;
+        }
+        while (true) {
+            Object[] current = leaderboard.get();
+            int size = Math.min(capacity, current.length + batchSize);
+            Object[] merged = new Object[size];
+            int i = 0;
+            int j = 0;
+            for (int k = 0; k < size; k++) {
+                if (j >= batchSize || (i < current.length
+                        && comparator.compare((T) current[i], (T) batch[j]) <= 0)) {
+                    merged[k] = current[i++];
+                } else {
+                    merged[k] = batch[j++];
+                }
+            }
+            if (leaderboard.compareAndSet(current, merged)) {
+                if (size == capacity && keyFunction != null) {
+                    tightenThreshold(keyFunction.applyAsDouble((T) merged[size - 1]));
+                }
+                return;
+            }
+        }
+    }
+
+    private void tightenThreshold(double key) {
+        while (true) {
+            long bits = thresholdBits.get();
+            if (key >= Double.longBitsToDouble(bits)) {
+                return;
+            }
+            if (thresholdBits.compareAndSet(bits, Double.doubleToRawLongBits(key))) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Single-threaded view onto the collector with its own bounded heap.
+     */
+    public class Producer implements AutoCloseable {
+        // Max-heap on the comparator: the worst kept element sits at index 0
+        private final Object[] heap = new Object[capacity];
+        private int size;
+        private int acceptedSinceFlush;
+        private long offeredSinceFlush;
+
+        private Producer() {
+        }
+
+        /**
+         * Offers an element. Every K accepted elements the heap is published automatically,
+         * which keeps the global threshold tight without contending on every offer.
+         *
+         * @return true if the element was kept by this producer
+         */
+        @SuppressWarnings("unchecked")
+        public boolean offer(T element) {
+            offeredSinceFlush++;
+            if (keyFunction != null && !TopKCollector.this.canQualify(keyFunction.applyAsDouble(element))) {
+                return false;
+            }
+            if (size < capacity) {
+                heap[size] = element;
+                siftUp(size++);
+            } else if (comparator.compare(element, (T) heap[0]) < 0) {
+                heap[0] = element;
+                siftDown(0);
+            } else {
+                return false;
+            }
+            if (++acceptedSinceFlush >= capacity) {
+                flush();
+            }
+            return true;
+        }
+
+        /**
+         * Same check as {@link TopKCollector#canQualify(double)}, also taking this
+         * producer's own full heap into account.
+         */
+        @SuppressWarnings("unchecked")
+        public boolean canQualify(double key) {
+            if (!TopKCollector.this.canQualify(key)) {
+                return false;
+            }
+            if (size < capacity || keyFunction == null) {
+                return true;
+            }
+            double worst = keyFunction.applyAsDouble((T) heap[0]);
+            return key < worst || (tieBreaking && key == worst);
+        }
+
+        /**
+         * Publishes the locally kept elements into the shared leaderboard and clears the heap.
+         */
+        @SuppressWarnings("unchecked")
+        public void flush() {
+            offered.addAndGet(offeredSinceFlush);
+            offeredSinceFlush = 0;
+            acceptedSinceFlush = 0;
+            if (size == 0) {
+                return;
+            }
+            Object[] batch = Arrays.copyOf(heap, size);
+            Arrays.sort(batch, (a, b) -> comparator.compare((T) a, (T) b));
+            int count = size;
+            Arrays.fill(heap, 0, size, null);
+            size = 0;
+            publish(batch, count);
+        }
+
+        @Override
+        public void close() {
+            flush();
+        }
+
+        @SuppressWarnings("unchecked")
+        private void siftUp(int index) {
+            Object element = heap[index];
+            while (index > 0) {
+                int parent = (index - 1) >>> 1;
+                if (comparator.compare((T) element, (T) heap[parent]) <= 0) {
+                    break;
+                }
+                heap[index] = heap[parent];
+                index = parent;
+            }
+            heap[index] = element;
+        }
+
+        @SuppressWarnings("unchecked")
+        private void siftDown(int index) {
+            Object element = heap[index];
+            int half = size >>> 1;
+            while (index < half) {
+                int child = 2 * index + 1;
+                int right = child + 1;
+                if (right < size && comparator.compare((T) heap[right], (T) heap[child]) > 0) {
+                    child = right;
+                }
+                if (comparator.compare((T) element, (T) heap[child]) >= 0) {
+                    break;
+                }
+                heap[index] = heap[child];
+                index = child;
+            }
+            heap[index] = element;
+        }
+    }
+}
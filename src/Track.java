@@ -52,7 +52,15 @@ public class Track {
 
     // ✅ 新增方法：根据天气条件返回有效抓地力影响（0.0~1.0）
     public double getEffectiveGrip() {
-        if (currentWeather != null && currentWeather.getRainIntensity() > 5) {
+        return getEffectiveGrip(currentWeather);
+    }
+
+    /**
+     * Returns the grip factor in the given weather rather than the track's current
+     * weather; 1.0 for null.
+     */
+    public double getEffectiveGrip(Weather weather) {
+        if (weather != null && weather.getRainIntensity() > 5) {
             return 0.8; // 雨强 > 5 时，抓地力下降 20%
         }
         return 1.0; // 正常抓地力
@@ -0,0 +1,356 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * k-d tree over track attributes, for "tracks similar to X" and attribute range
+ * queries over a large track catalog.
+ *
+ * Each track is a point with four coordinates: length (km), corners, corner density
+ * (corners per km) and difficulty (Easy 0, Medium 1, Hard 2). Range queries work in
+ * those units. Similarity is the Euclidean distance after scaling every coordinate by
+ * its spread across the indexed tracks, so no single attribute dominates.
+ *
+ * The tree is built once and is immutable, so one index can be queried from many
+ * threads. It is stored implicitly: the tracks are reordered so the node of a range
+ * is its middle element, with no node objects. Tracks changed after indexing are not
+ * re-indexed.
+ */
+public class TrackIndex {
+    public static final int LENGTH = 0;
+    public static final int CORNERS = 1;
+    public static final int CORNER_DENSITY = 2;
+    public static final int DIFFICULTY = 3;
+    public static final int DIMENSIONS = 4;
+
+    private final Track[] tracks;
+    // DIMENSIONS coordinates per track, in tree order
+    private final double[] points;
+    // Multiplier that brings each coordinate to a comparable spread
+    private final double[] scale = new double[DIMENSIONS];
+
+    /**
+     * Indexes the tracks; null entries are not allowed.
+     */
+    public TrackIndex(Collection<Track> tracks) {
+        if (tracks == null) {
+            throw new IllegalArgumentException("Tracks cannot be null");
+        }
+        this.tracks = tracks.toArray(new Track[0]);
+        this.points = new double[this.tracks.length * DIMENSIONS];
+        for (int i = 0; i < this.tracks.length; i++) {
+            if (this.tracks[i] == null) {
+                throw new IllegalArgumentException("Track cannot be null");
+            }
+            coordinates(this.tracks[i], points, i * DIMENSIONS);
+        }
+        computeScale();
+        build(0, this.tracks.length, 0);
+    }
+
+    /**
+     * Returns a track's coordinates in the order {@link #LENGTH}, {@link #CORNERS},
+     * {@link #CORNER_DENSITY}, {@link #DIFFICULTY}.
+     */
+    public static double[] coordinates(Track track) {
+        if (track == null) {
+            throw new IllegalArgumentException("Track cannot be null");
+        }
+        double[] point = new double[DIMENSIONS];
+        coordinates(track, point, 0);
+        return point;
+    }
+
+    private static void coordinates(Track track, double[] into, int offset) {
+        double length = track.getLength();
+        into[offset + LENGTH] = length;
+        into[offset + CORNERS] = track.getCorners();
+        into[offset + CORNER_DENSITY] = length > 0 ? track.getCorners() / length : track.getCorners();
+        into[offset + DIFFICULTY] = difficultyLevel(track.getDifficulty());
+    }
+
+    // Unknown difficulties count as Medium, the same as the simulator's default
+    private static double difficultyLevel(String difficulty) {
+        if ("Easy".equalsIgnoreCase(difficulty)) {
+            return 0;
+        }
+        return "Hard".equalsIgnoreCase(difficulty) ? 2 : 1;
+    }
+
+    public int size() {
+        return tracks.length;
+    }
+
+    /**
+     * Returns the scaled distance between two tracks; 0 for tracks with the same
+     * attributes. Comparable only between results of the same index.
+     */
+    public double distance(Track a, Track b) {
+        return Math.sqrt(squaredDistance(coordinates(a), 0, coordinates(b), 0));
+    }
+
+    private double squaredDistance(double[] a, int aOffset, double[] b, int bOffset) {
+        double sum = 0;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double diff = (a[aOffset + d] - b[bOffset + d]) * scale[d];
+            sum += diff * diff;
+        }
+        return sum;
+    }
+
+    /**
+     * Returns the tracks with length in [{@code minLength}, {@code maxLength}] km and
+     * corners in [{@code minCorners}, {@code maxCorners}], in no particular order.
+     */
+    public List<Track> findInRange(double minLength, double maxLength, int minCorners, int maxCorners) {
+        double[] min = {minLength, minCorners, Double.NEGATIVE_INFINITY, Double.NEGATIVE_INFINITY};
+        double[] max = {maxLength, maxCorners, Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY};
+        return findInRange(min, max);
+    }
+
+    /**
+     * Returns the tracks whose every coordinate lies within the inclusive bounds, in no
+     * particular order. Use infinities to leave a coordinate unbounded.
+     *
+     * @param min lower bounds, indexed by {@link #LENGTH} and the other dimension constants
+     * @param max upper bounds, indexed the same way
+     */
+    public List<Track> findInRange(double[] min, double[] max) {
+        if (min == null || max == null || min.length != DIMENSIONS || max.length != DIMENSIONS) {
+            throw new IllegalArgumentException("Bounds must have " + DIMENSIONS + " coordinates");
+        }
+        List<Track> found = new ArrayList<>();
+        for (int d = 0; d < DIMENSIONS; d++) {
+            if (min[d] > max[d]) {
+                return found;
+            }
+        }
+        collectInRange(0, tracks.length, 0, min, max, found);
+        return found;
+    }
+
+    private void collectInRange(int from, int to, int depth, double[] min, double[] max, List<Track> found) {
+        while (from < to) {
+            int node = (from + to) >>> 1;
+            int dim = depth % DIMENSIONS;
+            int offset = node * DIMENSIONS;
+            if (contains(offset, min, max)) {
+                found.add(tracks[node]);
+            }
+            double split = points[offset + dim];
+            boolean left = min[dim] <= split;
+            boolean right = max[dim] >= split;
+            depth++;
+            // Recurse into one side and loop on the other to keep the stack shallow
+            if (left && right) {
+                collectInRange(from, node, depth, min, max, found);
+                from = node + 1;
+            } else if (left) {
+                to = node;
+            } else if (right) {
+                from = node + 1;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private boolean contains(int offset, double[] min, double[] max) {
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double value = points[offset + d];
+            if (value < min[d] || value > max[d]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the {@code k} indexed tracks most similar to {@code track}, nearest first.
+     * The track itself is left out when it is indexed.
+     */
+    public List<Track> findNearest(Track track, int k) {
+        return findNearest(track, k, Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * Returns at most {@code k} indexed tracks within {@code maxDistance} (see
+     * {@link #distance}) of {@code track}, nearest first. The track itself is left out
+     * when it is indexed; equal tracks that are other instances are kept.
+     */
+    public List<Track> findNearest(Track track, int k, double maxDistance) {
+        if (k < 0) {
+            throw new IllegalArgumentException("k cannot be negative: " + k);
+        }
+        if (maxDistance < 0 || Double.isNaN(maxDistance)) {
+            throw new IllegalArgumentException("Maximum distance cannot be negative: " + maxDistance);
+        }
+        double[] query = coordinates(track);
+        Neighbours neighbours = new Neighbours(Math.min(k, tracks.length), maxDistance * maxDistance);
+        if (neighbours.capacity > 0) {
+            searchNearest(0, tracks.length, 0, query, track, neighbours);
+        }
+        return neighbours.sorted(tracks);
+    }
+
+    private void searchNearest(int from, int to, int depth, double[] query, Track exclude, Neighbours neighbours) {
+        if (from >= to) {
+            return;
+        }
+        int node = (from + to) >>> 1;
+        int dim = depth % DIMENSIONS;
+        int offset = node * DIMENSIONS;
+        if (tracks[node] != exclude) {
+            neighbours.offer(node, squaredDistance(query, 0, points, offset));
+        }
+        double diff = (query[dim] - points[offset + dim]) * scale[dim];
+        boolean nearLeft = diff < 0;
+        searchNearest(nearLeft ? from : node + 1, nearLeft ? node : to, depth + 1, query, exclude, neighbours);
+        // The far side can only help if the splitting plane is closer than the worst neighbour
+        if (diff * diff <= neighbours.bound()) {
+            searchNearest(nearLeft ? node + 1 : from, nearLeft ? to : node, depth + 1, query, exclude, neighbours);
+        }
+    }
+
+    private void computeScale() {
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double min = Double.POSITIVE_INFINITY;
+            double max = Double.NEGATIVE_INFINITY;
+            for (int i = d; i < points.length; i += DIMENSIONS) {
+                min = Math.min(min, points[i]);
+                max = Math.max(max, points[i]);
+            }
+            double spread = max - min;
+            scale[d] = spread > 0 && Double.isFinite(spread) ? 1.0 / spread : 1.0;
+        }
+    }
+
+    // Arranges [from, to) so its middle element is the median on the depth's dimension,
+    // with smaller or equal values before it and larger or equal values after it
+    private void build(int from, int to, int depth) {
+        while (to - from > 1) {
+            int node = (from + to) >>> 1;
+            select(from, to - 1, node, depth % DIMENSIONS);
+            build(from, node, depth + 1);
+            from = node + 1;
+            depth++;
+        }
+    }
+
+    // Quickselect on one coordinate, moving tracks and their points together
+    private void select(int left, int right, int target, int dim) {
+        while (right > left) {
+            int mid = (left + right) >>> 1;
+            double pivot = points[mid * DIMENSIONS + dim];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (points[i * DIMENSIONS + dim] < pivot) {
+                    i++;
+                }
+                while (points[j * DIMENSIONS + dim] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    swap(i++, j--);
+                }
+            }
+            if (target <= j) {
+                right = j;
+            } else if (target >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    private void swap(int a, int b) {
+        Track track = tracks[a];
+        tracks[a] = tracks[b];
+        tracks[b] = track;
+        int offsetA = a * DIMENSIONS;
+        int offsetB = b * DIMENSIONS;
+        for (int d = 0; d < DIMENSIONS; d++) {
+            double value = points[offsetA + d];
+            points[offsetA + d] = points[offsetB + d];
+            points[offsetB + d] = value;
+        }
+    }
+
+    // Bounded max-heap of the best candidates found so far, by squared distance
+    private static final class Neighbours {
+        final int capacity;
+        final double limit;
+        final int[] nodes;
+        final double[] distances;
+        int size;
+
+        Neighbours(int capacity, double limit) {
+            this.capacity = capacity;
+            this.limit = limit;
+            this.nodes = new int[capacity];
+            this.distances = new double[capacity];
+        }
+
+        // Squared distance a candidate must not exceed to be kept
+        double bound() {
+            return size < capacity ? limit : distances[0];
+        }
+
+        void offer(int node, double distance) {
+            if (distance > limit) {
+                return;
+            }
+            if (size < capacity) {
+                int i = size++;
+                // Sift up
+                while (i > 0) {
+                    int parent = (i - 1) >>> 1;
+                    if (distances[parent] >= distance) {
+                        break;
+                    }
+                    nodes[i] = nodes[parent];
+                    distances[i] = distances[parent];
+                    i = parent;
+                }
+                nodes[i] = node;
+                distances[i] = distance;
+            } else if (distance < distances[0]) {
+                // Replace the worst and sift down
+                int i = 0;
+                while (true) {
+                    int child = 2 * i + 1;
+                    if (child >= size) {
+                        break;
+                    }
+                    if (child + 1 < size && distances[child + 1] > distances[child]) {
+                        child++;
+                    }
+                    if (distances[child] <= distance) {
+                        break;
+                    }
+                    nodes[i] = nodes[child];
+                    distances[i] = distances[child];
+                    i = child;
+                }
+                nodes[i] = node;
+                distances[i] = distance;
+            }
+        }
+
+        List<Track> sorted(Track[] tracks) {
+            Integer[] order = new Integer[size];
+            for (int i = 0; i < size; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, (a, b) -> Double.compare(distances[a], distances[b]));
+            List<Track> result = new ArrayList<>(size);
+            for (Integer i : order) {
+                result.add(tracks[nodes[i]]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,251 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Memoises {@link Validator} outcomes per component, for optimisers that validate the
+ * same cars, tracks and strategies in many combinations.
+ *
+ * Entries are keyed on the content the rules read, not on object identity, so a
+ * component that is changed after validation is checked again and equal copies share
+ * an entry. A car is validated once per configuration, a track once, and a strategy
+ * once per track it is checked against; {@link #validateRaceSetup} then only runs the
+ * cross-component check. Results are the same as calling {@link Validator} directly,
+ * and a cached failure is rethrown as a new exception with the same details.
+ *
+ * Misses go through the public {@link Validator} methods, so validation metrics and
+ * events count real validations only. Hits and misses are counted in {@link EngineMetrics}
+ * and each lookup is a {@link CacheLookupEvent}. A component cache that reaches its size
+ * limit is cleared. Thread-safe.
+ */
+public class ValidationCache {
+    // ValidationResult hands out copies of its warnings, so one instance can be shared
+    private static final ValidationResult SETUP_PASSED =
+            new ValidationResult(true, "Complete race setup validation passed", null);
+
+    private final Memo<CarKey> cars;
+    private final Memo<TrackKey> tracks;
+    private final Memo<StrategyKey> strategies;
+
+    public ValidationCache() {
+        this(10_000);
+    }
+
+    /**
+     * @param maxEntries entries kept per component type before that cache is cleared
+     */
+    public ValidationCache(int maxEntries) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive: " + maxEntries);
+        }
+        cars = new Memo<>("validation.car", maxEntries, EngineMetrics.CAR_CACHE_HITS, EngineMetrics.CAR_CACHE_MISSES);
+        tracks = new Memo<>("validation.track", maxEntries,
+                EngineMetrics.TRACK_CACHE_HITS, EngineMetrics.TRACK_CACHE_MISSES);
+        strategies = new Memo<>("validation.strategy", maxEntries,
+                EngineMetrics.STRATEGY_CACHE_HITS, EngineMetrics.STRATEGY_CACHE_MISSES);
+    }
+
+    /**
+     * Same as {@link Validator#validateCar}, computed once per car configuration.
+     */
+    public ValidationResult validateCar(Car car) throws InvalidCarConfigurationException {
+        if (car == null) {
+            return Validator.validateCar(null);
+        }
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        CarKey key = CarKey.of(car);
+        Object outcome = cars.get(key);
+        boolean hit = outcome != null;
+        if (!hit) {
+            try {
+                outcome = Validator.validateCar(car);
+            } catch (InvalidCarConfigurationException e) {
+                outcome = e;
+            }
+            cars.put(key, outcome);
+        }
+        cars.finish(event, hit);
+        if (outcome instanceof InvalidCarConfigurationException) {
+            InvalidCarConfigurationException e = (InvalidCarConfigurationException) outcome;
+            throw new InvalidCarConfigurationException(e.getMessage(), e.getComponent(), e.getExpectedRange());
+        }
+        return (ValidationResult) outcome;
+    }
+
+    /**
+     * Same as {@link Validator#validateTrack}, computed once per track.
+     */
+    public ValidationResult validateTrack(Track track) throws InvalidTrackDataException {
+        if (track == null) {
+            return Validator.validateTrack(null);
+        }
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        TrackKey key = TrackKey.of(track);
+        Object outcome = tracks.get(key);
+        boolean hit = outcome != null;
+        if (!hit) {
+            try {
+                outcome = Validator.validateTrack(track);
+            } catch (InvalidTrackDataException e) {
+                outcome = e;
+            }
+            tracks.put(key, outcome);
+        }
+        tracks.finish(event, hit);
+        if (outcome instanceof InvalidTrackDataException) {
+            InvalidTrackDataException e = (InvalidTrackDataException) outcome;
+            throw new InvalidTrackDataException(e.getMessage(), e.getTrackProperty(), e.getActualValue(),
+                    e.getValidRange());
+        }
+        return (ValidationResult) outcome;
+    }
+
+    /**
+     * Same as {@link Validator#validateStrategy}, computed once per strategy and track.
+     */
+    public ValidationResult validateStrategy(RaceStrategy strategy, Track track) throws InvalidStrategyException {
+        if (strategy == null || track == null) {
+            return Validator.validateStrategy(strategy, track);
+        }
+        CacheLookupEvent event = new CacheLookupEvent();
+        event.begin();
+        StrategyKey key = StrategyKey.of(strategy, track);
+        Object outcome = strategies.get(key);
+        boolean hit = outcome != null;
+        if (!hit) {
+            try {
+                outcome = Validator.validateStrategy(strategy, track);
+            } catch (InvalidStrategyException e) {
+                outcome = e;
+            }
+            strategies.put(key, outcome);
+        }
+        strategies.finish(event, hit);
+        if (outcome instanceof InvalidStrategyException) {
+            InvalidStrategyException e = (InvalidStrategyException) outcome;
+            throw new InvalidStrategyException(e.getMessage(), e.getStrategyType(), e.getConflictReason(),
+                    e.getRecommendedAction());
+        }
+        return (ValidationResult) outcome;
+    }
+
+    /**
+     * Same as {@link Validator#validateRaceSetup}: the component outcomes come from the
+     * cache and only the cross-component check runs per call.
+     */
+    public ValidationResult validateRaceSetup(Car car, Track track, RaceStrategy strategy)
+            throws InvalidCarConfigurationException, InvalidTrackDataException, InvalidStrategyException {
+        ValidationResult carResult = validateCar(car);
+        ValidationResult trackResult = validateTrack(track);
+        ValidationResult strategyResult = validateStrategy(strategy, track);
+
+        // The only per-combination rule; car and track are known to be non-null here
+        boolean lowPowerOnHardTrack = car.getEngine() != null && car.getEngine().getPower() < 150
+                && "Hard".equals(track.getDifficulty());
+        if (!lowPowerOnHardTrack && !carResult.hasWarnings() && !trackResult.hasWarnings()
+                && !strategyResult.hasWarnings()) {
+            return SETUP_PASSED;
+        }
+        List<String> warnings = new ArrayList<>(carResult.getWarnings());
+        warnings.addAll(trackResult.getWarnings());
+        warnings.addAll(strategyResult.getWarnings());
+        if (lowPowerOnHardTrack) {
+            warnings.add(ValidationRule.LOW_POWER_ON_HARD_TRACK.message(car, track, strategy));
+        }
+        return new ValidationResult(true, SETUP_PASSED.getMessage(), warnings);
+    }
+
+    /**
+     * Returns the number of cached outcomes across all component types.
+     */
+    public int size() {
+        return cars.entries.size() + tracks.entries.size() + strategies.entries.size();
+    }
+
+    public void clear() {
+        cars.entries.clear();
+        tracks.entries.clear();
+        strategies.entries.clear();
+    }
+
+    // One component type: outcome is a ValidationResult or the exception to rethrow
+    private static final class Memo<K> {
+        private final String name;
+        private final int maxEntries;
+        private final MetricsRegistry.Counter hits;
+        private final MetricsRegistry.Counter misses;
+        private final ConcurrentHashMap<K, Object> entries = new ConcurrentHashMap<>();
+
+        Memo(String name, int maxEntries, MetricsRegistry.Counter hits, MetricsRegistry.Counter misses) {
+            this.name = name;
+            this.maxEntries = maxEntries;
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        Object get(K key) {
+            return entries.get(key);
+        }
+
+        void put(K key, Object outcome) {
+            if (entries.size() >= maxEntries) {
+                entries.clear();
+            }
+            entries.putIfAbsent(key, outcome);
+        }
+
+        void finish(CacheLookupEvent event, boolean hit) {
+            (hit ? hits : misses).increment();
+            event.end();
+            if (event.shouldCommit()) {
+                event.cache = name;
+                event.hit = hit;
+                event.size = entries.size();
+                event.commit();
+            }
+        }
+    }
+
+    // Everything the car rules and their messages read
+    private record CarKey(boolean nameBlank, double weight, boolean hasEngine, int enginePower,
+                          double engineWeight, boolean hasFrontTyres, boolean hasRearTyres, boolean hasAeroKit) {
+        static CarKey of(Car car) {
+            Engine engine = car.getEngine();
+            return new CarKey(isBlank(car.getName()), car.getWeight(),
+                    engine != null, engine != null ? engine.getPower() : 0, engine != null ? engine.getWeight() : 0,
+                    car.getFrontTyres() != null, car.getRearTyres() != null, car.getAeroKit() != null);
+        }
+    }
+
+    private record TrackKey(boolean nameBlank, double length, int corners, String difficulty) {
+        static TrackKey of(Track track) {
+            return new TrackKey(isBlank(track.getName()),
+                    track.getLength(), track.getCorners(), track.getDifficulty());
+        }
+    }
+
+    // Strategy rules also read the track's length, corners and difficulty
+    private record StrategyKey(int pitStops, String fuelStrategy, boolean tyreStrategyBlank,
+                               double estimatedRaceTime, double trackLength, int corners, String difficulty) {
+        static StrategyKey of(RaceStrategy strategy, Track track) {
+            return new StrategyKey(strategy.getNumberOfPitStops(), strategy.getFuelStrategy(),
+                    isBlank(strategy.getTyreStrategy()), strategy.getEstimatedRaceTime(),
+                    track.getLength(), track.getCorners(), track.getDifficulty());
+        }
+    }
+
+    // Same test as the validator's trim().isEmpty(), without the copy
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
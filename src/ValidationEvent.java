@@ -0,0 +1,64 @@
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Enabled;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event for one {@link Validator} call, with the failure reason when validation
+ * fails. Validations take microseconds, so the event has no threshold and every
+ * validation is recorded while it is enabled. That is too many for an always-on
+ * recording, so it is off unless a recording enables it (a .jfc setting or
+ * {@code Recording.enable("raceoptimizer.Validation")}).
+ */
+@Name("raceoptimizer.Validation")
+@Label("Validation")
+@Category({"Race Strategy Optimizer", "Validation"})
+@Description("A validation of a car, track, strategy or complete race setup")
+@StackTrace(false)
+@Enabled(false)
+public class ValidationEvent extends jdk.jfr.Event {
+    @Label("Target")
+    String target;
+
+    @Label("Passed")
+    boolean passed;
+
+    @Label("Exception Type")
+    String exceptionType;
+
+    @Label("Failure Reason")
+    String failureReason;
+
+    private transient Exception failure;
+
+    /**
+     * Creates and begins an event for the given validation target.
+     */
+    static ValidationEvent start(String target) {
+        ValidationEvent event = new ValidationEvent();
+        event.target = target;
+        event.begin();
+        return event;
+    }
+
+    void setFailure(Exception failure) {
+        this.failure = failure;
+    }
+
+    /**
+     * Ends the event and commits it if the event is enabled.
+     */
+    void finish() {
+        end();
+        if (shouldCommit()) {
+            passed = failure == null;
+            if (failure != null) {
+                exceptionType = failure.getClass().getSimpleName();
+                failureReason = failure.getMessage();
+            }
+            commit();
+        }
+    }
+}
@@ -0,0 +1,254 @@
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * The individual checks made by {@link Validator}, one bit each.
+ *
+ * The screening methods ({@link Validator#screenCar} and friends) return a {@code long}
+ * with the bit of every violated rule set, so bulk callers can reject candidates
+ * without building strings or exceptions. Messages are only formatted when
+ * {@link #describe} is asked for them; they are the same text the exception-based
+ * validators report.
+ */
+public enum ValidationRule {
+    // Car
+    CAR_NULL(Component.CAR, true),
+    ENGINE_MISSING(Component.CAR, true),
+    FRONT_TYRES_MISSING(Component.CAR, true),
+    REAR_TYRES_MISSING(Component.CAR, true),
+    AEROKIT_MISSING(Component.CAR, true),
+    CAR_WEIGHT_NOT_POSITIVE(Component.CAR, true),
+    CAR_WEIGHT_TOO_LOW(Component.CAR, true),
+    CAR_WEIGHT_TOO_HIGH(Component.CAR, true),
+    ENGINE_POWER_TOO_LOW(Component.CAR, true),
+    ENGINE_POWER_TOO_HIGH(Component.CAR, true),
+    ENGINE_WEIGHT_NOT_POSITIVE(Component.CAR, true),
+    CAR_NAME_MISSING(Component.CAR, false),
+    TOTAL_WEIGHT_HIGH(Component.CAR, false),
+
+    // Track
+    TRACK_NULL(Component.TRACK, true),
+    TRACK_LENGTH_NOT_POSITIVE(Component.TRACK, true),
+    TRACK_LENGTH_TOO_SHORT(Component.TRACK, true),
+    TRACK_LENGTH_TOO_LONG(Component.TRACK, true),
+    CORNERS_TOO_FEW(Component.TRACK, true),
+    CORNERS_TOO_MANY(Component.TRACK, true),
+    DIFFICULTY_MISSING(Component.TRACK, true),
+    DIFFICULTY_INVALID(Component.TRACK, true),
+    TRACK_NAME_MISSING(Component.TRACK, false),
+    CORNER_DENSITY_HIGH(Component.TRACK, false),
+    CORNER_DENSITY_LOW(Component.TRACK, false),
+
+    // Strategy
+    STRATEGY_NULL(Component.STRATEGY, true),
+    STRATEGY_TRACK_NULL(Component.STRATEGY, true),
+    PIT_STOPS_TOO_FEW(Component.STRATEGY, true),
+    PIT_STOPS_TOO_MANY(Component.STRATEGY, true),
+    FUEL_STRATEGY_MISSING(Component.STRATEGY, true),
+    FUEL_STRATEGY_INVALID(Component.STRATEGY, true),
+    LIGHT_FUEL_WITHOUT_STOPS(Component.STRATEGY, true),
+    LONG_TRACK_WITHOUT_STOPS(Component.STRATEGY, false),
+    SHORT_TRACK_MANY_STOPS(Component.STRATEGY, false),
+    HEAVY_FUEL_MANY_STOPS(Component.STRATEGY, false),
+    HARD_TRACK_WITHOUT_STOPS(Component.STRATEGY, false),
+    TYRE_STRATEGY_MISSING(Component.STRATEGY, false),
+    ESTIMATED_TIME_NOT_POSITIVE(Component.STRATEGY, false),
+    ESTIMATED_TIME_SHORT(Component.STRATEGY, false),
+    ESTIMATED_TIME_LONG(Component.STRATEGY, false),
+
+    // Whole setup
+    LOW_POWER_ON_HARD_TRACK(Component.RACE_SETUP, false);
+
+    /**
+     * The part of a race setup a rule checks.
+     */
+    public enum Component {
+        CAR, TRACK, STRATEGY, RACE_SETUP
+    }
+
+    private static final ValidationRule[] RULES = values();
+
+    /** Bits of every rule that makes a setup invalid (as opposed to a warning). */
+    public static final long ERRORS = maskOf(null, true);
+    /** Bits of every warning rule. */
+    public static final long WARNINGS = maskOf(null, false);
+    public static final long CAR_RULES = maskOf(Component.CAR, true) | maskOf(Component.CAR, false);
+    public static final long TRACK_RULES = maskOf(Component.TRACK, true) | maskOf(Component.TRACK, false);
+    public static final long STRATEGY_RULES = maskOf(Component.STRATEGY, true) | maskOf(Component.STRATEGY, false);
+
+    private final Component component;
+    private final boolean error;
+    private final long bit;
+
+    ValidationRule(Component component, boolean error) {
+        this.component = component;
+        this.error = error;
+        this.bit = 1L << ordinal();
+    }
+
+    private static long maskOf(Component component, boolean error) {
+        long mask = 0;
+        for (ValidationRule rule : values()) {
+            if (rule.error == error && (component == null || rule.component == component)) {
+                mask |= rule.bit;
+            }
+        }
+        return mask;
+    }
+
+    public Component getComponent() {
+        return component;
+    }
+
+    /**
+     * Returns true if a violation makes the setup invalid, false if it is only a warning.
+     */
+    public boolean isError() {
+        return error;
+    }
+
+    public long bit() {
+        return bit;
+    }
+
+    public boolean isSetIn(long violations) {
+        return (violations & bit) != 0;
+    }
+
+    public static boolean hasErrors(long violations) {
+        return (violations & ERRORS) != 0;
+    }
+
+    public static EnumSet<ValidationRule> rulesIn(long violations) {
+        EnumSet<ValidationRule> rules = EnumSet.noneOf(ValidationRule.class);
+        for (ValidationRule rule : RULES) {
+            if (rule.isSetIn(violations)) {
+                rules.add(rule);
+            }
+        }
+        return rules;
+    }
+
+    /**
+     * Formats the message of every rule in {@code violations}, in declaration order.
+     * The inputs are the ones that were screened; any of them may be null if the
+     * corresponding rules are not in the mask.
+     */
+    public static List<String> describe(long violations, Car car, Track track, RaceStrategy strategy) {
+        List<String> messages = new ArrayList<>(Long.bitCount(violations));
+        for (ValidationRule rule : RULES) {
+            if (rule.isSetIn(violations)) {
+                messages.add(rule.message(car, track, strategy));
+            }
+        }
+        return messages;
+    }
+
+    /**
+     * Formats this rule's message for the given inputs.
+     */
+    public String message(Car car, Track track, RaceStrategy strategy) {
+        switch (this) {
+            case CAR_NULL:
+                return "Car cannot be null";
+            case ENGINE_MISSING:
+                return "Engine is not assigned";
+            case FRONT_TYRES_MISSING:
+                return "Front tyres are not assigned";
+            case REAR_TYRES_MISSING:
+                return "Rear tyres are not assigned";
+            case AEROKIT_MISSING:
+                return "AeroKit is not assigned";
+            case CAR_WEIGHT_NOT_POSITIVE:
+                return "Car weight must be positive";
+            case CAR_WEIGHT_TOO_LOW:
+                return String.format("Car weight (%.1f kg) is below minimum (%.1f kg)",
+                        car.getWeight(), Validator.MIN_CAR_WEIGHT);
+            case CAR_WEIGHT_TOO_HIGH:
+                return String.format("Car weight (%.1f kg) exceeds maximum (%.1f kg)",
+                        car.getWeight(), Validator.MAX_CAR_WEIGHT);
+            case ENGINE_POWER_TOO_LOW:
+                return String.format("Engine power (%d HP) is below minimum (%d HP)",
+                        car.getEngine().getPower(), Validator.MIN_ENGINE_POWER);
+            case ENGINE_POWER_TOO_HIGH:
+                return String.format("Engine power (%d HP) exceeds maximum (%d HP)",
+                        car.getEngine().getPower(), Validator.MAX_ENGINE_POWER);
+            case ENGINE_WEIGHT_NOT_POSITIVE:
+                return "Engine weight must be positive";
+            case CAR_NAME_MISSING:
+                return "Car name is empty or null";
+            case TOTAL_WEIGHT_HIGH:
+                return String.format("Total weight (%.1f kg) seems very high", car.getTotalWeight());
+
+            case TRACK_NULL:
+                return "Track cannot be null";
+            case TRACK_LENGTH_NOT_POSITIVE:
+                return "Track length must be positive";
+            case TRACK_LENGTH_TOO_SHORT:
+                return String.format("Track length (%.1f km) is below minimum (%.1f km)",
+                        track.getLength(), Validator.MIN_TRACK_LENGTH);
+            case TRACK_LENGTH_TOO_LONG:
+                return String.format("Track length (%.1f km) exceeds maximum (%.1f km)",
+                        track.getLength(), Validator.MAX_TRACK_LENGTH);
+            case CORNERS_TOO_FEW:
+                return String.format("Corner count (%d) is below minimum (%d)",
+                        track.getCorners(), Validator.MIN_CORNER_COUNT);
+            case CORNERS_TOO_MANY:
+                return String.format("Corner count (%d) exceeds maximum (%d)",
+                        track.getCorners(), Validator.MAX_CORNER_COUNT);
+            case DIFFICULTY_MISSING:
+                return "Track difficulty cannot be null or empty";
+            case DIFFICULTY_INVALID:
+                return String.format("Invalid difficulty '%s'. Valid values: %s",
+                        track.getDifficulty(), Validator.VALID_DIFFICULTIES);
+            case TRACK_NAME_MISSING:
+                return "Track name is empty or null";
+            case CORNER_DENSITY_HIGH:
+                return String.format("Very high corner density (%.1f corners/km)",
+                        track.getCorners() / track.getLength());
+            case CORNER_DENSITY_LOW:
+                return String.format("Very low corner density (%.1f corners/km)",
+                        track.getCorners() / track.getLength());
+
+            case STRATEGY_NULL:
+                return "Race strategy cannot be null";
+            case STRATEGY_TRACK_NULL:
+                return "Track cannot be null for strategy validation";
+            case PIT_STOPS_TOO_FEW:
+                return String.format("Pit stop count (%d) is below minimum (%d)",
+                        strategy.getNumberOfPitStops(), Validator.MIN_PIT_STOPS);
+            case PIT_STOPS_TOO_MANY:
+                return String.format("Pit stop count (%d) exceeds maximum (%d)",
+                        strategy.getNumberOfPitStops(), Validator.MAX_PIT_STOPS);
+            case FUEL_STRATEGY_MISSING:
+                return "Fuel strategy cannot be null or empty";
+            case FUEL_STRATEGY_INVALID:
+                return String.format("Invalid fuel strategy '%s'. Valid values: %s",
+                        strategy.getFuelStrategy(), Validator.VALID_FUEL_STRATEGIES);
+            case LIGHT_FUEL_WITHOUT_STOPS:
+                return "Light fuel strategy with 0 pit stops is not feasible";
+            case LONG_TRACK_WITHOUT_STOPS:
+                return "Long track with no pit stops may be risky for fuel consumption";
+            case SHORT_TRACK_MANY_STOPS:
+                return "Short track with many pit stops may not be optimal";
+            case HEAVY_FUEL_MANY_STOPS:
+                return "Heavy fuel strategy with many pit stops may not be optimal";
+            case HARD_TRACK_WITHOUT_STOPS:
+                return "Hard track with no pit stops may be very challenging";
+            case TYRE_STRATEGY_MISSING:
+                return "Tyre strategy is not specified";
+            case ESTIMATED_TIME_NOT_POSITIVE:
+                return "Estimated race time should be positive";
+            case ESTIMATED_TIME_SHORT:
+                return "Estimated race time seems very short";
+            case ESTIMATED_TIME_LONG:
+                return "Estimated race time seems very long";
+
+            case LOW_POWER_ON_HARD_TRACK:
+                return "Low power engine on hard track may struggle";
+            default:
+                throw new AssertionError(this);
+        }
+    }
+}
@@ -1,9 +1,13 @@
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Arrays;
+import java.util.List;
 
 /**
  * Comprehensive validation class for race components.
+ *
+ * Every check is a {@link ValidationRule}. The {@code screen*} methods report violations
+ * as a bitmask without formatting messages or throwing, for callers that reject most of
+ * what they test. The {@code validate*} methods are built on them and keep the original
+ * behaviour: a {@link ValidationResult} with warnings, or an exception listing every error.
  */
 public class Validator {
 
@@ -32,80 +36,99 @@ public class Validator {
      * @throws InvalidCarConfigurationException if car configuration is invalid
      */
     public static ValidationResult validateCar(Car car) throws InvalidCarConfigurationException {
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
+        ValidationEvent event = ValidationEvent.start("Car");
+        EngineMetrics.VALIDATIONS.increment();
+        try {
+            return checkCar(car);
+        } catch (InvalidCarConfigurationException e) {
+            event.setFailure(e);
+            EngineMetrics.recordValidationFailure(e);
+            throw e;
+        } finally {
+            event.finish();
+        }
+    }
 
+    // Car rules; throws with every error found
+    private static ValidationResult checkCar(Car car) throws InvalidCarConfigurationException {
+        long violations = screenCar(car);
+        if (ValidationRule.hasErrors(violations)) {
+            throw carException(violations, car);
+        }
+        return new ValidationResult(true, "Car validation passed",
+                ValidationRule.describe(violations, car, null, null));
+    }
+
+    /**
+     * Checks a car without building messages or throwing.
+     *
+     * @return the bits of every violated car rule, 0 if there are none
+     * @see ValidationRule
+     */
+    public static long screenCar(Car car) {
         if (car == null) {
-            throw new InvalidCarConfigurationException("Car cannot be null");
+            return ValidationRule.CAR_NULL.bit();
         }
+        long violations = 0;
+        Engine engine = car.getEngine();
 
         // Check if all components are assigned
-        if (car.getEngine() == null) {
-            errors.add("Engine is not assigned");
+        if (engine == null) {
+            violations |= ValidationRule.ENGINE_MISSING.bit();
         }
-
         if (car.getFrontTyres() == null) {
-            errors.add("Front tyres are not assigned");
+            violations |= ValidationRule.FRONT_TYRES_MISSING.bit();
         }
-
         if (car.getRearTyres() == null) {
-            errors.add("Rear tyres are not assigned");
+            violations |= ValidationRule.REAR_TYRES_MISSING.bit();
         }
-
         if (car.getAeroKit() == null) {
-            errors.add("AeroKit is not assigned");
+            violations |= ValidationRule.AEROKIT_MISSING.bit();
         }
 
         // Validate weight
         double weight = car.getWeight();
         if (weight <= 0) {
-            errors.add("Car weight must be positive");
+            violations |= ValidationRule.CAR_WEIGHT_NOT_POSITIVE.bit();
         } else if (weight < MIN_CAR_WEIGHT) {
-            errors.add(String.format("Car weight (%.1f kg) is below minimum (%.1f kg)",
-                    weight, MIN_CAR_WEIGHT));
+            violations |= ValidationRule.CAR_WEIGHT_TOO_LOW.bit();
         } else if (weight > MAX_CAR_WEIGHT) {
-            errors.add(String.format("Car weight (%.1f kg) exceeds maximum (%.1f kg)",
-                    weight, MAX_CAR_WEIGHT));
+            violations |= ValidationRule.CAR_WEIGHT_TOO_HIGH.bit();
         }
 
         // Validate engine power if engine is present
-        if (car.getEngine() != null) {
-            int power = car.getEngine().getPower();
+        if (engine != null) {
+            int power = engine.getPower();
             if (power < MIN_ENGINE_POWER) {
-                errors.add(String.format("Engine power (%d HP) is below minimum (%d HP)",
-                        power, MIN_ENGINE_POWER));
+                violations |= ValidationRule.ENGINE_POWER_TOO_LOW.bit();
             } else if (power > MAX_ENGINE_POWER) {
-                errors.add(String.format("Engine power (%d HP) exceeds maximum (%d HP)",
-                        power, MAX_ENGINE_POWER));
+                violations |= ValidationRule.ENGINE_POWER_TOO_HIGH.bit();
             }
-
-            // Check engine weight
-            if (car.getEngine().getWeight() <= 0) {
-                errors.add("Engine weight must be positive");
+            if (engine.getWeight() <= 0) {
+                violations |= ValidationRule.ENGINE_WEIGHT_NOT_POSITIVE.bit();
+            }
+            // Check total weight reasonableness
+            if (car.getTotalWeight() > MAX_CAR_WEIGHT + 200) {
+                violations |= ValidationRule.TOTAL_WEIGHT_HIGH.bit();
             }
         }
 
         // Check car name
-        if (car.getName() == null || car.getName().trim().isEmpty()) {
-            warnings.add("Car name is empty or null");
-        }
-
-        // Check total weight reasonableness
-        if (car.getEngine() != null) {
-            double totalWeight = car.getTotalWeight();
-            if (totalWeight > MAX_CAR_WEIGHT + 200) {
-                warnings.add(String.format("Total weight (%.1f kg) seems very high", totalWeight));
-            }
+        if (isBlank(car.getName())) {
+            violations |= ValidationRule.CAR_NAME_MISSING.bit();
         }
+        return violations;
+    }
 
-        // Throw exception if there are errors
-        if (!errors.isEmpty()) {
-            String errorMessage = "Car validation failed: " + String.join(", ", errors);
-            throw new InvalidCarConfigurationException(errorMessage, "Multiple Components",
-                    MIN_CAR_WEIGHT + "-" + MAX_CAR_WEIGHT + " kg");
+    private static InvalidCarConfigurationException carException(long violations, Car car) {
+        if (ValidationRule.CAR_NULL.isSetIn(violations)) {
+            return new InvalidCarConfigurationException(ValidationRule.CAR_NULL.message(car, null, null));
         }
-
-        return new ValidationResult(true, "Car validation passed", warnings);
+        List<String> errors = ValidationRule.describe(violations & ValidationRule.ERRORS & ValidationRule.CAR_RULES,
+                car, null, null);
+        String errorMessage = "Car validation failed: " + String.join(", ", errors);
+        return new InvalidCarConfigurationException(errorMessage, "Multiple Components",
+                MIN_CAR_WEIGHT + "-" + MAX_CAR_WEIGHT + " kg");
     }
 
     /**
@@ -116,70 +139,96 @@ public class Validator {
      * @throws InvalidTrackDataException if track data is invalid
      */
     public static ValidationResult validateTrack(Track track) throws InvalidTrackDataException {
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
+        ValidationEvent event = ValidationEvent.start("Track");
+        EngineMetrics.VALIDATIONS.increment();
+        try {
+            return checkTrack(track);
+        } catch (InvalidTrackDataException e) {
+            event.setFailure(e);
+            EngineMetrics.recordValidationFailure(e);
+            throw e;
+        } finally {
+            event.finish();
+        }
+    }
 
+    // Track rules; throws with every error found
+    private static ValidationResult checkTrack(Track track) throws InvalidTrackDataException {
+        long violations = screenTrack(track);
+        if (ValidationRule.hasErrors(violations)) {
+            throw trackException(violations, track);
+        }
+        return new ValidationResult(true, "Track validation passed",
+                ValidationRule.describe(violations, null, track, null));
+    }
+
+    /**
+     * Checks a track without building messages or throwing.
+     *
+     * @return the bits of every violated track rule, 0 if there are none
+     * @see ValidationRule
+     */
+    public static long screenTrack(Track track) {
         if (track == null) {
-            throw new InvalidTrackDataException("Track cannot be null");
+            return ValidationRule.TRACK_NULL.bit();
         }
+        long violations = 0;
 
         // Validate track length
         double length = track.getLength();
         if (length <= 0) {
-            errors.add("Track length must be positive");
+            violations |= ValidationRule.TRACK_LENGTH_NOT_POSITIVE.bit();
         } else if (length < MIN_TRACK_LENGTH) {
-            errors.add(String.format("Track length (%.1f km) is below minimum (%.1f km)",
-                    length, MIN_TRACK_LENGTH));
+            violations |= ValidationRule.TRACK_LENGTH_TOO_SHORT.bit();
         } else if (length > MAX_TRACK_LENGTH) {
-            errors.add(String.format("Track length (%.1f km) exceeds maximum (%.1f km)",
-                    length, MAX_TRACK_LENGTH));
+            violations |= ValidationRule.TRACK_LENGTH_TOO_LONG.bit();
         }
 
         // Validate corner count
         int corners = track.getCorners();
         if (corners < MIN_CORNER_COUNT) {
-            errors.add(String.format("Corner count (%d) is below minimum (%d)",
-                    corners, MIN_CORNER_COUNT));
+            violations |= ValidationRule.CORNERS_TOO_FEW.bit();
         } else if (corners > MAX_CORNER_COUNT) {
-            errors.add(String.format("Corner count (%d) exceeds maximum (%d)",
-                    corners, MAX_CORNER_COUNT));
+            violations |= ValidationRule.CORNERS_TOO_MANY.bit();
         }
 
         // Validate difficulty
         String difficulty = track.getDifficulty();
-        if (difficulty == null || difficulty.trim().isEmpty()) {
-            errors.add("Track difficulty cannot be null or empty");
+        if (isBlank(difficulty)) {
+            violations |= ValidationRule.DIFFICULTY_MISSING.bit();
         } else if (!VALID_DIFFICULTIES.contains(difficulty)) {
-            errors.add(String.format("Invalid difficulty '%s'. Valid values: %s",
-                    difficulty, VALID_DIFFICULTIES));
+            violations |= ValidationRule.DIFFICULTY_INVALID.bit();
         }
 
         // Check track name
-        if (track.getName() == null || track.getName().trim().isEmpty()) {
-            warnings.add("Track name is empty or null");
+        if (isBlank(track.getName())) {
+            violations |= ValidationRule.TRACK_NAME_MISSING.bit();
         }
 
         // Check reasonable corner density
         if (length > 0 && corners > 0) {
             double cornerDensity = corners / length;
             if (cornerDensity > 8) {
-                warnings.add(String.format("Very high corner density (%.1f corners/km)", cornerDensity));
+                violations |= ValidationRule.CORNER_DENSITY_HIGH.bit();
             } else if (cornerDensity < 1) {
-                warnings.add(String.format("Very low corner density (%.1f corners/km)", cornerDensity));
+                violations |= ValidationRule.CORNER_DENSITY_LOW.bit();
             }
         }
+        return violations;
+    }
 
-        // Throw exception if there are errors
-        if (!errors.isEmpty()) {
-            String errorMessage = "Track validation failed: " + String.join(", ", errors);
-            String validRanges = String.format("Length: %.1f-%.1f km, Corners: %d-%d, Difficulty: %s",
-                    MIN_TRACK_LENGTH, MAX_TRACK_LENGTH,
-                    MIN_CORNER_COUNT, MAX_CORNER_COUNT,
-                    VALID_DIFFICULTIES);
-            throw new InvalidTrackDataException(errorMessage, "Track Properties", null, validRanges);
-        }
-
-        return new ValidationResult(true, "Track validation passed", warnings);
+    private static InvalidTrackDataException trackException(long violations, Track track) {
+        if (ValidationRule.TRACK_NULL.isSetIn(violations)) {
+            return new InvalidTrackDataException(ValidationRule.TRACK_NULL.message(null, track, null));
+        }
+        List<String> errors = ValidationRule.describe(violations & ValidationRule.ERRORS & ValidationRule.TRACK_RULES,
+                null, track, null);
+        String errorMessage = "Track validation failed: " + String.join(", ", errors);
+        String validRanges = String.format("Length: %.1f-%.1f km, Corners: %d-%d, Difficulty: %s",
+                MIN_TRACK_LENGTH, MAX_TRACK_LENGTH,
+                MIN_CORNER_COUNT, MAX_CORNER_COUNT,
+                VALID_DIFFICULTIES);
+        return new InvalidTrackDataException(errorMessage, "Track Properties", null, validRanges);
     }
 
     /**
@@ -192,86 +241,115 @@ public class Validator {
      */
     public static ValidationResult validateStrategy(RaceStrategy strategy, Track track)
             throws InvalidStrategyException {
-        List<String> errors = new ArrayList<>();
-        List<String> warnings = new ArrayList<>();
+        ValidationEvent event = ValidationEvent.start("Strategy");
+        EngineMetrics.VALIDATIONS.increment();
+        try {
+            return checkStrategy(strategy, track);
+        } catch (InvalidStrategyException e) {
+            event.setFailure(e);
+            EngineMetrics.recordValidationFailure(e);
+            throw e;
+        } finally {
+            event.finish();
+        }
+    }
 
-        if (strategy == null) {
-            throw new InvalidStrategyException("Race strategy cannot be null");
+    // Strategy rules; throws with every error found
+    private static ValidationResult checkStrategy(RaceStrategy strategy, Track track)
+            throws InvalidStrategyException {
+        long violations = screenStrategy(strategy, track);
+        if (ValidationRule.hasErrors(violations)) {
+            throw strategyException(violations, strategy, track);
         }
+        return new ValidationResult(true, "Strategy validation passed",
+                ValidationRule.describe(violations, null, track, strategy));
+    }
 
+    /**
+     * Checks a strategy against a track without building messages or throwing.
+     * Only strategy rules are reported; the track itself is checked by {@link #screenTrack}.
+     *
+     * @return the bits of every violated strategy rule, 0 if there are none
+     * @see ValidationRule
+     */
+    public static long screenStrategy(RaceStrategy strategy, Track track) {
+        if (strategy == null) {
+            return ValidationRule.STRATEGY_NULL.bit();
+        }
         if (track == null) {
-            throw new InvalidStrategyException("Track cannot be null for strategy validation");
+            return ValidationRule.STRATEGY_TRACK_NULL.bit();
         }
+        long violations = 0;
 
         // Validate pit stop count
         int pitStops = strategy.getNumberOfPitStops();
         if (pitStops < MIN_PIT_STOPS) {
-            errors.add(String.format("Pit stop count (%d) is below minimum (%d)",
-                    pitStops, MIN_PIT_STOPS));
+            violations |= ValidationRule.PIT_STOPS_TOO_FEW.bit();
         } else if (pitStops > MAX_PIT_STOPS) {
-            errors.add(String.format("Pit stop count (%d) exceeds maximum (%d)",
-                    pitStops, MAX_PIT_STOPS));
+            violations |= ValidationRule.PIT_STOPS_TOO_MANY.bit();
         }
 
         // Validate fuel strategy
         String fuelStrategy = strategy.getFuelStrategy();
-        if (fuelStrategy == null || fuelStrategy.trim().isEmpty()) {
-            errors.add("Fuel strategy cannot be null or empty");
+        if (isBlank(fuelStrategy)) {
+            violations |= ValidationRule.FUEL_STRATEGY_MISSING.bit();
         } else if (!VALID_FUEL_STRATEGIES.contains(fuelStrategy)) {
-            errors.add(String.format("Invalid fuel strategy '%s'. Valid values: %s",
-                    fuelStrategy, VALID_FUEL_STRATEGIES));
+            violations |= ValidationRule.FUEL_STRATEGY_INVALID.bit();
         }
 
         // Check strategy compatibility with track length
         double trackLength = track.getLength();
         if (trackLength > 6.0 && pitStops == 0) {
-            warnings.add("Long track with no pit stops may be risky for fuel consumption");
+            violations |= ValidationRule.LONG_TRACK_WITHOUT_STOPS.bit();
         }
-
         if (trackLength < 3.0 && pitStops > 2) {
-            warnings.add("Short track with many pit stops may not be optimal");
+            violations |= ValidationRule.SHORT_TRACK_MANY_STOPS.bit();
         }
 
         // Check fuel strategy vs pit stop compatibility
         if (pitStops == 0 && "Light".equals(fuelStrategy)) {
-            errors.add("Light fuel strategy with 0 pit stops is not feasible");
+            violations |= ValidationRule.LIGHT_FUEL_WITHOUT_STOPS.bit();
         }
-
         if (pitStops >= 3 && "Heavy".equals(fuelStrategy)) {
-            warnings.add("Heavy fuel strategy with many pit stops may not be optimal");
+            violations |= ValidationRule.HEAVY_FUEL_MANY_STOPS.bit();
         }
 
         // Check track difficulty vs strategy
-        String difficulty = track.getDifficulty();
-        if ("Hard".equals(difficulty) && pitStops == 0) {
-            warnings.add("Hard track with no pit stops may be very challenging");
+        if ("Hard".equals(track.getDifficulty()) && pitStops == 0) {
+            violations |= ValidationRule.HARD_TRACK_WITHOUT_STOPS.bit();
         }
 
         // Check tyre strategy validity
-        String tyreStrategy = strategy.getTyreStrategy();
-        if (tyreStrategy == null || tyreStrategy.trim().isEmpty()) {
-            warnings.add("Tyre strategy is not specified");
+        if (isBlank(strategy.getTyreStrategy())) {
+            violations |= ValidationRule.TYRE_STRATEGY_MISSING.bit();
         }
 
         // Validate estimated race time
         double estimatedTime = strategy.getEstimatedRaceTime();
         if (estimatedTime <= 0) {
-            warnings.add("Estimated race time should be positive");
+            violations |= ValidationRule.ESTIMATED_TIME_NOT_POSITIVE.bit();
         } else if (estimatedTime < 30) {
-            warnings.add("Estimated race time seems very short");
+            violations |= ValidationRule.ESTIMATED_TIME_SHORT.bit();
         } else if (estimatedTime > 180) {
-            warnings.add("Estimated race time seems very long");
+            violations |= ValidationRule.ESTIMATED_TIME_LONG.bit();
         }
+        return violations;
+    }
 
-        // Throw exception if there are errors
-        if (!errors.isEmpty()) {
-            String errorMessage = "Strategy validation failed: " + String.join(", ", errors);
-            String recommendedAction = generateStrategyRecommendation(track, pitStops, fuelStrategy);
-            throw new InvalidStrategyException(errorMessage, fuelStrategy,
-                    "Incompatible with track requirements", recommendedAction);
+    private static InvalidStrategyException strategyException(long violations, RaceStrategy strategy, Track track) {
+        if (ValidationRule.STRATEGY_NULL.isSetIn(violations)) {
+            return new InvalidStrategyException(ValidationRule.STRATEGY_NULL.message(null, track, strategy));
         }
-
-        return new ValidationResult(true, "Strategy validation passed", warnings);
+        if (ValidationRule.STRATEGY_TRACK_NULL.isSetIn(violations)) {
+            return new InvalidStrategyException(ValidationRule.STRATEGY_TRACK_NULL.message(null, track, strategy));
+        }
+        List<String> errors = ValidationRule.describe(violations & ValidationRule.ERRORS & ValidationRule.STRATEGY_RULES,
+                null, track, strategy);
+        String errorMessage = "Strategy validation failed: " + String.join(", ", errors);
+        String recommendedAction = generateStrategyRecommendation(track, strategy.getNumberOfPitStops(),
+                strategy.getFuelStrategy());
+        return new InvalidStrategyException(errorMessage, strategy.getFuelStrategy(),
+                "Incompatible with track requirements", recommendedAction);
     }
 
     /**
@@ -302,27 +380,76 @@ public class Validator {
      */
     public static ValidationResult validateRaceSetup(Car car, Track track, RaceStrategy strategy)
             throws InvalidCarConfigurationException, InvalidTrackDataException, InvalidStrategyException {
+        ValidationEvent event = ValidationEvent.start("Race Setup");
+        EngineMetrics.VALIDATIONS.increment();
+        try {
+            return checkRaceSetup(car, track, strategy);
+        } catch (InvalidCarConfigurationException | InvalidTrackDataException | InvalidStrategyException e) {
+            event.setFailure(e);
+            EngineMetrics.recordValidationFailure(e);
+            throw e;
+        } finally {
+            event.finish();
+        }
+    }
 
-        List<String> allWarnings = new ArrayList<>();
-
-        // Validate each component
-        ValidationResult carResult = validateCar(car);
-        ValidationResult trackResult = validateTrack(track);
-        ValidationResult strategyResult = validateStrategy(strategy, track);
+    // Component checks plus cross-component warnings
+    private static ValidationResult checkRaceSetup(Car car, Track track, RaceStrategy strategy)
+            throws InvalidCarConfigurationException, InvalidTrackDataException, InvalidStrategyException {
+        long violations = screenRaceSetup(car, track, strategy);
+        throwIfInvalid(violations, car, track, strategy);
+        return new ValidationResult(true, "Complete race setup validation passed",
+                ValidationRule.describe(violations, car, track, strategy));
+    }
 
-        // Collect all warnings
-        allWarnings.addAll(carResult.getWarnings());
-        allWarnings.addAll(trackResult.getWarnings());
-        allWarnings.addAll(strategyResult.getWarnings());
+    /**
+     * Checks a complete race setup without building messages or throwing. This is the
+     * screening path for optimisers and bulk imports: it allocates nothing and records
+     * no events or metrics. Pass a non-zero result to {@link ValidationRule#describe} or
+     * {@link #throwIfInvalid} when the details are needed.
+     *
+     * @return the bits of every violated rule, 0 if there are none
+     */
+    public static long screenRaceSetup(Car car, Track track, RaceStrategy strategy) {
+        long violations = screenCar(car) | screenTrack(track) | screenStrategy(strategy, track);
 
         // Additional cross-component validations
-        if (car.getEngine() != null && track != null) {
-            int enginePower = car.getEngine().getPower();
-            if (enginePower < 150 && "Hard".equals(track.getDifficulty())) {
-                allWarnings.add("Low power engine on hard track may struggle");
+        if (car != null && car.getEngine() != null && track != null) {
+            if (car.getEngine().getPower() < 150 && "Hard".equals(track.getDifficulty())) {
+                violations |= ValidationRule.LOW_POWER_ON_HARD_TRACK.bit();
             }
         }
+        return violations;
+    }
+
+    /**
+     * Throws the exception {@link #validateRaceSetup} would throw for a screening result:
+     * car errors first, then track, then strategy. Does nothing if there are no errors.
+     */
+    public static void throwIfInvalid(long violations, Car car, Track track, RaceStrategy strategy)
+            throws InvalidCarConfigurationException, InvalidTrackDataException, InvalidStrategyException {
+        long errors = violations & ValidationRule.ERRORS;
+        if ((errors & ValidationRule.CAR_RULES) != 0) {
+            throw carException(violations, car);
+        }
+        if ((errors & ValidationRule.TRACK_RULES) != 0) {
+            throw trackException(violations, track);
+        }
+        if ((errors & ValidationRule.STRATEGY_RULES) != 0) {
+            throw strategyException(violations, strategy, track);
+        }
+    }
 
-        return new ValidationResult(true, "Complete race setup validation passed", allWarnings);
+    // Same test as trim().isEmpty() without creating the trimmed copy
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,151 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class AeroKitRecommenderTest {
+
+    @Test
+    public void testRanksEveryKitByExpectedTime() throws InterruptedException {
+        ComponentCatalog catalog = ComponentCatalog.standard();
+        Track monaco = Track.createMonacoTrack();
+        AeroKitRecommender recommender = new AeroKitRecommender(catalog);
+        recommender.setThreads(4);
+
+        List<AeroKitRecommender.Recommendation> ranking = recommender.recommend(monaco, Weather.createDryWeather());
+
+        assertEquals(catalog.size(ComponentCatalog.Type.AERO_KIT), ranking.size());
+        assertEquals(new HashSet<>(catalog.getAeroKits()),
+                new HashSet<>(ranking.stream().map(AeroKitRecommender.Recommendation::getAeroKit).toList()));
+        assertEquals(0.0, ranking.get(0).getDelta(), 0.0);
+        for (int i = 1; i < ranking.size(); i++) {
+            AeroKitRecommender.Recommendation previous = ranking.get(i - 1);
+            AeroKitRecommender.Recommendation current = ranking.get(i);
+            assertTrue(current.getExpectedRaceTime() >= previous.getExpectedRaceTime());
+            assertEquals(current.getExpectedRaceTime() - ranking.get(0).getExpectedRaceTime(), current.getDelta(), 1e-9);
+            if (current.getExpectedRaceTime() == previous.getExpectedRaceTime()) {
+                assertTrue(current.getAeroKit().getName().compareTo(previous.getAeroKit().getName()) > 0);
+            }
+        }
+
+        // The reported time is the one the simulator gives the winning pairing
+        AeroKitRecommender.Recommendation best = ranking.get(0);
+        Car car = new Car(1, "Check", 950.0, best.getEngine(), best.getTyre(), best.getTyre(), best.getAeroKit());
+        RaceSimulator simulator = new RaceSimulator(50);
+        simulator.setCatalog(catalog);
+        assertEquals(simulator.expectedRaceTime(car, monaco, RaceStrategy.createBalancedStrategy(),
+                Weather.createDryWeather()), best.getExpectedRaceTime(), 1e-9);
+    }
+
+    // Enough pairings for the recommender to go parallel
+    static ComponentCatalog largeCatalog() throws IOException {
+        StringBuilder lines = new StringBuilder();
+        for (int i = 0; i < 12; i++) {
+            lines.append("engine, Engine ").append(i).append(", ").append(160 + i * 25).append(", 9.0, ")
+                    .append(150 + i * 5).append('\n');
+        }
+        for (int i = 0; i < 10; i++) {
+            lines.append("tyre, Tyre ").append(i).append(", ").append(0.7 + i * 0.02).append(", ")
+                    .append(10 + i * 3).append(", 90, 0.08, ").append(-2.0 + i * 0.4).append('\n');
+        }
+        for (int i = 0; i < 40; i++) {
+            lines.append("aerokit, Kit ").append(i).append(", ").append(0.2 + i * 0.005).append(", ")
+                    .append(150 + i * 5).append(", ").append(200 + i).append('\n');
+        }
+        return ComponentCatalog.read(new BufferedReader(new StringReader(lines.toString())), "large",
+                ComponentCatalog.standard());
+    }
+
+    @Test
+    public void testParallelAndSequentialRankingsAgree() throws IOException, InterruptedException {
+        ComponentCatalog catalog = largeCatalog();
+        assertTrue((long) catalog.getAeroKits().size() * catalog.getEngines().size() * catalog.getTyres().size()
+                >= AeroKitRecommender.PARALLEL_THRESHOLD);
+        AeroKitRecommender sequential = new AeroKitRecommender(catalog);
+        sequential.setThreads(1);
+        AeroKitRecommender parallel = new AeroKitRecommender(catalog);
+        parallel.setThreads(3);
+        Track monza = Track.createMonzaTrack();
+
+        List<AeroKitRecommender.Recommendation> expected = sequential.recommend(monza, Weather.createWetWeather());
+        List<AeroKitRecommender.Recommendation> actual = parallel.recommend(monza, Weather.createWetWeather());
+
+        assertEquals(catalog.getAeroKits().size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSame(expected.get(i).getAeroKit(), actual.get(i).getAeroKit());
+            assertSame(expected.get(i).getEngine(), actual.get(i).getEngine());
+            assertEquals(expected.get(i).getDelta(), actual.get(i).getDelta(), 0.0);
+        }
+        for (int i = 1; i < actual.size(); i++) {
+            assertTrue(actual.get(i).getExpectedRaceTime() >= actual.get(i - 1).getExpectedRaceTime());
+        }
+    }
+
+    @Test
+    public void testKitsAreRankedForTheTrack() throws InterruptedException {
+        AeroKitRecommender recommender = new AeroKitRecommender(ComponentCatalog.standard());
+
+        // Monaco is all corners, Monza mostly straights
+        List<AeroKitRecommender.Recommendation> monaco =
+                recommender.recommend(Track.createMonacoTrack(), Weather.createDryWeather());
+        List<AeroKitRecommender.Recommendation> monza =
+                recommender.recommend(Track.createMonzaTrack(), Weather.createDryWeather());
+
+        assertEquals("Extreme Aero Kit", monaco.get(0).getAeroKit().getName());
+        assertEquals("Low Drag Kit", monaco.get(monaco.size() - 1).getAeroKit().getName());
+        assertEquals("Low Drag Kit", monza.get(0).getAeroKit().getName());
+        assertEquals("Extreme Aero Kit", monza.get(monza.size() - 1).getAeroKit().getName());
+        // Kits no longer tie: every kit after the first is measurably slower
+        for (int i = 1; i < monaco.size(); i++) {
+            assertTrue(monaco.get(i).getDelta() > 0);
+            assertTrue(monza.get(i).getDelta() > 0);
+        }
+    }
+
+    @Test
+    public void testWetRankingUsesWetGrip() throws InterruptedException {
+        AeroKitRecommender recommender = new AeroKitRecommender(ComponentCatalog.standard());
+        // The track's current weather stays dry; only the requested weather can lower grip
+        Track monza = Track.createMonzaTrack();
+
+        List<AeroKitRecommender.Recommendation> dry = recommender.recommend(monza, Weather.createDryWeather());
+        List<AeroKitRecommender.Recommendation> wet = recommender.recommend(monza, Weather.createWetWeather());
+
+        // Less tyre grip in the wet makes downforce worth more than low drag
+        assertEquals("Low Drag Kit", dry.get(0).getAeroKit().getName());
+        assertEquals("Ground Effect Kit", wet.get(0).getAeroKit().getName());
+    }
+
+    @Test
+    public void testSkipsPairingsThatFailValidation() throws IOException, InterruptedException {
+        // Over the power limit, so invalid, but it would be the fastest engine
+        ComponentCatalog catalog = ComponentCatalog.read(new BufferedReader(new StringReader(
+                "engine, Illegal, 2000, 9.0, 180.0\n")), "test", ComponentCatalog.standard());
+        AeroKitRecommender recommender = new AeroKitRecommender(catalog);
+
+        List<AeroKitRecommender.Recommendation> ranking =
+                recommender.recommend(Track.createSilverstoneTrack(), Weather.createDryWeather());
+        assertEquals(catalog.size(ComponentCatalog.Type.AERO_KIT), ranking.size());
+        assertTrue(ranking.stream().noneMatch(r -> r.getEngine().getType().equals("Illegal")));
+
+        // No pairing is valid for an overweight car, so no kit is ranked
+        recommender.setCarWeight(Validator.MAX_CAR_WEIGHT + 1);
+        assertEquals(List.of(), recommender.recommend(Track.createSilverstoneTrack(), Weather.createDryWeather()));
+    }
+
+    @Test
+    public void testRejectsInvalidSettings() {
+        AeroKitRecommender recommender = new AeroKitRecommender();
+        assertThrows(IllegalArgumentException.class, () -> new AeroKitRecommender(null));
+        assertThrows(IllegalArgumentException.class, () -> recommender.setThreads(0));
+        assertThrows(IllegalArgumentException.class, () -> recommender.setLaps(0));
+        assertThrows(IllegalArgumentException.class, () -> recommender.setCarWeight(-1));
+        assertThrows(IllegalArgumentException.class, () -> recommender.setStrategy(null));
+        assertThrows(IllegalArgumentException.class, () -> recommender.recommend(null, Weather.createDryWeather()));
+    }
+}
@@ -0,0 +1,112 @@
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Allocation budgets for the simulation hot path. Each race may allocate its result
+ * and a few per-race objects, but nothing may be allocated per lap: the extra bytes
+ * of a long race over a short one must stay close to zero.
+ */
+public class AllocationBudgetTest {
+    private static final int WARMUP_RACES = 20_000;
+    private static final int MEASURED_RACES = 2_000;
+
+    // RaceResult, its timestamp, the stint arrays and the parsed tyre compounds
+    private static final double BYTES_PER_RACE_BUDGET = 1_024;
+    // Well under one object per lap, so any new per-lap allocation fails the test
+    private static final double BYTES_PER_LAP_BUDGET = 2;
+
+    private static final Car CAR = new Car(1, "Budget Car", 950.0,
+            Engine.createTurboEngine(),
+            Tyre.createMediumTyre(),
+            Tyre.createMediumTyre(),
+            AeroKit.createGroundEffectKit());
+    private static final Track TRACK = Track.createSilverstoneTrack();
+    private static final Weather WEATHER = Weather.createDryWeather();
+    private static final RaceStrategy STRATEGY = new RaceStrategy(2, "Soft-Medium-Hard", "Medium", 95.0);
+
+    @BeforeAll
+    static void warmUp() {
+        assumeTrue(AllocationMeter.isSupported(), "Thread allocation accounting not available");
+        RaceSimulator shortRace = new RaceSimulator(50);
+        RaceSimulator longRace = new RaceSimulator(250);
+        for (int i = 0; i < WARMUP_RACES; i++) {
+            shortRace.simulateRace(CAR, TRACK, STRATEGY, WEATHER);
+            longRace.simulateRace(CAR, TRACK, STRATEGY, WEATHER);
+        }
+    }
+
+    private static double bytesPerRace(RaceSimulator simulator) {
+        return AllocationMeter.bytesPerIteration(
+                () -> simulator.simulateRace(CAR, TRACK, STRATEGY, WEATHER), MEASURED_RACES);
+    }
+
+    @Test
+    public void testBytesPerRaceWithinBudget() {
+        double perRace = bytesPerRace(new RaceSimulator(50));
+        assertTrue(perRace <= BYTES_PER_RACE_BUDGET,
+                String.format("simulateRace allocated %.0f bytes per race, budget is %.0f", perRace, BYTES_PER_RACE_BUDGET));
+    }
+
+    @Test
+    public void testLapLoopDoesNotAllocate() {
+        double shortRace = bytesPerRace(new RaceSimulator(50));
+        double longRace = bytesPerRace(new RaceSimulator(250));
+        double perLap = (longRace - shortRace) / 200;
+        assertTrue(perLap <= BYTES_PER_LAP_BUDGET,
+                String.format("Lap loop allocated %.2f bytes per lap (%.0f vs %.0f bytes per race)",
+                        perLap, shortRace, longRace));
+    }
+
+    @Test
+    public void testScreeningDoesNotAllocate() {
+        Car invalidCar = new Car(2, " ", 300.0, null, null, Tyre.createSoftTyre(), null);
+        RaceStrategy invalidStrategy = new RaceStrategy(0, "", "Light", 10.0);
+        Runnable screen = () -> {
+            Validator.screenRaceSetup(CAR, TRACK, STRATEGY);
+            Validator.screenRaceSetup(invalidCar, TRACK, invalidStrategy);
+        };
+        AllocationMeter.bytesPerIteration(screen, WARMUP_RACES);
+        double perCall = AllocationMeter.bytesPerIteration(screen, 100_000);
+        assertTrue(perCall < 1, String.format("Screening allocated %.2f bytes per call", perCall));
+    }
+
+    @Test
+    public void testScenarioDecodingDoesNotAllocate(@TempDir Path dir) throws IOException {
+        Path file = dir.resolve("scenarios.bin");
+        ScenarioFile.Catalog catalog = new ScenarioFile.Catalog();
+        catalog.addCarName(CAR.getName());
+        catalog.addEngine(CAR.getEngine());
+        catalog.addTyre(CAR.getFrontTyres());
+        catalog.addAeroKit(CAR.getAeroKit());
+        catalog.addTrack(TRACK);
+        catalog.addWeather(WEATHER);
+        catalog.addStrategy(STRATEGY);
+        ScenarioFileTest.writeRecords(file, catalog, 1024);
+        try (ScenarioFile.Mapped mapped = ScenarioFile.map(file)) {
+            ScenarioFile.Scenario scenario = new ScenarioFile.Scenario();
+            long[] index = {0};
+            Runnable decode = () -> mapped.read(index[0]++ & 1023, scenario);
+            AllocationMeter.bytesPerIteration(decode, WARMUP_RACES);
+            double perRecord = AllocationMeter.bytesPerIteration(decode, 100_000);
+            assertTrue(perRecord < 1, String.format("Decoding allocated %.2f bytes per record", perRecord));
+        }
+    }
+
+    @Test
+    public void testMeterSeesAllocation() {
+        double perIteration = AllocationMeter.bytesPerIteration(() -> new long[128].clone(), 1_000);
+        assertTrue(perIteration >= 1024, "Expected at least the cloned array, got " + perIteration);
+    }
+
+    @Test
+    public void testRejectsNonPositiveIterations() {
+        assertThrows(IllegalArgumentException.class, () -> AllocationMeter.bytesPerIteration(() -> { }, 0));
+    }
+}
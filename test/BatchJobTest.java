@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchJobTest {
+
+    @Test
+    public void testParsesNamedComponents() {
+        BatchJob job = BatchJob.parse("Alpha, turbo, soft, Low Drag Kit, 950, Monza, aggressive, wet, 50, 100, 42", 7);
+
+        assertEquals(7, job.getLine());
+        assertEquals("Alpha", job.getCar().getName());
+        assertEquals(950, job.getCar().getWeight(), 1e-9);
+        assertEquals("Monza", job.getTrack().getName());
+        assertEquals(RaceStrategy.createAggressiveStrategy().getNumberOfPitStops(),
+                job.getStrategy().getNumberOfPitStops());
+        assertEquals("Wet", job.getWeather().getCondition());
+        assertEquals(50, job.getLaps());
+        assertEquals(100, job.getReplications());
+        assertEquals(42, job.getSeed());
+    }
+
+    @Test
+    public void testParsesCustomTrackAndStrategy() {
+        BatchJob job = BatchJob.parse("Beta,standard,hard,Standard Kit,1000,Oval:4.2:6:Easy,2:Soft-Medium-Hard:Light,"
+                + "dry,30,1,0", 1);
+
+        assertEquals("Oval", job.getTrack().getName());
+        assertEquals(4.2, job.getTrack().getLength(), 1e-9);
+        assertEquals(6, job.getTrack().getCorners());
+        assertEquals(2, job.getStrategy().getNumberOfPitStops());
+        assertEquals("Light", job.getStrategy().getFuelStrategy());
+    }
+
+    @Test
+    public void testRejectsMalformedLines() {
+        assertThrows(IllegalArgumentException.class, () -> BatchJob.parse("Alpha,turbo,soft", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchJob.parse("Alpha,diesel,soft,Standard Kit,950,Monza,balanced,dry,50,1,1", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchJob.parse("Alpha,turbo,soft,No Such Kit,950,Monza,balanced,dry,50,1,1", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchJob.parse("Alpha,turbo,soft,Standard Kit,heavy,Monza,balanced,dry,50,1,1", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchJob.parse("Alpha,turbo,soft,Standard Kit,950,Monza,balanced,dry,0,1,1", 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> BatchJob.parse("Alpha,turbo,soft,Standard Kit,950,Monza,balanced,dry,50,1,1.5", 1));
+    }
+}
@@ -0,0 +1,299 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BatchRunnerTest {
+    private static final String VALID_JOB = "Alpha,turbo,soft,Low Drag Kit,950,Monza,balanced,dry,20,5,42";
+    // A 2000 kg car fails validation
+    private static final String INVALID_JOB = "Heavy,standard,hard,Standard Kit,2000,Monaco,balanced,dry,20,5,1";
+
+    @TempDir
+    Path dir;
+
+    private Path jobs(String... lines) throws IOException {
+        Path file = dir.resolve("jobs.csv");
+        Files.write(file, List.of(lines), StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static BatchRunner quietRunner(int threads) {
+        BatchRunner runner = new BatchRunner();
+        runner.setThreads(threads);
+        runner.setProgressOutput(null);
+        return runner;
+    }
+
+    @Test
+    public void testWritesCsvRowPerReplication() throws IOException {
+        Path output = dir.resolve("out.csv");
+
+        BatchRunner.Summary summary = quietRunner(2).run(
+                jobs("# comment", "", VALID_JOB, "Beta,standard,medium,Standard Kit,1000,monaco,conservative,wet,10,3,7"),
+                output);
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals("job,replication,seed,car,track,strategy,weather,laps,race_time,average_lap_time,pit_stops",
+                lines.get(0));
+        assertEquals(9, lines.size());
+        assertEquals(2, summary.getJobCount());
+        assertEquals(0, summary.getSkippedJobCount());
+        assertEquals(8, summary.getScenarioCount());
+        assertEquals(8, summary.getStatistics().getCount());
+        assertTrue(lines.stream().anyMatch(l -> l.startsWith("4,2,9,Beta,Monaco,")));
+    }
+
+    @Test
+    public void testSeededRunsAreReproducible() throws IOException {
+        Path jobFile = jobs(VALID_JOB);
+        Path first = dir.resolve("first.csv");
+        Path second = dir.resolve("second.csv");
+
+        quietRunner(1).run(jobFile, first);
+        quietRunner(4).run(jobFile, second);
+
+        List<String> a = new ArrayList<>(Files.readAllLines(first));
+        List<String> b = new ArrayList<>(Files.readAllLines(second));
+        // Rows arrive in completion order, so compare them sorted
+        Collections.sort(a);
+        Collections.sort(b);
+        assertEquals(a, b);
+        // Different seeds give different race times
+        assertEquals(5, a.stream().skip(1).map(l -> l.split(",")[8]).distinct().count());
+    }
+
+    @Test
+    public void testReplicationMatchesSeededSimulator() throws IOException {
+        Path output = dir.resolve("out.csv");
+        quietRunner(1).run(jobs(VALID_JOB), output);
+
+        BatchJob job = BatchJob.parse(VALID_JOB, 1);
+        RaceResult expected = new RaceSimulator(job.getLaps(), job.getSeed() + 3)
+                .simulateRace(job.getCar(), job.getTrack(), job.getStrategy(), job.getWeather());
+        String row = Files.readAllLines(output).stream().filter(l -> l.startsWith("1,3,45,")).findFirst().orElseThrow();
+        assertEquals(expected.getRaceTime(), Double.parseDouble(row.split(",")[8]), 0.0);
+    }
+
+    @Test
+    public void testSkipsInvalidJobs() throws IOException {
+        ByteArrayOutputStream progress = new ByteArrayOutputStream();
+        BatchRunner runner = quietRunner(2);
+        runner.setProgressOutput(new PrintStream(progress, true, StandardCharsets.UTF_8));
+        Path output = dir.resolve("out.csv");
+
+        BatchRunner.Summary summary = runner.run(jobs(INVALID_JOB, VALID_JOB), output);
+
+        assertEquals(2, summary.getJobCount());
+        assertEquals(1, summary.getSkippedJobCount());
+        assertEquals(5, summary.getScenarioCount());
+        assertTrue(progress.toString(StandardCharsets.UTF_8).contains("Skipping job on line 1"));
+    }
+
+    @Test
+    public void testGaugesLastForTheRun() throws IOException {
+        // The skipped job is reported from the reading thread, with the batch running
+        List<MetricsSnapshot> during = new ArrayList<>();
+        PrintStream progress = new PrintStream(new ByteArrayOutputStream(), true, StandardCharsets.UTF_8) {
+            @Override
+            public void println(String line) {
+                during.add(MetricsRegistry.getDefault().snapshot());
+            }
+        };
+        BatchRunner runner = quietRunner(2);
+        runner.setProgressOutput(progress);
+        runner.setProgressInterval(Duration.ofHours(1));
+
+        runner.run(jobs(VALID_JOB, INVALID_JOB), dir.resolve("out.csv"));
+
+        assertEquals(1, during.size());
+        // The valid job's car, track and strategy, plus the heavy car
+        assertEquals(4.0, during.get(0).getGauge(BatchRunner.VALIDATION_CACHE_GAUGE));
+        assertTrue(during.get(0).getGauge(BatchRunner.QUEUE_DEPTH_GAUGE) >= 0);
+        Set<String> after = MetricsRegistry.getDefault().snapshot().getNames();
+        assertFalse(after.contains(BatchRunner.VALIDATION_CACHE_GAUGE));
+        assertFalse(after.contains(BatchRunner.QUEUE_DEPTH_GAUGE));
+    }
+
+    @Test
+    public void testMalformedLineReportsPosition() throws IOException {
+        Path jobFile = jobs(VALID_JOB, "Alpha,turbo,soft");
+
+        IOException e = assertThrows(IOException.class, () -> quietRunner(1).run(jobFile, dir.resolve("out.csv")));
+        assertTrue(e.getMessage().contains(":2:"), e.getMessage());
+    }
+
+    @Test
+    public void testWritesJsonLines() throws IOException {
+        BatchRunner runner = quietRunner(2);
+        runner.setFormat(BatchRunner.Format.JSONL);
+        Path output = dir.resolve("out.jsonl");
+
+        runner.run(jobs(VALID_JOB), output);
+
+        List<String> lines = Files.readAllLines(output);
+        assertEquals(5, lines.size());
+        for (String line : lines) {
+            Object parsed = JsonParser.parse(line);
+            assertTrue(parsed instanceof java.util.Map, line);
+            assertEquals("Alpha", ((java.util.Map<?, ?>) parsed).get("car"));
+        }
+    }
+
+    @Test
+    public void testWritesBinaryResultFile() throws IOException {
+        BatchRunner runner = quietRunner(2);
+        runner.setFormat(BatchRunner.Format.BINARY);
+        Path output = dir.resolve("out.bin");
+
+        runner.run(jobs(VALID_JOB), output);
+
+        try (ResultFile.Reader reader = ResultFile.newReader(output)) {
+            RaceResult result;
+            while ((result = reader.next()) != null) {
+                assertEquals("Monza", result.getTrackName());
+            }
+            assertEquals(5, reader.getCount());
+        }
+    }
+
+    @Test
+    public void testBinaryOutputsOfSameJobsDiffToZero() throws IOException {
+        // Two jobs with the same labels; only the seed tells their races apart
+        Path jobFile = jobs(VALID_JOB, VALID_JOB.replace(",42", ",1000"));
+        Path first = dir.resolve("first.bin");
+        Path second = dir.resolve("second.bin");
+        BatchRunner serial = quietRunner(1);
+        serial.setFormat(BatchRunner.Format.BINARY);
+        serial.run(jobFile, first);
+        BatchRunner parallel = quietRunner(4);
+        parallel.setFormat(BatchRunner.Format.BINARY);
+        parallel.run(jobFile, second);
+
+        ResultDiff.Report report = new ResultDiff().diffUnsorted(first, second, dir, 1024 * 1024);
+
+        assertEquals(10, report.getMatchedCount());
+        assertEquals(0, report.getBaselineOnlyCount());
+        assertEquals(0, report.getCandidateOnlyCount());
+        assertEquals(0.0, report.getDeltaStatistics().getMin());
+        assertEquals(0.0, report.getDeltaStatistics().getMax());
+    }
+
+    @Test
+    public void testStreamsLargeJobFile() throws IOException {
+        Path jobFile = dir.resolve("large.csv");
+        int jobCount = 100_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(jobFile)) {
+            for (int i = 0; i < jobCount; i++) {
+                writer.write("Car" + i + ",turbo,medium,Standard Kit,900,Silverstone,balanced,dry,1,1," + i);
+                writer.newLine();
+            }
+        }
+        Path output = dir.resolve("large.csv.out");
+
+        BatchRunner.Summary summary = quietRunner(2).run(jobFile, output);
+
+        assertEquals(jobCount, summary.getScenarioCount());
+        try (Stream<String> lines = Files.lines(output)) {
+            assertEquals(jobCount + 1, lines.count());
+        }
+    }
+
+    @Test
+    public void testRunsScenarioFileLikeEquivalentJobFile() throws IOException {
+        ScenarioFile.Catalog catalog = new ScenarioFile.Catalog();
+        int car = catalog.addCarName("Alpha");
+        int engine = catalog.addEngine(Engine.createTurboEngine());
+        int tyre = catalog.addTyre(Tyre.createSoftTyre());
+        int kit = catalog.addAeroKit(AeroKit.createLowDragKit());
+        int track = catalog.addTrack(Track.createMonzaTrack());
+        int weather = catalog.addWeather(Weather.createDryWeather());
+        int strategy = catalog.addStrategy(RaceStrategy.createBalancedStrategy());
+        Path scenarios = dir.resolve("jobs.bin");
+        try (ScenarioFile.Writer writer = ScenarioFile.newWriter(scenarios, catalog)) {
+            writer.write(car, engine, tyre, kit, 950, track, weather, strategy, 20, 5, 42);
+            // Too heavy, so skipped
+            writer.write(car, engine, tyre, kit, 2000, track, weather, strategy, 20, 5, 42);
+        }
+        Path binaryOutput = dir.resolve("binary.csv");
+        Path textOutput = dir.resolve("text.csv");
+
+        BatchRunner.Summary summary = quietRunner(2).run(scenarios, binaryOutput);
+        quietRunner(2).run(jobs(VALID_JOB), textOutput);
+
+        assertEquals(2, summary.getJobCount());
+        assertEquals(1, summary.getSkippedJobCount());
+        assertEquals(5, summary.getScenarioCount());
+        // Same races as the text job; only the job column (record index vs line) differs
+        List<String> fromBinary = new ArrayList<>();
+        List<String> fromText = new ArrayList<>();
+        Files.readAllLines(binaryOutput).stream().skip(1).forEach(l -> fromBinary.add(l.substring(l.indexOf(','))));
+        Files.readAllLines(textOutput).stream().skip(1).forEach(l -> fromText.add(l.substring(l.indexOf(','))));
+        Collections.sort(fromBinary);
+        Collections.sort(fromText);
+        assertEquals(fromText, fromBinary);
+    }
+
+    @Test
+    public void testSplitsLargeScenarioFileAcrossWorkers() throws IOException {
+        ScenarioFile.Catalog catalog = new ScenarioFile.Catalog();
+        catalog.addCarName("Car");
+        catalog.addEngine(Engine.createTurboEngine());
+        catalog.addTyre(Tyre.createMediumTyre());
+        catalog.addAeroKit(AeroKit.createStandardKit());
+        catalog.addTrack(Track.createSilverstoneTrack());
+        catalog.addWeather(Weather.createDryWeather());
+        catalog.addStrategy(RaceStrategy.createBalancedStrategy());
+        int count = 3 * BatchRunner.RECORDS_PER_TASK + 17;
+        Path scenarios = dir.resolve("large.bin");
+        ScenarioFileTest.writeRecords(scenarios, catalog, count);
+        Path output = dir.resolve("large.jsonl");
+        BatchRunner runner = quietRunner(4);
+        runner.setFormat(BatchRunner.Format.JSONL);
+
+        BatchRunner.Summary summary = runner.run(scenarios, output);
+
+        assertEquals(count, summary.getScenarioCount());
+        try (Stream<String> lines = Files.lines(output)) {
+            assertEquals(count, lines.map(l -> ((java.util.Map<?, ?>) JsonParser.parse(l)).get("job")).distinct().count());
+        }
+    }
+
+    @Test
+    public void testCommandLineRejectsBadArguments() {
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream errStream = new PrintStream(err, true, StandardCharsets.UTF_8);
+
+        assertEquals(2, BatchRunner.runCommandLine(new String[] {"--batch"}, System.out, errStream));
+        assertEquals(2, BatchRunner.runCommandLine(new String[] {"--bogus", "x"}, System.out, errStream));
+        assertEquals(2, BatchRunner.runCommandLine(new String[] {"--batch", "jobs.csv"}, System.out, errStream));
+        assertTrue(err.toString(StandardCharsets.UTF_8).contains("Usage:"));
+    }
+
+    @Test
+    public void testCommandLineRunsBatch() throws IOException {
+        Path output = dir.resolve("out.csv");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        int status = BatchRunner.runCommandLine(new String[] {"--batch", jobs(VALID_JOB).toString(),
+                "--output", output.toString(), "--threads", "1", "--format", "csv"},
+                new PrintStream(out, true, StandardCharsets.UTF_8), new PrintStream(new ByteArrayOutputStream()));
+
+        assertEquals(0, status);
+        assertEquals(6, Files.readAllLines(output).size());
+        assertTrue(out.toString(StandardCharsets.UTF_8).contains("5 scenarios"));
+    }
+}
@@ -0,0 +1,108 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BenchmarkHistoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    // One JMH JSON entry; a NaN low bound writes the intervals as "NaN" like JMH does
+    private static String run(String benchmark, String mode, String params, double score, double low, double high) {
+        String confidence = Double.isNaN(low)
+                ? "[\"NaN\", \"NaN\"]"
+                : String.format(Locale.ROOT, "[%f, %f]", low, high);
+        String error = Double.isNaN(low) ? "\"NaN\"" : String.format(Locale.ROOT, "%f", (high - low) / 2);
+        return String.format(Locale.ROOT, "{\"jmhVersion\": \"1.37\", \"benchmark\": \"%s\", \"mode\": \"%s\","
+                        + " \"jdkVersion\": \"17.0.9\", \"vmName\": \"OpenJDK 64-Bit Server VM\", %s"
+                        + " \"primaryMetric\": {\"score\": %f, \"scoreError\": %s, \"scoreConfidence\": %s,"
+                        + " \"scoreUnit\": \"%s\"}, \"secondaryMetrics\": {}}",
+                benchmark, mode, params == null ? "" : "\"params\": {" + params + "},",
+                score, error, confidence, "thrpt".equals(mode) ? "ops/ms" : "us/op");
+    }
+
+    private Path write(String name, String... runs) throws IOException {
+        Path file = tempDir.resolve(name);
+        Files.writeString(file, "[" + String.join(",", runs) + "]");
+        return file;
+    }
+
+    @Test
+    public void testRecordStoresByCommitAndJvm() throws IOException {
+        BenchmarkHistory history = new BenchmarkHistory(tempDir.resolve("history"));
+        Path results = write("a.json", run("benchmarks.LapBenchmark.simulateLap", "thrpt", null, 40, 39, 41));
+
+        String jvmKey = history.record(results, "abc123");
+        history.record(results, "def456");
+
+        assertEquals("17.0.9-OpenJDK_64-Bit_Server_VM", jvmKey);
+        assertEquals(List.of("abc123", "def456"), history.getCommits(jvmKey));
+        assertTrue(Files.exists(tempDir.resolve("history").resolve(jvmKey).resolve("abc123.json")));
+
+        Map<String, BenchmarkHistory.Result> loaded = history.load("abc123", jvmKey);
+        BenchmarkHistory.Result result = loaded.get("benchmarks.LapBenchmark.simulateLap");
+        assertEquals(40.0, result.getScore(), 1e-9);
+        assertEquals(39.0, result.getConfidenceLow(), 1e-9);
+        assertTrue(result.isHigherBetter());
+    }
+
+    @Test
+    public void testCompareFlagsOnlyNonOverlappingIntervals() throws IOException {
+        BenchmarkHistory history = new BenchmarkHistory(tempDir.resolve("history"));
+        String race = "benchmarks.SimulationBenchmark.simulateRace";
+        String jvm = history.record(write("base.json",
+                run(race, "thrpt", "\"stints\": \"1\"", 80, 78, 82),
+                run(race, "thrpt", "\"stints\": \"3\"", 90, 88, 92),
+                run("benchmarks.ValidatorBenchmark.validateRaceSetup", "avgt", null, 3.0, 2.9, 3.1),
+                run("benchmarks.LapBenchmark.createCarPerformance", "thrpt", null, 50, Double.NaN, Double.NaN),
+                run("benchmarks.CatalogBenchmark.getKitByName", "thrpt", null, 1.4, 1.3, 1.5)), "base");
+        history.record(write("cand.json",
+                run(race, "thrpt", "\"stints\": \"1\"", 60, 58, 62),
+                run(race, "thrpt", "\"stints\": \"3\"", 91, 89, 93),
+                run("benchmarks.ValidatorBenchmark.validateRaceSetup", "avgt", null, 2.0, 1.9, 2.1),
+                run("benchmarks.LapBenchmark.createCarPerformance", "thrpt", null, 20, Double.NaN, Double.NaN),
+                run("benchmarks.LapBenchmark.simulateLap", "thrpt", null, 40, 39, 41)), "cand");
+
+        BenchmarkHistory.Comparison comparison = history.compare("base", "cand", jvm);
+        Map<String, BenchmarkHistory.Verdict> verdicts = new HashMap<>();
+        for (BenchmarkHistory.Row row : comparison.getRows()) {
+            verdicts.put(row.getId(), row.getVerdict());
+        }
+
+        assertEquals(BenchmarkHistory.Verdict.REGRESSION, verdicts.get(race + ":stints=1"));
+        assertEquals(BenchmarkHistory.Verdict.UNCHANGED, verdicts.get(race + ":stints=3"));
+        // Lower average time is an improvement
+        assertEquals(BenchmarkHistory.Verdict.IMPROVEMENT, verdicts.get("benchmarks.ValidatorBenchmark.validateRaceSetup"));
+        assertEquals(BenchmarkHistory.Verdict.INCONCLUSIVE, verdicts.get("benchmarks.LapBenchmark.createCarPerformance"));
+        assertEquals(BenchmarkHistory.Verdict.REMOVED, verdicts.get("benchmarks.CatalogBenchmark.getKitByName"));
+        assertEquals(BenchmarkHistory.Verdict.ADDED, verdicts.get("benchmarks.LapBenchmark.simulateLap"));
+
+        assertEquals(1, comparison.getRegressions().size());
+        assertEquals(-25.0, comparison.getRegressions().get(0).getChangePercent(), 1e-9);
+        String report = comparison.toString();
+        assertTrue(report.contains("simulateRace:stints=1"));
+        assertTrue(report.contains("REGRESSION"));
+        assertTrue(report.endsWith("1 regression(s)"));
+    }
+
+    @Test
+    public void testRejectsBadInput() throws IOException {
+        BenchmarkHistory history = new BenchmarkHistory(tempDir.resolve("history"));
+        Path notJmh = tempDir.resolve("other.json");
+        Files.writeString(notJmh, "{\"benchmark\": 1}");
+        Path results = write("a.json", run("benchmarks.LapBenchmark.simulateLap", "thrpt", null, 40, 39, 41));
+
+        assertThrows(IOException.class, () -> history.record(notJmh, "abc"));
+        assertThrows(IllegalArgumentException.class, () -> history.record(results, "../escape"));
+        assertThrows(IOException.class, () -> history.load("missing", "17.0.9-OpenJDK_64-Bit_Server_VM"));
+    }
+}
@@ -0,0 +1,72 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedExecutorTest {
+
+    @Test
+    public void testRunsEveryTaskWithinTheBound() throws InterruptedException {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger peak = new AtomicInteger();
+        AtomicInteger done = new AtomicInteger();
+        try (BoundedExecutor executor = new BoundedExecutor("test-worker", 2, 3)) {
+            for (int i = 0; i < 100; i++) {
+                executor.submit(() -> {
+                    peak.accumulateAndGet(running.incrementAndGet(), Math::max);
+                    Thread.onSpinWait();
+                    running.decrementAndGet();
+                    done.incrementAndGet();
+                });
+            }
+            executor.await();
+        }
+        assertEquals(100, done.get());
+        assertTrue(peak.get() <= 2);
+    }
+
+    @Test
+    public void testTaskFailureIsRethrownAsIs() {
+        IllegalStateException thrown = assertThrows(IllegalStateException.class, () -> {
+            try (BoundedExecutor executor = new BoundedExecutor("test-worker", 2, 4)) {
+                executor.submit(() -> {
+                    throw new IllegalStateException("task failed");
+                });
+                executor.await();
+            }
+        });
+        assertEquals("task failed", thrown.getMessage());
+    }
+
+    @Test
+    public void testQueuedCountExcludesRunningTasks() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try (BoundedExecutor executor = new BoundedExecutor("test-worker", 1, 3)) {
+            executor.submit(() -> {
+                started.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            started.await();
+            executor.submit(() -> { });
+            executor.submit(() -> { });
+            assertEquals(2, executor.getQueuedCount());
+            release.countDown();
+            executor.await();
+            assertEquals(0, executor.getQueuedCount());
+        }
+    }
+
+    @Test
+    public void testDaemonThreads() {
+        Thread thread = BoundedExecutor.daemonThreads("test-daemon").newThread(() -> { });
+        assertTrue(thread.isDaemon());
+        assertEquals("test-daemon", thread.getName());
+    }
+}
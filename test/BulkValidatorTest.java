@@ -0,0 +1,120 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BulkValidatorTest {
+
+    private static final Track TRACK = Track.createSilverstoneTrack();
+
+    // Every 3rd setup is overweight, every 5th has a light fuel strategy without stops
+    private static RaceSetup setup(int id) {
+        double weight = id % 3 == 0 ? 2000.0 : 950.0;
+        Car car = new Car(id, "Car" + id, weight, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+        RaceStrategy strategy = id % 5 == 0
+                ? new RaceStrategy(0, "Soft", "Light", 95.0)
+                : RaceStrategy.createBalancedStrategy();
+        return new RaceSetup(id, car, TRACK, strategy);
+    }
+
+    @Test
+    public void testCountsAndValidIds() throws InterruptedException {
+        BulkValidator validator = new BulkValidator();
+        validator.setThreads(4);
+        validator.setChunkSize(100);
+
+        BulkValidator.Report report = validator.validate(IntStream.range(0, 10_000).mapToObj(BulkValidatorTest::setup));
+
+        assertEquals(10_000, report.getTotalCount());
+        assertEquals(3334, report.getViolationCount("car-weight"));
+        assertEquals(2000, report.getViolationCount("light-fuel-without-stops"));
+        // Valid when neither divisible by 3 nor by 5
+        assertEquals(5333, report.getValidCount());
+        assertEquals(4667, report.getInvalidCount());
+        BitSet valid = report.getValidIds();
+        assertEquals(5333, valid.cardinality());
+        assertTrue(report.isValid(1));
+        assertFalse(report.isValid(3));
+        assertFalse(report.isValid(10));
+    }
+
+    @Test
+    public void testKeepsLowestOffenders() throws InterruptedException {
+        BulkValidator validator = new BulkValidator();
+        validator.setThreads(3);
+        validator.setChunkSize(7);
+        validator.setOffenderLimit(4);
+        List<RaceSetup> setups = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            setups.add(setup(i));
+        }
+
+        BulkValidator.Report report = validator.validate(setups);
+
+        assertArrayEquals(new int[] {0, 3, 6, 9}, report.getOffenders("car-weight"));
+        assertArrayEquals(new int[] {0, 5, 10, 15}, report.getOffenders("light-fuel-without-stops"));
+        assertArrayEquals(new int[0], report.getOffenders("track-length"));
+        assertThrows(IllegalArgumentException.class, () -> report.getOffenders("no-such-rule"));
+    }
+
+    @Test
+    public void testMatchesSingleThreadedValidator() throws InterruptedException {
+        BulkValidator validator = new BulkValidator();
+        validator.setThreads(2);
+        BulkValidator.Report report = validator.validate(IntStream.range(0, 500).mapToObj(BulkValidatorTest::setup));
+
+        for (int i = 0; i < 500; i++) {
+            RaceSetup setup = setup(i);
+            boolean valid;
+            try {
+                Validator.validateRaceSetup(setup.getCar(), setup.getTrack(), setup.getStrategy());
+                valid = true;
+            } catch (InvalidCarConfigurationException | InvalidTrackDataException | InvalidStrategyException e) {
+                valid = false;
+            }
+            assertEquals(valid, report.isValid(i), "Setup " + i);
+        }
+    }
+
+    @Test
+    public void testCustomRuleSetAndEmptyInput() throws InterruptedException {
+        RuleSet rules = RuleSet.parse("{\"rules\": [{\"id\": \"heavy\", \"field\": \"carWeight\", \"max\": 1000}]}");
+        BulkValidator validator = new BulkValidator(rules);
+
+        BulkValidator.Report empty = validator.validate(new ArrayList<>());
+        assertEquals(0, empty.getTotalCount());
+        assertTrue(empty.getValidIds().isEmpty());
+
+        BulkValidator.Report report = validator.validate(Arrays.asList(setup(0), setup(1)));
+        assertEquals(1, report.getViolationCount(0));
+        assertTrue(report.toString().contains("heavy"));
+    }
+
+    @Test
+    public void testWorkerFailureIsRethrown() {
+        BulkValidator validator = new BulkValidator();
+        validator.setChunkSize(10);
+        List<RaceSetup> setups = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            setups.add(i == 42 ? null : setup(i));
+        }
+
+        assertThrows(NullPointerException.class, () -> validator.validate(setups));
+    }
+
+    @Test
+    public void testRejectsInvalidSettings() {
+        BulkValidator validator = new BulkValidator();
+        assertThrows(IllegalArgumentException.class, () -> validator.setThreads(0));
+        assertThrows(IllegalArgumentException.class, () -> validator.setChunkSize(0));
+        assertThrows(IllegalArgumentException.class, () -> validator.setOffenderLimit(-1));
+        assertThrows(IllegalArgumentException.class, () -> new BulkValidator(null));
+        assertThrows(IllegalArgumentException.class, () -> new RaceSetup(-1, null, null, null));
+    }
+}
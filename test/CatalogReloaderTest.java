@@ -0,0 +1,133 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CatalogReloaderTest {
+
+    @TempDir
+    Path dir;
+
+    private ComponentCatalog previous;
+
+    @BeforeEach
+    public void rememberDefault() {
+        previous = ComponentCatalog.getDefault();
+    }
+
+    @AfterEach
+    public void restoreDefault() {
+        ComponentCatalog.setDefault(previous);
+    }
+
+    private Path file(String... lines) throws IOException {
+        Path file = dir.resolve("catalog.csv");
+        Files.write(file, List.of(lines));
+        return file;
+    }
+
+    private static RaceResult race(RaceSimulator simulator) {
+        Car car = new Car(1, "Alpha", 950.0, Engine.createTurboEngine(), Tyre.createSoftTyre(),
+                Tyre.createSoftTyre(), AeroKit.createStandardKit());
+        return simulator.simulateRace(car, Track.createMonzaTrack(),
+                new RaceStrategy(0, "Soft", "Medium", 95.0), Weather.createDryWeather());
+    }
+
+    @Test
+    public void testPublishOnlyReplacesOlderSnapshots() {
+        ComponentCatalog older = ComponentCatalog.standard();
+        ComponentCatalog newer = ComponentCatalog.standard();
+        assertTrue(newer.getVersion() > older.getVersion());
+
+        ComponentCatalog.setDefault(older);
+        assertTrue(ComponentCatalog.publish(newer));
+        assertFalse(ComponentCatalog.publish(older), "a slow reload must not undo a later one");
+        assertSame(newer, ComponentCatalog.getDefault());
+        assertThrows(IllegalArgumentException.class, () -> ComponentCatalog.publish(null));
+    }
+
+    @Test
+    public void testResultsRecordTheCatalogVersion() {
+        ComponentCatalog pinned = ComponentCatalog.standard();
+        RaceSimulator simulator = new RaceSimulator(10, 1L);
+
+        assertEquals(ComponentCatalog.getDefault().getVersion(), race(simulator).getCatalogVersion());
+        simulator.setCatalog(pinned);
+        assertEquals(pinned.getVersion(), race(simulator).getCatalogVersion());
+        assertEquals(0, new RaceResult("Alpha", "Monza", 60.0, "Balanced").getCatalogVersion());
+    }
+
+    @Test
+    public void testReloadSwapsSnapshotForNextRace() throws Exception {
+        RaceSimulator simulator = new RaceSimulator(20, 1L);
+        RaceResult before = race(simulator);
+        Path file = file("tyre, Soft, 0.95, 15, 100, 0.10, 5.0");
+
+        ComponentCatalog snapshot;
+        try (CatalogReloader reloader = new CatalogReloader(file)) {
+            snapshot = reloader.reload().get();
+        }
+
+        assertSame(snapshot, ComponentCatalog.getDefault());
+        assertTrue(snapshot.getVersion() > before.getCatalogVersion());
+        simulator.setSeed(1L);
+        RaceResult after = race(simulator);
+        assertEquals(snapshot.getVersion(), after.getCatalogVersion());
+        // The reloaded Soft compound is slower, and the same simulator picks it up
+        assertTrue(after.getRaceTime() > before.getRaceTime());
+    }
+
+    @Test
+    public void testFailedReloadKeepsCurrentSnapshot() throws IOException {
+        ComponentCatalog current = ComponentCatalog.getDefault();
+        Path file = file("tyre, Soft, not-a-number, 15, 100, 0.10, 5.0");
+
+        try (CatalogReloader reloader = new CatalogReloader(file)) {
+            ExecutionException failure = assertThrows(ExecutionException.class, () -> reloader.reload().get());
+            assertInstanceOf(UncheckedIOException.class, failure.getCause());
+        }
+        assertSame(current, ComponentCatalog.getDefault());
+    }
+
+    @Test
+    public void testWatchReloadsChangedFile() throws Exception {
+        Path file = file("track, Spa, 7.0, 19, Medium, Smooth");
+        ByteArrayOutputStream errors = new ByteArrayOutputStream();
+
+        try (CatalogReloader reloader = new CatalogReloader(file)) {
+            reloader.setErrorStream(new PrintStream(errors, true));
+            reloader.watch(Duration.ofMillis(5));
+            awaitTrue(() -> ComponentCatalog.getDefault().getTrack("Spa") != null);
+            ComponentCatalog loaded = ComponentCatalog.getDefault();
+
+            Files.write(file, List.of("track, Spa, broken"));
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() + 60_000));
+            awaitTrue(() -> errors.size() > 0);
+            assertSame(loaded, ComponentCatalog.getDefault());
+            assertTrue(errors.toString().startsWith("Catalog reload failed: "), errors.toString());
+            assertThrows(IllegalArgumentException.class, () -> reloader.watch(Duration.ZERO));
+        }
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "timed out");
+            Thread.sleep(5);
+        }
+    }
+}
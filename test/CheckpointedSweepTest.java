@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.BitSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CheckpointedSweepTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static RaceResult resultFor(int index) {
+        return new RaceResult("Car" + index, "Monaco", 90.0 + index % 10, "Balanced Strategy");
+    }
+
+    @Test
+    public void testRunsAllScenarios() throws IOException {
+        CheckpointedSweep sweep = new CheckpointedSweep(tempDir.resolve("job"), 200);
+        sweep.setCheckpointInterval(50);
+        sweep.setThreads(4);
+
+        RaceTimeStatistics stats = sweep.run(CheckpointedSweepTest::resultFor);
+
+        assertEquals(200, stats.getCount());
+        assertEquals(200, sweep.getExecutedCount());
+        assertEquals(0, sweep.getResumedCount());
+        assertEquals(94.5, stats.getMean(), 1e-9);
+        assertEquals(90.0, stats.getMin(), 0.0);
+        assertEquals(99.0, stats.getMax(), 0.0);
+    }
+
+    @Test
+    public void testResumesAfterFailure() throws IOException {
+        Path job = tempDir.resolve("job");
+        CheckpointedSweep firstRun = new CheckpointedSweep(job, 1000);
+        firstRun.setCheckpointInterval(100);
+        IntFunction<RaceResult> crashing = index -> {
+            if (index == 640) {
+                throw new IllegalStateException("simulated crash");
+            }
+            return resultFor(index);
+        };
+        assertThrows(IllegalStateException.class, () -> firstRun.run(crashing));
+        assertEquals(640, firstRun.getExecutedCount());
+
+        Set<Integer> rerun = ConcurrentHashMap.newKeySet();
+        CheckpointedSweep secondRun = new CheckpointedSweep(job, 1000);
+        secondRun.setThreads(3);
+        RaceTimeStatistics stats = secondRun.run(index -> {
+            rerun.add(index);
+            return resultFor(index);
+        });
+
+        assertEquals(640, secondRun.getResumedCount());
+        assertEquals(360, rerun.size());
+        assertFalse(rerun.contains(639));
+        assertTrue(rerun.contains(640));
+        assertEquals(1000, stats.getCount());
+        assertEquals(94.5, stats.getMean(), 1e-9);
+    }
+
+    @Test
+    public void testRecoversResultsLoggedAfterCheckpoint() throws IOException {
+        Path job = tempDir.resolve("job");
+        // Results 0-9 go into the log but no checkpoint is written for them
+        Files.createDirectories(job);
+        try (ResultLog log = ResultLog.open(job.resolve(CheckpointedSweep.LOG_FILE))) {
+            for (int i = 0; i < 10; i++) {
+                log.append(i, resultFor(i));
+            }
+        }
+
+        CheckpointedSweep sweep = new CheckpointedSweep(job, 20);
+        RaceTimeStatistics stats = sweep.run(CheckpointedSweepTest::resultFor);
+
+        assertEquals(10, sweep.getResumedCount());
+        assertEquals(10, sweep.getExecutedCount());
+        assertEquals(20, stats.getCount());
+    }
+
+    @Test
+    public void testRejectsMismatchedCheckpoint() throws IOException {
+        Path job = tempDir.resolve("job");
+        new CheckpointedSweep(job, 10).run(CheckpointedSweepTest::resultFor);
+
+        assertThrows(IOException.class, () -> new CheckpointedSweep(job, 11).run(CheckpointedSweepTest::resultFor));
+    }
+
+    @Test
+    public void testCheckpointRoundTrip() throws IOException {
+        Path file = tempDir.resolve("checkpoint.bin");
+        BitSet done = new BitSet();
+        done.set(3);
+        done.set(7);
+        RaceTimeStatistics stats = new RaceTimeStatistics();
+        stats.add(90.0);
+        stats.add(92.0);
+
+        new JobCheckpoint(10, done, stats, 1234).save(file);
+        JobCheckpoint loaded = JobCheckpoint.load(file);
+
+        assertEquals(10, loaded.getScenarioCount());
+        assertEquals(done, loaded.getCompleted());
+        assertEquals(1234, loaded.getLogOffset());
+        assertEquals(91.0, loaded.getStatistics().getMean(), 1e-9);
+        assertNull(JobCheckpoint.load(tempDir.resolve("missing.bin")));
+    }
+}
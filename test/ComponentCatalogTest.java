@@ -0,0 +1,172 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ComponentCatalogTest {
+
+    @TempDir
+    Path dir;
+
+    private Path file(String... lines) throws IOException {
+        Path file = dir.resolve("catalog.csv");
+        Files.write(file, List.of(lines));
+        return file;
+    }
+
+    @Test
+    public void testStandardCatalogMatchesFactories() {
+        ComponentCatalog catalog = ComponentCatalog.standard();
+
+        assertEquals(List.of("Standard", "Turbocharged"), catalog.getNames(ComponentCatalog.Type.ENGINE));
+        assertEquals(List.of("Soft", "Medium", "Hard"), catalog.getNames(ComponentCatalog.Type.TYRE));
+        assertEquals(List.of("Monaco", "Monza", "Silverstone"), catalog.getNames(ComponentCatalog.Type.TRACK));
+        assertEquals(List.of("Aggressive", "Balanced", "Conservative"),
+                catalog.getNames(ComponentCatalog.Type.STRATEGY));
+        assertEquals(6, catalog.size(ComponentCatalog.Type.AERO_KIT));
+        assertEquals(3, catalog.size(ComponentCatalog.Type.WEATHER));
+
+        assertEquals(Engine.createTurboEngine().getPower(), catalog.getEngine("Turbocharged").getPower());
+        assertEquals(Tyre.createSoftTyre().getGripLevel(), catalog.getTyre(0).getGripLevel(), 0.0);
+        assertEquals(Track.createMonzaTrack().getLength(), catalog.getTrack("Monza").getLength(), 0.0);
+        assertEquals(RaceStrategy.createConservativeStrategy().getFuelStrategy(),
+                catalog.getStrategy("Conservative").getFuelStrategy());
+        assertEquals(7, catalog.getWeather("Wet").getRainIntensity());
+    }
+
+    @Test
+    public void testLooksUpByNameIgnoringCaseAndById() {
+        ComponentCatalog catalog = ComponentCatalog.standard();
+
+        int id = catalog.idOf(ComponentCatalog.Type.AERO_KIT, "low drag kit");
+        assertTrue(id >= 0);
+        assertSame(catalog.getAeroKit("Low Drag Kit"), catalog.getAeroKit(id));
+        assertSame(catalog.getAeroKit("Low Drag Kit"), catalog.getAeroKit("LOW DRAG KIT"));
+        assertNull(catalog.getTrack("Spa"));
+        assertNull(catalog.getTrack(null));
+        assertEquals(-1, catalog.idOf(ComponentCatalog.Type.TRACK, "Spa"));
+    }
+
+    @Test
+    public void testLoadsFileOnTopOfBase() throws IOException {
+        ComponentCatalog base = ComponentCatalog.standard();
+        ComponentCatalog catalog = ComponentCatalog.load(file(
+                "# comment",
+                "",
+                "track, Spa, 7.0, 19, Medium, Smooth",
+                "tyre, soft, 0.99, 12, 100, 0.2, -3.0",
+                "strategy, One Stop, 1, Medium-Hard, Medium, 98.0"), base);
+
+        assertEquals(4, catalog.size(ComponentCatalog.Type.TRACK));
+        assertEquals(3, catalog.idOf(ComponentCatalog.Type.TRACK, "spa"));
+        assertEquals(7.0, catalog.getTrack("Spa").getLength(), 0.0);
+        // Replaces the base entry and keeps its id
+        assertEquals(3, catalog.size(ComponentCatalog.Type.TYRE));
+        assertEquals(0, catalog.idOf(ComponentCatalog.Type.TYRE, "Soft"));
+        assertEquals(0.99, catalog.getTyre("Soft").getGripLevel(), 0.0);
+        // The base is untouched
+        assertEquals(3, base.size(ComponentCatalog.Type.TRACK));
+        assertEquals(0.95, base.getTyre("Soft").getGripLevel(), 0.0);
+
+        assertEquals(0, ComponentCatalog.load(file("track, Spa, 7.0, 19, Medium, Smooth"))
+                .size(ComponentCatalog.Type.ENGINE));
+    }
+
+    @Test
+    public void testInternsIdenticalComponents() throws IOException {
+        ComponentCatalog catalog = ComponentCatalog.load(file(
+                "strategy, One Stop, 1, Medium-Hard, Medium, 98.0",
+                "strategy, Single Stop, 1, Medium-Hard, Medium, 98.0",
+                "strategy, Two Stop, 2, Soft-Medium-Hard, Medium, 95.0"), ComponentCatalog.standard());
+
+        assertSame(catalog.getStrategy("One Stop"), catalog.getStrategy("Single Stop"));
+        assertNotSame(catalog.getStrategy("One Stop"), catalog.getStrategy("Two Stop"));
+        // Same fields as the standard Balanced strategy
+        assertNotSame(catalog.getStrategy("Balanced"), catalog.getStrategy("Two Stop"));
+        ComponentCatalog again = ComponentCatalog.load(file("strategy, Middle, 2, Medium-Hard, Medium, 95.0"),
+                catalog);
+        assertSame(catalog.getStrategy("Balanced"), again.getStrategy("Middle"));
+    }
+
+    @Test
+    public void testRejectsMalformedLines() throws IOException {
+        assertInvalid("car, Alpha, 1, 2, 3", ":1: Unknown component type");
+        assertInvalid("engine, Hybrid, 280, 11.0", "needs a name and 3 fields");
+        assertInvalid("engine, Hybrid, lots, 11.0, 190.0", "Invalid power");
+        assertInvalid("track, , 7.0, 19, Medium, Smooth", "name cannot be empty");
+        assertInvalid("engine, Hybrid, 280, 11.0, 190.0, 1, 2, 3, 4", "needs a name");
+        Path duplicate = file("# two of the same", "track, Spa, 7.0, 19, Medium, Smooth", "track, SPA, 7.0, 19, Medium, Smooth");
+        IOException e = assertThrows(IOException.class, () -> ComponentCatalog.load(duplicate));
+        assertTrue(e.getMessage().contains(":3: Duplicate track"), e.getMessage());
+    }
+
+    private void assertInvalid(String line, String message) throws IOException {
+        Path file = file(line);
+        IOException e = assertThrows(IOException.class, () -> ComponentCatalog.load(file));
+        assertTrue(e.getMessage().contains(message), e.getMessage());
+    }
+
+    @Test
+    public void testLoadsLargeCatalog() throws IOException {
+        Path file = dir.resolve("large.csv");
+        int tracks = 100_000;
+        try (BufferedWriter writer = Files.newBufferedWriter(file)) {
+            for (int i = 0; i < tracks; i++) {
+                writer.write("track,Track " + i + "," + (3.0 + (i % 40) / 10.0) + "," + (8 + i % 15) + ",Medium,Smooth");
+                writer.newLine();
+            }
+        }
+
+        ComponentCatalog catalog = ComponentCatalog.load(file);
+
+        assertEquals(tracks, catalog.size(ComponentCatalog.Type.TRACK));
+        assertEquals(54_321, catalog.idOf(ComponentCatalog.Type.TRACK, "Track 54321"));
+        assertEquals(8 + 54_321 % 15, catalog.getTrack("track 54321").getCorners());
+    }
+
+    @Test
+    public void testExampleCatalogLoads() throws IOException {
+        ComponentCatalog catalog = ComponentCatalog.load(Paths.get("catalogs", "example.csv"),
+                ComponentCatalog.standard());
+
+        assertEquals(6, catalog.size(ComponentCatalog.Type.TRACK));
+        assertNotNull(catalog.getEngine("Hybrid"));
+        assertNotNull(catalog.getWeather("Storm"));
+    }
+
+    @Test
+    public void testDefaultCatalogFeedsFactoriesJobsAndSimulator() throws IOException {
+        ComponentCatalog previous = ComponentCatalog.getDefault();
+        RaceStrategy softOnly = new RaceStrategy(0, "Soft", "Medium", 95.0);
+        Car car = new Car(1, "Alpha", 950.0, Engine.createTurboEngine(), Tyre.createSoftTyre(),
+                Tyre.createSoftTyre(), AeroKit.createStandardKit());
+        RaceResult standardRace = new RaceSimulator(20, 1L)
+                .simulateRace(car, Track.createMonzaTrack(), softOnly, Weather.createDryWeather());
+        try {
+            ComponentCatalog.setDefault(ComponentCatalog.load(file(
+                    "aerokit, Rain Kit, 0.33, 380, 225",
+                    "track, Spa, 7.0, 19, Medium, Smooth",
+                    "tyre, Soft, 0.95, 15, 100, 0.10, 5.0"), ComponentCatalog.standard()));
+
+            assertEquals(7, AeroKitFactory.getAllAvailableKits().size());
+            assertEquals(380, AeroKitFactory.getKitByName("rain kit").getDownforce());
+            BatchJob job = BatchJob.parse("Alpha,turbo,soft,Rain Kit,950,spa,balanced,dry,10,1,1", 1);
+            assertEquals("Spa", job.getTrack().getName());
+            // Soft tyres are now slower, and the simulator picks them up from the catalog
+            RaceResult slowerRace = new RaceSimulator(20, 1L)
+                    .simulateRace(car, Track.createMonzaTrack(), softOnly, Weather.createDryWeather());
+            assertTrue(slowerRace.getRaceTime() > standardRace.getRaceTime());
+        } finally {
+            ComponentCatalog.setDefault(previous);
+        }
+        assertNull(AeroKitFactory.getKitByName("Rain Kit"));
+        assertThrows(IllegalArgumentException.class, () -> ComponentCatalog.setDefault(null));
+    }
+}
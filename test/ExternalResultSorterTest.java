@@ -0,0 +1,151 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ExternalResultSorterTest {
+
+    private static final String[] TRACKS = {"Monaco", "Monza", "Silverstone"};
+    private static final String[] STRATEGIES = {"Aggressive Strategy", "Balanced Strategy", "Conservative Strategy"};
+
+    @TempDir
+    Path tempDir;
+
+    private List<RaceResult> writeRandomResults(Path file, int count) throws IOException {
+        Random random = new Random(7);
+        List<RaceResult> results = new ArrayList<>();
+        try (ResultFile.Writer writer = ResultFile.newWriter(file)) {
+            for (int i = 0; i < count; i++) {
+                RaceResult result = new RaceResult("Car" + i,
+                        TRACKS[random.nextInt(TRACKS.length)],
+                        60 + random.nextDouble() * 60,
+                        STRATEGIES[random.nextInt(STRATEGIES.length)]);
+                results.add(result);
+                writer.write(result);
+            }
+        }
+        return results;
+    }
+
+    private List<RaceResult> readAll(Path file) throws IOException {
+        List<RaceResult> results = new ArrayList<>();
+        try (ResultFile.Reader reader = ResultFile.newReader(file)) {
+            RaceResult result;
+            while ((result = reader.next()) != null) {
+                results.add(result);
+            }
+        }
+        return results;
+    }
+
+    @Test
+    public void testSortByRaceTimeWithManyRuns() throws IOException {
+        Path input = tempDir.resolve("input.bin");
+        Path output = tempDir.resolve("sorted.bin");
+        List<RaceResult> expected = writeRandomResults(input, 5000);
+        expected.sort(ExternalResultSorter.BY_RACE_TIME);
+
+        // Tiny budget and fan-in force dozens of runs and several merge passes
+        ExternalResultSorter sorter = new ExternalResultSorter(ExternalResultSorter.BY_RACE_TIME,
+                16 * 1024, 3, 4, tempDir);
+        long count = sorter.sort(input, output);
+
+        assertEquals(5000, count);
+        assertEquals(expected, readAll(output));
+    }
+
+    @Test
+    public void testSortByTrackStrategyTime() throws IOException {
+        Path input = tempDir.resolve("input.bin");
+        Path output = tempDir.resolve("sorted.bin");
+        List<RaceResult> expected = writeRandomResults(input, 1000);
+        expected.sort(ExternalResultSorter.BY_TRACK_STRATEGY_TIME);
+
+        new ExternalResultSorter(ExternalResultSorter.BY_TRACK_STRATEGY_TIME, 8 * 1024, 2, tempDir)
+                .sort(input, output);
+
+        assertEquals(expected, readAll(output));
+    }
+
+    @Test
+    public void testTemporaryRunsAreRemoved() throws IOException {
+        Path input = tempDir.resolve("input.bin");
+        Path output = tempDir.resolve("sorted.bin");
+        writeRandomResults(input, 500);
+
+        new ExternalResultSorter(ExternalResultSorter.BY_RACE_TIME, 4 * 1024, 2, tempDir).sort(input, output);
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(2, files.count());
+        }
+    }
+
+    @Test
+    public void testRunsAreRemovedWhenInputIsCorrupt() throws IOException {
+        Path input = tempDir.resolve("input.bin");
+        Path output = tempDir.resolve("sorted.bin");
+        writeRandomResults(input, 2000);
+        // Cut the last record short so reading fails after many runs were written
+        byte[] bytes = Files.readAllBytes(input);
+        Files.write(input, java.util.Arrays.copyOf(bytes, bytes.length - 3));
+
+        ExternalResultSorter sorter = new ExternalResultSorter(ExternalResultSorter.BY_RACE_TIME,
+                4 * 1024, 2, tempDir);
+        assertThrows(IOException.class, () -> sorter.sort(input, output));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(input), files.toList());
+        }
+    }
+
+    @Test
+    public void testMergeFilesAreRemovedWhenMergeFails() throws IOException {
+        Path input = tempDir.resolve("input.bin");
+        Path output = tempDir.resolve("sorted.bin");
+        writeRandomResults(input, 2000);
+
+        // Sorting runs happens on pool threads and merging on the caller; fail the
+        // caller part way through the first merge pass, after some merge files exist
+        Thread caller = Thread.currentThread();
+        int[] mergeComparisons = {0};
+        Comparator<RaceResult> failingMerge = (a, b) -> {
+            if (Thread.currentThread() == caller && ++mergeComparisons[0] > 500) {
+                throw new IllegalStateException("merge failed");
+            }
+            return ExternalResultSorter.BY_RACE_TIME.compare(a, b);
+        };
+        ExternalResultSorter sorter = new ExternalResultSorter(failingMerge, 4 * 1024, 2, 2, tempDir);
+        assertThrows(IllegalStateException.class, () -> sorter.sort(input, output));
+
+        try (Stream<Path> files = Files.list(tempDir)) {
+            assertEquals(List.of(input), files.filter(f -> !f.equals(output)).toList());
+        }
+    }
+
+    @Test
+    public void testEmptyInput() throws IOException {
+        Path input = tempDir.resolve("empty.bin");
+        Path output = tempDir.resolve("sorted.bin");
+        writeRandomResults(input, 0);
+
+        assertEquals(0, new ExternalResultSorter(ExternalResultSorter.BY_RACE_TIME).sort(input, output));
+        assertTrue(readAll(output).isEmpty());
+    }
+
+    @Test
+    public void testInvalidConfiguration() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalResultSorter(ExternalResultSorter.BY_RACE_TIME, 0, 1, null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new ExternalResultSorter(null));
+    }
+}
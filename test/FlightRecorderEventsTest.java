@@ -0,0 +1,134 @@
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FlightRecorderEventsTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<RecordedEvent> record(String eventName, Runnable action) throws IOException {
+        Path file = tempDir.resolve("recording.jfr");
+        try (Recording recording = new Recording()) {
+            recording.enable(eventName).withThreshold(Duration.ZERO);
+            recording.start();
+            action.run();
+            recording.stop();
+            recording.dump(file);
+        }
+        return RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals(eventName))
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    public void testRaceSimulationEvent() throws IOException {
+        Car car = new Car(1, "TestCar", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+        List<RecordedEvent> events = record("raceoptimizer.RaceSimulation", () ->
+                new RaceSimulator(20).simulateRace(car, Track.createMonzaTrack(),
+                        RaceStrategy.createBalancedStrategy(), Weather.createDryWeather()));
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("TestCar", event.getString("car"));
+        assertEquals("Monza", event.getString("track"));
+        assertEquals(20, event.getInt("laps"));
+        assertTrue(event.getDouble("raceTime") > 0);
+    }
+
+    @Test
+    public void testValidationEventRecordsFailure() throws IOException {
+        Track badTrack = new Track("Bad", 0.5, 8, "Easy", "Smooth");
+        List<RecordedEvent> events = record("raceoptimizer.Validation", () ->
+                assertThrows(InvalidTrackDataException.class, () -> Validator.validateTrack(badTrack)));
+
+        assertEquals(1, events.size());
+        RecordedEvent event = events.get(0);
+        assertEquals("Track", event.getString("target"));
+        assertFalse(event.getBoolean("passed"));
+        assertEquals("InvalidTrackDataException", event.getString("exceptionType"));
+        assertTrue(event.getString("failureReason").contains("Track length"));
+    }
+
+    @Test
+    public void testValidationEventRecordsPass() throws IOException {
+        List<RecordedEvent> events = record("raceoptimizer.Validation", () ->
+                assertDoesNotThrow(() -> Validator.validateTrack(Track.createMonacoTrack())));
+
+        assertEquals(1, events.size());
+        assertTrue(events.get(0).getBoolean("passed"));
+        assertNull(events.get(0).getString("failureReason"));
+    }
+
+    @Test
+    public void testValidationEventRecordedWhenEnabledWithoutThreshold() throws IOException {
+        Path file = tempDir.resolve("validation.jfr");
+        try (Recording recording = new Recording()) {
+            // No threshold override: microsecond validations must still be recorded
+            recording.enable("raceoptimizer.Validation");
+            recording.start();
+            assertDoesNotThrow(() -> Validator.validateTrack(Track.createMonacoTrack()));
+            recording.stop();
+            recording.dump(file);
+        }
+        long recorded = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("raceoptimizer.Validation"))
+                .count();
+        assertEquals(1, recorded);
+    }
+
+    @Test
+    public void testPerCallEventsAreOffInDefaultRecording() throws Exception {
+        Path file = tempDir.resolve("default-settings.jfr");
+        try (Recording recording = new Recording(Configuration.getConfiguration("default"))) {
+            recording.start();
+            ValidationCache cache = new ValidationCache();
+            for (int i = 0; i < 100; i++) {
+                Validator.validateTrack(Track.createMonacoTrack());
+                cache.validateTrack(Track.createMonacoTrack());
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+        long recorded = RecordingFile.readAllEvents(file).stream()
+                .map(e -> e.getEventType().getName())
+                .filter(name -> name.equals("raceoptimizer.Validation") || name.equals("raceoptimizer.CacheLookup"))
+                .count();
+        assertEquals(0, recorded);
+    }
+
+    @Test
+    public void testThresholdSkipsFastRaces() throws IOException {
+        Path file = tempDir.resolve("default.jfr");
+        try (Recording recording = new Recording()) {
+            // Default settings keep the 1 ms threshold
+            recording.enable("raceoptimizer.RaceSimulation");
+            recording.start();
+            RaceSimulator simulator = new RaceSimulator(1);
+            Car car = new Car(1, "TestCar", 950.0, Engine.createStandardEngine(),
+                    Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+            for (int i = 0; i < 1000; i++) {
+                simulator.simulateRace(car, Track.createMonzaTrack(),
+                        RaceStrategy.createBalancedStrategy(), Weather.createDryWeather());
+            }
+            recording.stop();
+            recording.dump(file);
+        }
+        long recorded = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("raceoptimizer.RaceSimulation"))
+                .count();
+        assertTrue(recorded < 1000, "Expected fast races to stay under the threshold, got " + recorded);
+    }
+}
@@ -0,0 +1,85 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FootprintAnalyserTest {
+
+    // 64-bit HotSpot defaults: compressed references and class pointers, 8-byte alignment
+    private final FootprintAnalyser analyser = new FootprintAnalyser(true, true, 8);
+
+    @Test
+    public void testShallowSizes() {
+        assertEquals(16, analyser.shallowSize(new Object()));
+        assertEquals(16, analyser.shallowSize(new byte[0]));
+        assertEquals(40, analyser.shallowSize(new long[3]));
+        assertEquals(24, analyser.shallowSize(new Object[2]));
+        // header 12 + String reference 4 + three ints 12 = 28, aligned to 32
+        assertEquals(32, analyser.shallowSize(Weather.createDryWeather()));
+    }
+
+    @Test
+    public void testUncompressedLayout() {
+        FootprintAnalyser wide = new FootprintAnalyser(false, false, 8);
+        assertEquals(16, wide.shallowSize(new Object()));
+        assertEquals(24, wide.shallowSize(new Object[0]));
+        assertEquals(8, wide.getReferenceSize());
+    }
+
+    @Test
+    public void testDeepSizeFollowsReferencesOnce() {
+        // String: 24-byte object plus a 3-byte Latin-1 array (16 + 3, aligned to 24)
+        assertEquals(48, analyser.deepSize("abc"));
+
+        String shared = "shared";
+        Object[] twice = {shared, shared};
+        assertEquals(analyser.shallowSize(twice) + analyser.deepSize(shared), analyser.deepSize(twice));
+        assertEquals(analyser.shallowSize(twice), analyser.deepSize(twice, o -> o instanceof String));
+    }
+
+    @Test
+    public void testDomainObjects() {
+        Weather weather = Weather.createDryWeather();
+        assertEquals(analyser.shallowSize(weather) + analyser.deepSize(weather.getCondition()),
+                analyser.deepSize(weather));
+
+        Car car = new Car(1, "Car", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+        assertTrue(analyser.deepSize(car) > analyser.deepSize(car.getEngine()) + analyser.deepSize(car.getAeroKit()));
+
+        List<Weather> list = new ArrayList<>();
+        list.add(weather);
+        assertTrue(analyser.deepSize(list) > analyser.deepSize(weather));
+    }
+
+    @Test
+    public void testProjectionByResultMode() {
+        long full = analyser.projectHeapBytes(ResultMode.FULL, 1_000, 100, 50);
+        long compact = analyser.projectHeapBytes(ResultMode.COMPACT, 1_000, 100, 50);
+        long summary = analyser.projectHeapBytes(ResultMode.SUMMARY, 1_000, 100, 50);
+        long topK = analyser.projectHeapBytes(ResultMode.TOP_K, 1_000, 100, 50);
+
+        assertEquals(100_000L * ResultMode.COMPACT_ROW_BYTES, compact);
+        assertTrue(full > compact);
+        assertTrue(compact > summary);
+        assertEquals(50 * analyser.bytesPerEntry(ResultMode.TOP_K), topK);
+        // Top-K does not grow with the sweep
+        assertEquals(topK, analyser.projectHeapBytes(ResultMode.TOP_K, 1_000_000, 100, 50));
+        assertThrows(IllegalArgumentException.class, () -> analyser.projectHeapBytes(ResultMode.FULL, 1, 0, 1));
+    }
+
+    @Test
+    public void testReport() {
+        String report = analyser.report(100_000_000L, 1, 100);
+        assertTrue(report.contains("RaceResult"));
+        assertTrue(report.contains("Compact result row"));
+        for (ResultMode mode : ResultMode.values()) {
+            assertTrue(report.contains(mode.name()), mode.name());
+        }
+        assertEquals("256m", FootprintAnalyser.suggestedHeap(0));
+        assertEquals("3g", FootprintAnalyser.suggestedHeap(1L << 30));
+        assertEquals("1.5 KB", FootprintAnalyser.formatBytes(1536));
+    }
+}
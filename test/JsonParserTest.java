@@ -0,0 +1,41 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class JsonParserTest {
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testParsesNestedDocument() {
+        Object value = JsonParser.parse("{\"name\": \"sim\\\"race\", \"score\": -1.5e2, "
+                + "\"ci\": [1, 2.5], \"ok\": true, \"none\": null, \"nested\": {}}");
+
+        Map<String, Object> object = (Map<String, Object>) value;
+        assertEquals("sim\"race", object.get("name"));
+        assertEquals(-150.0, (Double) object.get("score"), 0.0);
+        assertEquals(Arrays.asList(1.0, 2.5), object.get("ci"));
+        assertEquals(Boolean.TRUE, object.get("ok"));
+        assertTrue(object.containsKey("none"));
+        assertNull(object.get("none"));
+        assertTrue(((Map<String, Object>) object.get("nested")).isEmpty());
+        assertEquals(List.of("name", "score", "ci", "ok", "none", "nested"), List.copyOf(object.keySet()));
+    }
+
+    @Test
+    public void testUnicodeEscape() {
+        assertEquals("± 2", JsonParser.parse("\"\\u00b1 2\""));
+    }
+
+    @Test
+    public void testRejectsInvalidJson() {
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse("{\"a\": 1"));
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse("[1 2]"));
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse("{} extra"));
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse("\"open"));
+        assertThrows(IllegalArgumentException.class, () -> JsonParser.parse(null));
+    }
+}
@@ -0,0 +1,107 @@
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class LoadGeneratorTest {
+
+    @Test
+    public void testClosedLoopRunsMix() throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        AtomicInteger fast = new AtomicInteger();
+        AtomicInteger slow = new AtomicInteger();
+        generator.addOperation("fast", 3, random -> fast.incrementAndGet());
+        generator.addOperation("slow", 1, random -> slow.incrementAndGet());
+        generator.setClosedLoop(2, Duration.ofMillis(1));
+        generator.setDuration(Duration.ofMillis(300));
+        generator.setSampleInterval(Duration.ofMillis(50));
+        generator.setSeed(42);
+
+        LoadGenerator.Report report = generator.run();
+
+        assertEquals(fast.get() + slow.get(), report.getCompleted());
+        assertEquals(fast.get(), report.getCompleted("fast"));
+        assertTrue(report.getCompleted() > 20);
+        assertTrue(fast.get() > slow.get(), "weights should favour the fast operation");
+        assertEquals(0, report.getErrors());
+        assertTrue(report.getHeapSamples().size() >= 3);
+    }
+
+    @Test
+    public void testOpenLoopHoldsRate() throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        generator.addOperation("noop", 1, random -> { });
+        generator.setOpenLoop(200);
+        generator.setThreads(2);
+        generator.setDuration(Duration.ofMillis(500));
+
+        LoadGenerator.Report report = generator.run();
+
+        // 200/s for half a second
+        assertEquals(100, report.getCompleted() + report.getDropped(), 2);
+        assertEquals(0, report.getDropped());
+    }
+
+    @Test
+    public void testOpenLoopLatencyIncludesQueueing() throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        generator.addOperation("sleep", 1, random -> Thread.sleep(20));
+        // One worker doing 20 ms requests at 100/s falls behind
+        generator.setOpenLoop(100);
+        generator.setThreads(1);
+        generator.setDuration(Duration.ofMillis(300));
+
+        LoadGenerator.Report report = generator.run();
+
+        assertTrue(report.getLatency().getMax() > 100_000_000L,
+                "queueing delay should show up, max was " + report.getLatency().getMax());
+    }
+
+    @Test
+    public void testErrorsAndDropsAreCounted() throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator();
+        generator.addOperation("failing", 1, random -> {
+            Thread.sleep(5);
+            throw new IllegalStateException("boom");
+        });
+        generator.setOpenLoop(1000);
+        generator.setThreads(1);
+        generator.setMaxBacklog(1);
+        generator.setDuration(Duration.ofMillis(200));
+
+        LoadGenerator.Report report = generator.run();
+
+        assertEquals(report.getCompleted(), report.getErrors("failing"));
+        assertTrue(report.getDropped() > 0);
+    }
+
+    @Test
+    public void testEngineMix() throws InterruptedException {
+        LoadGenerator generator = LoadGenerator.forEngine(10);
+        generator.setClosedLoop(2, Duration.ZERO);
+        generator.setDuration(Duration.ofMillis(300));
+        generator.setWarmup(Duration.ofMillis(100));
+
+        LoadGenerator.Report report = generator.run();
+
+        assertTrue(report.getCompleted("race") > 0);
+        assertEquals(0, report.getErrors());
+        String summary = report.toString();
+        assertTrue(summary.startsWith("Closed loop"));
+        assertTrue(summary.contains("strategySearch"));
+        assertTrue(summary.contains("Heap after GC trend"));
+    }
+
+    @Test
+    public void testRejectsInvalidConfiguration() {
+        LoadGenerator generator = new LoadGenerator();
+        assertThrows(IllegalStateException.class, generator::run);
+        assertThrows(IllegalArgumentException.class, () -> generator.addOperation("zero", 0, random -> { }));
+        assertThrows(IllegalArgumentException.class, () -> generator.setOpenLoop(-1));
+        assertThrows(IllegalArgumentException.class, () -> generator.setDuration(Duration.ZERO));
+        generator.addOperation("once", 1, random -> { });
+        assertThrows(IllegalArgumentException.class, () -> generator.addOperation("once", 1, random -> { }));
+    }
+}
@@ -0,0 +1,74 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsHttpServerTest {
+
+    private static HttpURLConnection open(MetricsHttpServer server, String path, String method) throws IOException {
+        URL url = new URL("http://127.0.0.1:" + server.getPort() + path);
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    @Test
+    public void testServesMetrics() throws IOException {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("races_total", "Races").add(42);
+
+        try (MetricsHttpServer server = new MetricsHttpServer(registry, new InetSocketAddress("127.0.0.1", 0))) {
+            server.start();
+            HttpURLConnection connection = open(server, "/metrics", "GET");
+
+            assertEquals(200, connection.getResponseCode());
+            assertEquals(MetricsHttpServer.CONTENT_TYPE, connection.getContentType());
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(body.contains("races_total 42\n"));
+            assertTrue(body.contains("# TYPE raceoptimizer_jvm_heap_used_bytes gauge"));
+        }
+    }
+
+    @Test
+    public void testDefaultRegistryExportsEngineMetrics() throws IOException {
+        try (MetricsHttpServer server = MetricsHttpServer.startLocal(0)) {
+            HttpURLConnection connection = open(server, "/metrics", "GET");
+            String body;
+            try (InputStream in = connection.getInputStream()) {
+                body = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+            }
+            assertTrue(body.contains("# TYPE raceoptimizer_races_simulated_total counter"));
+            assertTrue(body.contains("# TYPE raceoptimizer_active_simulations gauge"));
+        }
+    }
+
+    @Test
+    public void testUnknownPathAndMethod() throws IOException {
+        try (MetricsHttpServer server = new MetricsHttpServer(new MetricsRegistry(),
+                new InetSocketAddress("127.0.0.1", 0))) {
+            server.start();
+            assertEquals(404, open(server, "/other", "GET").getResponseCode());
+            assertEquals(405, open(server, "/metrics", "POST").getResponseCode());
+        }
+    }
+
+    @Test
+    public void testActiveSimulationsGauge() {
+        Car car = new Car(1, "TestCar", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+        new RaceSimulator(5).simulateRace(car, Track.createMonzaTrack(),
+                RaceStrategy.createBalancedStrategy(), Weather.createDryWeather());
+
+        // Back to zero once the race has finished
+        assertEquals(0.0, MetricsRegistry.getDefault().snapshot().getGauge("raceoptimizer_active_simulations"), 0.0);
+    }
+}
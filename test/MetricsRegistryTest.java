@@ -0,0 +1,106 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MetricsRegistryTest {
+
+    @Test
+    public void testCounterIsSharedByNameAndLabels() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("requests_total", "Requests", "kind", "a").increment();
+        registry.counter("requests_total", "Requests", "kind", "a").add(2);
+        registry.counter("requests_total", "Requests", "kind", "b").increment();
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertEquals(3, snapshot.getCounter("requests_total", "kind", "a"));
+        assertEquals(1, snapshot.getCounter("requests_total", "kind", "b"));
+        assertEquals(0, snapshot.getCounter("missing_total"));
+    }
+
+    @Test
+    public void testGaugeIsReadOnSnapshot() {
+        MetricsRegistry registry = new MetricsRegistry();
+        AtomicInteger depth = new AtomicInteger(3);
+        registry.gauge("queue_depth", "Queue depth", depth::get);
+        assertEquals(3.0, registry.snapshot().getGauge("queue_depth"), 0.0);
+
+        depth.set(7);
+        assertEquals(7.0, registry.snapshot().getGauge("queue_depth"), 0.0);
+
+        registry.removeGauge("queue_depth");
+        assertTrue(Double.isNaN(registry.snapshot().getGauge("queue_depth")));
+    }
+
+    @Test
+    public void testBrokenGaugeReportsNaN() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.gauge("broken", "Always fails", () -> {
+            throw new IllegalStateException("gone");
+        });
+        assertTrue(Double.isNaN(registry.snapshot().getGauge("broken")));
+    }
+
+    @Test
+    public void testRejectsTypeClashAndBadNames() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("things_total", "Things");
+        assertThrows(IllegalArgumentException.class, () -> registry.histogram("things_total", "Things"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("bad name", "Bad"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("ok_total", "Ok", "odd"));
+        assertThrows(IllegalArgumentException.class, () -> registry.counter("ok_total", "Ok").add(-1));
+    }
+
+    @Test
+    public void testPrometheusText() {
+        MetricsRegistry registry = new MetricsRegistry();
+        registry.counter("races_total", "Races run").add(5);
+        registry.counter("failures_total", "Failures", "exception", "Invalid\"Quote").increment();
+        registry.gauge("heap_bytes", "Heap", () -> 1024);
+        LatencyHistogram latency = registry.histogram("race_seconds", "Race time");
+        latency.record(2_000_000);
+
+        String text = registry.snapshot().toPrometheusText();
+        assertTrue(text.contains("# HELP races_total Races run\n# TYPE races_total counter\nraces_total 5\n"));
+        assertTrue(text.contains("failures_total{exception=\"Invalid\\\"Quote\"} 1\n"));
+        assertTrue(text.contains("# TYPE heap_bytes gauge\nheap_bytes 1024\n"));
+        assertTrue(text.contains("# TYPE race_seconds summary\n"));
+        assertTrue(text.contains("race_seconds{quantile=\"0.5\"} 0.002"));
+        assertTrue(text.contains("race_seconds_count 1\n"));
+        assertTrue(text.contains("race_seconds_sum 0.002\n"));
+    }
+
+    @Test
+    public void testEngineInstrumentation() {
+        // Registers the engine metrics, so the first snapshot has them even when no race has run yet
+        EngineMetrics.register();
+        MetricsSnapshot before = MetricsRegistry.getDefault().snapshot();
+        Car car = new Car(1, "TestCar", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+        RaceStrategy strategy = new RaceStrategy(2, "Soft-Medium-Hard", "Medium", 95.0);
+        new RaceSimulator(30).simulateRace(car, Track.createMonzaTrack(), strategy, Weather.createDryWeather());
+        assertThrows(InvalidTrackDataException.class,
+                () -> Validator.validateTrack(new Track("Bad", 0.5, 8, "Easy", "Smooth")));
+        // A failing setup counts once, not once per component check
+        car.setWeight(2000.0);
+        assertThrows(InvalidCarConfigurationException.class,
+                () -> Validator.validateRaceSetup(car, Track.createMonzaTrack(), strategy));
+        MetricsSnapshot after = MetricsRegistry.getDefault().snapshot();
+
+        assertEquals(1, delta(before, after, "raceoptimizer_races_simulated_total"));
+        assertEquals(30, delta(before, after, "raceoptimizer_laps_simulated_total"));
+        assertEquals(2, delta(before, after, "raceoptimizer_pit_stops_total"));
+        assertEquals(2, delta(before, after, "raceoptimizer_validations_total"));
+        assertEquals(1, delta(before, after, "raceoptimizer_validation_failures_total",
+                "exception", "InvalidTrackDataException"));
+        assertEquals(1, delta(before, after, "raceoptimizer_validation_failures_total",
+                "exception", "InvalidCarConfigurationException"));
+        assertTrue(after.getHistogram("raceoptimizer_race_simulation_seconds").getCount()
+                > before.getHistogram("raceoptimizer_race_simulation_seconds").getCount());
+    }
+
+    private static long delta(MetricsSnapshot before, MetricsSnapshot after, String name, String... labels) {
+        return after.getCounter(name, labels) - before.getCounter(name, labels);
+    }
+}
@@ -79,6 +79,43 @@ public class PerformanceCalculatorTest {
         assertEquals("Low Drag Kit", easyKit.getName());
     }
 
+    @Test
+    void testCalculateLapTimeMatchesPerformance() {
+        Performance performance = PerformanceCalculator.createCarPerformance(testCar, testTrack);
+        assertEquals(performance.getLapTime(), PerformanceCalculator.calculateLapTime(testCar, testTrack), 0.0);
+    }
+
+    @Test
+    void testLapTimeReadsAeroKitAndTyres() {
+        Track monaco = Track.createMonacoTrack();
+        Track monza = Track.createMonzaTrack();
+        // The standard car is the reference, so its lap is just length and acceleration
+        assertEquals(0.0, PerformanceCalculator.calculateStraightTimeDelta(testCar, monza), 1e-9);
+        assertEquals(0.0, PerformanceCalculator.calculateCornerTimeDelta(testCar, monza, Weather.createDryWeather()), 1e-9);
+
+        Car lowDrag = new Car(2, "LowDrag", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createLowDragKit());
+        Car extreme = new Car(3, "Extreme", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createExtremeAeroKit());
+        assertTrue(PerformanceCalculator.calculateLapTime(lowDrag, monza)
+                < PerformanceCalculator.calculateLapTime(extreme, monza));
+        assertTrue(PerformanceCalculator.calculateLapTime(extreme, monaco)
+                < PerformanceCalculator.calculateLapTime(lowDrag, monaco));
+
+        // More grip is faster in the corners and does nothing on the straights
+        Car softs = new Car(4, "Softs", 950.0, Engine.createStandardEngine(),
+                Tyre.createSoftTyre(), Tyre.createSoftTyre(), AeroKit.createStandardKit());
+        assertTrue(PerformanceCalculator.calculateCornerTimeDelta(softs, monaco, Weather.createDryWeather()) < 0);
+        assertEquals(0.0, PerformanceCalculator.calculateStraightTimeDelta(softs, monaco), 1e-9);
+
+        // Corner grip comes from the weather passed in, not the track's current (dry) weather
+        assertEquals(0, monaco.getCurrentWeather().getRainIntensity());
+        assertTrue(PerformanceCalculator.calculateLapTime(softs, monaco, Weather.createWetWeather())
+                > PerformanceCalculator.calculateLapTime(softs, monaco));
+        assertEquals(PerformanceCalculator.calculateLapTime(softs, monaco),
+                PerformanceCalculator.calculateLapTime(softs, monaco, monaco.getCurrentWeather()), 0.0);
+    }
+
     @Test
     void testCreateCarPerformance() {
         testTrack.setCurrentWeather(Weather.createMixedWeather());
@@ -267,4 +267,45 @@ public class RaceSimulatorTest {
 
         assertTrue(conservativeMonza.getTotalTime() < aggressiveMonza.getTotalTime());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testExpectedRaceTimeIsTheMeanOfSimulatedRaces() {
+        // Durations past the tyre cliff, strategies with several compounds and wet weather
+        RaceStrategy[] strategies = {testStrategy, RaceStrategy.createAggressiveStrategy(),
+                new RaceStrategy(0, "Soft", "Heavy", 95.0)};
+        Weather wet = Weather.createWetWeather();
+        for (int laps : new int[]{1, 7, 60}) {
+            RaceSimulator seeded = new RaceSimulator(laps, 5L);
+            for (RaceStrategy strategy : strategies) {
+                double total = 0;
+                int races = 400;
+                for (int i = 0; i < races; i++) {
+                    total += seeded.simulateRace(testCar, testTrack, strategy, wet).getRaceTime();
+                }
+                // The ±2 s lap variation leaves the mean within a few hundredths of a minute
+                assertEquals(total / races, seeded.expectedRaceTime(testCar, testTrack, strategy, wet), 0.02,
+                        laps + " laps, " + strategy.getTyreStrategy());
+            }
+        }
+    }
+
+    @Test
+    public void testScenarioHashIdentifiesSeededRace() {
+        RaceSimulator seeded = new RaceSimulator(10, 7);
+        long first = seeded.simulateRace(testCar, testTrack, testStrategy, testWeather).getScenarioHash();
+        long again = new RaceSimulator(10, 7).simulateRace(testCar, testTrack, testStrategy, testWeather)
+                .getScenarioHash();
+        seeded.setSeed(8);
+        long nextReplication = seeded.simulateRace(testCar, testTrack, testStrategy, testWeather).getScenarioHash();
+        // Same label as the medium-tyre car, different race
+        Car softs = new Car(1, "TestCar", 950.0, Engine.createStandardEngine(),
+                Tyre.createSoftTyre(), Tyre.createSoftTyre(), AeroKit.createStandardKit());
+        seeded.setSeed(7);
+        long otherCar = seeded.simulateRace(softs, testTrack, testStrategy, testWeather).getScenarioHash();
+
+        assertNotEquals(0, first);
+        assertEquals(first, again);
+        assertNotEquals(first, nextReplication);
+        assertNotEquals(first, otherCar);
+    }
+}
@@ -0,0 +1,49 @@
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RaceTimeStatisticsTest {
+
+    @Test
+    public void testEmpty() {
+        RaceTimeStatistics stats = new RaceTimeStatistics();
+
+        assertEquals(0, stats.getCount());
+        assertEquals(0.0, stats.getMean(), 0.0);
+        assertEquals(0.0, stats.getStandardDeviation(), 0.0);
+        assertEquals(0.0, stats.getMin(), 0.0);
+    }
+
+    @Test
+    public void testAdd() {
+        RaceTimeStatistics stats = new RaceTimeStatistics();
+        for (double v : new double[]{2, 4, 4, 4, 5, 5, 7, 9}) {
+            stats.add(v);
+        }
+
+        assertEquals(8, stats.getCount());
+        assertEquals(5.0, stats.getMean(), 1e-12);
+        assertEquals(32.0 / 7, stats.getVariance(), 1e-12);
+        assertEquals(2.0, stats.getMin(), 0.0);
+        assertEquals(9.0, stats.getMax(), 0.0);
+    }
+
+    @Test
+    public void testMergeMatchesSequential() {
+        RaceTimeStatistics all = new RaceTimeStatistics();
+        RaceTimeStatistics left = new RaceTimeStatistics();
+        RaceTimeStatistics right = new RaceTimeStatistics();
+        for (int i = 0; i < 100; i++) {
+            double v = 80 + (i * 37 % 23);
+            all.add(v);
+            (i < 40 ? left : right).add(v);
+        }
+        left.merge(right);
+
+        assertEquals(all.getCount(), left.getCount());
+        assertEquals(all.getMean(), left.getMean(), 1e-9);
+        assertEquals(all.getVariance(), left.getVariance(), 1e-9);
+        assertEquals(all.getMin(), left.getMin(), 0.0);
+        assertEquals(all.getMax(), left.getMax(), 0.0);
+    }
+}
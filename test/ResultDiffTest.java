@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultDiffTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static RaceResult scenario(int id, double raceTime) {
+        RaceResult result = new RaceResult("Car" + id, "Monaco", raceTime, "Balanced Strategy");
+        result.setScenarioHash(id + 1);
+        return result;
+    }
+
+    private Path write(String name, List<RaceResult> results) throws IOException {
+        Path file = tempDir.resolve(name);
+        try (ResultFile.Writer writer = ResultFile.newWriter(file)) {
+            for (RaceResult result : results) {
+                writer.write(result);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    public void testDiffSortedFiles() throws IOException {
+        List<RaceResult> before = new ArrayList<>();
+        List<RaceResult> after = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            before.add(scenario(i, 90.0));
+            // Scenario 99 only exists in the baseline
+            if (i < 99) {
+                after.add(scenario(i, i == 42 ? 95.0 : i == 7 ? 87.0 : 90.5));
+            }
+        }
+        after.add(scenario(500, 91.0));
+
+        ResultDiff diff = new ResultDiff(2, 0.5, 10);
+        List<Double> deltas = new ArrayList<>();
+        diff.setListener((hash, baseline, candidate, delta) -> deltas.add(delta));
+        ResultDiff.Report report = diff.diff(write("before.bin", before), write("after.bin", after));
+
+        assertEquals(99, report.getMatchedCount());
+        assertEquals(1, report.getBaselineOnlyCount());
+        assertEquals(1, report.getCandidateOnlyCount());
+        assertEquals(1, report.getFasterCount());
+        assertEquals(98, report.getSlowerCount());
+        assertEquals(99, deltas.size());
+
+        List<ResultDiff.Mover> movers = report.getLargestMovers();
+        assertEquals(2, movers.size());
+        assertEquals("Car42", movers.get(0).getCarName());
+        assertEquals(5.0, movers.get(0).getDelta(), 1e-9);
+        assertEquals("Car7", movers.get(1).getCarName());
+
+        long[] histogram = report.getDeltaHistogram();
+        assertEquals(97, histogram[11]);
+        assertEquals(0.5, report.getBucketCenter(11), 1e-9);
+        assertEquals(1, histogram[20]);
+        assertEquals(1, histogram[4]);
+        assertTrue(report.toString().contains("Car42"));
+    }
+
+    @Test
+    public void testDiffPairsReplications() throws IOException {
+        List<RaceResult> before = List.of(scenario(1, 90.0), scenario(1, 92.0), scenario(2, 80.0));
+        List<RaceResult> after = List.of(scenario(1, 91.0), scenario(1, 93.0), scenario(2, 80.0));
+
+        ResultDiff.Report report = new ResultDiff().diff(write("a.bin", before), write("b.bin", after));
+
+        assertEquals(3, report.getMatchedCount());
+        assertEquals(2.0 / 3, report.getDeltaStatistics().getMean(), 1e-9);
+        assertEquals(2.0 / 3, report.getCandidateStatistics().getMean()
+                - report.getBaselineStatistics().getMean(), 1e-9);
+    }
+
+    @Test
+    public void testUnsortedInputIsRejected() throws IOException {
+        Path unsorted = write("unsorted.bin", List.of(scenario(5, 90.0), scenario(1, 90.0)));
+        Path sorted = write("sorted.bin", List.of(scenario(1, 90.0), scenario(5, 90.0)));
+
+        assertThrows(IOException.class, () -> new ResultDiff().diff(unsorted, sorted));
+    }
+
+    @Test
+    public void testDiffUnsorted() throws IOException {
+        Path before = write("before.bin", List.of(scenario(3, 90.0), scenario(1, 85.0), scenario(2, 88.0)));
+        Path after = write("after.bin", List.of(scenario(2, 88.5), scenario(3, 89.0), scenario(1, 85.0)));
+
+        ResultDiff.Report report = new ResultDiff().diffUnsorted(before, after, tempDir, 1024 * 1024);
+
+        assertEquals(3, report.getMatchedCount());
+        assertEquals(1, report.getFasterCount());
+        assertEquals(1, report.getSlowerCount());
+        assertEquals(-1.0, report.getDeltaStatistics().getMin(), 1e-9);
+    }
+}
@@ -0,0 +1,89 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultFileTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    public void testRoundTrip() throws IOException {
+        Path file = tempDir.resolve("results.bin");
+        LocalDateTime timestamp = LocalDateTime.of(2025, 5, 1, 14, 30, 0);
+        RaceResult original = new RaceResult("Custom Racer", "Monaco", 92.25, "Balanced Strategy",
+                timestamp, 84.5, 2, "Dry");
+
+        try (ResultFile.Writer writer = ResultFile.newWriter(file)) {
+            writer.write(original);
+            writer.write(new RaceResult(null, "Monza", 80.0, null));
+            assertEquals(2, writer.getCount());
+        }
+
+        try (ResultFile.Reader reader = ResultFile.newReader(file)) {
+            RaceResult first = reader.next();
+            assertEquals(original, first);
+            assertEquals(timestamp, first.getTimestamp());
+            assertEquals(84.5, first.getAverageLapTime(), 0.0);
+            assertEquals(2, first.getPitStopCount());
+            assertEquals("Dry", first.getWeatherCondition());
+            assertEquals(ResultFile.scenarioHash(original), first.getScenarioHash());
+
+            RaceResult second = reader.next();
+            assertNull(second.getCarName());
+            assertNull(second.getStrategy());
+            assertEquals("Monza", second.getTrackName());
+
+            assertNull(reader.next());
+            assertEquals(2, reader.getCount());
+        }
+    }
+
+    @Test
+    public void testScenarioHash() {
+        RaceResult a = new RaceResult("Car", "Monaco", 90.0, "Balanced Strategy", 80.0, 2, "Dry");
+        RaceResult b = new RaceResult("Car", "Monaco", 95.0, "Balanced Strategy", 82.0, 2, "Dry");
+        RaceResult c = new RaceResult("Car", "Monaco", 90.0, "Balanced Strategy", 80.0, 2, "Wet");
+
+        // Same scenario, different outcome
+        assertEquals(ResultFile.scenarioHash(a), ResultFile.scenarioHash(b));
+        assertNotEquals(ResultFile.scenarioHash(a), ResultFile.scenarioHash(c));
+
+        c.setScenarioHash(42L);
+        assertEquals(42L, ResultFile.scenarioHash(c));
+
+        assertEquals(ResultFile.scenarioKey(3, 1), ResultFile.scenarioKey(3, 1));
+        assertNotEquals(ResultFile.scenarioKey(3, 1), ResultFile.scenarioKey(3, 2));
+        assertNotEquals(ResultFile.scenarioKey(3, 1), ResultFile.scenarioKey(1, 3));
+        assertNotEquals(0, ResultFile.scenarioKey(0));
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("not-results.txt");
+        Files.writeString(file, "hello world");
+
+        assertThrows(IOException.class, () -> ResultFile.newReader(file));
+    }
+
+    @Test
+    public void testSharesRepeatedLabels() throws IOException {
+        Path file = tempDir.resolve("labels.bin");
+        try (ResultFile.Writer writer = ResultFile.newWriter(file)) {
+            writer.write(new RaceResult("A", "Silverstone", 90.0, "Balanced Strategy"));
+            writer.write(new RaceResult("B", "Silverstone", 91.0, "Balanced Strategy"));
+        }
+
+        try (ResultFile.Reader reader = ResultFile.newReader(file)) {
+            RaceResult first = reader.next();
+            RaceResult second = reader.next();
+            assertSame(first.getTrackName(), second.getTrackName());
+        }
+    }
+}
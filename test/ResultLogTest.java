@@ -0,0 +1,122 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ResultLogTest {
+
+    @TempDir
+    Path tempDir;
+
+    private List<Long> replayIndices(Path file) throws IOException {
+        List<Long> indices = new ArrayList<>();
+        ResultLog.replay(file, (index, result, endOffset) -> indices.add(index));
+        return indices;
+    }
+
+    @Test
+    public void testAppendAndReplay() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        try (ResultLog log = ResultLog.open(file)) {
+            log.append(0, new RaceResult("Car", "Monaco", 91.0, "Balanced Strategy"));
+            log.append(1, new RaceResult("Car", "Monza", 82.0, "Balanced Strategy"));
+            assertEquals(2, log.getEntryCount());
+        }
+
+        List<RaceResult> results = new ArrayList<>();
+        long count = ResultLog.replay(file, (index, result, endOffset) -> results.add(result));
+        assertEquals(2, count);
+        assertEquals("Monaco", results.get(0).getTrackName());
+        assertEquals(82.0, results.get(1).getRaceTime(), 0.0);
+    }
+
+    @Test
+    public void testGroupCommit() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        try (ResultLog log = ResultLog.open(file, 3, 60_000, null)) {
+            long emptySize = log.getCommittedSize();
+            log.append(0, new RaceResult("Car", "Monaco", 91.0, "Balanced Strategy"));
+            log.append(1, new RaceResult("Car", "Monaco", 92.0, "Balanced Strategy"));
+            assertEquals(2, log.getPendingEntries());
+            assertEquals(emptySize, log.getCommittedSize());
+
+            log.append(2, new RaceResult("Car", "Monaco", 93.0, "Balanced Strategy"));
+            assertEquals(0, log.getPendingEntries());
+            assertEquals(Files.size(file), log.getCommittedSize());
+        }
+    }
+
+    @Test
+    public void testIdleEntriesAreCommittedAfterInterval() throws IOException, InterruptedException {
+        Path file = tempDir.resolve("results.log");
+        try (ResultLog log = ResultLog.open(file, 1000, 50, null)) {
+            log.append(0, new RaceResult("Car", "Monaco", 91.0, "Balanced Strategy"));
+            assertEquals(1, log.getPendingEntries());
+
+            // No further append: the background flusher must commit the entry
+            long deadline = System.nanoTime() + 5_000_000_000L;
+            while (log.getPendingEntries() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            assertEquals(0, log.getPendingEntries());
+            assertEquals(Files.size(file), log.getCommittedSize());
+            assertEquals(List.of(0L), replayIndices(file));
+        }
+    }
+
+    @Test
+    public void testTornTailIsDropped() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        try (ResultLog log = ResultLog.open(file)) {
+            for (int i = 0; i < 5; i++) {
+                log.append(i, new RaceResult("Car", "Silverstone", 90.0 + i, "Balanced Strategy"));
+            }
+        }
+        // Simulate a crash in the middle of the last write
+        long size = Files.size(file);
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            raf.setLength(size - 7);
+        }
+
+        try (ResultLog log = ResultLog.open(file)) {
+            assertEquals(4, log.getEntryCount());
+            log.append(9, new RaceResult("Car", "Silverstone", 99.0, "Balanced Strategy"));
+        }
+        assertEquals(List.of(0L, 1L, 2L, 3L, 9L), replayIndices(file));
+    }
+
+    @Test
+    public void testCorruptedEntryStopsReplay() throws IOException {
+        Path file = tempDir.resolve("results.log");
+        try (ResultLog log = ResultLog.open(file)) {
+            for (int i = 0; i < 3; i++) {
+                log.append(i, new RaceResult("Car", "Monza", 80.0 + i, "Balanced Strategy"));
+            }
+        }
+        // Flip a byte inside the last entry's payload
+        try (RandomAccessFile raf = new RandomAccessFile(file.toFile(), "rw")) {
+            long position = raf.length() - 10;
+            raf.seek(position);
+            int b = raf.read();
+            raf.seek(position);
+            raf.write(b ^ 0xFF);
+        }
+
+        assertEquals(List.of(0L, 1L), replayIndices(file));
+    }
+
+    @Test
+    public void testRejectsForeignFile() throws IOException {
+        Path file = tempDir.resolve("other.log");
+        Files.writeString(file, "not a result log");
+
+        assertThrows(IOException.class, () -> ResultLog.open(file));
+    }
+}
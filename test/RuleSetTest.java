@@ -0,0 +1,147 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RuleSetTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static Car car(double weight, int power) {
+        return new Car(1, "Rule Car", weight, new Engine("Test", power, 1.0, 150.0),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+    }
+
+    @Test
+    public void testStandardAgreesWithValidator() {
+        RuleSet.Evaluator evaluator = RuleSet.standard().newEvaluator();
+        Random random = new Random(41);
+        double[] weights = {-1, 300, 500, 950, 1500, 1600};
+        int[] powers = {50, 100, 300, 500, 600};
+        double[] lengths = {-1, 0.5, 1, 5, 10, 12};
+        int[] corners = {0, 5, 10, 25, 30};
+        String[] difficulties = {null, " ", "Easy", "Medium", "Hard", "hard"};
+        String[] fuels = {null, "", "Light", "Medium", "Heavy", "Mega"};
+        int[] stops = {-1, 0, 1, 4, 5};
+
+        for (int i = 0; i < 20_000; i++) {
+            Car car = random.nextInt(40) == 0 ? null : new Car(1, "C", weights[random.nextInt(weights.length)],
+                    random.nextInt(8) == 0 ? null : new Engine("E", powers[random.nextInt(powers.length)], 1.0,
+                            random.nextInt(6) == 0 ? 0 : 150),
+                    random.nextInt(10) == 0 ? null : Tyre.createSoftTyre(),
+                    random.nextInt(10) == 0 ? null : Tyre.createHardTyre(),
+                    random.nextInt(10) == 0 ? null : AeroKit.createStandardKit());
+            Track track = random.nextInt(40) == 0 ? null : new Track("T", lengths[random.nextInt(lengths.length)],
+                    corners[random.nextInt(corners.length)], difficulties[random.nextInt(difficulties.length)], "Asphalt");
+            RaceStrategy strategy = random.nextInt(40) == 0 ? null : new RaceStrategy(stops[random.nextInt(stops.length)],
+                    "Soft-Hard", fuels[random.nextInt(fuels.length)], 95.0);
+
+            boolean validatorErrors = ValidationRule.hasErrors(Validator.screenRaceSetup(car, track, strategy));
+            assertEquals(validatorErrors, !evaluator.isValid(car, track, strategy), "Setup " + i);
+            assertEquals(validatorErrors, evaluator.getRuleSet().hasErrors(evaluator.evaluate(car, track, strategy)));
+        }
+    }
+
+    @Test
+    public void testCrossFieldCondition() {
+        RuleSet rules = RuleSet.standard();
+        RuleSet.Evaluator evaluator = rules.newEvaluator();
+        Track track = Track.createSilverstoneTrack();
+        int lightWithoutStops = rules.indexOf("light-fuel-without-stops");
+
+        long noStops = evaluator.evaluate(car(950, 300), track, new RaceStrategy(0, "Hard", "Light", 95.0));
+        long oneStop = evaluator.evaluate(car(950, 300), track, new RaceStrategy(1, "Hard", "Light", 95.0));
+
+        assertEquals(1L << lightWithoutStops, noStops & rules.getErrorMask());
+        assertEquals(0, oneStop & rules.getErrorMask());
+    }
+
+    @Test
+    public void testMissingComponentSkipsValueRules() {
+        RuleSet rules = RuleSet.standard();
+        Car noEngine = new Car(1, "No Engine", 950.0, null,
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+        long violations = rules.newEvaluator().evaluate(noEngine, Track.createMonacoTrack(),
+                RaceStrategy.createBalancedStrategy());
+
+        assertEquals(1L << rules.indexOf("engine-assigned"), violations & rules.getErrorMask());
+        assertEquals(List.of("Engine is not assigned"),
+                rules.describe(violations & rules.getErrorMask(), noEngine, null, null));
+    }
+
+    @Test
+    public void testParseRuleFile() {
+        RuleSet rules = RuleSet.parse("{\"name\": \"sprint\", \"rules\": ["
+                + "{\"id\": \"power\", \"field\": \"enginePower\", \"above\": 200, \"max\": 400,"
+                + " \"message\": \"Power {value} HP\"},"
+                + "{\"id\": \"fuel\", \"field\": \"fuelStrategy\", \"noneOf\": [\"Heavy\"]},"
+                + "{\"id\": \"time\", \"severity\": \"warning\", \"field\": \"estimatedRaceTime\", \"below\": 60}]}");
+        RuleSet.Evaluator evaluator = rules.newEvaluator();
+        Track track = Track.createMonacoTrack();
+        RaceStrategy heavy = new RaceStrategy(1, "Hard", "Heavy", 95.0);
+
+        assertEquals("sprint", rules.getName());
+        assertEquals(3, rules.getRuleCount());
+        assertEquals(0b011, rules.getErrorMask());
+        assertEquals(0b111, evaluator.evaluate(car(950, 200), track, heavy));
+        assertEquals(0b100, evaluator.evaluate(car(950, 201), track, RaceStrategy.createBalancedStrategy()));
+        assertEquals(List.of("Power 200 HP"), rules.describe(0b001, car(950, 200), track, heavy));
+    }
+
+    @Test
+    public void testLoadSeriesRuleFile() throws IOException {
+        RuleSet endurance = RuleSet.load(Paths.get("rules", "endurance.json"));
+        RuleSet.Evaluator evaluator = endurance.newEvaluator();
+        Track track = Track.createSilverstoneTrack();
+
+        assertEquals("endurance", endurance.getName());
+        assertTrue(evaluator.isValid(car(950, 300), track, new RaceStrategy(4, "Medium-Hard", "Medium", 360.0)));
+        assertFalse(evaluator.isValid(car(950, 300), track, RaceStrategy.createAggressiveStrategy()));
+        assertEquals(endurance.indexOf("heavy-fuel-stint-length"),
+                evaluator.firstError(car(950, 300), track, new RaceStrategy(10, "Hard", "Heavy", 360.0)));
+    }
+
+    @Test
+    public void testInvalidRuleFiles() throws IOException {
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.parse("{\"rules\": []}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleSet.parse("{\"rules\": [{\"id\": \"x\", \"field\": \"wingspan\", \"min\": 1}]}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleSet.parse("{\"rules\": [{\"id\": \"x\", \"field\": \"carWeight\"}]}"));
+        assertThrows(IllegalArgumentException.class,
+                () -> RuleSet.parse("{\"rules\": [{\"id\": \"x\", \"field\": \"difficulty\", \"min\": 1}]}"));
+        assertThrows(IllegalArgumentException.class, () -> RuleSet.parse("{\"rules\": ["
+                + "{\"id\": \"x\", \"field\": \"corners\", \"min\": 1},"
+                + "{\"id\": \"x\", \"field\": \"corners\", \"max\": 9}]}"));
+
+        Path broken = tempDir.resolve("broken.json");
+        Files.writeString(broken, "{\"rules\": [");
+        assertThrows(IOException.class, () -> RuleSet.load(broken));
+    }
+
+    @Test
+    public void testFrequentRejectionsMoveToFront() {
+        RuleSet rules = RuleSet.standard();
+        RuleSet.Evaluator evaluator = rules.newEvaluator();
+        int fuelRule = rules.indexOf("fuel-strategy");
+        assertNotEquals(fuelRule, evaluator.getOrder()[0]);
+
+        Car car = car(950, 300);
+        Track track = Track.createMonacoTrack();
+        RaceStrategy badFuel = new RaceStrategy(1, "Hard", "Mega", 95.0);
+        for (int i = 0; i < RuleSet.REORDER_INTERVAL; i++) {
+            assertEquals(fuelRule, evaluator.firstError(car, track, badFuel));
+        }
+
+        assertEquals(fuelRule, evaluator.getOrder()[0]);
+        assertEquals(RuleSet.REORDER_INTERVAL / 2, evaluator.getRejectionCounts()[fuelRule]);
+    }
+}
@@ -0,0 +1,131 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScenarioFileTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    public void testRoundTripsCatalogsAndRecords() throws IOException {
+        Path file = dir.resolve("scenarios.bin");
+        ScenarioFile.Catalog catalog = new ScenarioFile.Catalog();
+        Engine turbo = Engine.createTurboEngine();
+        int alpha = catalog.addCarName("Alpha");
+        int beta = catalog.addCarName("Beta");
+        int engine = catalog.addEngine(turbo);
+        int soft = catalog.addTyre(Tyre.createSoftTyre());
+        int hard = catalog.addTyre(Tyre.createHardTyre());
+        int kit = catalog.addAeroKit(AeroKit.createLowDragKit());
+        int monza = catalog.addTrack(Track.createMonzaTrack());
+        int monaco = catalog.addTrack(Track.createMonacoTrack());
+        int wet = catalog.addWeather(Weather.createWetWeather());
+        int strategy = catalog.addStrategy(new RaceStrategy(2, "Soft-Medium-Hard", null, 95.0));
+        assertEquals(engine, catalog.addEngine(turbo), "same instance keeps its id");
+
+        try (ScenarioFile.Writer writer = ScenarioFile.newWriter(file, catalog)) {
+            writer.write(alpha, engine, soft, kit, 950.0, monza, wet, strategy, 50, 10, 42L);
+            writer.write(beta, engine, hard, kit, 1010.5, monaco, wet, strategy, 78, 1, -7L);
+            assertEquals(2, writer.getCount());
+        }
+        assertTrue(ScenarioFile.isScenarioFile(file));
+
+        try (ScenarioFile.Mapped mapped = ScenarioFile.map(file)) {
+            assertEquals(2, mapped.getRecordCount());
+            ScenarioFile.Scenario scenario = new ScenarioFile.Scenario();
+
+            mapped.read(1, scenario);
+            assertEquals(1, scenario.getIndex());
+            assertEquals("Beta", scenario.getCar().getName());
+            assertEquals(1010.5, scenario.getCar().getWeight(), 0.0);
+            assertEquals("Hard", scenario.getCar().getFrontTyres().getCompound());
+            assertEquals("Monaco", scenario.getTrack().getName());
+            assertEquals(78, scenario.getLaps());
+            assertEquals(1, scenario.getReplications());
+            assertEquals(-7L, scenario.getSeed());
+
+            mapped.read(0, scenario);
+            Car car = scenario.getCar();
+            assertEquals("Alpha", car.getName());
+            assertEquals(turbo.getPower(), car.getEngine().getPower());
+            assertEquals(turbo.getFuelEfficiency(), car.getEngine().getFuelEfficiency(), 0.0);
+            assertEquals("Low Drag Kit", car.getAeroKit().getName());
+            assertEquals(Track.createMonzaTrack().getLength(), scenario.getTrack().getLength(), 0.0);
+            assertEquals("Wet", scenario.getWeather().getCondition());
+            assertEquals("Soft-Medium-Hard", scenario.getStrategy().getTyreStrategy());
+            assertNull(scenario.getStrategy().getFuelStrategy());
+            assertEquals(42L, scenario.getSeed());
+
+            assertThrows(IllegalArgumentException.class, () -> mapped.read(2, scenario));
+        }
+    }
+
+    @Test
+    public void testRecordsHaveFixedWidth() throws IOException {
+        Path small = dir.resolve("small.bin");
+        Path large = dir.resolve("large.bin");
+        ScenarioFile.Catalog catalog = singleEntryCatalog();
+
+        writeRecords(small, catalog, 1);
+        writeRecords(large, catalog, 101);
+
+        assertEquals(100L * ScenarioFile.RECORD_SIZE, Files.size(large) - Files.size(small));
+    }
+
+    @Test
+    public void testWriterRejectsUnknownIds() throws IOException {
+        try (ScenarioFile.Writer writer = ScenarioFile.newWriter(dir.resolve("s.bin"), singleEntryCatalog())) {
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.write(0, 1, 0, 0, 900, 0, 0, 0, 10, 1, 0));
+            assertThrows(IllegalArgumentException.class,
+                    () -> writer.write(0, 0, 0, 0, 900, 0, 0, 0, 0, 1, 0));
+        }
+    }
+
+    @Test
+    public void testRejectsOtherFiles() throws IOException {
+        Path text = dir.resolve("jobs.csv");
+        Files.writeString(text, "Alpha,turbo,soft,Standard Kit,950,Monza,balanced,dry,50,1,1\n");
+        Path empty = Files.createFile(dir.resolve("empty.bin"));
+
+        assertFalse(ScenarioFile.isScenarioFile(text));
+        assertFalse(ScenarioFile.isScenarioFile(empty));
+        assertThrows(IOException.class, () -> ScenarioFile.map(text));
+    }
+
+    @Test
+    public void testRejectsTruncatedRecords() throws IOException {
+        Path file = dir.resolve("s.bin");
+        writeRecords(file, singleEntryCatalog(), 3);
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(file, java.util.Arrays.copyOf(bytes, bytes.length - 1));
+
+        assertThrows(IOException.class, () -> ScenarioFile.map(file));
+    }
+
+    private static ScenarioFile.Catalog singleEntryCatalog() {
+        ScenarioFile.Catalog catalog = new ScenarioFile.Catalog();
+        catalog.addCarName("Car");
+        catalog.addEngine(Engine.createStandardEngine());
+        catalog.addTyre(Tyre.createMediumTyre());
+        catalog.addAeroKit(AeroKit.createStandardKit());
+        catalog.addTrack(Track.createSilverstoneTrack());
+        catalog.addWeather(Weather.createDryWeather());
+        catalog.addStrategy(RaceStrategy.createBalancedStrategy());
+        return catalog;
+    }
+
+    static void writeRecords(Path file, ScenarioFile.Catalog catalog, int count) throws IOException {
+        try (ScenarioFile.Writer writer = ScenarioFile.newWriter(file, catalog)) {
+            for (int i = 0; i < count; i++) {
+                writer.write(0, 0, 0, 0, 900, 0, 0, 0, 10, 1, i);
+            }
+        }
+    }
+}
@@ -0,0 +1,169 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SetupOptimiserTest {
+
+    private static ComponentCatalog catalogWith(String lines) throws IOException {
+        return ComponentCatalog.read(new BufferedReader(new StringReader(lines)), "test", ComponentCatalog.standard());
+    }
+
+    // Every setup of the space, checked and timed one by one
+    private static double bruteForceBest(ComponentCatalog catalog, Track track, Weather weather) {
+        RaceSimulator simulator = new RaceSimulator(50);
+        simulator.setCatalog(catalog);
+        List<String> plans = new ArrayList<>();
+        for (RaceStrategy strategy : catalog.getStrategies()) {
+            if (!plans.contains(strategy.getTyreStrategy())) {
+                plans.add(strategy.getTyreStrategy());
+            }
+        }
+        for (String name : catalog.getNames(ComponentCatalog.Type.TYRE)) {
+            if (!plans.contains(name)) {
+                plans.add(name);
+            }
+        }
+        double best = Double.POSITIVE_INFINITY;
+        for (Engine engine : catalog.getEngines()) {
+            for (Tyre front : catalog.getTyres()) {
+                for (Tyre rear : catalog.getTyres()) {
+                    for (AeroKit kit : catalog.getAeroKits()) {
+                        Car car = new Car(0, "Brute", 950.0, engine, front, rear, kit);
+                        for (int stops = Validator.MIN_PIT_STOPS; stops <= Validator.MAX_PIT_STOPS; stops++) {
+                            for (String fuel : Validator.VALID_FUEL_STRATEGIES) {
+                                for (String plan : plans) {
+                                    RaceStrategy strategy = new RaceStrategy(stops, plan, fuel, 95.0);
+                                    if (!ValidationRule.hasErrors(Validator.screenRaceSetup(car, track, strategy))) {
+                                        best = Math.min(best, simulator.expectedRaceTime(car, track, strategy, weather));
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    @Test
+    public void testFindsTheBestSetupOfTheWholeSpace() throws InterruptedException {
+        ComponentCatalog catalog = ComponentCatalog.standard();
+        Track monaco = Track.createMonacoTrack();
+        SetupOptimiser optimiser = new SetupOptimiser(catalog);
+        optimiser.setThreads(1);
+        optimiser.setTopK(5);
+
+        SetupOptimiser.Report report = optimiser.optimise(monaco, Weather.createDryWeather());
+
+        List<SetupOptimiser.Solution> best = report.getBest();
+        assertEquals(5, best.size());
+        assertEquals(bruteForceBest(catalog, monaco, Weather.createDryWeather()),
+                best.get(0).getExpectedRaceTime(), 1e-9);
+        for (int i = 1; i < best.size(); i++) {
+            assertTrue(best.get(i).getExpectedRaceTime() >= best.get(i - 1).getExpectedRaceTime());
+        }
+        assertEquals(report.getSpaceSize(), report.getEvaluated() + report.getPruned() + report.getDuplicates());
+        // Monaco is Hard, so no-stop strategies are pruned, and "Medium-Hard" is both a plan and
+        // equivalent to "Medium" with no stops
+        assertTrue(report.getPruned() > 0);
+        assertTrue(report.getDuplicates() > 0);
+
+        SetupOptimiser.Solution winner = best.get(0);
+        Car car = winner.toCar(7, "Winner", 950.0);
+        assertFalse(ValidationRule.hasErrors(Validator.screenRaceSetup(car, monaco, winner.getStrategy())));
+        assertEquals(winner.getExpectedRaceTime(), winner.getStrategy().getEstimatedRaceTime(), 0.0);
+    }
+
+    @Test
+    public void testStreamsImprovementsAndAgreesAcrossThreads() throws InterruptedException {
+        Track silverstone = Track.createSilverstoneTrack();
+        SetupOptimiser sequential = new SetupOptimiser(ComponentCatalog.standard());
+        sequential.setThreads(1);
+        double expected = sequential.optimise(silverstone, Weather.createWetWeather()).getBest().get(0)
+                .getExpectedRaceTime();
+
+        List<Double> improvements = new ArrayList<>();
+        SetupOptimiser parallel = new SetupOptimiser(ComponentCatalog.standard());
+        parallel.setThreads(3);
+        parallel.setImprovementListener(solution -> improvements.add(solution.getExpectedRaceTime()));
+        SetupOptimiser.Report report = parallel.optimise(silverstone, Weather.createWetWeather());
+
+        assertEquals(expected, report.getBest().get(0).getExpectedRaceTime(), 0.0);
+        assertFalse(improvements.isEmpty());
+        for (int i = 1; i < improvements.size(); i++) {
+            assertTrue(improvements.get(i) < improvements.get(i - 1), "improvements must keep getting faster");
+        }
+        assertEquals(expected, improvements.get(improvements.size() - 1), 0.0);
+    }
+
+    @Test
+    public void testTopSetupsAreDistinctAndStableAcrossThreads() throws InterruptedException {
+        Track monaco = Track.createMonacoTrack();
+        List<String> expected = null;
+        for (int threads : new int[]{1, 2, 3}) {
+            SetupOptimiser optimiser = new SetupOptimiser(ComponentCatalog.standard());
+            optimiser.setThreads(threads);
+            List<SetupOptimiser.Solution> best = optimiser.optimise(monaco, Weather.createDryWeather()).getBest();
+            List<String> names = best.stream().map(SetupOptimiser.Solution::toString).toList();
+            if (expected == null) {
+                expected = names;
+            }
+            assertEquals(expected, names, "top K with " + threads + " threads");
+
+            for (int i = 1; i < best.size(); i++) {
+                SetupOptimiser.Solution previous = best.get(i - 1);
+                SetupOptimiser.Solution current = best.get(i);
+                // Equal times are ordered by name
+                if (current.getExpectedRaceTime() == previous.getExpectedRaceTime()) {
+                    assertTrue(SetupOptimiser.Solution.BY_NAMES.compare(previous, current) < 0);
+                }
+            }
+        }
+        // Kits and car tyres change the time, so the leaders are not all one time
+        assertTrue(expected.stream().map(s -> s.substring(0, s.indexOf(" min"))).distinct().count() > 1);
+    }
+
+    @Test
+    public void testEquivalentComponentsAreSearchedOnce() throws IOException, InterruptedException {
+        Engine turbo = Engine.createTurboEngine();
+        ComponentCatalog withCopy = catalogWith("engine, Turbo Copy, " + turbo.getPower() + ", "
+                + turbo.getFuelEfficiency() + ", " + turbo.getWeight() + "\n");
+        Track monza = Track.createMonzaTrack();
+
+        SetupOptimiser.Report standard = new SetupOptimiser(ComponentCatalog.standard()).optimise(monza,
+                Weather.createDryWeather());
+        SetupOptimiser.Report copied = new SetupOptimiser(withCopy).optimise(monza, Weather.createDryWeather());
+
+        assertTrue(copied.getSpaceSize() > standard.getSpaceSize());
+        assertEquals(standard.getEvaluated(), copied.getEvaluated());
+        assertEquals(standard.getPruned(), copied.getPruned());
+        assertEquals(standard.getBest().get(0).getExpectedRaceTime(), copied.getBest().get(0).getExpectedRaceTime(), 0.0);
+    }
+
+    @Test
+    public void testPrunesInfeasibleSetups() throws InterruptedException {
+        SetupOptimiser optimiser = new SetupOptimiser(ComponentCatalog.standard());
+        optimiser.setCarWeight(Validator.MAX_CAR_WEIGHT + 1);
+        List<SetupOptimiser.Solution> improvements = new ArrayList<>();
+        optimiser.setImprovementListener(improvements::add);
+
+        SetupOptimiser.Report report = optimiser.optimise(Track.createMonzaTrack(), Weather.createDryWeather());
+
+        assertEquals(List.of(), report.getBest());
+        assertEquals(0, report.getEvaluated());
+        assertEquals(report.getSpaceSize() - report.getDuplicates(), report.getPruned());
+        assertEquals(List.of(), improvements);
+
+        Track invalid = new Track("Nowhere", 0.5, 2, "Medium", "Smooth");
+        assertThrows(IllegalArgumentException.class, () -> optimiser.optimise(invalid, Weather.createDryWeather()));
+        assertThrows(IllegalArgumentException.class, () -> optimiser.setTopK(0));
+        assertThrows(IllegalArgumentException.class, () -> new SetupOptimiser(null));
+    }
+}
@@ -0,0 +1,117 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SimulationTracerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final Car car = new Car(1, "TestCar", 950.0, Engine.createStandardEngine(),
+            Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+    private final RaceStrategy strategy = new RaceStrategy(2, "Soft-Medium-Hard", "Medium", 95.0);
+
+    @AfterEach
+    public void tearDown() {
+        SimulationTracer.disable();
+    }
+
+    @Test
+    public void testDisabledByDefault() {
+        assertFalse(SimulationTracer.isEnabled());
+        assertNull(SimulationTracer.currentTrace());
+    }
+
+    @Test
+    public void testRaceSpanTree() {
+        SimulationTracer tracer = SimulationTracer.enable(8, Long.MAX_VALUE, null);
+        new RaceSimulator(30).simulateRace(car, Track.createMonzaTrack(), strategy, Weather.createDryWeather());
+
+        List<SimulationTracer.TraceRecord> traces = tracer.getRecentTraces();
+        assertEquals(1, traces.size());
+        SimulationTracer.TraceRecord trace = traces.get(0);
+        // simulateRace, setup, 3 stints, pit stops, result
+        assertEquals(7, trace.getSpanCount());
+        assertEquals(SimulationTracer.SIMULATE_RACE, trace.getName(0));
+        assertEquals(0, trace.getDepth(0));
+        assertEquals(SimulationTracer.SETUP, trace.getName(1));
+        for (int stint = 0; stint < 3; stint++) {
+            assertEquals(SimulationTracer.STINT, trace.getName(2 + stint));
+            assertEquals(stint, trace.getDetail(2 + stint));
+            assertEquals(1, trace.getDepth(2 + stint));
+        }
+        assertEquals(SimulationTracer.PIT_STOPS, trace.getName(5));
+        assertEquals(2, trace.getDetail(5));
+        assertEquals(SimulationTracer.RESULT, trace.getName(6));
+        for (int i = 1; i < trace.getSpanCount(); i++) {
+            assertTrue(trace.getDurationNanos(i) <= trace.getTotalNanos());
+        }
+    }
+
+    @Test
+    public void testSlowTracesReachListener() {
+        List<SimulationTracer.TraceRecord> slow = new ArrayList<>();
+        SimulationTracer.enable(4, 0, slow::add);
+        RaceSimulator simulator = new RaceSimulator(10);
+        simulator.simulateRace(car, Track.createMonzaTrack(), strategy, Weather.createDryWeather());
+        simulator.simulateRace(car, Track.createMonzaTrack(), strategy, Weather.createDryWeather());
+
+        assertEquals(2, slow.size());
+        assertTrue(slow.get(0).toString().startsWith("Trace #0:"));
+        assertTrue(slow.get(1).toString().contains("stint[2]"));
+    }
+
+    @Test
+    public void testRingKeepsMostRecentTraces() {
+        SimulationTracer tracer = SimulationTracer.enable(3, Long.MAX_VALUE, null);
+        for (int i = 0; i < 10; i++) {
+            SimulationTracer.Trace trace = SimulationTracer.currentTrace();
+            trace.close(trace.open(SimulationTracer.SCENARIO, i));
+        }
+
+        List<SimulationTracer.TraceRecord> traces = tracer.getRecentTraces();
+        assertEquals(10, tracer.getCompletedTraceCount());
+        assertEquals(3, traces.size());
+        assertEquals(7, traces.get(0).getDetail(0));
+        assertEquals(9, traces.get(2).getDetail(0));
+    }
+
+    @Test
+    public void testSpansBeyondCapacityAreDropped() {
+        SimulationTracer tracer = SimulationTracer.enable(1, Long.MAX_VALUE, null);
+        SimulationTracer.Trace trace = SimulationTracer.currentTrace();
+        int root = trace.open(SimulationTracer.SCENARIO, 0);
+        for (int i = 0; i < SimulationTracer.MAX_SPANS + 5; i++) {
+            trace.close(trace.open(SimulationTracer.STINT, i));
+        }
+        trace.close(root);
+
+        SimulationTracer.TraceRecord record = tracer.getRecentTraces().get(0);
+        assertEquals(SimulationTracer.MAX_SPANS, record.getSpanCount());
+        assertEquals(6, record.getDroppedSpanCount());
+    }
+
+    @Test
+    public void testSweepTracesIncludeSink() throws IOException {
+        SimulationTracer tracer = SimulationTracer.enable(16, Long.MAX_VALUE, null);
+        CheckpointedSweep sweep = new CheckpointedSweep(tempDir.resolve("job"), 5);
+        RaceSimulator simulator = new RaceSimulator(10);
+        sweep.run(index -> simulator.simulateRace(car, Track.createMonzaTrack(), strategy, Weather.createDryWeather()));
+
+        List<SimulationTracer.TraceRecord> traces = tracer.getRecentTraces();
+        assertEquals(5, traces.size());
+        SimulationTracer.TraceRecord trace = traces.get(4);
+        assertEquals(SimulationTracer.SCENARIO, trace.getName(0));
+        assertEquals(4, trace.getDetail(0));
+        assertEquals(SimulationTracer.SIMULATE_RACE, trace.getName(1));
+        assertEquals(SimulationTracer.SINK, trace.getName(trace.getSpanCount() - 1));
+        assertEquals(1, trace.getDepth(trace.getSpanCount() - 1));
+    }
+}
@@ -0,0 +1,123 @@
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SpillingResultBufferTest {
+
+    @TempDir
+    Path tempDir;
+
+    private static RaceResult result(int i) {
+        return new RaceResult("Car" + i, "Monza", 80.0 + i * 0.01, "Balanced Strategy");
+    }
+
+    @Test
+    public void testStaysWithinBudget() throws IOException {
+        long budget = 16 * 1024;
+        try (SpillingResultBuffer buffer = new SpillingResultBuffer(tempDir.resolve("spill"), budget)) {
+            for (int i = 0; i < 2000; i++) {
+                buffer.add(result(i));
+                assertTrue(buffer.getEstimatedHeapBytes() <= budget);
+            }
+
+            assertEquals(2000, buffer.size());
+            assertTrue(buffer.getSegmentCount() > 0);
+            assertEquals(2000, buffer.getSpilledCount() + buffer.getInMemoryCount());
+        }
+    }
+
+    @Test
+    public void testQueriesSpanBothTiers() throws IOException {
+        try (SpillingResultBuffer buffer = new SpillingResultBuffer(tempDir.resolve("spill"), 8 * 1024)) {
+            for (int i = 0; i < 500; i++) {
+                buffer.add(result(i));
+            }
+
+            List<String> names = new ArrayList<>();
+            buffer.forEach(r -> names.add(r.getCarName()));
+            assertEquals(500, names.size());
+            assertEquals("Car0", names.get(0));
+            assertEquals("Car499", names.get(499));
+
+            List<RaceResult> matches = buffer.query(r -> r.getCarName().endsWith("7"), 5);
+            assertEquals(5, matches.size());
+            assertEquals("Car7", matches.get(0).getCarName());
+
+            List<RaceResult> inRange = new ArrayList<>();
+            buffer.forEachWithRaceTimeBetween(81.0, 81.095, inRange::add);
+            assertEquals(10, inRange.size());
+            assertEquals("Car100", inRange.get(0).getCarName());
+        }
+    }
+
+    @Test
+    public void testCloseRemovesSegments() throws IOException {
+        Path spill = tempDir.resolve("spill");
+        SpillingResultBuffer buffer = new SpillingResultBuffer(spill, 4 * 1024);
+        for (int i = 0; i < 300; i++) {
+            buffer.add(result(i));
+        }
+        buffer.close();
+
+        try (Stream<Path> files = Files.list(spill)) {
+            assertEquals(0, files.count());
+        }
+        assertThrows(IllegalStateException.class, () -> buffer.add(result(0)));
+    }
+
+    @Test
+    public void testRetentionDropsOldestSegments() throws IOException {
+        Path spill = tempDir.resolve("spill");
+        try (SpillingResultBuffer buffer = new SpillingResultBuffer(spill, 4 * 1024)) {
+            buffer.setMaxSpilledBytes(8 * 1024);
+            for (int i = 0; i < 3000; i++) {
+                buffer.add(result(i));
+                assertTrue(buffer.getSpilledBytes() <= 8 * 1024);
+            }
+
+            assertTrue(buffer.getDroppedCount() > 0);
+            assertEquals(3000, buffer.size() + buffer.getDroppedCount());
+            try (Stream<Path> files = Files.list(spill)) {
+                assertEquals(buffer.getSegmentCount(), files.count());
+            }
+
+            // The newest results survive and are still visited in order
+            List<String> names = new ArrayList<>();
+            assertEquals(buffer.getDroppedCount(), buffer.forEach(r -> names.add(r.getCarName())));
+            assertEquals(buffer.size(), names.size());
+            assertEquals("Car" + buffer.getDroppedCount(), names.get(0));
+            assertEquals("Car2999", names.get(names.size() - 1));
+        }
+        assertThrows(IllegalArgumentException.class,
+                () -> new SpillingResultBuffer(spill, 1024).setMaxSpilledBytes(0));
+    }
+
+    @Test
+    public void testKeepsEverySpilledResultByDefault() throws IOException {
+        try (SpillingResultBuffer buffer = new SpillingResultBuffer(tempDir.resolve("spill"), 4 * 1024)) {
+            for (int i = 0; i < 3000; i++) {
+                buffer.add(result(i));
+            }
+
+            assertTrue(buffer.getSpilledBytes() > 8 * 1024);
+            assertEquals(0, buffer.getDroppedCount());
+            assertEquals(3000, buffer.size());
+            List<RaceResult> seen = new ArrayList<>();
+            assertEquals(0, buffer.forEach(seen::add));
+            assertEquals(3000, seen.size());
+        }
+    }
+
+    @Test
+    public void testInvalidBudget() {
+        assertThrows(IllegalArgumentException.class, () -> new SpillingResultBuffer(tempDir, 0));
+    }
+}
@@ -0,0 +1,147 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TopKCollectorTest {
+
+    @Test
+    public void testKeepsBestElementsInOrder() {
+        TopKCollector<RaceResult> collector = TopKCollector.byRaceTime(3);
+        try (TopKCollector<RaceResult>.Producer producer = collector.newProducer()) {
+            producer.offer(new RaceResult("A", "Monaco", 95.0, "Balanced Strategy"));
+            producer.offer(new RaceResult("B", "Monaco", 91.0, "Balanced Strategy"));
+            producer.offer(new RaceResult("C", "Monaco", 99.0, "Balanced Strategy"));
+            producer.offer(new RaceResult("D", "Monaco", 90.0, "Balanced Strategy"));
+            producer.offer(new RaceResult("E", "Monaco", 93.0, "Balanced Strategy"));
+        }
+
+        List<RaceResult> best = collector.results();
+        assertEquals(3, best.size());
+        assertEquals("D", best.get(0).getCarName());
+        assertEquals("B", best.get(1).getCarName());
+        assertEquals("E", best.get(2).getCarName());
+        assertEquals(5, collector.getOfferedCount());
+    }
+
+    @Test
+    public void testThresholdOnlyTightens() {
+        TopKCollector<Double> collector = new TopKCollector<>(2, (Double d) -> d);
+        assertEquals(Double.POSITIVE_INFINITY, collector.getThreshold());
+
+        TopKCollector<Double>.Producer producer = collector.newProducer();
+        producer.offer(10.0);
+        producer.offer(8.0);
+        assertEquals(10.0, collector.getThreshold(), 0.0);
+        assertFalse(collector.canQualify(10.0));
+        assertTrue(collector.canQualify(9.9));
+
+        producer.offer(5.0);
+        producer.offer(4.0);
+        assertEquals(5.0, collector.getThreshold(), 0.0);
+        assertFalse(producer.offer(6.0));
+    }
+
+    @Test
+    public void testComparatorOnlyCollectorHasNoThreshold() {
+        TopKCollector<String> collector = new TopKCollector<>(2, Comparator.comparing(String::length));
+        try (TopKCollector<String>.Producer producer = collector.newProducer()) {
+            producer.offer("Silverstone");
+            producer.offer("Monza");
+            producer.offer("Spa");
+        }
+
+        assertEquals(List.of("Spa", "Monza"), collector.results());
+        assertEquals(Double.POSITIVE_INFINITY, collector.getThreshold());
+    }
+
+    @Test
+    public void testConcurrentProducersMatchFullSort() throws Exception {
+        int threads = 4;
+        int perThread = 20000;
+        int k = 50;
+        TopKCollector<Double> collector = new TopKCollector<>(k, (Double d) -> d);
+        List<Double> all = new ArrayList<>();
+        List<double[]> inputs = new ArrayList<>();
+        Random random = new Random(42);
+        for (int t = 0; t < threads; t++) {
+            double[] values = new double[perThread];
+            for (int i = 0; i < perThread; i++) {
+                values[i] = random.nextDouble() * 1000;
+                all.add(values[i]);
+            }
+            inputs.add(values);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (double[] values : inputs) {
+                futures.add(executor.submit(() -> {
+                    try (TopKCollector<Double>.Producer producer = collector.newProducer()) {
+                        for (double v : values) {
+                            producer.offer(v);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        all.sort(Comparator.naturalOrder());
+        assertEquals(all.subList(0, k), collector.results());
+        assertEquals((long) threads * perThread, collector.getOfferedCount());
+        assertEquals(all.get(k - 1), collector.getThreshold(), 0.0);
+    }
+
+    @Test
+    public void testTieBreakMakesResultIndependentOfArrivalOrder() {
+        // Many elements share the boundary key; the tie-break decides which are kept
+        List<String> names = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            names.add("car" + (char) ('a' + i % 26) + i);
+        }
+        List<String> expected = new ArrayList<>(names);
+        expected.sort(Comparator.naturalOrder());
+        expected = expected.subList(0, 5);
+
+        Random random = new Random(11);
+        for (int round = 0; round < 20; round++) {
+            Collections.shuffle(names, random);
+            TopKCollector<String> collector = new TopKCollector<>(5, (String name) -> 1.0,
+                    Comparator.naturalOrder());
+            // Spread over producers that publish at different times
+            List<TopKCollector<String>.Producer> producers = new ArrayList<>();
+            for (int p = 0; p < 3; p++) {
+                producers.add(collector.newProducer());
+            }
+            for (int i = 0; i < names.size(); i++) {
+                TopKCollector<String>.Producer producer = producers.get(i % 3);
+                if (producer.canQualify(1.0)) {
+                    producer.offer(names.get(i));
+                }
+            }
+            for (TopKCollector<String>.Producer producer : producers) {
+                producer.close();
+            }
+            assertEquals(expected, collector.results());
+        }
+    }
+
+    @Test
+    public void testInvalidCapacity() {
+        assertThrows(IllegalArgumentException.class, () -> TopKCollector.byRaceTime(0));
+    }
+}
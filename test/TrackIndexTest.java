@@ -0,0 +1,128 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrackIndexTest {
+
+    private static final String[] DIFFICULTIES = {"Easy", "Medium", "Hard"};
+
+    private static List<Track> randomTracks(int count, long seed) {
+        Random random = new Random(seed);
+        List<Track> tracks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            // Rounded so there are many ties on every coordinate
+            double length = 2.0 + random.nextInt(60) / 10.0;
+            int corners = 5 + random.nextInt(21);
+            tracks.add(new Track("Track " + i, length, corners, DIFFICULTIES[random.nextInt(3)], "Smooth"));
+        }
+        return tracks;
+    }
+
+    @Test
+    public void testStandardTracks() {
+        Track monaco = Track.createMonacoTrack();
+        Track monza = Track.createMonzaTrack();
+        Track silverstone = Track.createSilverstoneTrack();
+        TrackIndex index = new TrackIndex(List.of(monaco, monza, silverstone));
+
+        assertEquals(3, index.size());
+        assertEquals(Set.of(monza, silverstone), new HashSet<>(index.findInRange(4.5, 6.0, 10, 18)));
+        assertEquals(List.of(monza), index.findInRange(4.5, 6.0, 10, 17));
+        assertEquals(List.of(monza, monaco), index.findNearest(silverstone, 2));
+        assertEquals(List.of(monza), index.findNearest(silverstone, 5, index.distance(silverstone, monza)));
+        assertEquals(0.0, index.distance(monza, Track.createMonzaTrack()), 0.0);
+        assertArrayEquals(new double[]{5.8, 11, 11 / 5.8, 1}, TrackIndex.coordinates(monza), 1e-12);
+    }
+
+    @Test
+    public void testRangeQueriesMatchLinearScan() {
+        List<Track> tracks = randomTracks(5000, 1);
+        TrackIndex index = new TrackIndex(tracks);
+        Random random = new Random(2);
+
+        for (int q = 0; q < 200; q++) {
+            double[] min = new double[TrackIndex.DIMENSIONS];
+            double[] max = new double[TrackIndex.DIMENSIONS];
+            min[TrackIndex.LENGTH] = 2 + random.nextInt(60) / 10.0;
+            max[TrackIndex.LENGTH] = min[TrackIndex.LENGTH] + random.nextInt(20) / 10.0;
+            min[TrackIndex.CORNERS] = 5 + random.nextInt(20);
+            max[TrackIndex.CORNERS] = min[TrackIndex.CORNERS] + random.nextInt(6);
+            min[TrackIndex.CORNER_DENSITY] = random.nextBoolean() ? Double.NEGATIVE_INFINITY : random.nextDouble() * 5;
+            max[TrackIndex.CORNER_DENSITY] = Double.POSITIVE_INFINITY;
+            min[TrackIndex.DIFFICULTY] = random.nextInt(3);
+            max[TrackIndex.DIFFICULTY] = min[TrackIndex.DIFFICULTY] + random.nextInt(2);
+
+            List<Track> expected = new ArrayList<>();
+            for (Track track : tracks) {
+                double[] point = TrackIndex.coordinates(track);
+                boolean inside = true;
+                for (int d = 0; d < TrackIndex.DIMENSIONS; d++) {
+                    inside &= point[d] >= min[d] && point[d] <= max[d];
+                }
+                if (inside) {
+                    expected.add(track);
+                }
+            }
+            List<Track> found = index.findInRange(min, max);
+            assertEquals(expected.size(), found.size());
+            assertEquals(new HashSet<>(expected), new HashSet<>(found));
+        }
+    }
+
+    @Test
+    public void testNearestNeighboursMatchLinearScan() {
+        List<Track> tracks = randomTracks(3000, 3);
+        TrackIndex index = new TrackIndex(tracks);
+        List<Track> queries = new ArrayList<>(tracks.subList(0, 50));
+        queries.addAll(randomTracks(50, 4));
+
+        for (Track query : queries) {
+            List<Track> expected = new ArrayList<>(tracks);
+            expected.remove(query);
+            expected.sort(Comparator.comparingDouble(t -> index.distance(query, t)));
+            List<Track> found = index.findNearest(query, 10);
+
+            assertEquals(10, found.size());
+            for (int i = 0; i < found.size(); i++) {
+                // Ties may come back in any order, so compare distances
+                assertEquals(index.distance(query, expected.get(i)), index.distance(query, found.get(i)), 1e-12);
+            }
+            assertFalse(found.contains(query), "the query track itself is left out");
+        }
+    }
+
+    @Test
+    public void testEdgeCases() {
+        TrackIndex empty = new TrackIndex(List.of());
+        assertEquals(List.of(), empty.findNearest(Track.createMonzaTrack(), 3));
+        assertEquals(List.of(), empty.findInRange(0, 100, 0, 100));
+
+        TrackIndex index = new TrackIndex(randomTracks(10, 5));
+        assertEquals(10, index.findInRange(0, 100, 0, 100).size());
+        assertEquals(List.of(), index.findInRange(6, 5, 0, 100));
+        assertEquals(List.of(), index.findNearest(Track.createMonzaTrack(), 0));
+        assertEquals(10, index.findNearest(Track.createMonzaTrack(), 50).size());
+
+        assertThrows(IllegalArgumentException.class, () -> new TrackIndex(null));
+        assertThrows(IllegalArgumentException.class, () -> index.findNearest(Track.createMonzaTrack(), -1));
+        assertThrows(IllegalArgumentException.class, () -> index.findNearest(Track.createMonzaTrack(), 1, -1));
+        assertThrows(IllegalArgumentException.class, () -> index.findNearest(null, 1));
+        assertThrows(IllegalArgumentException.class, () -> index.findInRange(new double[2], new double[4]));
+    }
+
+    @Test
+    public void testCatalogIndexIsBuiltOnce() {
+        ComponentCatalog catalog = ComponentCatalog.standard();
+        TrackIndex index = catalog.getTrackIndex();
+
+        assertSame(index, catalog.getTrackIndex());
+        assertEquals(catalog.size(ComponentCatalog.Type.TRACK), index.size());
+    }
+}
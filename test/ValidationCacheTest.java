@@ -0,0 +1,126 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationCacheTest {
+
+    private ValidationCache cache;
+    private Car car;
+    private Track track;
+    private RaceStrategy strategy;
+
+    @BeforeEach
+    public void setUp() {
+        cache = new ValidationCache();
+        car = new Car(1, "Cached", 950.0, Engine.createStandardEngine(),
+                Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+        track = Track.createMonacoTrack();
+        strategy = RaceStrategy.createBalancedStrategy();
+    }
+
+    private static long hits() {
+        return EngineMetrics.CAR_CACHE_HITS.get() + EngineMetrics.TRACK_CACHE_HITS.get()
+                + EngineMetrics.STRATEGY_CACHE_HITS.get();
+    }
+
+    @Test
+    public void testComponentsValidatedOnce() throws Exception {
+        long validationsBefore = EngineMetrics.VALIDATIONS.get();
+        long hitsBefore = hits();
+
+        for (int i = 0; i < 100; i++) {
+            Car copy = new Car(i, "Cached", 950.0, Engine.createStandardEngine(),
+                    Tyre.createMediumTyre(), Tyre.createMediumTyre(), AeroKit.createStandardKit());
+            assertTrue(cache.validateRaceSetup(copy, track, strategy).isValid());
+        }
+
+        // One car, one track, one strategy/track pair, however many equal objects
+        assertEquals(3, EngineMetrics.VALIDATIONS.get() - validationsBefore);
+        assertEquals(297, hits() - hitsBefore);
+        assertEquals(3, cache.size());
+    }
+
+    @Test
+    public void testChangedComponentIsRevalidated() throws Exception {
+        cache.validateCar(car);
+        car.setWeight(2000.0);
+
+        assertThrows(InvalidCarConfigurationException.class, () -> cache.validateCar(car));
+        car.setWeight(950.0);
+        assertTrue(cache.validateCar(car).isValid());
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    public void testCachedFailureIsFreshException() {
+        Track badTrack = new Track("Bad", 0.5, 3, "Extreme", "Smooth");
+        InvalidTrackDataException first = assertThrows(InvalidTrackDataException.class,
+                () -> cache.validateTrack(badTrack));
+        InvalidTrackDataException second = assertThrows(InvalidTrackDataException.class,
+                () -> cache.validateTrack(badTrack));
+
+        assertNotSame(first, second);
+        assertEquals(first.getMessage(), second.getMessage());
+        assertEquals(first.getDetailedMessage(), second.getDetailedMessage());
+    }
+
+    @Test
+    public void testMatchesValidator() {
+        Random random = new Random(43);
+        double[] weights = {300, 950, 1600};
+        int[] powers = {120, 300, 600};
+        double[] lengths = {0.5, 2.0, 7.0};
+        String[] difficulties = {"Easy", "Hard", "Extreme"};
+        String[] fuels = {"Light", "Heavy", "Mega"};
+        int[] stops = {0, 3, 5};
+
+        for (int i = 0; i < 2_000; i++) {
+            Car c = new Car(i, i % 2 == 0 ? "" : "Car", weights[random.nextInt(3)],
+                    new Engine("E", powers[random.nextInt(3)], 1.0, 150),
+                    Tyre.createSoftTyre(), Tyre.createSoftTyre(), AeroKit.createStandardKit());
+            Track t = new Track("T", lengths[random.nextInt(3)], 5 + random.nextInt(3) * 10,
+                    difficulties[random.nextInt(3)], "Asphalt");
+            RaceStrategy s = new RaceStrategy(stops[random.nextInt(3)], "Soft", fuels[random.nextInt(3)], 95.0);
+
+            assertEquals(outcome(() -> Validator.validateRaceSetup(c, t, s)),
+                    outcome(() -> cache.validateRaceSetup(c, t, s)), "Setup " + i);
+        }
+        assertTrue(cache.size() < 200);
+    }
+
+    private interface Validation {
+        ValidationResult run() throws Exception;
+    }
+
+    private static String outcome(Validation validation) {
+        try {
+            ValidationResult result = validation.run();
+            return result.getMessage() + " " + result.getWarnings();
+        } catch (Exception e) {
+            return e.getClass().getName() + ": " + e.getMessage();
+        }
+    }
+
+    @Test
+    public void testNullComponentsAreNotCached() {
+        assertThrows(InvalidCarConfigurationException.class, () -> cache.validateCar(null));
+        assertThrows(InvalidStrategyException.class, () -> cache.validateStrategy(strategy, null));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testClearedWhenFull() throws Exception {
+        ValidationCache small = new ValidationCache(2);
+        for (int weight = 900; weight < 905; weight++) {
+            car.setWeight(weight);
+            small.validateCar(car);
+        }
+        assertTrue(small.size() <= 2);
+        small.clear();
+        assertEquals(0, small.size());
+        assertThrows(IllegalArgumentException.class, () -> new ValidationCache(0));
+    }
+}
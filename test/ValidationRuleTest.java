@@ -0,0 +1,56 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ValidationRuleTest {
+
+    @Test
+    public void testBitsAreDistinct() {
+        long all = 0;
+        for (ValidationRule rule : ValidationRule.values()) {
+            assertEquals(0, all & rule.bit(), rule + " shares a bit");
+            all |= rule.bit();
+        }
+        assertEquals(all, ValidationRule.ERRORS | ValidationRule.WARNINGS);
+        assertEquals(0, ValidationRule.ERRORS & ValidationRule.WARNINGS);
+    }
+
+    @Test
+    public void testComponentMasks() {
+        assertTrue(ValidationRule.ENGINE_MISSING.isSetIn(ValidationRule.CAR_RULES));
+        assertTrue(ValidationRule.CORNERS_TOO_FEW.isSetIn(ValidationRule.TRACK_RULES));
+        assertTrue(ValidationRule.LIGHT_FUEL_WITHOUT_STOPS.isSetIn(ValidationRule.STRATEGY_RULES));
+        assertFalse(ValidationRule.LOW_POWER_ON_HARD_TRACK.isSetIn(
+                ValidationRule.CAR_RULES | ValidationRule.TRACK_RULES | ValidationRule.STRATEGY_RULES));
+    }
+
+    @Test
+    public void testHasErrors() {
+        assertFalse(ValidationRule.hasErrors(0));
+        assertFalse(ValidationRule.hasErrors(ValidationRule.CAR_NAME_MISSING.bit()));
+        assertTrue(ValidationRule.hasErrors(ValidationRule.CAR_NAME_MISSING.bit() | ValidationRule.TRACK_NULL.bit()));
+    }
+
+    @Test
+    public void testRulesInRoundTrip() {
+        long mask = ValidationRule.FUEL_STRATEGY_INVALID.bit() | ValidationRule.CORNER_DENSITY_LOW.bit();
+        assertEquals(EnumSet.of(ValidationRule.CORNER_DENSITY_LOW, ValidationRule.FUEL_STRATEGY_INVALID),
+                ValidationRule.rulesIn(mask));
+        assertTrue(ValidationRule.rulesIn(0).isEmpty());
+    }
+
+    @Test
+    public void testMessagesUseInputValues() {
+        Track track = new Track("Tiny", 0.5, 30, "Medium", "Smooth");
+        RaceStrategy strategy = new RaceStrategy(6, "Soft", "Mega", 95.0);
+
+        assertEquals("Corner count (30) exceeds maximum (25)",
+                ValidationRule.CORNERS_TOO_MANY.message(null, track, null));
+        assertEquals("Pit stop count (6) exceeds maximum (4)",
+                ValidationRule.PIT_STOPS_TOO_MANY.message(null, track, strategy));
+        assertEquals("Invalid fuel strategy 'Mega'. Valid values: [Light, Medium, Heavy]",
+                ValidationRule.FUEL_STRATEGY_INVALID.message(null, track, strategy));
+    }
+}
@@ -3,6 +3,9 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.util.EnumSet;
+import java.util.List;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class ValidatorTest {
@@ -366,4 +369,58 @@ public class ValidatorTest {
         assertTrue(rec.contains("short tracks"));
         assertTrue(rec.contains("High-corner tracks"));
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testScreeningValidSetup() {
+        assertEquals(0, Validator.screenCar(validCar));
+        assertEquals(0, Validator.screenTrack(validTrack) & ValidationRule.ERRORS);
+        assertFalse(ValidationRule.hasErrors(Validator.screenRaceSetup(validCar, validTrack, validStrategy)));
+    }
+
+    @Test
+    public void testScreeningReportsEveryViolation() {
+        Car car = new Car(1, "", 300.0, null, Tyre.createMediumTyre(), null, AeroKit.createStandardKit());
+        long violations = Validator.screenCar(car);
+
+        assertEquals(EnumSet.of(ValidationRule.ENGINE_MISSING, ValidationRule.REAR_TYRES_MISSING,
+                ValidationRule.CAR_WEIGHT_TOO_LOW, ValidationRule.CAR_NAME_MISSING),
+                ValidationRule.rulesIn(violations));
+        assertEquals(List.of("Engine is not assigned", "Rear tyres are not assigned",
+                "Car weight (300.0 kg) is below minimum (500.0 kg)"),
+                ValidationRule.describe(violations & ValidationRule.ERRORS, car, null, null));
+    }
+
+    @Test
+    public void testScreeningNullInputs() {
+        assertEquals(ValidationRule.CAR_NULL.bit(), Validator.screenCar(null));
+        assertEquals(ValidationRule.TRACK_NULL.bit(), Validator.screenTrack(null));
+        assertEquals(ValidationRule.STRATEGY_NULL.bit(), Validator.screenStrategy(null, validTrack));
+        assertEquals(ValidationRule.STRATEGY_TRACK_NULL.bit(), Validator.screenStrategy(validStrategy, null));
+    }
+
+    @Test
+    public void testThrowIfInvalidMatchesValidateRaceSetup() {
+        Track badTrack = new Track("Bad", 0.5, 3, "Extreme", "Smooth");
+        RaceStrategy badStrategy = new RaceStrategy(0, "Soft", "Light", 95.0);
+        long violations = Validator.screenRaceSetup(validCar, badTrack, badStrategy);
+
+        InvalidTrackDataException screened = assertThrows(InvalidTrackDataException.class,
+                () -> Validator.throwIfInvalid(violations, validCar, badTrack, badStrategy));
+        InvalidTrackDataException validated = assertThrows(InvalidTrackDataException.class,
+                () -> Validator.validateRaceSetup(validCar, badTrack, badStrategy));
+        assertEquals(validated.getMessage(), screened.getMessage());
+        assertTrue(ValidationRule.LIGHT_FUEL_WITHOUT_STOPS.isSetIn(violations));
+    }
+
+    @Test
+    public void testThrowIfInvalidIgnoresWarnings() throws Exception {
+        Track hardTrack = new Track("Hard", 7.0, 12, "Hard", "Smooth");
+        RaceStrategy noStops = new RaceStrategy(0, "Hard", "Heavy", 95.0);
+        long violations = Validator.screenRaceSetup(validCar, hardTrack, noStops);
+
+        assertTrue(ValidationRule.HARD_TRACK_WITHOUT_STOPS.isSetIn(violations));
+        Validator.throwIfInvalid(violations, validCar, hardTrack, noStops);
+        assertEquals(Validator.validateRaceSetup(validCar, hardTrack, noStops).getWarnings(),
+                ValidationRule.describe(violations, validCar, hardTrack, noStops));
+    }
+}